@@ -0,0 +1,41 @@
+/*
+    Migration V001 - covering indexes for the monthly pay reports
+
+    The report queries now filter with a half-open range
+        pay_date >= '2025-03-01' AND pay_date < '2025-04-01'
+    instead of YEAR(pay_date) = ? AND MONTH(pay_date) = ?, so MySQL can
+    range-scan an index on pay_date.
+
+    The composite index below also carries empid/gross/taxes/net, so the
+    monthly reports are answered from the index alone (no row lookups).
+    It starts with pay_date, which makes the old idx_pay_date redundant.
+
+    Run once, after enhanced_schema.sql. It is NOT safe to re-run: the
+    CREATE INDEX statements and the schema_version insert fail the second
+    time. Check first:
+        SELECT * FROM schema_version WHERE version = 1;
+*/
+
+USE employeeData;
+
+-- simple version table so we know which migrations a database has
+CREATE TABLE IF NOT EXISTS schema_version (
+  version INT PRIMARY KEY,
+  description VARCHAR(200) NOT NULL,
+  applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- pay_statement (enhanced schema)
+CREATE INDEX idx_pay_date_cover ON pay_statement(pay_date, empid, gross, taxes, net);
+DROP INDEX idx_pay_date ON pay_statement;
+
+-- hires-in-range report
+CREATE INDEX idx_emp_hire_date ON employees(hire_date);
+
+/*
+    The dBeaver schema (pay_statements with gross_pay/net_pay, employees.HireDate)
+    gets the same two indexes from V010.
+*/
+
+INSERT INTO schema_version (version, description)
+VALUES (1, 'Covering pay_date indexes for sargable month reports');
@@ -0,0 +1,33 @@
+/*
+    Migration V002 - server-side login sessions
+
+    A successful login now creates a session row. The app hands the
+    caller a random token; only its SHA-256 hash is stored here, so a
+    copy of this table can't be used to log in.
+
+    The row also carries the user's id / name / role / empid, so any app
+    instance can validate a token with this one primary-key lookup
+    instead of re-reading user_account + role.
+
+    Expired rows are cleaned up by the app (SessionService) every few
+    minutes; idx_session_expires keeps that delete cheap.
+*/
+
+USE employeeData;
+
+CREATE TABLE IF NOT EXISTS user_session (
+  token_hash CHAR(64) PRIMARY KEY,
+  user_id INT NOT NULL,
+  username VARCHAR(60) NOT NULL,
+  role_name VARCHAR(40) NOT NULL,
+  empid INT NULL,
+  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  expires_at TIMESTAMP NOT NULL,
+  FOREIGN KEY (user_id) REFERENCES user_account(user_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_session_expires ON user_session(expires_at);
+CREATE INDEX idx_session_user ON user_session(user_id);
+
+INSERT INTO schema_version (version, description)
+VALUES (2, 'user_session table for token-based sessions');
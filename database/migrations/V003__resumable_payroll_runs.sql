@@ -0,0 +1,57 @@
+/*
+    Migration V003 - resumable payroll runs
+
+    1. At most one pay statement per employee per pay date.
+       Payroll runs and the pay history backfill insert with
+       ON DUPLICATE KEY UPDATE (a no-op), so running the same pay date
+       twice - or resuming one that died halfway - can't pay anyone twice.
+
+       Any duplicates already in the table have to go first; the DELETE
+       keeps the oldest row of each (empid, pay_date). Check what it would
+       remove before running this on real data:
+
+         SELECT empid, pay_date, COUNT(*) FROM pay_statement
+         GROUP BY empid, pay_date HAVING COUNT(*) > 1;
+
+    2. payroll_run is the run journal. A run writes its statements in
+       empid order, chunk by chunk; every chunk commits together with the
+       run's checkpoint (last_empid = every active employee up to here is
+       written). A run that died is picked up again from last_empid by the
+       next run for the same pay date.
+*/
+
+USE employeeData;
+
+DELETE newer FROM pay_statement newer
+JOIN pay_statement older
+  ON older.empid = newer.empid AND older.pay_date = newer.pay_date AND older.id < newer.id;
+
+ALTER TABLE pay_statement ADD UNIQUE KEY uq_pay_statement_emp_date (empid, pay_date);
+
+/*
+    dBeaver schema (pay_statements, used by the pay history backfill) -
+    applied by V007, which checks that the table is there first:
+
+    DELETE newer FROM pay_statements newer
+    JOIN pay_statements older
+      ON older.empid = newer.empid AND older.pay_date = newer.pay_date AND older.pay_id < newer.pay_id;
+    ALTER TABLE pay_statements ADD UNIQUE KEY uq_pay_statements_emp_date (empid, pay_date);
+*/
+
+CREATE TABLE IF NOT EXISTS payroll_run (
+  run_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  pay_date DATE NOT NULL,
+  status ENUM('RUNNING','COMPLETED','FAILED') NOT NULL,
+  last_empid INT NOT NULL DEFAULT 0,
+  statements_written INT NOT NULL DEFAULT 0,
+  rules VARCHAR(255) NULL,
+  started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  finished_at TIMESTAMP NULL,
+  message VARCHAR(255) NULL
+);
+
+CREATE INDEX idx_payroll_run_date ON payroll_run(pay_date, status);
+
+INSERT INTO schema_version (version, description)
+VALUES (3, 'Unique (empid, pay_date) pay statements and payroll_run journal');
@@ -0,0 +1,31 @@
+/*
+    Migration V004 - employee change tracking
+
+    employees.updated_at moves whenever a row actually changes (salary
+    edits from Salary Tools, band raises, any employee update), so a
+    payroll correction run can ask for "employees changed since the last
+    run" through idx_employees_updated_at instead of recomputing everyone.
+    Existing rows start at the migration time, i.e. "not changed since".
+
+    payroll_run.inputs_as_of is the database time a run started reading
+    salaries - the watermark the next correction run compares against.
+    kind tells full runs from correction runs (only full runs are resumed).
+
+    Same ALTERs work for the dBeaver schema (employees.Salary), nothing
+    there is column-specific.
+*/
+
+USE employeeData;
+
+ALTER TABLE employees
+  ADD COLUMN updated_at TIMESTAMP(3) NOT NULL
+      DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+
+CREATE INDEX idx_employees_updated_at ON employees(updated_at);
+
+ALTER TABLE payroll_run
+  ADD COLUMN kind ENUM('FULL','CHANGED') NOT NULL DEFAULT 'FULL' AFTER pay_date,
+  ADD COLUMN inputs_as_of TIMESTAMP(3) NULL AFTER rules;
+
+INSERT INTO schema_version (version, description)
+VALUES (4, 'employees.updated_at change tracking and payroll_run watermark');
@@ -0,0 +1,30 @@
+/*
+    Migration V005 - chunked salary band updates
+
+    salary_update_job journals a bulk raise (SalaryBulkUpdateJob). The band
+    is walked in empid order, a chunk at a time; each chunk's UPDATE and the
+    job's watermark (last_empid) commit in the same short transaction, so
+    row locks are only ever held on one chunk, and a job that died is
+    resumed after last_empid without raising anyone twice.
+*/
+
+USE employeeData;
+
+CREATE TABLE IF NOT EXISTS salary_update_job (
+  job_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+  min_salary DECIMAL(12,2) NOT NULL,
+  max_salary DECIMAL(12,2) NOT NULL,
+  percent DECIMAL(12,6) NOT NULL,
+  status ENUM('RUNNING','COMPLETED','FAILED') NOT NULL,
+  last_empid INT NOT NULL DEFAULT 0,
+  rows_updated INT NOT NULL DEFAULT 0,
+  started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  finished_at TIMESTAMP NULL,
+  message VARCHAR(255) NULL
+);
+
+CREATE INDEX idx_salary_update_job_status ON salary_update_job(status);
+
+INSERT INTO schema_version (version, description)
+VALUES (5, 'salary_update_job journal for chunked band raises');
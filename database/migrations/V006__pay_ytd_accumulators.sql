@@ -0,0 +1,109 @@
+/*
+    Migration V006 - year-to-date accumulators
+
+    pay_ytd keeps one running total per employee per year, so a YTD figure
+    (year-end summary, W-2 style totals, "earned this year") is a primary
+    key lookup instead of summing the year's pay_statement rows.
+
+    The totals are maintained by triggers on pay_statement, in the same
+    transaction as the statement write, whatever does the write: single
+    saves, payroll run batches, correction runs (ON DUPLICATE KEY UPDATE
+    fires the update trigger), edits, deletes, or someone in Workbench.
+        insert  -> add to the statement's year
+        update  -> take the old amounts off the old year, add the new ones
+                   to the new year (the pay date may move across a year)
+        delete  -> take the amounts off
+    Rows are kept at zero rather than deleted, statements counts how many
+    statements the totals cover.
+
+    The INSERT ... SELECT at the end fills pay_ytd from the statements that
+    are already there. PayYtdDAO.rebuildYear() does the same for one year
+    if the totals ever need to be recomputed.
+
+    Run in the mysql client or Workbench (uses DELIMITER).
+
+    This migration puts the triggers on the enhanced schema's pay_statement;
+    V011 adds the same ones to the dBeaver schema's pay_statements, which
+    the employee dashboard's "Earned in" line reads through pay_ytd.
+
+    PayYtdTriggerTest checks the triggers against a database that has
+    this migration: insert, correction upsert, a pay date moved into the
+    next year and a delete, all in a transaction it rolls back.
+*/
+
+USE employeeData;
+
+CREATE TABLE IF NOT EXISTS pay_ytd (
+  empid INT NOT NULL,
+  pay_year SMALLINT NOT NULL,
+  gross DECIMAL(14,2) NOT NULL DEFAULT 0,
+  taxes DECIMAL(14,2) NOT NULL DEFAULT 0,
+  net DECIMAL(14,2) NOT NULL DEFAULT 0,
+  statements INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (empid, pay_year),
+  INDEX idx_pay_ytd_year (pay_year)
+);
+
+DROP TRIGGER IF EXISTS trg_pay_statement_ytd_insert;
+DROP TRIGGER IF EXISTS trg_pay_statement_ytd_update;
+DROP TRIGGER IF EXISTS trg_pay_statement_ytd_delete;
+
+DELIMITER $$
+
+CREATE TRIGGER trg_pay_statement_ytd_insert AFTER INSERT ON pay_statement
+FOR EACH ROW
+BEGIN
+  INSERT INTO pay_ytd (empid, pay_year, gross, taxes, net, statements)
+  VALUES (NEW.empid, YEAR(NEW.pay_date), COALESCE(NEW.gross, 0), COALESCE(NEW.taxes, 0), COALESCE(NEW.net, 0), 1)
+  ON DUPLICATE KEY UPDATE
+    gross = gross + COALESCE(NEW.gross, 0),
+    taxes = taxes + COALESCE(NEW.taxes, 0),
+    net = net + COALESCE(NEW.net, 0),
+    statements = statements + 1;
+END$$
+
+CREATE TRIGGER trg_pay_statement_ytd_update AFTER UPDATE ON pay_statement
+FOR EACH ROW
+BEGIN
+  IF NOT (OLD.empid <=> NEW.empid AND OLD.pay_date <=> NEW.pay_date AND OLD.gross <=> NEW.gross
+          AND OLD.taxes <=> NEW.taxes AND OLD.net <=> NEW.net) THEN
+    UPDATE pay_ytd
+    SET gross = gross - COALESCE(OLD.gross, 0),
+        taxes = taxes - COALESCE(OLD.taxes, 0),
+        net = net - COALESCE(OLD.net, 0),
+        statements = statements - 1
+    WHERE empid = OLD.empid AND pay_year = YEAR(OLD.pay_date);
+
+    INSERT INTO pay_ytd (empid, pay_year, gross, taxes, net, statements)
+    VALUES (NEW.empid, YEAR(NEW.pay_date), COALESCE(NEW.gross, 0), COALESCE(NEW.taxes, 0), COALESCE(NEW.net, 0), 1)
+    ON DUPLICATE KEY UPDATE
+      gross = gross + COALESCE(NEW.gross, 0),
+      taxes = taxes + COALESCE(NEW.taxes, 0),
+      net = net + COALESCE(NEW.net, 0),
+      statements = statements + 1;
+  END IF;
+END$$
+
+CREATE TRIGGER trg_pay_statement_ytd_delete AFTER DELETE ON pay_statement
+FOR EACH ROW
+BEGIN
+  UPDATE pay_ytd
+  SET gross = gross - COALESCE(OLD.gross, 0),
+      taxes = taxes - COALESCE(OLD.taxes, 0),
+      net = net - COALESCE(OLD.net, 0),
+      statements = statements - 1
+  WHERE empid = OLD.empid AND pay_year = YEAR(OLD.pay_date);
+END$$
+
+DELIMITER ;
+
+-- totals for the statements already on file
+INSERT INTO pay_ytd (empid, pay_year, gross, taxes, net, statements)
+SELECT empid, YEAR(pay_date), COALESCE(SUM(gross), 0), COALESCE(SUM(taxes), 0), COALESCE(SUM(net), 0), COUNT(*)
+FROM pay_statement
+GROUP BY empid, YEAR(pay_date)
+ON DUPLICATE KEY UPDATE
+  gross = VALUES(gross), taxes = VALUES(taxes), net = VALUES(net), statements = VALUES(statements);
+
+INSERT INTO schema_version (version, description)
+VALUES (6, 'pay_ytd year-to-date accumulators maintained by pay_statement triggers');
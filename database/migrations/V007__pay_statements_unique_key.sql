@@ -0,0 +1,50 @@
+/*
+    Migration V007 - one pay_statements row per employee per pay date
+
+    V003 put the (empid, pay_date) unique key on pay_statement, but only
+    described it for the dBeaver schema's pay_statements. The pay history
+    backfill (PayStatementDAO.generateHistory) inserts there with
+    ON DUPLICATE KEY UPDATE, which only skips a month that showed up in
+    between when the key exists. This applies it.
+
+    Both steps only run if this database has a pay_statements table and the
+    key isn't there yet (checked in information_schema), so the migration is
+    a no-op on the enhanced schema and safe to run twice. The DELETE keeps
+    the oldest row of each (empid, pay_date); check what it would remove
+    before running this on real data:
+
+      SELECT empid, pay_date, COUNT(*) FROM pay_statements
+      GROUP BY empid, pay_date HAVING COUNT(*) > 1;
+
+    The app's dBeaver database may have another name (see db.url in
+    database.properties) - change the USE line to match.
+*/
+
+USE employeeData;
+
+SET @needs_key = (
+  SELECT COUNT(*) FROM information_schema.tables t
+  WHERE t.table_schema = DATABASE() AND t.table_name = 'pay_statements'
+    AND NOT EXISTS (
+      SELECT 1 FROM information_schema.statistics s
+      WHERE s.table_schema = DATABASE() AND s.table_name = 'pay_statements'
+        AND s.index_name = 'uq_pay_statements_emp_date'));
+
+SET @sql = IF(@needs_key > 0,
+  'DELETE newer FROM pay_statements newer
+   JOIN pay_statements older
+     ON older.empid = newer.empid AND older.pay_date = newer.pay_date AND older.pay_id < newer.pay_id',
+  'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @sql = IF(@needs_key > 0,
+  'ALTER TABLE pay_statements ADD UNIQUE KEY uq_pay_statements_emp_date (empid, pay_date)',
+  'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+INSERT INTO schema_version (version, description)
+VALUES (7, 'Unique (empid, pay_date) on the dBeaver pay_statements table');
@@ -0,0 +1,32 @@
+/*
+    Migration V008 - address / city change tracking
+
+    A payroll correction run (PayrollRunEngine.runChanged) picks employees
+    changed since the pay date's last run, but state income tax comes from
+    address.city_id -> city.state_id, and edits there never moved
+    employees.updated_at (V004). An employee who moved to another state
+    kept the old state's withholding until the next full run.
+
+    address and city get the same updated_at column, and the correction
+    query takes employees whose employees, address or city row moved past
+    the watermark (each through its own index). A new address row counts
+    as a change too (updated_at defaults to the insert time). Deleting an
+    address is not seen - run the full payroll again for that.
+*/
+
+USE employeeData;
+
+ALTER TABLE address
+  ADD COLUMN updated_at TIMESTAMP(3) NOT NULL
+      DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+
+CREATE INDEX idx_address_updated_at ON address(updated_at);
+
+ALTER TABLE city
+  ADD COLUMN updated_at TIMESTAMP(3) NOT NULL
+      DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3);
+
+CREATE INDEX idx_city_updated_at ON city(updated_at);
+
+INSERT INTO schema_version (version, description)
+VALUES (8, 'address.updated_at / city.updated_at change tracking for correction runs');
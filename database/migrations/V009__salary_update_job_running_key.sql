@@ -0,0 +1,38 @@
+/*
+    Migration V009 - one RUNNING salary_update_job per raise
+
+    SalaryBulkUpdateJob looks for an unfinished job of the same raise
+    (band + percent) and only then starts one, so two runs of the same
+    raise started together could both find nothing and both start - and
+    raise the band twice.
+
+    running_raise is the raise for a RUNNING job and NULL otherwise, and
+    is unique, so the second INSERT (or resume) of a raise that is already
+    running fails and SalaryUpdateJobDAO.start() reports ALREADY_RUNNING.
+    Finished and failed jobs don't count (NULLs never collide).
+
+    Should there already be several RUNNING jobs of one raise, all but the
+    newest are marked FAILED first; check before running this on real data:
+
+      SELECT min_salary, max_salary, percent, COUNT(*) FROM salary_update_job
+      WHERE status = 'RUNNING'
+      GROUP BY min_salary, max_salary, percent HAVING COUNT(*) > 1;
+*/
+
+USE employeeData;
+
+UPDATE salary_update_job older
+JOIN salary_update_job newer
+  ON newer.min_salary = older.min_salary AND newer.max_salary = older.max_salary
+ AND newer.percent = older.percent AND newer.job_id > older.job_id
+SET older.status = 'FAILED', older.message = 'superseded by a newer running job (V009)',
+    older.finished_at = CURRENT_TIMESTAMP
+WHERE older.status = 'RUNNING' AND newer.status = 'RUNNING';
+
+ALTER TABLE salary_update_job
+  ADD COLUMN running_raise VARCHAR(64)
+      AS (IF(status = 'RUNNING', CONCAT(min_salary, '/', max_salary, '/', percent), NULL)) STORED,
+  ADD UNIQUE KEY uq_salary_update_job_running (running_raise);
+
+INSERT INTO schema_version (version, description)
+VALUES (9, 'Unique key on RUNNING salary_update_job rows (one running job per raise)');
@@ -0,0 +1,55 @@
+/*
+    Migration V010 - report indexes on the dBeaver schema
+
+    V001 only indexed the enhanced schema's pay_statement and left the
+    dBeaver versions in a comment, but every month report (ReportDAO,
+    the Reports screen) and the trend reports read pay_statements. This
+    applies them:
+
+      pay_statements(pay_date, empid, gross_pay, net_pay)
+          month ranges answered from the index alone
+      employees(HireDate)
+          hires-in-range report
+
+    Each one only runs if its table/column is there and the index isn't
+    yet (checked in information_schema), so the migration is a no-op on
+    the enhanced schema and safe to run twice.
+
+    The app's dBeaver database may have another name (see db.url in
+    database.properties) - change the USE line to match.
+*/
+
+USE employeeData;
+
+SET @needs_index = (
+  SELECT COUNT(*) FROM information_schema.tables t
+  WHERE t.table_schema = DATABASE() AND t.table_name = 'pay_statements'
+    AND NOT EXISTS (
+      SELECT 1 FROM information_schema.statistics s
+      WHERE s.table_schema = DATABASE() AND s.table_name = 'pay_statements'
+        AND s.index_name = 'idx_pay_statements_date_cover'));
+
+SET @sql = IF(@needs_index > 0,
+  'CREATE INDEX idx_pay_statements_date_cover ON pay_statements(pay_date, empid, gross_pay, net_pay)',
+  'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @needs_index = (
+  SELECT COUNT(*) FROM information_schema.columns c
+  WHERE c.table_schema = DATABASE() AND c.table_name = 'employees' AND c.column_name = 'HireDate'
+    AND NOT EXISTS (
+      SELECT 1 FROM information_schema.statistics s
+      WHERE s.table_schema = DATABASE() AND s.table_name = 'employees'
+        AND s.index_name = 'idx_emp_hire_date'));
+
+SET @sql = IF(@needs_index > 0,
+  'CREATE INDEX idx_emp_hire_date ON employees(HireDate)',
+  'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+INSERT INTO schema_version (version, description)
+VALUES (10, 'pay_date covering index on pay_statements, HireDate index (dBeaver schema)');
@@ -0,0 +1,108 @@
+/*
+    Migration V011 - year-to-date accumulators for the dBeaver schema
+
+    V006 keeps pay_ytd with triggers on the enhanced schema's pay_statement.
+    The app's employee dashboard, pay history, pay history backfill and
+    month reports all use the dBeaver schema's pay_statements, so without
+    this its "Earned in <year>" line had nothing to read. These are the same
+    three triggers on pay_statements:
+        insert  -> add to the statement's year
+        update  -> take the old amounts off the old year, add the new ones
+                   to the new year (the pay date may move across a year)
+        delete  -> take the amounts off
+    pay_statements has no taxes column; taxes = gross_pay - net_pay.
+
+    The INSERT ... SELECT at the end fills pay_ytd from the statements that
+    are already there. PayYtdDAO.rebuildYear() does the same for one year.
+
+    Run in the mysql client or Workbench (uses DELIMITER), on the database
+    that has pay_statements - the app's dBeaver database may have another
+    name (see db.url in database.properties), change the USE line to match.
+    CREATE TRIGGER fails on a database without pay_statements, so this
+    can't be applied to the enhanced schema by mistake. A database with
+    both tables gets triggers on both, so pay_ytd totals both; the backfill
+    below only counts pay_statements, so run PayYtdDAO.rebuildYear() for
+    each year there afterwards.
+
+    PayYtdTriggerTest checks these triggers too when pay_statements is there.
+*/
+
+USE employeeData;
+
+CREATE TABLE IF NOT EXISTS pay_ytd (
+  empid INT NOT NULL,
+  pay_year SMALLINT NOT NULL,
+  gross DECIMAL(14,2) NOT NULL DEFAULT 0,
+  taxes DECIMAL(14,2) NOT NULL DEFAULT 0,
+  net DECIMAL(14,2) NOT NULL DEFAULT 0,
+  statements INT NOT NULL DEFAULT 0,
+  PRIMARY KEY (empid, pay_year),
+  INDEX idx_pay_ytd_year (pay_year)
+);
+
+DROP TRIGGER IF EXISTS trg_pay_statements_ytd_insert;
+DROP TRIGGER IF EXISTS trg_pay_statements_ytd_update;
+DROP TRIGGER IF EXISTS trg_pay_statements_ytd_delete;
+
+DELIMITER $$
+
+CREATE TRIGGER trg_pay_statements_ytd_insert AFTER INSERT ON pay_statements
+FOR EACH ROW
+BEGIN
+  INSERT INTO pay_ytd (empid, pay_year, gross, taxes, net, statements)
+  VALUES (NEW.empid, YEAR(NEW.pay_date), COALESCE(NEW.gross_pay, 0),
+          COALESCE(NEW.gross_pay, 0) - COALESCE(NEW.net_pay, 0), COALESCE(NEW.net_pay, 0), 1)
+  ON DUPLICATE KEY UPDATE
+    gross = gross + COALESCE(NEW.gross_pay, 0),
+    taxes = taxes + COALESCE(NEW.gross_pay, 0) - COALESCE(NEW.net_pay, 0),
+    net = net + COALESCE(NEW.net_pay, 0),
+    statements = statements + 1;
+END$$
+
+CREATE TRIGGER trg_pay_statements_ytd_update AFTER UPDATE ON pay_statements
+FOR EACH ROW
+BEGIN
+  IF NOT (OLD.empid <=> NEW.empid AND OLD.pay_date <=> NEW.pay_date
+          AND OLD.gross_pay <=> NEW.gross_pay AND OLD.net_pay <=> NEW.net_pay) THEN
+    UPDATE pay_ytd
+    SET gross = gross - COALESCE(OLD.gross_pay, 0),
+        taxes = taxes - (COALESCE(OLD.gross_pay, 0) - COALESCE(OLD.net_pay, 0)),
+        net = net - COALESCE(OLD.net_pay, 0),
+        statements = statements - 1
+    WHERE empid = OLD.empid AND pay_year = YEAR(OLD.pay_date);
+
+    INSERT INTO pay_ytd (empid, pay_year, gross, taxes, net, statements)
+    VALUES (NEW.empid, YEAR(NEW.pay_date), COALESCE(NEW.gross_pay, 0),
+            COALESCE(NEW.gross_pay, 0) - COALESCE(NEW.net_pay, 0), COALESCE(NEW.net_pay, 0), 1)
+    ON DUPLICATE KEY UPDATE
+      gross = gross + COALESCE(NEW.gross_pay, 0),
+      taxes = taxes + COALESCE(NEW.gross_pay, 0) - COALESCE(NEW.net_pay, 0),
+      net = net + COALESCE(NEW.net_pay, 0),
+      statements = statements + 1;
+  END IF;
+END$$
+
+CREATE TRIGGER trg_pay_statements_ytd_delete AFTER DELETE ON pay_statements
+FOR EACH ROW
+BEGIN
+  UPDATE pay_ytd
+  SET gross = gross - COALESCE(OLD.gross_pay, 0),
+      taxes = taxes - (COALESCE(OLD.gross_pay, 0) - COALESCE(OLD.net_pay, 0)),
+      net = net - COALESCE(OLD.net_pay, 0),
+      statements = statements - 1
+  WHERE empid = OLD.empid AND pay_year = YEAR(OLD.pay_date);
+END$$
+
+DELIMITER ;
+
+-- totals for the statements already on file
+INSERT INTO pay_ytd (empid, pay_year, gross, taxes, net, statements)
+SELECT empid, YEAR(pay_date), COALESCE(SUM(gross_pay), 0),
+       COALESCE(SUM(gross_pay), 0) - COALESCE(SUM(net_pay), 0), COALESCE(SUM(net_pay), 0), COUNT(*)
+FROM pay_statements
+GROUP BY empid, YEAR(pay_date)
+ON DUPLICATE KEY UPDATE
+  gross = VALUES(gross), taxes = VALUES(taxes), net = VALUES(net), statements = VALUES(statements);
+
+INSERT INTO schema_version (version, description)
+VALUES (11, 'pay_ytd triggers on pay_statements (dBeaver schema)');
@@ -0,0 +1,42 @@
+/*
+    Migration V012 - pay_statements change tracking (dBeaver schema)
+
+    Salary Tools and employee edits write employees.Salary, and the pay
+    history (PayStatementDAO.generateHistory) writes pay_statements from
+    it - but only for months that have no statement yet, so a raise never
+    reached the month already on file. "Recompute Changed" corrects that
+    month for the employees edited since their statement was written
+    (PayStatementDAO.recomputeChanged):
+
+      employees.updated_at (V004) > pay_statements.updated_at
+
+    pay_statements.updated_at is that per-statement watermark. It moves on
+    every write, and existing rows start at the migration time, i.e.
+    "written after every edit so far". pay_date is the first column of
+    idx_pay_statements_date_cover (V010), so one month's statements are
+    found through the index.
+
+    Only runs if pay_statements is there and has no updated_at yet, so the
+    migration is a no-op on the enhanced schema and safe to run twice.
+    Needs V004 (employees.updated_at) for the recompute itself.
+*/
+
+USE employeeData;
+
+SET @needs_column = (
+  SELECT COUNT(*) FROM information_schema.tables t
+  WHERE t.table_schema = DATABASE() AND t.table_name = 'pay_statements'
+    AND NOT EXISTS (
+      SELECT 1 FROM information_schema.columns c
+      WHERE c.table_schema = DATABASE() AND c.table_name = 'pay_statements'
+        AND c.column_name = 'updated_at'));
+
+SET @sql = IF(@needs_column > 0,
+  'ALTER TABLE pay_statements ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)',
+  'DO 0');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+INSERT INTO schema_version (version, description)
+VALUES (12, 'pay_statements.updated_at watermark for Recompute Changed (dBeaver schema)');
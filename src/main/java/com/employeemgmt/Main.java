@@ -1,7 +1,16 @@
 package com.employeemgmt;
 
+import com.employeemgmt.dao.RoleCache;
+import com.employeemgmt.services.PayStubRenderer;
+import com.employeemgmt.services.PayStubTemplate;
+import com.employeemgmt.services.PayrollRunEngine;
+import com.employeemgmt.services.ReportScheduler;
+import com.employeemgmt.services.SalaryBulkUpdateJob;
 import com.employeemgmt.ui.console.ConsoleApp;
 import com.employeemgmt.ui.fx.JavaFXUI;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import javafx.application.Application;
 
 /*
@@ -10,12 +19,57 @@ import javafx.application.Application;
    Main launcher for the EMS project.
 
    - If you run with arg "console", it starts the text-based UI.
+   - If you run with arg "precompute-reports", it writes last month's
+     report snapshots and exits (handy for a nightly cron job).
+   - "run-payroll [yyyy-mm-dd] [--dry-run]" runs payroll for every active
+     employee (default pay date = first of this month) and exits; a run
+     that died halfway is resumed. With --changed it only recomputes the
+     employees edited since that pay date's last run. It exits with
+     status 1 without writing anything if the tax brackets can't be loaded.
+   - "raise-salaries <percent> <min> <max>" raises a salary band chunk by
+     chunk with progress output; run it again to resume if it was cut off.
+   - "render-stubs <dir> [template]" writes every employee's pay stubs to
+     <dir>, one file per employee (template: a .txt or .html file with
+     {{field}} placeholders, default = the built-in text layout).
    - Otherwise it launches the JavaFX UI.
+
+   Console and JavaFX modes also load the role table into memory and
+   start the nightly report precompute job.
 */
 public class Main {
 
     public static void main(String[] args) {
 
+        // One-off report precompute (cron / manual)
+        if (args.length > 0 && args[0].equalsIgnoreCase("precompute-reports")) {
+            ReportScheduler.getInstance().precomputeClosedMonth();
+            return;
+        }
+
+        // Chunked salary band raise
+        if (args.length > 0 && args[0].equalsIgnoreCase("raise-salaries")) {
+            raiseSalaries(args);
+            return;
+        }
+
+        // Bulk pay stub files
+        if (args.length > 0 && args[0].equalsIgnoreCase("render-stubs")) {
+            renderStubs(args);
+            return;
+        }
+
+        // One-off company payroll run
+        if (args.length > 0 && args[0].equalsIgnoreCase("run-payroll")) {
+            runPayroll(args);
+            return;
+        }
+
+        // role table is tiny and never changes at runtime, read it once up front
+        RoleCache.getInstance().load();
+
+        // nightly month-end report snapshots (background thread)
+        ReportScheduler.getInstance().start();
+
         // Option to run console mode for quick testing
         if (args.length > 0 && args[0].equalsIgnoreCase("console")) {
             System.out.println("Launching EMS Console Mode...");
@@ -27,4 +81,67 @@ public class Main {
         System.out.println("Launching EMS JavaFX UI...");
         Application.launch(JavaFXUI.class, args);
     }
-}
\ No newline at end of file
+
+    private static void raiseSalaries(String[] args) {
+        if (args.length != 4) {
+            System.out.println("Usage: raise-salaries <percent> <min salary> <max salary>");
+            return;
+        }
+        SalaryBulkUpdateJob job = new SalaryBulkUpdateJob();
+        SalaryBulkUpdateJob.Result result = job.run(Double.parseDouble(args[1]),
+                Double.parseDouble(args[2]), Double.parseDouble(args[3]),
+                progress -> System.out.println("[SALARY] " + progress));
+        System.out.println("[SALARY] " + result);
+    }
+
+    private static void renderStubs(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.out.println("Usage: render-stubs <output dir> [template.txt|template.html]");
+            return;
+        }
+        PayStubTemplate template;
+        try {
+            template = args.length == 3
+                    ? PayStubTemplate.load(Path.of(args[2]))
+                    : PayStubTemplate.compileText(PayStubTemplate.DEFAULT_TEXT);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("[STUBS] Bad template: " + e.getMessage());
+            return;
+        }
+        new PayStubRenderer().renderAll(Path.of(args[1]), template);
+    }
+
+    private static void runPayroll(String[] args) {
+        LocalDate payDate = LocalDate.now().withDayOfMonth(1);
+        boolean dryRun = false;
+        boolean changedOnly = false;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equalsIgnoreCase("--dry-run")) {
+                dryRun = true;
+            } else if (args[i].equalsIgnoreCase("--changed")) {
+                changedOnly = true;
+            } else {
+                payDate = LocalDate.parse(args[i]);
+            }
+        }
+
+        PayrollRunEngine engine;
+        try {
+            engine = new PayrollRunEngine();
+        } catch (IllegalStateException e) {
+            // e.g. a broken tax bracket file: no statements rather than wrong ones
+            System.err.println("[PAYROLL] Aborted, nothing was written: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        try {
+            if (changedOnly) {
+                engine.runChanged(payDate);
+            } else {
+                engine.run(payDate, dryRun);
+            }
+        } finally {
+            engine.shutdown();
+        }
+    }
+}
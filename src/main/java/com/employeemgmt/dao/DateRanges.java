@@ -0,0 +1,51 @@
+package com.employeemgmt.dao;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/*
+    DateRanges
+    ----------
+    Helpers for binding half-open date ranges:  pay_date >= ? AND pay_date < ?
+
+    We used to filter with YEAR(pay_date) = ? AND MONTH(pay_date) = ?,
+    but wrapping the column in a function means MySQL can't use the
+    pay_date index and has to scan every statement. Comparing the raw
+    column against two bound dates keeps the query index-friendly.
+*/
+final class DateRanges {
+
+    private DateRanges() {}
+
+    // first day of the month
+    static LocalDate monthStart(int year, int month) {
+        return LocalDate.of(year, month, 1);
+    }
+
+    // first day of the *next* month (exclusive upper bound)
+    static LocalDate monthEnd(int year, int month) {
+        return monthStart(year, month).plusMonths(1);
+    }
+
+    // binds [first of month, first of next month) into two placeholders starting at index
+    static void bindMonth(PreparedStatement ps, int index, int year, int month) throws SQLException {
+        if (month < 1 || month > 12) {
+            // same error path as a bad query, so callers just log and return no rows
+            throw new SQLException("Invalid month: " + month);
+        }
+        ps.setDate(index, Date.valueOf(monthStart(year, month)));
+        ps.setDate(index + 1, Date.valueOf(monthEnd(year, month)));
+    }
+
+    // binds [first day of 'from', first day of the month after 'to') for multi-month ranges
+    static void bindMonths(PreparedStatement ps, int index, YearMonth from, YearMonth to) throws SQLException {
+        if (from.isAfter(to)) {
+            throw new SQLException("Month range is backwards: " + from + " > " + to);
+        }
+        ps.setDate(index, Date.valueOf(from.atDay(1)));
+        ps.setDate(index + 1, Date.valueOf(to.plusMonths(1).atDay(1)));
+    }
+}
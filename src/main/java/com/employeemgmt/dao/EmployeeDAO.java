@@ -1,6 +1,7 @@
 package com.employeemgmt.dao;
 
 import com.employeemgmt.models.Employee;
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -237,4 +238,60 @@ public class EmployeeDAO {
             return 0;
         }
     }
+
+    // one row of a salary band, as the what-if simulator reads it
+    public interface SalaryBandRow {
+        void accept(int empid, BigDecimal salary, String division);
+    }
+
+    // everyone with a salary in [min, max], in empid order, with their division
+    // (first one if an employee is in several); returns how many rows or -1 on error
+    public int streamSalaryBand(BigDecimal min, BigDecimal max, SalaryBandRow handler) {
+        String sql = """
+            SELECT e.empid, e.Salary, MIN(d.Name) AS division
+            FROM employees e
+            LEFT JOIN employee_division ed ON ed.empid = e.empid
+            LEFT JOIN division d           ON d.ID = ed.div_ID
+            WHERE e.Salary BETWEEN ? AND ?
+            GROUP BY e.empid, e.Salary
+            ORDER BY e.empid
+        """;
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setBigDecimal(1, min);
+            ps.setBigDecimal(2, max);
+
+            int rows = 0;
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                handler.accept(rs.getInt("empid"), rs.getBigDecimal("Salary"), rs.getString("division"));
+                rows++;
+            }
+            return rows;
+
+        } catch (Exception e) {
+            System.out.println("Error streamSalaryBand: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    // sum of every salary (the company's yearly payroll cost), null on error
+    public BigDecimal totalSalary() {
+        String sql = "SELECT COALESCE(SUM(Salary), 0) AS total FROM employees";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            if (rs.next()) {
+                return rs.getBigDecimal("total");
+            }
+
+        } catch (Exception e) {
+            System.out.println("Error totalSalary: " + e.getMessage());
+        }
+        return null;
+    }
 }
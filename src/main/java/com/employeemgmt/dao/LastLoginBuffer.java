@@ -0,0 +1,137 @@
+package com.employeemgmt.dao;
+
+import com.employeemgmt.utils.EnvLoader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+    LastLoginBuffer
+    ---------------
+    Write-behind buffer for user_account.last_login.
+
+    A successful login used to open a second connection just to stamp
+    last_login, which doubled the DB work during shift change. Now login
+    only records (username -> time) here and returns; a background thread
+    writes everything in one JDBC batch every LAST_LOGIN_FLUSH_SECONDS
+    (default 5), and once more when the JVM shuts down.
+
+    - several logins by the same user between flushes become one UPDATE
+      (latest time wins)
+    - if a flush fails the entries are put back and retried next time,
+      unless a newer login for that user came in meanwhile
+*/
+public class LastLoginBuffer {
+
+    private static final String UPDATE_LAST_LOGIN = """
+        UPDATE user_account SET last_login = ? WHERE username = ?
+        """;
+
+    // writes one batch of (username -> last login); lets tests skip the database
+    public interface BatchWriter {
+        void write(Map<String, LocalDateTime> batch) throws SQLException;
+    }
+
+    private static LastLoginBuffer instance;
+
+    private final Map<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final BatchWriter writer;
+    private final long flushMillis;
+    private ScheduledExecutorService timer;
+
+    public LastLoginBuffer(BatchWriter writer, long flushMillis) {
+        this.writer = writer;
+        this.flushMillis = flushMillis;
+    }
+
+    public static synchronized LastLoginBuffer getInstance() {
+        if (instance == null) {
+            instance = new LastLoginBuffer(LastLoginBuffer::writeBatch, flushSeconds() * 1000L);
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::shutdown, "last-login-flush"));
+        }
+        return instance;
+    }
+
+    // called on a successful login; returns right away
+    public void record(String username, LocalDateTime when) {
+        if (username == null || when == null) return;
+        pending.merge(username.toLowerCase(), when, (a, b) -> a.isAfter(b) ? a : b);
+        ensureStarted();
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    // writes everything buffered so far; returns how many users were written
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        // take a snapshot; an entry only leaves the map if nobody updated it since
+        Map<String, LocalDateTime> batch = new HashMap<>(pending);
+        batch.forEach(pending::remove);
+
+        try {
+            writer.write(batch);
+            return batch.size();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Failed to update last login for " + batch.size() + " user(s): " + e.getMessage());
+            // put them back for the next try, newer logins win
+            batch.forEach((u, t) -> pending.merge(u, t, (a, b) -> a.isAfter(b) ? a : b));
+            return 0;
+        }
+    }
+
+    // stops the timer and writes whatever is left
+    public void shutdown() {
+        synchronized (this) {
+            if (timer != null) {
+                timer.shutdownNow();
+                timer = null;
+            }
+        }
+        flush();
+    }
+
+    private synchronized void ensureStarted() {
+        if (timer != null) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "last-login-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static void writeBatch(Map<String, LocalDateTime> batch) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(UPDATE_LAST_LOGIN);
+            for (Map.Entry<String, LocalDateTime> e : batch.entrySet()) {
+                stmt.setTimestamp(1, Timestamp.valueOf(e.getValue()));
+                stmt.setString(2, e.getKey());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    private static int flushSeconds() {
+        return EnvLoader.getInt("LAST_LOGIN_FLUSH_SECONDS", 5, 1);
+    }
+}
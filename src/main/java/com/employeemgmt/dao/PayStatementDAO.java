@@ -6,11 +6,17 @@ import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class PayStatementDAO {
 
+    // basic "after tax" estimate so net_pay is not the same as gross
+    private static final BigDecimal NET_RATE = new BigDecimal("0.88");
+
     private final DatabaseConnection db = DatabaseConnection.getInstance();
+    private final ReportCache cache = ReportCache.getInstance();
 
     // gets all pay statements for a single employee, newest first
     public List<PayStatement> findByEmployee(int empid) {
@@ -47,6 +53,57 @@ public class PayStatementDAO {
         return list;
     }
 
+    // one statement with its employee's name/email, for the bulk stub renderer
+    public interface StubRow {
+        // return false to stop reading
+        boolean accept(PayStatement statement, String name, String email);
+    }
+
+    // every pay statement of every employee, ordered by empid then pay date
+    // (the ORDER BY guarantees that; with V007's (empid, pay_date) unique key
+    // MySQL can read it in key order instead of sorting), streamed off the
+    // driver so the whole table is never in memory
+    // returns how many rows were handed over, -1 on error
+    public int streamForStubs(StubRow handler) {
+        String sql = "SELECT ps.pay_id, ps.empid, ps.pay_date, ps.gross_pay, ps.net_pay, " +
+                     "e.Fname, e.Lname, e.email " +
+                     "FROM pay_statements ps " +
+                     "JOIN employees e ON e.empid = ps.empid " +
+                     "ORDER BY ps.empid, ps.pay_date";
+
+        int count = 0;
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            ps.setFetchSize(Integer.MIN_VALUE);
+            ResultSet rs = ps.executeQuery();
+
+            while (rs.next()) {
+                PayStatement p = new PayStatement();
+                p.setPayId(rs.getInt("pay_id"));
+                p.setEmpid(rs.getInt("empid"));
+                Date d = rs.getDate("pay_date");
+                if (d != null) {
+                    p.setPayDate(d.toLocalDate());
+                }
+                p.setGrossPay(rs.getBigDecimal("gross_pay"));
+                p.setNetPay(rs.getBigDecimal("net_pay"));
+                count++;
+                String name = rs.getString("Fname") + " " + rs.getString("Lname");
+                if (!handler.accept(p, name, rs.getString("email"))) {
+                    break;
+                }
+            }
+
+        } catch (Exception ex) {
+            System.out.println("Error streamForStubs: " + ex.getMessage());
+            return -1;
+        }
+
+        return count;
+    }
+
     // simple insert for a pay record
     public boolean insert(PayStatement p) {
         String sql = "INSERT INTO pay_statements (empid, pay_date, gross_pay, net_pay) " +
@@ -60,7 +117,12 @@ public class PayStatementDAO {
             ps.setBigDecimal(3, p.getGrossPay());
             ps.setBigDecimal(4, p.getNetPay());
 
-            return ps.executeUpdate() > 0;
+            if (ps.executeUpdate() > 0) {
+                // any cached report covering this month is now out of date
+                cache.invalidate(p.getPayDate(), ReportCache.Write.INSERTED);
+                return true;
+            }
+            return false;
 
         } catch (Exception ex) {
             System.out.println("Error insert pay_statement: " + ex.getMessage());
@@ -69,52 +131,118 @@ public class PayStatementDAO {
         return false;
     }
 
-    // helper to see if a statement already exists for that month
-    private boolean existsForMonth(int empid, LocalDate payDate) {
-        String sql = "SELECT COUNT(*) FROM pay_statements WHERE empid = ? AND pay_date = ?";
-
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    // months of pay history the employee already has, from a given month on
+    private Set<LocalDate> existingMonths(Connection conn, int empid, LocalDate from) throws SQLException {
+        String sql = "SELECT pay_date FROM pay_statements WHERE empid = ? AND pay_date >= ?";
 
+        Set<LocalDate> months = new HashSet<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, empid);
-            ps.setDate(2, Date.valueOf(payDate));
+            ps.setDate(2, Date.valueOf(from));
             ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
+            while (rs.next()) {
+                Date d = rs.getDate("pay_date");
+                if (d != null) {
+                    months.add(d.toLocalDate());
+                }
             }
-
-        } catch (Exception ex) {
-            System.out.println("Error existsForMonth: " + ex.getMessage());
         }
-
-        return false;
+        return months;
     }
 
     // auto-generate monthly pay history from hire date to now
-    // skips months that already have a record
-    public void generateHistory(int empid, LocalDate hireDate, BigDecimal monthlyGross) {
+    // skips months that already have a record. The backfill is one batch and one
+    // transaction: if it dies halfway nothing is kept and the next call just does it
+    // again, and with the (empid, pay_date) unique key (V007) a month that shows up
+    // in between is skipped by the insert itself instead of doubled
+    // returns how many months were added (-1 on error)
+    public int generateHistory(int empid, LocalDate hireDate, BigDecimal monthlyGross) {
         if (empid <= 0 || hireDate == null || monthlyGross == null) {
-            return;
+            return 0;
         }
 
         LocalDate today = LocalDate.now().withDayOfMonth(1);
         LocalDate cursor = hireDate.withDayOfMonth(1);
 
-        // basic "after tax" estimate so net_pay is not the same as gross
-        BigDecimal netMultiplier = new BigDecimal("0.88");
+        String sql = "INSERT INTO pay_statements (empid, pay_date, gross_pay, net_pay) " +
+                     "VALUES (?, ?, ?, ?) " +
+                     "ON DUPLICATE KEY UPDATE pay_id = pay_id";
+
+        Connection conn = null;
+        try {
+            conn = db.getConnection();
+            conn.setAutoCommit(false);
+            Set<LocalDate> existing = existingMonths(conn, empid, cursor);
+
+            List<LocalDate> added = new ArrayList<>();
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                while (!cursor.isAfter(today)) {
+                    if (!existing.contains(cursor)) {
+                        ps.setInt(1, empid);
+                        ps.setDate(2, Date.valueOf(cursor));
+                        ps.setBigDecimal(3, monthlyGross);
+                        ps.setBigDecimal(4, monthlyGross.multiply(NET_RATE));
+                        ps.addBatch();
+                        added.add(cursor);
+                    }
+                    cursor = cursor.plusMonths(1);
+                }
+                if (!added.isEmpty()) {
+                    ps.executeBatch();
+                }
+            }
+            conn.commit();
+
+            for (LocalDate month : added) {
+                cache.invalidate(month, ReportCache.Write.INSERTED);
+            }
+            return added.size();
 
-        while (!cursor.isAfter(today)) {
-            if (!existsForMonth(empid, cursor)) {
-                PayStatement p = new PayStatement();
-                p.setEmpid(empid);
-                p.setPayDate(cursor);
-                p.setGrossPay(monthlyGross);
-                p.setNetPay(monthlyGross.multiply(netMultiplier));
+        } catch (Exception ex) {
+            System.out.println("Error generateHistory: " + ex.getMessage());
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException ignored) {}
+            }
+            return -1;
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
 
-                insert(p);
+    // "Recompute Changed": generateHistory only fills months that have no statement, so a
+    // raise (or any edit) after a month was written never reaches it. This rewrites the pay
+    // date's statements, with the same amounts generateHistory would write now, for the
+    // employees whose row moved (employees.updated_at, V004) after their statement was
+    // written (pay_statements.updated_at, V012) and whose statement no longer matches.
+    // slackSeconds pushes each statement's time back so an edit still uncommitted while
+    // the statement was written isn't missed; rewriting a matching statement is skipped anyway
+    // returns how many statements were rewritten (-1 on error)
+    public int recomputeChanged(LocalDate payDate, int slackSeconds) {
+        String sql = "UPDATE pay_statements ps " +
+                     "JOIN employees e ON e.empid = ps.empid " +
+                     "SET ps.gross_pay = e.Salary, ps.net_pay = ROUND(e.Salary * ?, 2), " +
+                     "ps.updated_at = CURRENT_TIMESTAMP(3) " +
+                     "WHERE ps.pay_date = ? " +
+                     "AND e.updated_at > ps.updated_at - INTERVAL ? SECOND " +
+                     "AND (ps.gross_pay <> e.Salary OR ps.net_pay <> ROUND(e.Salary * ?, 2))";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setBigDecimal(1, NET_RATE);
+            ps.setDate(2, Date.valueOf(payDate));
+            ps.setInt(3, slackSeconds);
+            ps.setBigDecimal(4, NET_RATE);
+
+            int rewritten = ps.executeUpdate();
+            if (rewritten > 0) {
+                cache.invalidate(payDate, ReportCache.Write.CHANGED);
             }
+            return rewritten;
 
-            cursor = cursor.plusMonths(1);
+        } catch (Exception ex) {
+            System.out.println("Error recomputeChanged: " + ex.getMessage());
+            return -1;
         }
     }
 }
@@ -0,0 +1,203 @@
+package com.employeemgmt.dao;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    PayYtdDAO
+    ---------
+    Year-to-date totals from pay_ytd: one row per employee per year, kept
+    current by triggers on pay_statement (V006, enhanced schema) and on
+    pay_statements (V011, dBeaver schema), so reading a YTD figure is a
+    primary key lookup no matter how many statements the year has.
+
+    Nothing in Java writes the totals. Inserting, correcting or deleting a
+    statement moves them in the same transaction, whichever code (or person)
+    does it. rebuildYear() is the way back if they are ever in doubt, e.g.
+    statements loaded while the triggers were dropped; it sums whichever of
+    the two statement tables this database has (both, like the triggers,
+    if it has both).
+*/
+public class PayYtdDAO {
+
+    private static final String FIND_TOTALS = """
+        SELECT empid, pay_year, gross, taxes, net, statements
+        FROM pay_ytd
+        WHERE empid = ? AND pay_year = ?
+        """;
+
+    private static final String FIND_YEAR = """
+        SELECT empid, pay_year, gross, taxes, net, statements
+        FROM pay_ytd
+        WHERE pay_year = ? AND statements > 0
+        ORDER BY empid
+        """;
+
+    private static final String CLEAR_YEAR = "DELETE FROM pay_ytd WHERE pay_year = ?";
+
+    private static final String STATEMENT_TABLES = """
+        SELECT LOWER(table_name) AS table_name FROM information_schema.tables
+        WHERE table_schema = DATABASE() AND table_name IN ('pay_statement', 'pay_statements')
+        """;
+
+    // %s = one or both of the per-table selects below, joined with UNION ALL
+    private static final String REBUILD_YEAR = """
+        INSERT INTO pay_ytd (empid, pay_year, gross, taxes, net, statements)
+        SELECT empid, YEAR(pay_date), COALESCE(SUM(gross), 0), COALESCE(SUM(taxes), 0), COALESCE(SUM(net), 0), COUNT(*)
+        FROM (%s) s
+        GROUP BY empid, YEAR(pay_date)
+        """;
+
+    private static final String ENHANCED_ROWS =
+        "SELECT empid, pay_date, gross, taxes, net FROM pay_statement WHERE pay_date >= ? AND pay_date < ?";
+
+    // no taxes column here: taxes = gross - net, as in the V011 triggers
+    private static final String DBEAVER_ROWS =
+        "SELECT empid, pay_date, gross_pay, gross_pay - net_pay, net_pay FROM pay_statements "
+        + "WHERE pay_date >= ? AND pay_date < ?";
+
+    private final DatabaseConnection dbConnection;
+
+    public PayYtdDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Totals for one employee and year
+     * @return the totals (all zero if nothing was paid that year), or null if pay_ytd can't be read
+     */
+    public YtdTotals find(int empid, int year) {
+        Connection conn = null;
+        try {
+            conn = dbConnection.getConnection();
+            PreparedStatement stmt = conn.prepareStatement(FIND_TOTALS);
+            stmt.setInt(1, empid);
+            stmt.setInt(2, year);
+
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return toTotals(rs);
+            }
+            return new YtdTotals(empid, year, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0);
+
+        } catch (SQLException e) {
+            System.err.println("Error reading YTD totals for employee " + empid + ": " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return null;
+    }
+
+    /**
+     * Everyone paid in the year, in empid order (year-end summaries)
+     */
+    public List<YtdTotals> findByYear(int year) {
+        List<YtdTotals> list = new ArrayList<>();
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(FIND_YEAR);
+            stmt.setInt(1, year);
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                list.add(toTotals(rs));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error reading YTD totals for " + year + ": " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return list;
+    }
+
+    /**
+     * Recompute a year's totals from the pay statements on file, in one transaction
+     * @return employees with totals for the year, -1 on error (the old totals stay then)
+     */
+    public int rebuildYear(int year) {
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            conn.setAutoCommit(false);
+
+            List<String> sources = new ArrayList<>();
+            try (PreparedStatement tables = conn.prepareStatement(STATEMENT_TABLES)) {
+                ResultSet rs = tables.executeQuery();
+                while (rs.next()) {
+                    sources.add("pay_statement".equals(rs.getString("table_name")) ? ENHANCED_ROWS : DBEAVER_ROWS);
+                }
+            }
+            if (sources.isEmpty()) {
+                System.err.println("Error rebuilding YTD totals for " + year + ": no pay statement table");
+                return -1;
+            }
+
+            String sql = String.format(REBUILD_YEAR, String.join(" UNION ALL ", sources));
+            try (PreparedStatement clear = conn.prepareStatement(CLEAR_YEAR);
+                 PreparedStatement rebuild = conn.prepareStatement(sql)) {
+                clear.setInt(1, year);
+                clear.executeUpdate();
+
+                // a date range rather than YEAR(pay_date) = ? so the covering pay_date indexes (V001, V010) are used
+                int i = 1;
+                for (int s = 0; s < sources.size(); s++) {
+                    rebuild.setDate(i++, Date.valueOf(year + "-01-01"));
+                    rebuild.setDate(i++, Date.valueOf((year + 1) + "-01-01"));
+                }
+                int rows = rebuild.executeUpdate();
+
+                conn.commit();
+                return rows;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding YTD totals for " + year + ": " + e.getMessage());
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException ignored) {}
+            }
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return -1;
+    }
+
+    private static YtdTotals toTotals(ResultSet rs) throws SQLException {
+        return new YtdTotals(
+                rs.getInt("empid"),
+                rs.getInt("pay_year"),
+                rs.getBigDecimal("gross"),
+                rs.getBigDecimal("taxes"),
+                rs.getBigDecimal("net"),
+                rs.getInt("statements"));
+    }
+
+    public static class YtdTotals {
+        private final int empid;
+        private final int year;
+        private final BigDecimal gross;
+        private final BigDecimal taxes;
+        private final BigDecimal net;
+        private final int statements;
+
+        public YtdTotals(int empid, int year, BigDecimal gross, BigDecimal taxes, BigDecimal net, int statements) {
+            this.empid = empid;
+            this.year = year;
+            this.gross = gross;
+            this.taxes = taxes;
+            this.net = net;
+            this.statements = statements;
+        }
+
+        public int getEmpid() { return empid; }
+        public int getYear() { return year; }
+        public BigDecimal getGross() { return gross; }
+        public BigDecimal getTaxes() { return taxes; }
+        public BigDecimal getNet() { return net; }
+        // how many statements the totals cover
+        public int getStatements() { return statements; }
+    }
+}
@@ -2,10 +2,20 @@ package com.employeemgmt.dao;
 
 import com.employeemgmt.models.Payroll;
 import java.sql.*;
+import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 
 /**
  * Payroll Data Access Object
@@ -14,6 +24,7 @@ import java.math.BigDecimal;
 public class PayrollDAO {
     
     private DatabaseConnection dbConnection;
+    private final ReportCache cache = ReportCache.getInstance();
     
     // SQL Queries
     private static final String GET_PAY_STATEMENT_HISTORY = """
@@ -31,7 +42,7 @@ public class PayrollDAO {
         JOIN employees e ON ps.empid = e.empid
         JOIN employee_job_titles ejt ON e.empid = ejt.empid
         JOIN job_titles jt ON ejt.job_title_id = jt.job_title_id
-        WHERE YEAR(ps.pay_date) = ? AND MONTH(ps.pay_date) = ? AND e.active = true
+        WHERE ps.pay_date >= ? AND ps.pay_date < ? AND e.active = true
         GROUP BY jt.job_title_id, jt.title
         ORDER BY total_gross DESC
         """;
@@ -42,7 +53,7 @@ public class PayrollDAO {
         JOIN employees e ON ps.empid = e.empid
         JOIN employee_division ed ON e.empid = ed.empid
         JOIN division d ON ed.div_id = d.id
-        WHERE YEAR(ps.pay_date) = ? AND MONTH(ps.pay_date) = ? AND e.active = true
+        WHERE ps.pay_date >= ? AND ps.pay_date < ? AND e.active = true
         GROUP BY d.id, d.name
         ORDER BY total_gross DESC
         """;
@@ -59,9 +70,18 @@ public class PayrollDAO {
         ORDER BY e.hire_date DESC
         """;
     
+    // one statement per (empid, pay_date) (V003): a second insert is a no-op, 0 rows affected
     private static final String INSERT_PAY_STATEMENT = """
         INSERT INTO pay_statement (empid, pay_date, gross, taxes, net)
         VALUES (?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE id = id
+        """;
+    
+    // correction runs: the recomputed statement replaces the one on file
+    private static final String UPSERT_PAY_STATEMENT = """
+        INSERT INTO pay_statement (empid, pay_date, gross, taxes, net)
+        VALUES (?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE gross = VALUES(gross), taxes = VALUES(taxes), net = VALUES(net)
         """;
     
     private static final String UPDATE_PAY_STATEMENT = """
@@ -74,6 +94,53 @@ public class PayrollDAO {
         DELETE FROM pay_statement WHERE id = ?
         """;
     
+    private static final String GET_PAY_DATE_BY_ID = """
+        SELECT pay_date FROM pay_statement WHERE id = ?
+        """;
+    
+    private static final String GET_ACTIVE_SALARIES = """
+        SELECT e.empid, e.base_salary, c.state_id
+        FROM employees e
+        LEFT JOIN address a ON a.empid = e.empid
+        LEFT JOIN city c ON c.city_id = a.city_id
+        WHERE e.active = true AND e.base_salary IS NOT NULL AND e.empid > ?
+        ORDER BY e.empid
+        """;
+    
+    // employees whose pay inputs changed after a watermark: their own row (employees.updated_at, V004),
+    // their address or their city (the state tax comes from there, V008); each part uses its own index
+    private static final String GET_CHANGED_SALARIES = """
+        SELECT e.empid, e.base_salary, c.state_id
+        FROM employees e
+        LEFT JOIN address a ON a.empid = e.empid
+        LEFT JOIN city c ON c.city_id = a.city_id
+        WHERE e.active = true AND e.base_salary IS NOT NULL AND e.updated_at > ?
+        UNION
+        SELECT e.empid, e.base_salary, c.state_id
+        FROM address a
+        JOIN employees e ON e.empid = a.empid
+        LEFT JOIN city c ON c.city_id = a.city_id
+        WHERE e.active = true AND e.base_salary IS NOT NULL AND a.updated_at > ?
+        UNION
+        SELECT e.empid, e.base_salary, c.state_id
+        FROM city c
+        JOIN address a ON a.city_id = c.city_id
+        JOIN employees e ON e.empid = a.empid
+        WHERE e.active = true AND e.base_salary IS NOT NULL AND c.updated_at > ?
+        ORDER BY empid
+        """;
+    
+    private static final String FIND_COLUMNS = """
+        SELECT LOWER(column_name) AS column_name FROM information_schema.columns
+        WHERE table_schema = DATABASE() AND table_name = ?
+        """;
+    
+    // amounts on file for some employees on one pay date (what a batch is about to write over)
+    private static final String FIND_ON_FILE_PREFIX = """
+        SELECT empid, gross, taxes, net FROM pay_statement WHERE pay_date = ? AND empid IN (""";
+
+    private static final int INSERT_BATCH = 500; // rows per JDBC batch / commit
+    
     // Constructor
     public PayrollDAO() {
         this.dbConnection = DatabaseConnection.getInstance();
@@ -120,72 +187,84 @@ public class PayrollDAO {
      * Get total pay by job title for a specific month/year (HR Admin only)
      * @param month The month (1-12)
      * @param year The year
-     * @return List of job title pay summaries
+     * @return List of job title pay summaries (cached, treat as read-only)
      */
     public List<PaySummaryByJobTitle> getTotalPayByJobTitle(int month, int year) {
-        List<PaySummaryByJobTitle> summaries = new ArrayList<>();
-        
-        Connection conn = null;
         try {
-            conn = dbConnection.getAdminConnection();
-            PreparedStatement stmt = conn.prepareStatement(GET_TOTAL_PAY_BY_JOB_TITLE);
-            stmt.setInt(1, year);
-            stmt.setInt(2, month);
+            return cache.get("totalPayByJobTitle", year, month, () -> {
+                List<PaySummaryByJobTitle> summaries = new ArrayList<>();
+                
+                Connection conn = null;
+                try {
+                    conn = dbConnection.getAdminConnection();
+                    PreparedStatement stmt = conn.prepareStatement(GET_TOTAL_PAY_BY_JOB_TITLE);
+                    QueryControl.attach(stmt);
+                    DateRanges.bindMonth(stmt, 1, year, month);
             
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                PaySummaryByJobTitle summary = new PaySummaryByJobTitle();
-                summary.setJobTitle(rs.getString("title"));
-                summary.setTotalGross(rs.getBigDecimal("total_gross"));
-                summary.setTotalNet(rs.getBigDecimal("total_net"));
-                summary.setEmployeeCount(rs.getInt("employee_count"));
+                    ResultSet rs = stmt.executeQuery();
+                    while (rs.next()) {
+                        PaySummaryByJobTitle summary = new PaySummaryByJobTitle();
+                        summary.setJobTitle(rs.getString("title"));
+                        summary.setTotalGross(rs.getBigDecimal("total_gross"));
+                        summary.setTotalNet(rs.getBigDecimal("total_net"));
+                        summary.setEmployeeCount(rs.getInt("employee_count"));
                 
-                summaries.add(summary);
-            }
+                        summaries.add(summary);
+                    }
             
-        } catch (SQLException e) {
+                } finally {
+                    DatabaseConnection.closeConnection(conn);
+                }
+                
+                return summaries;
+            });
+        } catch (SQLException | DateTimeException e) {
             System.err.println("Error getting total pay by job title: " + e.getMessage());
-        } finally {
-            DatabaseConnection.closeConnection(conn);
         }
         
-        return summaries;
+        return new ArrayList<>();
     }
     
     /**
      * Get total pay by division for a specific month/year (HR Admin only)
      * @param month The month (1-12)
      * @param year The year
-     * @return List of division pay summaries
+     * @return List of division pay summaries (cached, treat as read-only)
      */
     public List<PaySummaryByDivision> getTotalPayByDivision(int month, int year) {
-        List<PaySummaryByDivision> summaries = new ArrayList<>();
-        
-        Connection conn = null;
         try {
-            conn = dbConnection.getAdminConnection();
-            PreparedStatement stmt = conn.prepareStatement(GET_TOTAL_PAY_BY_DIVISION);
-            stmt.setInt(1, year);
-            stmt.setInt(2, month);
+            return cache.get("totalPayByDivision", year, month, () -> {
+                List<PaySummaryByDivision> summaries = new ArrayList<>();
+                
+                Connection conn = null;
+                try {
+                    conn = dbConnection.getAdminConnection();
+                    PreparedStatement stmt = conn.prepareStatement(GET_TOTAL_PAY_BY_DIVISION);
+                    QueryControl.attach(stmt);
+                    DateRanges.bindMonth(stmt, 1, year, month);
             
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                PaySummaryByDivision summary = new PaySummaryByDivision();
-                summary.setDivisionName(rs.getString("name"));
-                summary.setTotalGross(rs.getBigDecimal("total_gross"));
-                summary.setTotalNet(rs.getBigDecimal("total_net"));
-                summary.setEmployeeCount(rs.getInt("employee_count"));
+                    ResultSet rs = stmt.executeQuery();
+                    while (rs.next()) {
+                        PaySummaryByDivision summary = new PaySummaryByDivision();
+                        summary.setDivisionName(rs.getString("name"));
+                        summary.setTotalGross(rs.getBigDecimal("total_gross"));
+                        summary.setTotalNet(rs.getBigDecimal("total_net"));
+                        summary.setEmployeeCount(rs.getInt("employee_count"));
                 
-                summaries.add(summary);
-            }
+                        summaries.add(summary);
+                    }
             
-        } catch (SQLException e) {
+                } finally {
+                    DatabaseConnection.closeConnection(conn);
+                }
+                
+                return summaries;
+            });
+        } catch (SQLException | DateTimeException e) {
             System.err.println("Error getting total pay by division: " + e.getMessage());
-        } finally {
-            DatabaseConnection.closeConnection(conn);
         }
         
-        return summaries;
+        return new ArrayList<>();
     }
     
     /**
@@ -201,6 +280,7 @@ public class PayrollDAO {
         try {
             conn = dbConnection.getAdminConnection();
             PreparedStatement stmt = conn.prepareStatement(GET_EMPLOYEES_HIRED_IN_RANGE);
+            QueryControl.attach(stmt);
             stmt.setDate(1, Date.valueOf(startDate));
             stmt.setDate(2, Date.valueOf(endDate));
             
@@ -230,7 +310,7 @@ public class PayrollDAO {
     /**
      * Save a new pay statement
      * @param payroll The payroll record to save
-     * @return true if successful, false otherwise
+     * @return true if successful, false otherwise (also when the employee already has one for that pay date)
      */
     public boolean save(Payroll payroll) {
         if (payroll == null || !payroll.isValid()) {
@@ -241,12 +321,7 @@ public class PayrollDAO {
         try {
             conn = dbConnection.getAdminConnection();
             PreparedStatement stmt = conn.prepareStatement(INSERT_PAY_STATEMENT, Statement.RETURN_GENERATED_KEYS);
-            
-            stmt.setInt(1, payroll.getEmpid());
-            stmt.setDate(2, Date.valueOf(payroll.getPayDate()));
-            stmt.setBigDecimal(3, payroll.getGrossPay());
-            stmt.setBigDecimal(4, payroll.getTotalTaxDeductions());
-            stmt.setBigDecimal(5, payroll.getNetPay());
+            bindInsert(stmt, payroll);
             
             int rowsAffected = stmt.executeUpdate();
             
@@ -256,6 +331,7 @@ public class PayrollDAO {
                 if (generatedKeys.next()) {
                     payroll.setPayrollId(generatedKeys.getInt(1));
                 }
+                cache.invalidate(payroll.getPayDate(), ReportCache.Write.INSERTED);
                 return true;
             }
             
@@ -268,6 +344,337 @@ public class PayrollDAO {
         return false;
     }
     
+    /**
+     * Save many pay statements (payroll runs) in JDBC batches, one commit per batch
+     * @param payrolls The statements to save; invalid ones and ones already on file are skipped
+     * @return how many were saved
+     */
+    public int saveAll(List<Payroll> payrolls) {
+        int saved = 0;
+        
+        try (StatementBatchWriter writer = openBatchWriter()) {
+            for (int from = 0; from < payrolls.size(); from += INSERT_BATCH) {
+                saved += writer.write(payrolls.subList(from, Math.min(from + INSERT_BATCH, payrolls.size())));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error saving pay statements (" + saved + " saved): " + e.getMessage());
+        }
+        
+        return saved;
+    }
+    
+    /**
+     * Open a writer that keeps one connection for a whole payroll run
+     * (caller closes it; cached reports for a month are dropped after each commit that writes to it)
+     */
+    public StatementBatchWriter openBatchWriter() throws SQLException {
+        return new StatementBatchWriter(dbConnection.getAdminConnection(), INSERT_PAY_STATEMENT, false);
+    }
+    
+    /**
+     * Same, but statements already on file for (empid, pay_date) are replaced (correction runs)
+     */
+    public StatementBatchWriter openCorrectionWriter() throws SQLException {
+        return new StatementBatchWriter(dbConnection.getAdminConnection(), UPSERT_PAY_STATEMENT, true);
+    }
+    
+    /**
+     * Writes pay statements with INSERT_PAY_STATEMENT (or UPSERT_PAY_STATEMENT), one JDBC batch + commit per write() call.
+     * After journalTo(runId), each StatementBatch commits together with its checkpoint in payroll_run.
+     *
+     * The counts it returns come from a look at what's on file for the batch (one IN query, same
+     * transaction) rather than from executeBatch: with rewriteBatchedStatements the driver only
+     * reports SUCCESS_NO_INFO, and with found-rows a skipped duplicate counts as 1.
+     */
+    public class StatementBatchWriter implements AutoCloseable {
+        private final Connection conn;
+        private final PreparedStatement stmt;
+        private final boolean replaces; // upsert: a statement on file with other amounts counts as written
+        private PreparedStatement checkpoint; // null = no journal
+        private long runId;
+        
+        private StatementBatchWriter(Connection conn, String sql, boolean replaces) throws SQLException {
+            this.conn = conn;
+            this.replaces = replaces;
+            try {
+                conn.setAutoCommit(false);
+                this.stmt = conn.prepareStatement(sql);
+            } catch (SQLException e) {
+                DatabaseConnection.closeConnection(conn);
+                throw e;
+            }
+        }
+        
+        /**
+         * Insert and commit one batch; invalid statements are skipped
+         * @return how many were written (the batch is rolled back on error)
+         */
+        public int write(List<Payroll> batch) throws SQLException {
+            Map<LocalDate, List<Payroll>> byDate = new HashMap<>();
+            for (Payroll payroll : batch) {
+                if (payroll == null || !payroll.isValid()) continue;
+                byDate.computeIfAbsent(payroll.getPayDate(), d -> new ArrayList<>()).add(payroll);
+            }
+            if (byDate.isEmpty()) {
+                return 0;
+            }
+            
+            Set<YearMonth> months = new HashSet<>();
+            try {
+                int written = 0;
+                for (Map.Entry<LocalDate, List<Payroll>> date : byDate.entrySet()) {
+                    List<Payroll> rows = date.getValue();
+                    int[] empids = new int[rows.size()];
+                    for (int i = 0; i < empids.length; i++) {
+                        empids[i] = rows.get(i).getEmpid();
+                    }
+                    Map<Integer, long[]> onFile = findOnFile(date.getKey(), empids, empids.length);
+                    for (Payroll payroll : rows) {
+                        written += changes(onFile.get(payroll.getEmpid()), cents(payroll.getGrossPay()),
+                                cents(payroll.getTotalTaxDeductions()), cents(payroll.getNetPay()));
+                        bindInsert(stmt, payroll);
+                        stmt.addBatch();
+                    }
+                    months.add(YearMonth.from(date.getKey()));
+                }
+                stmt.executeBatch();
+                conn.commit();
+                invalidate(months);
+                return written;
+            } catch (SQLException e) {
+                stmt.clearBatch();
+                try { conn.rollback(); } catch (SQLException ignored) {}
+                throw e;
+            }
+        }
+        
+        /**
+         * Record checkpoints of this payroll run (payroll_run.run_id) with every StatementBatch
+         */
+        public void journalTo(long runId) throws SQLException {
+            this.checkpoint = conn.prepareStatement(PayrollRunDAO.CHECKPOINT);
+            this.runId = runId;
+        }
+        
+        /**
+         * Insert and commit one batch of statements held as cents (bulk payroll runs),
+         * plus the batch's checkpoint when journaling
+         * @return how many were written (the batch is rolled back on error)
+         */
+        public int write(StatementBatch batch) throws SQLException {
+            if (batch.size() == 0 && (checkpoint == null || batch.getCheckpoint() < 0)) {
+                return 0;
+            }
+            Date payDate = Date.valueOf(batch.getPayDate());
+            for (int i = 0; i < batch.size(); i++) {
+                stmt.setInt(1, batch.empids[i]);
+                stmt.setDate(2, payDate);
+                stmt.setBigDecimal(3, BigDecimal.valueOf(batch.grossCents[i], 2));
+                stmt.setBigDecimal(4, BigDecimal.valueOf(batch.taxCents[i], 2));
+                stmt.setBigDecimal(5, BigDecimal.valueOf(batch.netCents[i], 2));
+                stmt.addBatch();
+            }
+            try {
+                int written = 0;
+                if (batch.size() > 0) {
+                    Map<Integer, long[]> onFile = findOnFile(batch.getPayDate(), batch.empids, batch.size());
+                    for (int i = 0; i < batch.size(); i++) {
+                        written += changes(onFile.get(batch.empids[i]),
+                                batch.grossCents[i], batch.taxCents[i], batch.netCents[i]);
+                    }
+                    stmt.executeBatch();
+                }
+                if (checkpoint != null) {
+                    checkpoint.setInt(1, batch.getCheckpoint());
+                    checkpoint.setInt(2, written);
+                    checkpoint.setLong(3, runId);
+                    checkpoint.executeUpdate();
+                }
+                conn.commit();
+                if (batch.size() > 0) {
+                    invalidate(Set.of(YearMonth.from(batch.getPayDate())));
+                }
+                return written;
+            } catch (SQLException e) {
+                stmt.clearBatch();
+                try { conn.rollback(); } catch (SQLException ignored) {}
+                throw e;
+            }
+        }
+        
+        // 1 if writing these amounts really changes pay_statement
+        private int changes(long[] onFile, long gross, long taxes, long net) {
+            if (onFile == null) {
+                return 1;
+            }
+            return replaces && (onFile[0] != gross || onFile[1] != taxes || onFile[2] != net) ? 1 : 0;
+        }
+        
+        // empid -> {gross, taxes, net} in cents for the first n empids that already have a statement on payDate
+        private Map<Integer, long[]> findOnFile(LocalDate payDate, int[] empids, int n) throws SQLException {
+            Map<Integer, long[]> onFile = new HashMap<>();
+            String sql = FIND_ON_FILE_PREFIX + String.join(",", Collections.nCopies(n, "?")) + ")";
+            try (PreparedStatement find = conn.prepareStatement(sql)) {
+                find.setDate(1, Date.valueOf(payDate));
+                for (int i = 0; i < n; i++) {
+                    find.setInt(i + 2, empids[i]);
+                }
+                ResultSet rs = find.executeQuery();
+                while (rs.next()) {
+                    onFile.put(rs.getInt("empid"), new long[] {
+                            cents(rs.getBigDecimal("gross")), cents(rs.getBigDecimal("taxes")), cents(rs.getBigDecimal("net")) });
+                }
+            }
+            return onFile;
+        }
+        
+        // right after the commit, not at close: a report run while the payroll is still
+        // writing would otherwise keep serving the month without the committed batches
+        private void invalidate(Set<YearMonth> months) {
+            for (YearMonth month : months) {
+                cache.invalidateMonth(month, replaces ? ReportCache.Write.CHANGED : ReportCache.Write.INSERTED);
+            }
+        }
+        
+        @Override
+        public void close() {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+    
+    // DECIMAL(x,2) amount as cents, rounded the way MySQL stores it (null = 0)
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    private void bindInsert(PreparedStatement stmt, Payroll payroll) throws SQLException {
+        stmt.setInt(1, payroll.getEmpid());
+        stmt.setDate(2, Date.valueOf(payroll.getPayDate()));
+        stmt.setBigDecimal(3, payroll.getGrossPay());
+        stmt.setBigDecimal(4, payroll.getTotalTaxDeductions());
+        stmt.setBigDecimal(5, payroll.getNetPay());
+    }
+    
+    /**
+     * Base salary of every active employee (input for a payroll run)
+     * @return empid + annual salary, ordered by empid
+     */
+    public List<EmployeeSalary> findActiveSalaries() {
+        List<EmployeeSalary> salaries = new ArrayList<>();
+        streamActiveSalaries(row -> salaries.add(row));
+        return salaries;
+    }
+    
+    /**
+     * Same as findActiveSalaries, but rows go to the handler as the driver reads them,
+     * so a payroll run never holds the whole company in memory
+     * @param handler gets each row; return false to stop reading
+     * @return number of rows handed over, or -1 if the query failed
+     */
+    public int streamActiveSalaries(Predicate<EmployeeSalary> handler) {
+        return streamActiveSalaries(0, handler);
+    }
+    
+    /**
+     * Same, starting after an empid (resuming a payroll run from its checkpoint)
+     */
+    public int streamActiveSalaries(int afterEmpid, Predicate<EmployeeSalary> handler) {
+        int count = 0;
+        
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(GET_ACTIVE_SALARIES,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // let the driver stream rows instead of buffering the whole result set
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            stmt.setInt(1, afterEmpid);
+            
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                count++;
+                EmployeeSalary row = new EmployeeSalary(rs.getInt("empid"), rs.getBigDecimal("base_salary"),
+                        rs.getString("state_id"));
+                if (!handler.test(row)) {
+                    break;
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting active salaries: " + e.getMessage());
+            return -1;
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Active employees whose row changed after the watermark (input for a correction run)
+     * @param handler gets each row, ordered by empid; return false to stop reading
+     * @return number of rows handed over, or -1 if the query failed
+     */
+    public int streamChangedSalaries(LocalDateTime changedAfter, Predicate<EmployeeSalary> handler) {
+        int count = 0;
+        
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(GET_CHANGED_SALARIES);
+            Timestamp after = Timestamp.valueOf(changedAfter);
+            stmt.setTimestamp(1, after);
+            stmt.setTimestamp(2, after);
+            stmt.setTimestamp(3, after);
+            
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                count++;
+                EmployeeSalary row = new EmployeeSalary(rs.getInt("empid"), rs.getBigDecimal("base_salary"),
+                        rs.getString("state_id"));
+                if (!handler.test(row)) {
+                    break;
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error getting changed salaries: " + e.getMessage());
+            return -1;
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        
+        return count;
+    }
+    
+    /**
+     * Column names (lower case) of a table in the connected database, to tell the schemas apart
+     * @return the columns, empty if there's no such table, or null if the lookup failed
+     */
+    public Set<String> findColumns(String table) {
+        Set<String> columns = new HashSet<>();
+        
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(FIND_COLUMNS);
+            stmt.setString(1, table);
+            
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                columns.add(rs.getString("column_name"));
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error reading the columns of " + table + ": " + e.getMessage());
+            return null;
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        
+        return columns;
+    }
+    
     /**
      * Update an existing pay statement
      * @param payroll The payroll record to update
@@ -281,6 +688,8 @@ public class PayrollDAO {
         Connection conn = null;
         try {
             conn = dbConnection.getAdminConnection();
+            // the statement may be moving to another month, so both months are stale
+            LocalDate oldPayDate = findPayDate(conn, payroll.getPayrollId());
             PreparedStatement stmt = conn.prepareStatement(UPDATE_PAY_STATEMENT);
             
             stmt.setDate(1, Date.valueOf(payroll.getPayDate()));
@@ -290,6 +699,10 @@ public class PayrollDAO {
             stmt.setInt(5, payroll.getPayrollId());
             
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) {
+                cache.invalidate(oldPayDate);
+                cache.invalidate(payroll.getPayDate());
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -310,10 +723,14 @@ public class PayrollDAO {
         Connection conn = null;
         try {
             conn = dbConnection.getAdminConnection();
+            LocalDate oldPayDate = findPayDate(conn, id);
             PreparedStatement stmt = conn.prepareStatement(DELETE_PAY_STATEMENT);
             stmt.setLong(1, id);
             
             int rowsAffected = stmt.executeUpdate();
+            if (rowsAffected > 0) {
+                cache.invalidate(oldPayDate);
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -325,7 +742,82 @@ public class PayrollDAO {
         return false;
     }
     
+    /**
+     * Look up the current pay date of a statement (used to invalidate cached reports)
+     * @return the pay date, or null if the statement does not exist
+     */
+    private LocalDate findPayDate(Connection conn, long id) throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(GET_PAY_DATE_BY_ID);
+        stmt.setLong(1, id);
+        ResultSet rs = stmt.executeQuery();
+        if (rs.next() && rs.getDate("pay_date") != null) {
+            return rs.getDate("pay_date").toLocalDate();
+        }
+        return null;
+    }
+    
     // Helper classes for report data
+    /**
+     * A chunk of pay statements for one pay date as parallel arrays of cents,
+     * so bulk runs don't need a Payroll object per employee
+     */
+    public static class StatementBatch {
+        private final LocalDate payDate;
+        private final int[] empids;
+        private final long[] grossCents;
+        private final long[] taxCents;
+        private final long[] netCents;
+        private int size;
+        private int checkpoint = -1;
+        
+        public StatementBatch(LocalDate payDate, int capacity) {
+            this.payDate = payDate;
+            this.empids = new int[capacity];
+            this.grossCents = new long[capacity];
+            this.taxCents = new long[capacity];
+            this.netCents = new long[capacity];
+        }
+        
+        public void add(int empid, long gross, long taxes, long net) {
+            empids[size] = empid;
+            grossCents[size] = gross;
+            taxCents[size] = taxes;
+            netCents[size] = net;
+            size++;
+        }
+        
+        public LocalDate getPayDate() { return payDate; }
+        public int size() { return size; }
+        public boolean isFull() { return size == empids.length; }
+        // once this batch commits, every employee up to this empid is written (-1 = no new checkpoint)
+        public int getCheckpoint() { return checkpoint; }
+        public void setCheckpoint(int empid) { this.checkpoint = empid; }
+        public int getEmpid(int i) { return empids[i]; }
+        public long getGrossCents(int i) { return grossCents[i]; }
+        public long getTaxCents(int i) { return taxCents[i]; }
+        public long getNetCents(int i) { return netCents[i]; }
+    }
+    
+    public static class EmployeeSalary {
+        private final int empid;
+        private final BigDecimal baseSalary;
+        private final String stateCode; // from the address, null if unknown
+        
+        public EmployeeSalary(int empid, BigDecimal baseSalary) {
+            this(empid, baseSalary, null);
+        }
+        
+        public EmployeeSalary(int empid, BigDecimal baseSalary, String stateCode) {
+            this.empid = empid;
+            this.baseSalary = baseSalary;
+            this.stateCode = stateCode;
+        }
+        
+        public int getEmpid() { return empid; }
+        public BigDecimal getBaseSalary() { return baseSalary; }
+        public String getStateCode() { return stateCode; }
+    }
+    
     public static class PayStatementRecord {
         private long id;
         private int empid;
@@ -0,0 +1,249 @@
+package com.employeemgmt.dao;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/*
+    PayrollRunDAO
+    -------------
+    The payroll_run journal (migration V003). One row per payroll run:
+
+        RUNNING    - started, last_empid is the checkpoint so far
+        COMPLETED  - every active employee got a statement
+        FAILED     - stopped on an error; the next run for the same pay
+                     date picks it up again from last_empid
+
+    kind is FULL (everyone) or CHANGED (a correction run for the employees
+    changed since the pay date's last completed run, see V004). Only FULL
+    runs are resumed; a failed correction just leaves the watermark where
+    it was, so the next one covers the same employees again.
+
+    The checkpoint itself is written by PayrollDAO.StatementBatchWriter in
+    the same transaction as the statements (CHECKPOINT below), so the
+    journal never says more was written than actually was.
+*/
+public class PayrollRunDAO {
+
+    private static final String INSERT_RUN = """
+        INSERT INTO payroll_run (pay_date, kind, status, last_empid, statements_written, rules, inputs_as_of)
+        VALUES (?, ?, 'RUNNING', 0, 0, ?, CURRENT_TIMESTAMP(3))
+        """;
+
+    // newest run for the pay date that didn't complete
+    private static final String FIND_UNFINISHED = """
+        SELECT run_id, pay_date, status, last_empid, statements_written, rules, started_at, updated_at,
+               TIMESTAMPDIFF(SECOND, updated_at, CURRENT_TIMESTAMP) AS idle_seconds
+        FROM payroll_run
+        WHERE pay_date = ? AND kind = 'FULL' AND status <> 'COMPLETED'
+        ORDER BY run_id DESC
+        LIMIT 1
+        """;
+
+    // employees changed after this were not seen by any completed run for the pay date
+    // (runs from before V004 have no inputs_as_of, their start time is close enough)
+    private static final String FIND_WATERMARK = """
+        SELECT MAX(COALESCE(inputs_as_of, started_at)) AS watermark
+        FROM payroll_run
+        WHERE pay_date = ? AND status = 'COMPLETED'
+        """;
+
+    private static final String RESUME_RUN = """
+        UPDATE payroll_run SET status = 'RUNNING', rules = ?, message = NULL, finished_at = NULL
+        WHERE run_id = ? AND status <> 'COMPLETED'
+        """;
+
+    private static final String FINISH_RUN = """
+        UPDATE payroll_run SET status = ?, message = ?, finished_at = CURRENT_TIMESTAMP
+        WHERE run_id = ?
+        """;
+
+    // used by StatementBatchWriter inside the batch's transaction
+    static final String CHECKPOINT = """
+        UPDATE payroll_run
+        SET last_empid = GREATEST(last_empid, ?), statements_written = statements_written + ?
+        WHERE run_id = ?
+        """;
+
+    private final DatabaseConnection dbConnection;
+
+    public PayrollRunDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Journal a new run for the pay date
+     * @return the new run, or null if it couldn't be recorded (e.g. V003 not applied)
+     */
+    public PayrollRun start(LocalDate payDate, String rules) {
+        return start(payDate, rules, false);
+    }
+
+    /**
+     * Journal a new run; changedOnly = a correction run (kind CHANGED)
+     */
+    public PayrollRun start(LocalDate payDate, String rules, boolean changedOnly) {
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(INSERT_RUN, Statement.RETURN_GENERATED_KEYS);
+            stmt.setDate(1, Date.valueOf(payDate));
+            stmt.setString(2, changedOnly ? "CHANGED" : "FULL");
+            stmt.setString(3, limit(rules));
+            stmt.executeUpdate();
+
+            ResultSet keys = stmt.getGeneratedKeys();
+            if (keys.next()) {
+                LocalDateTime now = LocalDateTime.now();
+                return new PayrollRun(keys.getLong(1), payDate, "RUNNING", 0, 0, rules, now, now, 0);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error starting payroll run journal: " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return null;
+    }
+
+    /**
+     * Newest RUNNING or FAILED run for the pay date
+     * @return the run, or null if there is none (or the journal can't be read)
+     */
+    public PayrollRun findUnfinished(LocalDate payDate) {
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(FIND_UNFINISHED);
+            stmt.setDate(1, Date.valueOf(payDate));
+
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return new PayrollRun(
+                        rs.getLong("run_id"),
+                        rs.getDate("pay_date").toLocalDate(),
+                        rs.getString("status"),
+                        rs.getInt("last_empid"),
+                        rs.getInt("statements_written"),
+                        rs.getString("rules"),
+                        rs.getTimestamp("started_at").toLocalDateTime(),
+                        rs.getTimestamp("updated_at").toLocalDateTime(),
+                        rs.getLong("idle_seconds"));
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error reading payroll run journal: " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return null;
+    }
+
+    /**
+     * When the newest completed run for the pay date started reading salaries
+     * @return the database time, or null if no run for that date has completed
+     */
+    public LocalDateTime findWatermark(LocalDate payDate) {
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(FIND_WATERMARK);
+            stmt.setDate(1, Date.valueOf(payDate));
+
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next() && rs.getTimestamp("watermark") != null) {
+                return rs.getTimestamp("watermark").toLocalDateTime();
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error reading payroll run watermark: " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return null;
+    }
+
+    /**
+     * Mark an unfinished run as running again (it keeps its checkpoint)
+     */
+    public boolean resume(long runId, String rules) {
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(RESUME_RUN);
+            stmt.setString(1, limit(rules));
+            stmt.setLong(2, runId);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error resuming payroll run " + runId + ": " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return false;
+    }
+
+    /**
+     * Close the run as COMPLETED, or FAILED with the reason
+     */
+    public boolean finish(long runId, boolean completed, String message) {
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(FINISH_RUN);
+            stmt.setString(1, completed ? "COMPLETED" : "FAILED");
+            stmt.setString(2, limit(message));
+            stmt.setLong(3, runId);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error finishing payroll run " + runId + ": " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return false;
+    }
+
+    // both text columns are VARCHAR(255)
+    private static String limit(String s) {
+        return s == null || s.length() <= 255 ? s : s.substring(0, 255);
+    }
+
+    public static class PayrollRun {
+        private final long runId;
+        private final LocalDate payDate;
+        private final String status;
+        private final int lastEmpid;
+        private final int statementsWritten;
+        private final String rules;
+        private final LocalDateTime startedAt;
+        private final LocalDateTime updatedAt;
+        private final long idleSeconds;
+
+        public PayrollRun(long runId, LocalDate payDate, String status, int lastEmpid, int statementsWritten,
+                          String rules, LocalDateTime startedAt, LocalDateTime updatedAt, long idleSeconds) {
+            this.runId = runId;
+            this.payDate = payDate;
+            this.status = status;
+            this.lastEmpid = lastEmpid;
+            this.statementsWritten = statementsWritten;
+            this.rules = rules;
+            this.startedAt = startedAt;
+            this.updatedAt = updatedAt;
+            this.idleSeconds = idleSeconds;
+        }
+
+        public long getRunId() { return runId; }
+        public LocalDate getPayDate() { return payDate; }
+        public String getStatus() { return status; }
+        public boolean isRunning() { return "RUNNING".equals(status); }
+        // every active employee with an empid up to this one has a statement
+        public int getLastEmpid() { return lastEmpid; }
+        public int getStatementsWritten() { return statementsWritten; }
+        public String getRules() { return rules; }
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public LocalDateTime getUpdatedAt() { return updatedAt; }
+        // seconds since the last checkpoint, by the database clock
+        public long getIdleSeconds() { return idleSeconds; }
+    }
+}
@@ -0,0 +1,80 @@
+package com.employeemgmt.dao;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/*
+    QueryControl
+    ------------
+    Timeout + cancel handle for the SQL a background report runs.
+
+    The report executor binds one of these to its worker thread before
+    running a report. DAO methods call QueryControl.attach(ps) right after
+    preparing a statement; if the current thread has a control bound, the
+    statement gets setQueryTimeout(...) and is remembered so cancel() can
+    call Statement.cancel() on it from another thread (e.g. the UI).
+
+    When nothing is bound (normal synchronous calls) attach() does nothing,
+    so DAO signatures and behaviour stay the same.
+*/
+public class QueryControl {
+
+    private static final ThreadLocal<QueryControl> CURRENT = new ThreadLocal<>();
+
+    private final int timeoutSeconds;
+    private volatile Statement running;
+    private volatile boolean cancelled = false;
+
+    public QueryControl(int timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    // ===== thread binding (used by the executor) =====
+
+    public static void bind(QueryControl control) {
+        CURRENT.set(control);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    // ===== called by DAOs =====
+
+    // applies the bound timeout and registers the statement for cancellation
+    public static void attach(Statement stmt) throws SQLException {
+        QueryControl control = CURRENT.get();
+        if (control == null) {
+            return;
+        }
+        if (control.cancelled) {
+            throw new SQLException("Report was cancelled");
+        }
+        if (control.timeoutSeconds > 0) {
+            stmt.setQueryTimeout(control.timeoutSeconds);
+        }
+        control.running = stmt;
+    }
+
+    // ===== called by whoever wants to stop the report =====
+
+    public void cancel() {
+        cancelled = true;
+        Statement stmt = running;
+        if (stmt != null) {
+            try {
+                stmt.cancel();
+            } catch (SQLException ignored) {
+                // statement already finished/closed, nothing to cancel
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public int getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+}
@@ -0,0 +1,200 @@
+package com.employeemgmt.dao;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/*
+    ReportCache
+    -----------
+    Shared cache for the month-based pay reports, so the same report run
+    by several HR admins only hits the joins once.
+
+    - key = report type + month range (a single-month report has from == to)
+    - closed months (before the current month) stay cached until a write
+      touches them; the current/future months also expire after a short TTL
+      in case something writes to pay statements behind our back
+    - PayrollDAO.save/update/delete and PayStatementDAO.insert call
+      invalidateMonth(...) so only reports covering that month are dropped
+    - LRU-bounded so a long-running app can't grow it forever
+    - other month-keyed stores (e.g. report snapshot files) can register a
+      listener to hear about invalidated months too, and whether the write
+      only added statements (INSERTED) or changed/removed some (CHANGED), so
+      something that loads by pay_id (the pay cube) can just top up
+*/
+public final class ReportCache {
+
+    private static final ReportCache INSTANCE = new ReportCache();
+
+    private static final int MAX_ENTRIES = 500;
+    private static final long OPEN_MONTH_TTL_MS = 60_000;
+
+    // what a pay statement write did
+    public enum Write {
+        INSERTED, // only new statements
+        CHANGED   // statements edited or deleted (or not known)
+    }
+
+    public interface InvalidationListener {
+        void invalidated(YearMonth month, Write write);
+    }
+
+    // a query that might fail; failures are never cached
+    public interface Loader<T> {
+        List<T> load() throws SQLException;
+    }
+
+    private static class Key {
+        private final String reportType;
+        private final YearMonth from;
+        private final YearMonth to;
+
+        Key(String reportType, YearMonth from, YearMonth to) {
+            this.reportType = reportType;
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean covers(YearMonth month) {
+            return !month.isBefore(from) && !month.isAfter(to);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return reportType.equals(k.reportType) && from.equals(k.from) && to.equals(k.to);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(reportType, from, to);
+        }
+    }
+
+    private static class Entry {
+        private final List<?> rows;
+        private final long expiresAt; // Long.MAX_VALUE for closed months
+
+        Entry(List<?> rows, long expiresAt) {
+            this.rows = rows;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    // access-ordered so removeEldestEntry drops the least recently used report
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+    // bumped on every invalidation; a load that raced with a write is not stored
+    private long generation = 0;
+    private long hits = 0;
+    private long misses = 0;
+
+    private ReportCache() {}
+
+    public static ReportCache getInstance() {
+        return INSTANCE;
+    }
+
+    // cached rows for a single-month report
+    public <T> List<T> get(String reportType, int year, int month, Loader<T> loader) throws SQLException {
+        YearMonth ym = YearMonth.of(year, month);
+        return get(reportType, ym, ym, loader);
+    }
+
+    // cached rows for a report over [from, to] (inclusive months)
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(String reportType, YearMonth from, YearMonth to, Loader<T> loader) throws SQLException {
+        Key key = new Key(reportType, from, to);
+        long startGeneration;
+
+        synchronized (this) {
+            Entry e = entries.get(key);
+            if (e != null && e.expiresAt > System.currentTimeMillis()) {
+                hits++;
+                return (List<T>) e.rows;
+            }
+            misses++;
+            startGeneration = generation;
+        }
+
+        // run the query without holding the lock
+        List<T> rows = List.copyOf(loader.load());
+
+        synchronized (this) {
+            if (generation == startGeneration) {
+                entries.put(key, new Entry(rows, expiryFor(to)));
+            }
+        }
+        return rows;
+    }
+
+    // a pay statement dated 'payDate' was written, changed or removed
+    public void invalidate(LocalDate payDate) {
+        invalidate(payDate, Write.CHANGED);
+    }
+
+    public void invalidate(LocalDate payDate, Write write) {
+        if (payDate != null) {
+            invalidateMonth(YearMonth.from(payDate), write);
+        }
+    }
+
+    public void invalidateMonth(YearMonth month) {
+        invalidateMonth(month, Write.CHANGED);
+    }
+
+    public void invalidateMonth(YearMonth month, Write write) {
+        synchronized (this) {
+            generation++;
+            Iterator<Key> it = entries.keySet().iterator();
+            while (it.hasNext()) {
+                if (it.next().covers(month)) {
+                    it.remove();
+                }
+            }
+        }
+        // outside the lock, listeners may do file I/O
+        for (InvalidationListener l : listeners) {
+            l.invalidated(month, write);
+        }
+    }
+
+    public void addInvalidationListener(InvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    // changes on every invalidation; compare before/after a query to spot a racing write
+    public synchronized long getGeneration() { return generation; }
+
+    public synchronized int size() { return entries.size(); }
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+
+    // closed months never change on their own, so only writes evict them
+    private static long expiryFor(YearMonth lastMonth) {
+        if (lastMonth.isBefore(YearMonth.now())) {
+            return Long.MAX_VALUE;
+        }
+        return System.currentTimeMillis() + OPEN_MONTH_TTL_MS;
+    }
+}
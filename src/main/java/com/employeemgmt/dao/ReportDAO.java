@@ -5,13 +5,16 @@ import com.employeemgmt.models.Employee;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 // Quick DAO just for reporting queries
 public class ReportDAO {
 
     private final DatabaseConnection db = DatabaseConnection.getInstance();
+    private final ReportCache cache = ReportCache.getInstance();
 
     // Used for job title + division totals
     public static class NameAndTotal {
@@ -32,6 +35,106 @@ public class ReportDAO {
         }
     }
 
+    // How salary statistics should be grouped
+    public enum StatsGrouping {
+        NONE, DIVISION, JOB_TITLE
+    }
+
+    // count / sum / mean / min / max / stddev / percentiles for one group of salaries
+    public static class SalaryStats {
+        private final String group;
+        private final long count;
+        private final BigDecimal sum;
+        private final BigDecimal mean;
+        private final BigDecimal min;
+        private final BigDecimal max;
+        private final double stddev;
+        private final BigDecimal p50;
+        private final BigDecimal p90;
+        private final BigDecimal p99;
+
+        public SalaryStats(String group, long count, BigDecimal sum, BigDecimal mean,
+                           BigDecimal min, BigDecimal max, double stddev,
+                           BigDecimal p50, BigDecimal p90, BigDecimal p99) {
+            this.group = group;
+            this.count = count;
+            this.sum = sum;
+            this.mean = mean;
+            this.min = min;
+            this.max = max;
+            this.stddev = stddev;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+        }
+
+        public String getGroup() { return group; }
+        public long getCount() { return count; }
+        public BigDecimal getSum() { return sum; }
+        public BigDecimal getMean() { return mean; }
+        public BigDecimal getMin() { return min; }
+        public BigDecimal getMax() { return max; }
+        public double getStddev() { return stddev; }
+        public BigDecimal getMedian() { return p50; }
+        public BigDecimal getP90() { return p90; }
+        public BigDecimal getP99() { return p99; }
+    }
+
+    // Used for month-by-month trend rows
+    public static class MonthlyTotal {
+        private final YearMonth month;
+        private final String name;
+        private final BigDecimal totalNet;
+
+        public MonthlyTotal(YearMonth month, String name, BigDecimal totalNet) {
+            this.month = month;
+            this.name = name;
+            this.totalNet = totalNet;
+        }
+
+        public YearMonth getMonth() {
+            return month;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public BigDecimal getTotalNet() {
+            return totalNet;
+        }
+    }
+
+    // One pay statement with its reporting dimensions attached (used by the pay cube)
+    public static class PayFact {
+        private final int payId;
+        private final LocalDate payDate;
+        private final String division;
+        private final String jobTitle;
+        private final String state;
+        private final BigDecimal gross;
+        private final BigDecimal net;
+
+        public PayFact(int payId, LocalDate payDate, String division, String jobTitle,
+                       String state, BigDecimal gross, BigDecimal net) {
+            this.payId = payId;
+            this.payDate = payDate;
+            this.division = division;
+            this.jobTitle = jobTitle;
+            this.state = state;
+            this.gross = gross;
+            this.net = net;
+        }
+
+        public int getPayId() { return payId; }
+        public LocalDate getPayDate() { return payDate; }
+        public String getDivision() { return division; }
+        public String getJobTitle() { return jobTitle; }
+        public String getState() { return state; }
+        public BigDecimal getGross() { return gross; }
+        public BigDecimal getNet() { return net; }
+    }
+
     private Employee mapEmployeeRow(ResultSet rs) throws SQLException {
         Employee e = new Employee();
         e.setEmpid(rs.getInt("empid"));
@@ -47,8 +150,6 @@ public class ReportDAO {
 
     // Total net pay for a given year/month grouped by job title
     public List<NameAndTotal> totalNetPayByJob(int year, int month) {
-        List<NameAndTotal> list = new ArrayList<>();
-
         String sql = """
             SELECT jt.job_title AS name,
                    SUM(ps.net_pay) AS total_net
@@ -56,35 +157,39 @@ public class ReportDAO {
             JOIN employees e        ON e.empid = ps.empid
             JOIN employee_job ej    ON ej.empid = e.empid
             JOIN job_title jt       ON jt.job_id = ej.job_id
-            WHERE YEAR(ps.pay_date) = ?
-              AND MONTH(ps.pay_date) = ?
+            WHERE ps.pay_date >= ?
+              AND ps.pay_date <  ?
             GROUP BY jt.job_title
             ORDER BY jt.job_title
         """;
 
-        try (Connection conn = db.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        try {
+            return cache.get("netPayByJob", year, month, () -> {
+                List<NameAndTotal> list = new ArrayList<>();
+                try (Connection conn = db.getConnection();
+                     PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setInt(1, year);
-            ps.setInt(2, month);
+                    QueryControl.attach(ps);
+                    DateRanges.bindMonth(ps, 1, year, month);
 
-            ResultSet rs = ps.executeQuery();
-            while (rs.next()) {
-                String name = rs.getString("name");
-                BigDecimal total = rs.getBigDecimal("total_net");
-                list.add(new NameAndTotal(name, total));
-            }
+                    ResultSet rs = ps.executeQuery();
+                    while (rs.next()) {
+                        String name = rs.getString("name");
+                        BigDecimal total = rs.getBigDecimal("total_net");
+                        list.add(new NameAndTotal(name, total));
+                    }
+                }
+                return list;
+            });
         } catch (Exception e) {
             System.out.println("Error totalNetPayByJob: " + e.getMessage());
         }
 
-        return list;
+        return new ArrayList<>();
     }
 
     // Total net pay for a given year/month grouped by division
     public List<NameAndTotal> totalNetPayByDivision(int year, int month) {
-        List<NameAndTotal> list = new ArrayList<>();
-
         String sql = """
             SELECT d.Name AS name,
                    SUM(ps.net_pay) AS total_net
@@ -92,34 +197,224 @@ public class ReportDAO {
             JOIN employees e           ON e.empid = ps.empid
             JOIN employee_division ed  ON ed.empid = e.empid
             JOIN division d            ON d.ID = ed.div_ID
-            WHERE YEAR(ps.pay_date) = ?
-              AND MONTH(ps.pay_date) = ?
+            WHERE ps.pay_date >= ?
+              AND ps.pay_date <  ?
             GROUP BY d.ID, d.Name
             ORDER BY d.Name
         """;
 
+        try {
+            return cache.get("netPayByDivision", year, month, () -> {
+                List<NameAndTotal> list = new ArrayList<>();
+                try (Connection conn = db.getConnection();
+                     PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                    QueryControl.attach(ps);
+                    DateRanges.bindMonth(ps, 1, year, month);
+
+                    ResultSet rs = ps.executeQuery();
+                    while (rs.next()) {
+                        String name = rs.getString("name");
+                        BigDecimal total = rs.getBigDecimal("total_net");
+                        list.add(new NameAndTotal(name, total));
+                    }
+                }
+                return list;
+            });
+        } catch (Exception e) {
+            System.out.println("Error totalNetPayByDivision: " + e.getMessage());
+        }
+
+        return new ArrayList<>();
+    }
+
+    // What a month of pay_statements looks like right now: "rows/max pay_id/sum of net_pay".
+    // Snapshot files keep the value they were built from, so a statement written by any
+    // process (not just this one) makes the file stale. Answered from the
+    // (pay_date, empid, gross_pay, net_pay) index alone (V010). null if the query failed.
+    public String monthFingerprint(int year, int month) {
+        String sql = """
+            SELECT COUNT(*) AS n, COALESCE(MAX(pay_id), 0) AS max_id, COALESCE(SUM(net_pay), 0) AS total_net
+            FROM pay_statements
+            WHERE pay_date >= ?
+              AND pay_date <  ?
+        """;
+
         try (Connection conn = db.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setInt(1, year);
-            ps.setInt(2, month);
+            QueryControl.attach(ps);
+            DateRanges.bindMonth(ps, 1, year, month);
+
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return rs.getLong("n") + "/" + rs.getLong("max_id") + "/"
+                        + rs.getBigDecimal("total_net").toPlainString();
+            }
+        } catch (Exception e) {
+            System.out.println("Error monthFingerprint: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    // Salary statistics computed entirely in MySQL, optionally per division or job title.
+    // Percentiles use the nearest-rank method: the smallest salary whose row number
+    // within its group is >= CEIL(p * count). Needs MySQL 8 window functions.
+    public List<SalaryStats> salaryStatistics(StatsGrouping grouping) {
+        List<SalaryStats> list = new ArrayList<>();
 
+        String groupExpr;
+        String joins;
+        switch (grouping) {
+            case DIVISION -> {
+                groupExpr = "COALESCE(d.Name, '(none)')";
+                joins = """
+                    LEFT JOIN employee_division ed ON ed.empid = e.empid
+                    LEFT JOIN division d           ON d.ID = ed.div_ID
+                """;
+            }
+            case JOB_TITLE -> {
+                groupExpr = "COALESCE(jt.job_title, '(none)')";
+                joins = """
+                    LEFT JOIN employee_job ej ON ej.empid = e.empid
+                    LEFT JOIN job_title jt    ON jt.job_id = ej.job_id
+                """;
+            }
+            default -> {
+                groupExpr = "'All employees'";
+                joins = "";
+            }
+        }
+
+        String sql = """
+            SELECT grp,
+                   COUNT(*)              AS cnt,
+                   SUM(salary)           AS total,
+                   AVG(salary)           AS mean,
+                   MIN(salary)           AS min_salary,
+                   MAX(salary)           AS max_salary,
+                   STDDEV_POP(salary)    AS stddev,
+                   MIN(CASE WHEN rn >= CEIL(0.50 * n) THEN salary END) AS p50,
+                   MIN(CASE WHEN rn >= CEIL(0.90 * n) THEN salary END) AS p90,
+                   MIN(CASE WHEN rn >= CEIL(0.99 * n) THEN salary END) AS p99
+            FROM (
+                SELECT %s AS grp,
+                       e.Salary AS salary,
+                       ROW_NUMBER() OVER (PARTITION BY %s ORDER BY e.Salary) AS rn,
+                       COUNT(*)     OVER (PARTITION BY %s) AS n
+                FROM employees e
+                %s
+                WHERE e.Salary IS NOT NULL
+            ) t
+            GROUP BY grp
+            ORDER BY grp
+        """.formatted(groupExpr, groupExpr, groupExpr, joins);
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            QueryControl.attach(ps);
             ResultSet rs = ps.executeQuery();
             while (rs.next()) {
-                String name = rs.getString("name");
-                BigDecimal total = rs.getBigDecimal("total_net");
-                list.add(new NameAndTotal(name, total));
+                list.add(new SalaryStats(
+                        rs.getString("grp"),
+                        rs.getLong("cnt"),
+                        rs.getBigDecimal("total"),
+                        rs.getBigDecimal("mean"),
+                        rs.getBigDecimal("min_salary"),
+                        rs.getBigDecimal("max_salary"),
+                        rs.getDouble("stddev"),
+                        rs.getBigDecimal("p50"),
+                        rs.getBigDecimal("p90"),
+                        rs.getBigDecimal("p99")
+                ));
             }
         } catch (Exception e) {
-            System.out.println("Error totalNetPayByDivision: " + e.getMessage());
+            System.out.println("Error salaryStatistics: " + e.getMessage());
         }
 
         return list;
     }
 
+    // Net pay per month per job title for a whole range of months, in one query
+    public List<MonthlyTotal> netPayTrendByJob(YearMonth from, YearMonth to) {
+        String sql = """
+            SELECT YEAR(ps.pay_date) AS y,
+                   MONTH(ps.pay_date) AS m,
+                   jt.job_title AS name,
+                   SUM(ps.net_pay) AS total_net
+            FROM pay_statements ps
+            JOIN employees e        ON e.empid = ps.empid
+            JOIN employee_job ej    ON ej.empid = e.empid
+            JOIN job_title jt       ON jt.job_id = ej.job_id
+            WHERE ps.pay_date >= ?
+              AND ps.pay_date <  ?
+            GROUP BY y, m, jt.job_title
+            ORDER BY y, m, jt.job_title
+        """;
+        return monthlyTrend(sql, from, to, "netPayTrendByJob");
+    }
+
+    // Net pay per month per division for a whole range of months, in one query
+    public List<MonthlyTotal> netPayTrendByDivision(YearMonth from, YearMonth to) {
+        String sql = """
+            SELECT YEAR(ps.pay_date) AS y,
+                   MONTH(ps.pay_date) AS m,
+                   d.Name AS name,
+                   SUM(ps.net_pay) AS total_net
+            FROM pay_statements ps
+            JOIN employees e           ON e.empid = ps.empid
+            JOIN employee_division ed  ON ed.empid = e.empid
+            JOIN division d            ON d.ID = ed.div_ID
+            WHERE ps.pay_date >= ?
+              AND ps.pay_date <  ?
+            GROUP BY y, m, d.ID, d.Name
+            ORDER BY y, m, d.Name
+        """;
+        return monthlyTrend(sql, from, to, "netPayTrendByDivision");
+    }
+
+    // shared runner for the two trend queries above (YEAR/MONTH only appear in the
+    // select/group by, the WHERE stays a plain pay_date range)
+    private List<MonthlyTotal> monthlyTrend(String sql, YearMonth from, YearMonth to, String label) {
+        try {
+            // the method name doubles as the cache key
+            return cache.get(label, from, to, () -> {
+                List<MonthlyTotal> list = new ArrayList<>();
+                try (Connection conn = db.getConnection();
+                     PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                    QueryControl.attach(ps);
+                    DateRanges.bindMonths(ps, 1, from, to);
+
+                    ResultSet rs = ps.executeQuery();
+                    while (rs.next()) {
+                        YearMonth month = YearMonth.of(rs.getInt("y"), rs.getInt("m"));
+                        list.add(new MonthlyTotal(month, rs.getString("name"), rs.getBigDecimal("total_net")));
+                    }
+                }
+                return list;
+            });
+        } catch (Exception e) {
+            System.out.println("Error " + label + ": " + e.getMessage());
+        }
+
+        return new ArrayList<>();
+    }
+
     // Employees hired between two dates
     public List<Employee> employeesHiredBetween(LocalDate start, LocalDate end) {
         List<Employee> list = new ArrayList<>();
+        streamEmployeesHiredBetween(start, end, list::add);
+        return list;
+    }
+
+    // Same query, but each row goes to the handler as soon as it's read,
+    // so report output can start before the last row arrives. Returns the row count,
+    // or -1 if the query failed (the rows handed over so far are then incomplete).
+    public int streamEmployeesHiredBetween(LocalDate start, LocalDate end, Consumer<Employee> handler) {
+        int count = 0;
 
         String sql = """
             SELECT *
@@ -131,17 +426,74 @@ public class ReportDAO {
         try (Connection conn = db.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
+            QueryControl.attach(ps);
             ps.setDate(1, Date.valueOf(start));
             ps.setDate(2, Date.valueOf(end));
+            ps.setFetchSize(Integer.MIN_VALUE);
 
             ResultSet rs = ps.executeQuery();
             while (rs.next()) {
-                list.add(mapEmployeeRow(rs));
+                handler.accept(mapEmployeeRow(rs));
+                count++;
             }
         } catch (Exception e) {
             System.out.println("Error employeesHiredBetween: " + e.getMessage());
+            return -1;
         }
 
-        return list;
+        return count;
+    }
+
+    // Streams every pay statement with pay_id > afterPayId to the handler, one row at a time.
+    // Pass 0 for a full load. Returns the highest pay_id seen (or afterPayId if nothing new),
+    // so the caller can use it as the watermark for the next incremental load, or -1 if the
+    // query failed (the rows handed over so far are then incomplete).
+    public int streamPayFactsAfter(int afterPayId, Consumer<PayFact> handler) {
+        int maxSeen = afterPayId;
+
+        String sql = """
+            SELECT ps.pay_id, ps.pay_date, ps.gross_pay, ps.net_pay,
+                   d.Name AS division, d.state AS state, jt.job_title AS job_title
+            FROM pay_statements ps
+            LEFT JOIN employee_division ed ON ed.empid = ps.empid
+            LEFT JOIN division d           ON d.ID = ed.div_ID
+            LEFT JOIN employee_job ej      ON ej.empid = ps.empid
+            LEFT JOIN job_title jt         ON jt.job_id = ej.job_id
+            WHERE ps.pay_id > ?
+            ORDER BY ps.pay_id
+        """;
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            QueryControl.attach(ps);
+            ps.setInt(1, afterPayId);
+            // let the driver stream rows instead of buffering the whole result set
+            ps.setFetchSize(Integer.MIN_VALUE);
+
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                int payId = rs.getInt("pay_id");
+                Date d = rs.getDate("pay_date");
+                if (d == null) {
+                    continue;
+                }
+                handler.accept(new PayFact(
+                        payId,
+                        d.toLocalDate(),
+                        rs.getString("division"),
+                        rs.getString("job_title"),
+                        rs.getString("state"),
+                        rs.getBigDecimal("gross_pay"),
+                        rs.getBigDecimal("net_pay")
+                ));
+                maxSeen = Math.max(maxSeen, payId);
+            }
+        } catch (Exception e) {
+            System.out.println("Error streamPayFactsAfter: " + e.getMessage());
+            return -1;
+        }
+
+        return maxSeen;
     }
 }
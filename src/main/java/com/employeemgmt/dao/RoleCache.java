@@ -0,0 +1,70 @@
+package com.employeemgmt.dao;
+
+import com.employeemgmt.models.User.UserRole;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.Map;
+
+/*
+    RoleCache
+    ---------
+    The role table (ADMIN / EMPLOYEE) in memory, so user inserts and
+    updates can bind role_id directly instead of running
+    (SELECT role_id FROM role WHERE name = ?) on every write.
+
+    Loaded once at startup (Main), or on first use if that failed.
+    The table only changes with a schema change, so it's never refreshed.
+*/
+public final class RoleCache {
+
+    private static final RoleCache INSTANCE = new RoleCache();
+
+    private static final String LOAD_ROLES = "SELECT role_id, name FROM role";
+
+    private volatile Map<UserRole, Integer> ids; // null until loaded
+
+    private RoleCache() {}
+
+    public static RoleCache getInstance() {
+        return INSTANCE;
+    }
+
+    // reads the role table; returns false (and tries again later) if the DB isn't there
+    public synchronized boolean load() {
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getAdminConnection();
+            Statement stmt = conn.createStatement();
+            ResultSet rs = stmt.executeQuery(LOAD_ROLES);
+
+            Map<UserRole, Integer> loaded = new EnumMap<>(UserRole.class);
+            while (rs.next()) {
+                try {
+                    loaded.put(UserRole.fromString(rs.getString("name")), rs.getInt("role_id"));
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Ignoring unknown role: " + rs.getString("name"));
+                }
+            }
+            ids = loaded;
+            return true;
+
+        } catch (SQLException e) {
+            System.err.println("Could not load roles: " + e.getMessage());
+            return false;
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // role_id for a role, or null if the role table couldn't be read / has no such role
+    public Integer roleId(UserRole role) {
+        Map<UserRole, Integer> current = ids;
+        if (current == null && load()) {
+            current = ids;
+        }
+        return (current == null || role == null) ? null : current.get(role);
+    }
+}
@@ -0,0 +1,457 @@
+package com.employeemgmt.dao;
+
+import java.math.BigDecimal;
+import java.sql.*;
+
+/*
+    SalaryUpdateJobDAO
+    ------------------
+    SQL for chunked salary band raises (SalaryBulkUpdateJob) and their
+    journal table salary_update_job (migration V005).
+
+    applyChunk() is one short transaction:
+      1. lock the job's row and check its watermark is still where this
+         run left it (another run that took the job over moves it)
+      2. find the next chunkSize employees of the band after the watermark
+         (empid order, so it's a primary key range scan)
+      3. raise everyone of the band in that empid range
+      4. move the job's watermark to the range's last empid
+    The chunk's rows are the only ones locked, and only until its commit.
+
+    applyChanges() is the same for a previewed raise (SalaryRaiseSimulator):
+    the next chunk of the preview's employees is locked by primary key,
+    checked against the preview's old salaries, given exactly the preview's
+    new ones, and the watermark moves, in one transaction. checkBand() is
+    the lock-free look before the first chunk, so a preview that is out of
+    date normally writes nothing at all.
+
+    Only one job per raise can be RUNNING: V009 puts a unique key on it,
+    so of two runs starting the same raise at once, one start() gets
+    ALREADY_RUNNING. resume() only takes over a FAILED job or a RUNNING
+    one that has been idle for the stale time, and marks it as just used
+    in the same UPDATE, so two runs can't both take it over. Jobs idle
+    longer than the resume window are never resumed: findUnfinished()
+    skips such FAILED ones and expire() retires such RUNNING ones.
+*/
+public class SalaryUpdateJobDAO {
+
+    private final DatabaseConnection db;
+
+    // a chunk that found nothing left in the band
+    public static final int BAND_DONE = -1;
+    // a chunk that found the job's watermark moved by another run
+    public static final int JOB_TAKEN_OVER = -2;
+    // a preview chunk whose employees no longer have the preview's old salaries
+    public static final int CHUNK_CHANGED = -3;
+    // returned by start() when a job for the same raise is already RUNNING
+    public static final long ALREADY_RUNNING = -2;
+    // returned by checkBand() when the band no longer matches the preview
+    public static final int BAND_CHANGED = -2;
+    // employees locked per statement by applyChanges
+    private static final int LOCK_CHUNK = 500;
+
+    public SalaryUpdateJobDAO() {
+        this(DatabaseConnection.getInstance());
+    }
+
+    // tests hand in null and override every method
+    protected SalaryUpdateJobDAO(DatabaseConnection db) {
+        this.db = db;
+    }
+
+    // start a job; returns its job_id, ALREADY_RUNNING, or -1 on error
+    public long start(BigDecimal min, BigDecimal max, BigDecimal percent) {
+        String sql = """
+            INSERT INTO salary_update_job (min_salary, max_salary, percent, status)
+            VALUES (?, ?, ?, 'RUNNING')
+        """;
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            ps.setBigDecimal(1, min);
+            ps.setBigDecimal(2, max);
+            ps.setBigDecimal(3, percent);
+            ps.executeUpdate();
+
+            ResultSet keys = ps.getGeneratedKeys();
+            if (keys.next()) {
+                return keys.getLong(1);
+            }
+
+        } catch (SQLIntegrityConstraintViolationException e) {
+            return ALREADY_RUNNING;
+        } catch (Exception e) {
+            System.out.println("Error starting salary update job: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    // newest job for exactly this raise that didn't complete, or null. A FAILED job last touched
+    // more than resumeSeconds ago doesn't count any more; RUNNING ones always do (they hold the
+    // V009 key, see expire())
+    public Job findUnfinished(BigDecimal min, BigDecimal max, BigDecimal percent, long resumeSeconds) {
+        String sql = """
+            SELECT job_id, status, last_empid, rows_updated,
+                   TIMESTAMPDIFF(SECOND, updated_at, CURRENT_TIMESTAMP) AS idle_seconds
+            FROM salary_update_job
+            WHERE min_salary = ? AND max_salary = ? AND percent = ?
+              AND (status = 'RUNNING'
+                   OR (status = 'FAILED' AND updated_at > CURRENT_TIMESTAMP - INTERVAL ? SECOND))
+            ORDER BY job_id DESC
+            LIMIT 1
+        """;
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setBigDecimal(1, min);
+            ps.setBigDecimal(2, max);
+            ps.setBigDecimal(3, percent);
+            ps.setLong(4, resumeSeconds);
+
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return new Job(rs.getLong("job_id"), rs.getString("status"), rs.getInt("last_empid"),
+                        rs.getInt("rows_updated"), rs.getLong("idle_seconds"));
+            }
+
+        } catch (Exception e) {
+            System.out.println("Error reading salary update jobs: " + e.getMessage());
+        }
+        return null;
+    }
+
+    // mark a FAILED job, or a RUNNING one idle for staleSeconds, RUNNING again (keeps its
+    // watermark); false if it isn't either of those (anymore), e.g. another run just took it
+    public boolean resume(long jobId, long staleSeconds) {
+        String sql = """
+            UPDATE salary_update_job
+            SET status = 'RUNNING', message = NULL, finished_at = NULL, updated_at = CURRENT_TIMESTAMP
+            WHERE job_id = ?
+              AND (status = 'FAILED'
+                   OR (status = 'RUNNING' AND updated_at <= CURRENT_TIMESTAMP - INTERVAL ? SECOND))
+        """;
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, jobId);
+            ps.setLong(2, staleSeconds);
+            return ps.executeUpdate() > 0;
+
+        } catch (Exception e) {
+            System.out.println("Error resuming salary update job: " + e.getMessage());
+        }
+        return false;
+    }
+
+    // mark a RUNNING job idle for resumeSeconds as FAILED without resuming it: its run died so long
+    // ago that running the raise now is new work. false if it isn't (anymore)
+    public boolean expire(long jobId, long resumeSeconds) {
+        String sql = """
+            UPDATE salary_update_job
+            SET status = 'FAILED', message = 'expired, not resumed', finished_at = CURRENT_TIMESTAMP
+            WHERE job_id = ? AND status = 'RUNNING' AND updated_at <= CURRENT_TIMESTAMP - INTERVAL ? SECOND
+        """;
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, jobId);
+            ps.setLong(2, resumeSeconds);
+            return ps.executeUpdate() > 0;
+
+        } catch (Exception e) {
+            System.out.println("Error expiring salary update job: " + e.getMessage());
+        }
+        return false;
+    }
+
+    public boolean finish(long jobId, boolean completed, String message) {
+        String sql = """
+            UPDATE salary_update_job SET status = ?, message = ?, finished_at = CURRENT_TIMESTAMP
+            WHERE job_id = ?
+        """;
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, completed ? "COMPLETED" : "FAILED");
+            ps.setString(2, message == null || message.length() <= 255 ? message : message.substring(0, 255));
+            ps.setLong(3, jobId);
+            return ps.executeUpdate() > 0;
+
+        } catch (Exception e) {
+            System.out.println("Error finishing salary update job: " + e.getMessage());
+        }
+        return false;
+    }
+
+    // employees of the band after the watermark (for progress), -1 on error
+    public int countRemaining(BigDecimal min, BigDecimal max, int afterEmpid) {
+        String sql = "SELECT COUNT(*) FROM employees WHERE empid > ? AND Salary BETWEEN ? AND ?";
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, afterEmpid);
+            ps.setBigDecimal(2, min);
+            ps.setBigDecimal(3, max);
+
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+
+        } catch (Exception e) {
+            System.out.println("Error countRemaining: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    // raise the next chunk of the band by factor (1.035 = +3.5%) and move the job's watermark,
+    // all in one transaction; null on error (nothing from this chunk is kept then)
+    public Chunk applyChunk(long jobId, BigDecimal min, BigDecimal max, BigDecimal factor,
+                            int afterEmpid, int chunkSize) {
+        String boundarySql = """
+            SELECT MAX(empid) AS last_empid
+            FROM (SELECT empid FROM employees
+                  WHERE empid > ? AND Salary BETWEEN ? AND ?
+                  ORDER BY empid
+                  LIMIT ?) chunk
+        """;
+        String raiseSql = """
+            UPDATE employees
+            SET Salary = ROUND(Salary * ?, 2)
+            WHERE empid > ? AND empid <= ? AND Salary BETWEEN ? AND ?
+        """;
+        Connection conn = null;
+        try {
+            conn = db.getConnection();
+            conn.setAutoCommit(false);
+
+            if (!claim(conn, jobId, afterEmpid)) {
+                conn.rollback();
+                return new Chunk(JOB_TAKEN_OVER, 0);
+            }
+
+            int lastEmpid;
+            try (PreparedStatement ps = conn.prepareStatement(boundarySql)) {
+                ps.setInt(1, afterEmpid);
+                ps.setBigDecimal(2, min);
+                ps.setBigDecimal(3, max);
+                ps.setInt(4, chunkSize);
+                ResultSet rs = ps.executeQuery();
+                rs.next();
+                lastEmpid = rs.getInt("last_empid");
+                if (rs.wasNull()) {
+                    conn.commit();
+                    return new Chunk(BAND_DONE, 0);
+                }
+            }
+
+            int updated;
+            try (PreparedStatement ps = conn.prepareStatement(raiseSql)) {
+                ps.setBigDecimal(1, factor);
+                ps.setInt(2, afterEmpid);
+                ps.setInt(3, lastEmpid);
+                ps.setBigDecimal(4, min);
+                ps.setBigDecimal(5, max);
+                updated = ps.executeUpdate();
+            }
+
+            moveWatermark(conn, jobId, lastEmpid, updated);
+            conn.commit();
+            return new Chunk(lastEmpid, updated);
+
+        } catch (Exception e) {
+            System.out.println("Error applying salary chunk after empid " + afterEmpid + ": " + e.getMessage());
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException ignored) {}
+            }
+            return null;
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // 0 if the band [min, max] is exactly these employees (empid order) with these salaries,
+    // BAND_CHANGED if not, -1 on error. A plain read, nothing is locked
+    public int checkBand(BigDecimal min, BigDecimal max, int[] empids, BigDecimal[] oldSalaries) {
+        String sql = """
+            SELECT empid, Salary
+            FROM employees
+            WHERE Salary BETWEEN ? AND ?
+            ORDER BY empid
+        """;
+
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setBigDecimal(1, min);
+            ps.setBigDecimal(2, max);
+
+            int i = 0;
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                if (i >= empids.length || rs.getInt("empid") != empids[i]
+                        || rs.getBigDecimal("Salary").compareTo(oldSalaries[i]) != 0) {
+                    return BAND_CHANGED;
+                }
+                i++;
+            }
+            return i == empids.length ? 0 : BAND_CHANGED;
+
+        } catch (Exception e) {
+            System.out.println("Error checkBand: " + e.getMessage());
+        }
+        return -1;
+    }
+
+    // give empids[from, to) exactly newSalaries (a previewed raise) and move the job's watermark
+    // to empids[to - 1], in one transaction. Only those rows are locked, by primary key - Salary
+    // has no index, so "WHERE Salary BETWEEN ... FOR UPDATE" would lock the whole table.
+    // CHUNK_CHANGED (nothing written) if one of them is gone or no longer has its old salary;
+    // null on error
+    public Chunk applyChanges(long jobId, int afterEmpid, int[] empids, BigDecimal[] oldSalaries,
+                              BigDecimal[] newSalaries, int from, int to) {
+        String updateSql = "UPDATE employees SET Salary = ? WHERE empid = ?";
+
+        Connection conn = null;
+        try {
+            conn = db.getConnection();
+            conn.setAutoCommit(false);
+
+            if (!claim(conn, jobId, afterEmpid)) {
+                conn.rollback();
+                return new Chunk(JOB_TAKEN_OVER, 0);
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(updateSql)) {
+                for (int lo = from; lo < to; lo += LOCK_CHUNK) {
+                    int hi = Math.min(to, lo + LOCK_CHUNK);
+                    if (!lockUnchanged(conn, empids, oldSalaries, lo, hi)) {
+                        conn.rollback();
+                        return new Chunk(CHUNK_CHANGED, 0);
+                    }
+                    for (int i = lo; i < hi; i++) {
+                        ps.setBigDecimal(1, newSalaries[i]);
+                        ps.setInt(2, empids[i]);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            }
+
+            moveWatermark(conn, jobId, empids[to - 1], to - from);
+            conn.commit();
+            return new Chunk(empids[to - 1], to - from);
+
+        } catch (Exception e) {
+            System.out.println("Error applying salary changes after empid " + afterEmpid + ": " + e.getMessage());
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException ignored) {}
+            }
+            return null;
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    // locks the job's row; false if it isn't RUNNING or its watermark isn't where this run left it
+    private static boolean claim(Connection conn, long jobId, int afterEmpid) throws SQLException {
+        String sql = """
+            SELECT last_empid FROM salary_update_job
+            WHERE job_id = ? AND status = 'RUNNING'
+            FOR UPDATE
+        """;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, jobId);
+            ResultSet rs = ps.executeQuery();
+            return rs.next() && rs.getInt("last_empid") == afterEmpid;
+        }
+    }
+
+    private static void moveWatermark(Connection conn, long jobId, int lastEmpid, int updated) throws SQLException {
+        String sql = """
+            UPDATE salary_update_job
+            SET last_empid = ?, rows_updated = rows_updated + ?
+            WHERE job_id = ?
+        """;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, lastEmpid);
+            ps.setInt(2, updated);
+            ps.setLong(3, jobId);
+            ps.executeUpdate();
+        }
+    }
+
+    // locks empids[from, to) by primary key; false if one is gone or its salary isn't the old one
+    private static boolean lockUnchanged(Connection conn, int[] empids, BigDecimal[] oldSalaries,
+                                         int from, int to) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT empid, Salary FROM employees WHERE empid IN (");
+        for (int i = from; i < to; i++) {
+            sql.append(i == from ? "?" : ", ?");
+        }
+        sql.append(") ORDER BY empid FOR UPDATE");
+
+        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            for (int i = from; i < to; i++) {
+                ps.setInt(i - from + 1, empids[i]);
+            }
+            int i = from;
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                if (i >= to || rs.getInt("empid") != empids[i]
+                        || rs.getBigDecimal("Salary").compareTo(oldSalaries[i]) != 0) {
+                    return false;
+                }
+                i++;
+            }
+            return i == to;
+        }
+    }
+
+    public static class Job {
+        private final long jobId;
+        private final String status;
+        private final int lastEmpid;
+        private final int rowsUpdated;
+        private final long idleSeconds;
+
+        public Job(long jobId, String status, int lastEmpid, int rowsUpdated, long idleSeconds) {
+            this.jobId = jobId;
+            this.status = status;
+            this.lastEmpid = lastEmpid;
+            this.rowsUpdated = rowsUpdated;
+            this.idleSeconds = idleSeconds;
+        }
+
+        public long getJobId() { return jobId; }
+        public String getStatus() { return status; }
+        public boolean isRunning() { return "RUNNING".equals(status); }
+        public int getLastEmpid() { return lastEmpid; }
+        public int getRowsUpdated() { return rowsUpdated; }
+        // seconds since the last chunk committed, by the database clock
+        public long getIdleSeconds() { return idleSeconds; }
+    }
+
+    public static class Chunk {
+        private final int lastEmpid;
+        private final int updated;
+
+        public Chunk(int lastEmpid, int updated) {
+            this.lastEmpid = lastEmpid;
+            this.updated = updated;
+        }
+
+        // new watermark, BAND_DONE when nothing was left, JOB_TAKEN_OVER when another run has the job,
+        // CHUNK_CHANGED when a preview chunk's salaries moved
+        public int getLastEmpid() { return lastEmpid; }
+        public int getUpdated() { return updated; }
+        public boolean isDone() { return lastEmpid == BAND_DONE; }
+        public boolean isTakenOver() { return lastEmpid == JOB_TAKEN_OVER; }
+        public boolean isChanged() { return lastEmpid == CHUNK_CHANGED; }
+    }
+}
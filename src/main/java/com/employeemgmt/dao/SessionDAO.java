@@ -0,0 +1,162 @@
+package com.employeemgmt.dao;
+
+import com.employeemgmt.models.Session;
+import com.employeemgmt.models.User.UserRole;
+import java.sql.*;
+import java.time.LocalDateTime;
+
+// user_session table: one row per live login, keyed by the token's SHA-256
+public class SessionDAO {
+
+    private static final String INSERT_SESSION = """
+        INSERT INTO user_session (token_hash, user_id, username, role_name, empid, created_at, expires_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+
+    private static final String FIND_SESSION = """
+        SELECT token_hash, user_id, username, role_name, empid, created_at, expires_at
+        FROM user_session
+        WHERE token_hash = ?
+        """;
+
+    private static final String EXTEND_SESSION = """
+        UPDATE user_session SET expires_at = ? WHERE token_hash = ?
+        """;
+
+    private static final String DELETE_SESSION = """
+        DELETE FROM user_session WHERE token_hash = ?
+        """;
+
+    // every login of one user (idx_session_user)
+    private static final String DELETE_USER_SESSIONS = """
+        DELETE FROM user_session WHERE user_id = ?
+        """;
+
+    private static final String DELETE_EXPIRED = """
+        DELETE FROM user_session WHERE expires_at <= ?
+        """;
+
+    private final DatabaseConnection dbConnection;
+
+    public SessionDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    public boolean insert(Session s) {
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(INSERT_SESSION);
+            stmt.setString(1, s.getTokenHash());
+            stmt.setInt(2, s.getUserId());
+            stmt.setString(3, s.getUsername());
+            stmt.setString(4, s.getRole().getValue());
+            stmt.setObject(5, s.getEmpid());
+            stmt.setTimestamp(6, Timestamp.valueOf(s.getCreatedAt()));
+            stmt.setTimestamp(7, Timestamp.valueOf(s.getExpiresAt()));
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error saving session: " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return false;
+    }
+
+    // null if there's no such session (expired rows are returned, caller checks)
+    public Session findByTokenHash(String tokenHash) {
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(FIND_SESSION);
+            stmt.setString(1, tokenHash);
+
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return new Session(
+                        rs.getString("token_hash"),
+                        rs.getInt("user_id"),
+                        rs.getString("username"),
+                        UserRole.fromString(rs.getString("role_name")),
+                        rs.getObject("empid", Integer.class),
+                        rs.getTimestamp("created_at").toLocalDateTime(),
+                        rs.getTimestamp("expires_at").toLocalDateTime()
+                );
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error finding session: " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return null;
+    }
+
+    public boolean extend(String tokenHash, LocalDateTime expiresAt) {
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(EXTEND_SESSION);
+            stmt.setTimestamp(1, Timestamp.valueOf(expiresAt));
+            stmt.setString(2, tokenHash);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error extending session: " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return false;
+    }
+
+    public boolean delete(String tokenHash) {
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(DELETE_SESSION);
+            stmt.setString(1, tokenHash);
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error deleting session: " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return false;
+    }
+
+    // returns how many sessions the user had, -1 on error
+    public int deleteByUser(int userId) {
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(DELETE_USER_SESSIONS);
+            stmt.setInt(1, userId);
+            return stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("Error deleting sessions of user " + userId + ": " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return -1;
+    }
+
+    // returns how many expired sessions were removed
+    public int deleteExpired(LocalDateTime now) {
+        Connection conn = null;
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(DELETE_EXPIRED);
+            stmt.setTimestamp(1, Timestamp.valueOf(now));
+            return stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("Error cleaning up sessions: " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+        return 0;
+    }
+}
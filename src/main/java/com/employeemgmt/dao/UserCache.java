@@ -0,0 +1,112 @@
+package com.employeemgmt.dao;
+
+import com.employeemgmt.models.User;
+import com.employeemgmt.utils.EnvLoader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+    UserCache
+    ---------
+    Small LRU of user_account rows keyed by normalized (trimmed,
+    lower-case) username, so repeated logins / lookups for the same user
+    skip the database.
+
+    - bounded to USER_CACHE_MAX entries (default 1000)
+    - entries expire after USER_CACHE_TTL_SECONDS (default 30), so a
+      password change made on another app instance is picked up quickly
+    - UserDAO evicts a user on every write to their row; every eviction
+      bumps a generation, and a row read before that (put with the older
+      generation) is dropped instead of cached, so a lookup racing a
+      password change can't put the old hash back
+    - only for profile lookups: logins read the hash from the table
+    - callers always get their own User copy, because User also carries
+      per-login state (logged in flag, session token)
+*/
+public final class UserCache {
+
+    private static final UserCache INSTANCE = new UserCache(
+            EnvLoader.getInt("USER_CACHE_MAX", 1000, 1), EnvLoader.getInt("USER_CACHE_TTL_SECONDS", 30, 1) * 1000L);
+
+    private static class Entry {
+        private final User user;
+        private final long expiresAt;
+
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private long generation;
+
+    // access-ordered -> least recently used falls off first
+    private final Map<String, Entry> entries;
+
+    private UserCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UserCache.this.maxEntries;
+            }
+        };
+    }
+
+    public static UserCache getInstance() {
+        return INSTANCE;
+    }
+
+    public static String normalize(String username) {
+        return username == null ? null : username.trim().toLowerCase();
+    }
+
+    // copy of the cached user, or null on a miss
+    public synchronized User get(String username) {
+        String key = normalize(username);
+        Entry e = entries.get(key);
+        if (e == null) {
+            return null;
+        }
+        if (e.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return copy(e.user);
+    }
+
+    // take this before reading the row, and hand it to put()
+    public synchronized long generation() {
+        return generation;
+    }
+
+    // caches the row unless something was invalidated since readGeneration
+    public synchronized void put(User user, long readGeneration) {
+        if (user == null || user.getUsername() == null || readGeneration != generation) {
+            return;
+        }
+        entries.put(normalize(user.getUsername()), new Entry(copy(user), System.currentTimeMillis() + ttlMillis));
+    }
+
+    public synchronized void invalidate(String username) {
+        generation++;
+        entries.remove(normalize(username));
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // only the stored columns, none of the login state
+    private static User copy(User u) {
+        return new User(u.getUserId(), u.getEmpid(), u.getUsername(), u.getPasswordHash(), u.getRole(), u.getLastLogin());
+    }
+}
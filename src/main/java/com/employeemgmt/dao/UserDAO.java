@@ -2,14 +2,25 @@ package com.employeemgmt.dao;
 
 import com.employeemgmt.models.User;
 import com.employeemgmt.models.User.UserRole;
+import com.employeemgmt.utils.PasswordHasher;
 import com.employeemgmt.utils.SecurityUtils;
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class UserDAO {
 
     private DatabaseConnection dbConnection;
 
+    // role ids and recently used user rows, shared by every UserDAO
+    private final RoleCache roles = RoleCache.getInstance();
+    private final UserCache userCache = UserCache.getInstance();
+
     // SQL Queries
     private static final String FIND_USER_BY_USERNAME = """
         SELECT ua.user_id, ua.empid, ua.username, ua.password_hash, r.name as role_name, ua.last_login
@@ -20,23 +31,24 @@ public class UserDAO {
 
     private static final String INSERT_USER = """
         INSERT INTO user_account (empid, username, password_hash, role_id)
-        VALUES (?, ?, ?, (SELECT role_id FROM role WHERE name = ?))
+        VALUES (?, ?, ?, ?)
         """;
 
     private static final String UPDATE_USER = """
         UPDATE user_account 
-        SET empid = ?, password_hash = ?, role_id = (SELECT role_id FROM role WHERE name = ?)
+        SET empid = ?, password_hash = ?, role_id = ?
         WHERE user_id = ?
         """;
 
-    private static final String UPDATE_LAST_LOGIN = """
-        UPDATE user_account SET last_login = ? WHERE username = ?
-        """;
-
     private static final String CHANGE_PASSWORD = """
         UPDATE user_account SET password_hash = ? WHERE username = ?
         """;
 
+    // only replaces the hash we verified, so it can't undo a password change in between
+    private static final String UPGRADE_PASSWORD_HASH = """
+        UPDATE user_account SET password_hash = ? WHERE username = ? AND password_hash = ?
+        """;
+
     private static final String GET_ALL_USERS = """
         SELECT ua.user_id, ua.empid, ua.username, ua.password_hash, r.name as role_name, ua.last_login
         FROM user_account ua
@@ -63,32 +75,32 @@ public class UserDAO {
             return null;
         }
 
-        Connection conn = null;
-
-        try {
-            conn = dbConnection.getAdminConnection();
-            PreparedStatement stmt = conn.prepareStatement(FIND_USER_BY_USERNAME);
-            stmt.setString(1, username.toLowerCase());
-
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                String hash = rs.getString("password_hash");
+        // always the row from the table, never the cache: a hash that was just
+        // changed (here or on another instance) must not let the old password in.
+        // the connection goes back before the (slow) hash check
+        User user = loadByUsername(username);
+        if (user == null) {
+            return null;
+        }
 
-                if (SecurityUtils.verifyPassword(password, hash)) {
-                    User user = createUserFromResultSet(rs);
-                    updateLastLogin(username);
-                    user.login();
-                    return user;
-                }
-            }
+        String hash = user.getPasswordHash();
+        PasswordHasher hasher = PasswordHasher.getInstance();
+        if (!hasher.verify(password, hash)) {
+            return null;
+        }
 
-        } catch (SQLException e) {
-            System.err.println("Authentication error: " + e.getMessage());
-        } finally {
-            DatabaseConnection.closeConnection(conn);
+        // old SHA-256 or lower-cost hash: upgrade it in the background
+        if (SecurityUtils.needsRehash(hash)) {
+            String name = user.getUsername();
+            hasher.hashAsync(password)
+                  .thenAccept(newHash -> upgradePasswordHash(name, hash, newHash))
+                  .exceptionally(ex -> null); // pool busy - try again next login
         }
 
-        return null;
+        // written later in a batch, login only costs the one read
+        LastLoginBuffer.getInstance().record(username, LocalDateTime.now());
+        user.login();
+        return user;
     }
 
     // ========= FIND USER =========
@@ -98,6 +110,15 @@ public class UserDAO {
         username = SecurityUtils.sanitizeInput(username);
         if (SecurityUtils.containsSQLInjectionPatterns(username)) return null;
 
+        User cached = userCache.get(username);
+        if (cached != null) return cached;
+
+        return loadByUsername(username);
+    }
+
+    // straight from user_account (sanitized name); refreshes the cache unless the row changed meanwhile
+    private User loadByUsername(String username) {
+        long generation = userCache.generation();
         Connection conn = null;
 
         try {
@@ -106,7 +127,11 @@ public class UserDAO {
             stmt.setString(1, username.toLowerCase());
 
             ResultSet rs = stmt.executeQuery();
-            if (rs.next()) return createUserFromResultSet(rs);
+            if (rs.next()) {
+                User user = createUserFromResultSet(rs);
+                userCache.put(user, generation);
+                return user;
+            }
 
         } catch (SQLException e) {
             System.err.println("Error finding user: " + e.getMessage());
@@ -121,6 +146,12 @@ public class UserDAO {
     public boolean save(User user) {
         if (user == null || !user.isValid()) return false;
 
+        Integer roleId = roles.roleId(user.getRole());
+        if (roleId == null) {
+            System.err.println("Error saving user: unknown role " + user.getRole());
+            return false;
+        }
+
         Connection conn = null;
 
         try {
@@ -128,15 +159,13 @@ public class UserDAO {
             PreparedStatement stmt =
                     conn.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS);
 
-            stmt.setObject(1, user.getEmpid());
-            stmt.setString(2, user.getUsername().toLowerCase());
-            stmt.setString(3, user.getPasswordHash());
-            stmt.setString(4, user.getRole().getValue());
+            bindInsert(stmt, user, roleId);
 
             int rows = stmt.executeUpdate();
             if (rows > 0) {
                 ResultSet keys = stmt.getGeneratedKeys();
                 if (keys.next()) user.setUserId(keys.getInt(1));
+                userCache.invalidate(user.getUsername());
                 return true;
             }
 
@@ -149,6 +178,155 @@ public class UserDAO {
         return false;
     }
 
+    // ========= BULK PROVISIONING =========
+    private static final int IN_CHUNK = 1000;   // usernames per IN (...) lookup
+    private static final int INSERT_BATCH = 500; // rows per JDBC batch / commit
+
+    // which of these usernames already exist (one IN query per 1000 names)
+    public Set<String> findExistingUsernames(Collection<String> usernames) {
+        Set<String> existing = new HashSet<>();
+        List<String> names = usernames.stream().map(String::toLowerCase).distinct().toList();
+        if (names.isEmpty()) return existing;
+
+        Connection conn = null;
+
+        try {
+            conn = dbConnection.getAdminConnection();
+
+            for (int from = 0; from < names.size(); from += IN_CHUNK) {
+                List<String> chunk = names.subList(from, Math.min(from + IN_CHUNK, names.size()));
+                String sql = "SELECT username FROM user_account WHERE username IN ("
+                        + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")";
+
+                PreparedStatement stmt = conn.prepareStatement(sql);
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    existing.add(rs.getString("username").toLowerCase());
+                }
+                stmt.close();
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error checking usernames: " + e.getMessage());
+            return null; // caller can't tell who is a duplicate
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+
+        return existing;
+    }
+
+    // inserts users with JDBC batches; saved[i] tells whether users.get(i) made it in.
+    // if a batch fails (e.g. someone else took a username meanwhile) that batch is
+    // retried row by row so only the bad rows fail
+    public boolean[] saveAll(List<User> users) {
+        boolean[] saved = new boolean[users.size()];
+        Connection conn = null;
+
+        try {
+            conn = dbConnection.getAdminConnection();
+            conn.setAutoCommit(false);
+            PreparedStatement stmt = conn.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS);
+
+            for (int from = 0; from < users.size(); from += INSERT_BATCH) {
+                int to = Math.min(from + INSERT_BATCH, users.size());
+                List<Integer> batched = new ArrayList<>();
+
+                for (int i = from; i < to; i++) {
+                    User u = users.get(i);
+                    Integer roleId = roles.roleId(u.getRole());
+                    if (!u.isValid() || roleId == null) continue;
+
+                    bindInsert(stmt, u, roleId);
+                    stmt.addBatch();
+                    batched.add(i);
+                }
+                if (batched.isEmpty()) continue;
+
+                try {
+                    stmt.executeBatch();
+                    ResultSet keys = stmt.getGeneratedKeys();
+                    for (int idx : batched) {
+                        if (keys.next()) users.get(idx).setUserId(keys.getInt(1));
+                        saved[idx] = true;
+                    }
+                    conn.commit();
+                } catch (SQLException batchError) {
+                    conn.rollback();
+                    stmt.clearBatch();
+                    for (int idx : batched) {
+                        saved[idx] = insertOne(conn, users.get(idx));
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error saving users: " + e.getMessage());
+        } finally {
+            DatabaseConnection.closeConnection(conn);
+        }
+
+        return saved;
+    }
+
+    private boolean insertOne(Connection conn, User u) {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_USER, Statement.RETURN_GENERATED_KEYS)) {
+            bindInsert(stmt, u, roles.roleId(u.getRole()));
+            stmt.executeUpdate();
+            ResultSet keys = stmt.getGeneratedKeys();
+            if (keys.next()) u.setUserId(keys.getInt(1));
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error saving user " + u.getUsername() + ": " + e.getMessage());
+            try { conn.rollback(); } catch (SQLException ignored) {}
+            return false;
+        }
+    }
+
+    private void bindInsert(PreparedStatement stmt, User u, int roleId) throws SQLException {
+        stmt.setObject(1, u.getEmpid());
+        stmt.setString(2, u.getUsername().toLowerCase());
+        stmt.setString(3, u.getPasswordHash());
+        stmt.setInt(4, roleId);
+    }
+
+    // ========= UPDATE USER =========
+    public boolean update(User user) {
+        if (user == null || !user.isValid() || user.getUserId() <= 0) return false;
+
+        Integer roleId = roles.roleId(user.getRole());
+        if (roleId == null) {
+            System.err.println("Error updating user: unknown role " + user.getRole());
+            return false;
+        }
+
+        Connection conn = null;
+
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(UPDATE_USER);
+
+            stmt.setObject(1, user.getEmpid());
+            stmt.setString(2, user.getPasswordHash());
+            stmt.setInt(3, roleId);
+            stmt.setInt(4, user.getUserId());
+
+            return stmt.executeUpdate() > 0;
+
+        } catch (SQLException e) {
+            System.err.println("Error updating user: " + e.getMessage());
+        } finally {
+            userCache.invalidate(user.getUsername());
+            DatabaseConnection.closeConnection(conn);
+        }
+
+        return false;
+    }
+
     // ========= PASSWORD CHANGE =========
     public boolean changePassword(String username, String newPass) {
         if (username == null || newPass == null) return false;
@@ -159,7 +337,7 @@ public class UserDAO {
             return false;
         }
 
-        String newHash = SecurityUtils.hashPassword(newPass);
+        String newHash = PasswordHasher.getInstance().hash(newPass);
 
         Connection conn = null;
 
@@ -175,12 +353,33 @@ public class UserDAO {
         } catch (SQLException e) {
             System.err.println("Password update error: " + e.getMessage());
         } finally {
+            userCache.invalidate(username);
             DatabaseConnection.closeConnection(conn);
         }
 
         return false;
     }
 
+    // ========= REHASH ON LOGIN =========
+    private void upgradePasswordHash(String username, String oldHash, String newHash) {
+        Connection conn = null;
+
+        try {
+            conn = dbConnection.getAdminConnection();
+            PreparedStatement stmt = conn.prepareStatement(UPGRADE_PASSWORD_HASH);
+            stmt.setString(1, newHash);
+            stmt.setString(2, username.toLowerCase());
+            stmt.setString(3, oldHash);
+            stmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("Password rehash error: " + e.getMessage());
+        } finally {
+            userCache.invalidate(username);
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
     // ========= BUILD USER OBJECT =========
     private User createUserFromResultSet(ResultSet rs) throws SQLException {
         int id = rs.getInt("user_id");
@@ -195,22 +394,4 @@ public class UserDAO {
 
         return new User(id, empid, username, hash, role, lastLogin);
     }
-
-    // ========= LAST LOGIN =========
-    private void updateLastLogin(String username) {
-        Connection conn = null;
-
-        try {
-            conn = dbConnection.getAdminConnection();
-            PreparedStatement stmt = conn.prepareStatement(UPDATE_LAST_LOGIN);
-            stmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now()));
-            stmt.setString(2, username.toLowerCase());
-            stmt.executeUpdate();
-
-        } catch (SQLException e) {
-            System.err.println("Failed to update last login: " + e.getMessage());
-        } finally {
-            DatabaseConnection.closeConnection(conn);
-        }
-    }
-}
\ No newline at end of file
+}
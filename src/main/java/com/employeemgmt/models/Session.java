@@ -0,0 +1,57 @@
+package com.employeemgmt.models;
+
+import com.employeemgmt.models.User.UserRole;
+import java.time.LocalDateTime;
+
+/**
+ * Login session model
+ * Matches the user_session table (only the token's hash is stored)
+ */
+public class Session {
+
+    private final String tokenHash;
+    private final int userId;
+    private final String username;
+    private final UserRole role;
+    private final Integer empid;
+    private final LocalDateTime createdAt;
+    private volatile LocalDateTime expiresAt;
+
+    public Session(String tokenHash, int userId, String username, UserRole role, Integer empid,
+                   LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.empid = empid;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTokenHash() { return tokenHash; }
+    public int getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public UserRole getRole() { return role; }
+    public Integer getEmpid() { return empid; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    // logged-in User built from the session, no user_account read needed.
+    // password hash isn't part of a session, so it's left empty
+    public User toUser() {
+        User user = new User(userId, empid, username, null, role, null);
+        user.setLoggedIn(true);
+        return user;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Session{userId=%d, username='%s', role=%s, expiresAt=%s}",
+                userId, username, role, expiresAt);
+    }
+}
@@ -45,6 +45,7 @@ public class User {
     // Additional fields for authentication state
     private boolean isLoggedIn;
     private LocalDateTime loginTime;
+    private String sessionToken; // server-side session, see SessionService
     
     // Default constructor
     public User() {
@@ -123,6 +124,9 @@ public class User {
     
     public LocalDateTime getLoginTime() { return loginTime; }
     
+    public String getSessionToken() { return sessionToken; }
+    public void setSessionToken(String sessionToken) { this.sessionToken = sessionToken; }
+    
     // Authentication helper methods
     public boolean isAdmin() {
         return role == UserRole.ADMIN;
@@ -160,6 +164,7 @@ public class User {
     
     public void logout() {
         setLoggedIn(false);
+        this.sessionToken = null;
     }
     
     public boolean isSessionValid(int sessionTimeoutMinutes) {
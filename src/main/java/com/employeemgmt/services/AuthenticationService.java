@@ -3,11 +3,22 @@ package com.employeemgmt.services;
 import com.employeemgmt.dao.UserDAO;
 import com.employeemgmt.models.User;
 import com.employeemgmt.models.User.UserRole;
+import com.employeemgmt.utils.BulkValidator;
+import com.employeemgmt.utils.PasswordHasher;
 import com.employeemgmt.utils.SecurityUtils;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class AuthenticationService {
 
     private final UserDAO userDAO = new UserDAO();
+    private final SessionService sessions = SessionService.getInstance();
+    private final LoginThrottle throttle = LoginThrottle.getInstance();
 
     public static class AuthenticationResult {
         private final boolean success;
@@ -38,10 +49,52 @@ public class AuthenticationService {
         public String getMessage() { return message; }
     }
 
+    // one account for bulk provisioning
+    public static class NewAccount {
+        private final String username;
+        private final String password;
+        private final UserRole role;
+        private final Integer empid;
+
+        public NewAccount(String username, String password, UserRole role, Integer empid) {
+            this.username = username;
+            this.password = password;
+            this.role = role;
+            this.empid = empid;
+        }
+
+        public String getUsername() { return username; }
+        public String getPassword() { return password; }
+        public UserRole getRole() { return role; }
+        public Integer getEmpid() { return empid; }
+    }
+
+    // per-account outcome of a bulk provisioning run
+    public static class ProvisionResult {
+        private final String username;
+        private final boolean success;
+        private final String message;
+        private final int userId;
+
+        public ProvisionResult(String username, boolean success, String message, int userId) {
+            this.username = username;
+            this.success = success;
+            this.message = message;
+            this.userId = userId;
+        }
+
+        public String getUsername() { return username; }
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+        public int getUserId() { return userId; }
+    }
+
     // ----------------------------
     // Login logic
     // ----------------------------
-    public AuthenticationResult login(String username, String password) {
+    // source = where the attempt came from (client address, terminal, ...), used for rate limiting;
+    // desktop screens pass localSource(...)
+    public AuthenticationResult login(String username, String password, String source) {
 
         if (username == null || username.isBlank()) {
             return new AuthenticationResult(false, "Username cannot be empty.", null);
@@ -52,16 +105,56 @@ public class AuthenticationService {
         }
 
         String normalized = username.trim().toLowerCase();
-        User user = userDAO.authenticate(normalized, password);
+
+        // rejected here = no DB lookup, no password hashing
+        String from = (source == null || source.isBlank()) ? "unknown" : source;
+        LoginThrottle.Verdict verdict = throttle.check(normalized, from);
+        if (verdict.getDecision() == LoginThrottle.Decision.LOCKED_OUT) {
+            return new AuthenticationResult(false, "Account temporarily locked after too many failed logins. "
+                    + "Try again in " + verdict.getRetryAfterSeconds() + " seconds.", null);
+        }
+        if (!verdict.isAllowed()) {
+            return new AuthenticationResult(false, "Too many login attempts. Try again in "
+                    + verdict.getRetryAfterSeconds() + " seconds.", null);
+        }
+
+        User user;
+        try {
+            user = userDAO.authenticate(normalized, password);
+        } catch (PasswordHasher.BusyException e) {
+            return new AuthenticationResult(false, e.getMessage(), null);
+        }
 
         if (user == null) {
+            throttle.recordFailure(normalized);
             return new AuthenticationResult(false, "Invalid username or password.", null);
         }
+        throttle.recordSuccess(normalized, from);
 
         user.login();
+
+        // server-side session so other screens/nodes can check the token
+        String token = sessions.create(user);
+        if (token == null) {
+            System.err.println("[AUTH] Could not create a session for " + normalized);
+        }
+        user.setSessionToken(token);
+
         return new AuthenticationResult(true, "Login successful", user);
     }
 
+    // login source for a desktop screen: the screen, the OS account and the machine, e.g.
+    // "fx:jsmith@hr-desk-3" - what a person can actually switch between to try more passwords
+    public static String localSource(String client) {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "localhost";
+        }
+        return client + ":" + System.getProperty("user.name", "unknown") + "@" + host;
+    }
+
     // ----------------------------------------------------------
     // FIXED: Employee ID now OPTIONAL → default null if not given
     // ----------------------------------------------------------
@@ -90,7 +183,12 @@ public class AuthenticationService {
             return new UserCreationResult(false, "Weak password: " + pwCheck.getErrors());
         }
 
-        String hash = SecurityUtils.hashPassword(password);
+        String hash;
+        try {
+            hash = PasswordHasher.getInstance().hash(password);
+        } catch (PasswordHasher.BusyException e) {
+            return new UserCreationResult(false, e.getMessage());
+        }
 
         User newUser = new User(normalized, hash, role, empid);
 
@@ -102,7 +200,165 @@ public class AuthenticationService {
         return new UserCreationResult(true, "Account created successfully!");
     }
 
+    // ----------------------------------------------------------
+    // Bulk provisioning (e.g. a whole new division at once)
+    //   - field checks with BulkValidator (no regexes per row)
+    //   - one IN (...) lookup for duplicates instead of one per user
+    //   - password hashes at the normal cost on the bounded hashing pool
+    //     (PasswordHasher.hashBulk), leaving room for logins
+    //   - inserts in JDBC batches
+    // results come back in the same order as the input
+    // ----------------------------------------------------------
+    public List<ProvisionResult> createUsers(List<NewAccount> accounts) {
+        ProvisionResult[] results = new ProvisionResult[accounts.size()];
+        List<Integer> pending = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        // 1. field checks, no DB involved
+        for (int i = 0; i < accounts.size(); i++) {
+            NewAccount a = accounts.get(i);
+            String name = (a == null || a.getUsername() == null) ? null : a.getUsername().trim().toLowerCase();
+
+            if (a == null || name == null || name.isEmpty()
+                    || a.getPassword() == null || a.getPassword().isBlank() || a.getRole() == null) {
+                results[i] = new ProvisionResult(name, false, "All fields are required.", 0);
+                continue;
+            }
+            // single-pass checks; the regex versions only run to word the message for a bad row
+            if (!BulkValidator.isValidUsername(name)) {
+                results[i] = new ProvisionResult(name, false,
+                        "Invalid username: " + SecurityUtils.validateUsername(name).getErrors(), 0);
+                continue;
+            }
+            if (a.getRole() == UserRole.EMPLOYEE && (a.getEmpid() == null || a.getEmpid() <= 0)) {
+                results[i] = new ProvisionResult(name, false, "Employee accounts need an employee ID.", 0);
+                continue;
+            }
+            if (BulkValidator.passwordProblems(a.getPassword()) != 0) {
+                results[i] = new ProvisionResult(name, false,
+                        "Weak password: " + SecurityUtils.validatePasswordStrength(a.getPassword()).getErrors(), 0);
+                continue;
+            }
+            if (!seen.add(name)) {
+                results[i] = new ProvisionResult(name, false, "Username appears twice in this batch.", 0);
+                continue;
+            }
+            pending.add(i);
+        }
+
+        // 2. duplicates against the table, one query per 1000 names
+        List<String> names = new ArrayList<>();
+        for (int i : pending) names.add(accounts.get(i).getUsername().trim().toLowerCase());
+        Set<String> taken = userDAO.findExistingUsernames(names);
+        if (taken == null) {
+            for (int k = 0; k < pending.size(); k++) {
+                results[pending.get(k)] = new ProvisionResult(names.get(k), false,
+                        "Database error: could not check usernames.", 0);
+            }
+            return Arrays.asList(results);
+        }
+
+        List<Integer> toCreate = new ArrayList<>();
+        for (int k = 0; k < pending.size(); k++) {
+            int i = pending.get(k);
+            if (taken.contains(names.get(k))) {
+                results[i] = new ProvisionResult(names.get(k), false, "Username already exists.", 0);
+            } else {
+                toCreate.add(i);
+            }
+        }
+
+        // 3. hashes on the hashing pool, then batched inserts
+        List<String> passwords = new ArrayList<>();
+        for (int i : toCreate) passwords.add(accounts.get(i).getPassword());
+        List<String> hashes = PasswordHasher.getInstance().hashBulk(passwords);
+
+        List<User> users = new ArrayList<>();
+        for (int k = 0; k < toCreate.size(); k++) {
+            NewAccount a = accounts.get(toCreate.get(k));
+            users.add(new User(a.getUsername().trim().toLowerCase(), hashes.get(k), a.getRole(), a.getEmpid()));
+        }
+        boolean[] saved = userDAO.saveAll(users);
+
+        for (int k = 0; k < toCreate.size(); k++) {
+            User u = users.get(k);
+            results[toCreate.get(k)] = saved[k]
+                    ? new ProvisionResult(u.getUsername(), true, "Account created successfully!", u.getUserId())
+                    : new ProvisionResult(u.getUsername(), false, "Database error: could not save user.", 0);
+        }
+
+        return Arrays.asList(results);
+    }
+
+    // ----------------------------------------------------------
+    // Credential and role changes
+    //   every session of the user ends, so a stolen token or an
+    //   old role doesn't outlive the change; they log in again
+    // ----------------------------------------------------------
+    public UserCreationResult changePassword(String username, String newPassword) {
+        if (username == null || username.isBlank() || newPassword == null || newPassword.isBlank()) {
+            return new UserCreationResult(false, "All fields are required.");
+        }
+        String normalized = username.trim().toLowerCase();
+        User user = userDAO.findByUsername(normalized);
+        if (user == null) {
+            return new UserCreationResult(false, "Unknown user.");
+        }
+
+        var pwCheck = SecurityUtils.validatePasswordStrength(newPassword);
+        if (!pwCheck.isValid()) {
+            return new UserCreationResult(false, "Weak password: " + pwCheck.getErrors());
+        }
+
+        boolean changed;
+        try {
+            changed = userDAO.changePassword(normalized, newPassword);
+        } catch (PasswordHasher.BusyException e) {
+            return new UserCreationResult(false, e.getMessage());
+        }
+        if (!changed) {
+            return new UserCreationResult(false, "Database error: could not change the password.");
+        }
+
+        if (!sessions.revokeAll(user.getUserId())) {
+            System.err.println("[AUTH] Password changed but old sessions of " + normalized + " could not be ended");
+        }
+        return new UserCreationResult(true, "Password changed. Please log in again.");
+    }
+
+    // saves empid / password hash / role; the update may change either, so the sessions always end
+    public UserCreationResult updateUser(User user) {
+        if (user == null || user.getUserId() <= 0) {
+            return new UserCreationResult(false, "Unknown user.");
+        }
+        if (!userDAO.update(user)) {
+            return new UserCreationResult(false, "Database error: could not update user.");
+        }
+        if (!sessions.revokeAll(user.getUserId())) {
+            System.err.println("[AUTH] User updated but old sessions of " + user.getUsername() + " could not be ended");
+        }
+        return new UserCreationResult(true, "User updated.");
+    }
+
+    // ----------------------------
+    // Sessions
+    // ----------------------------
+
+    // logged-in user for a session token, or null if it's invalid/expired
+    public User validateSession(String token) {
+        return sessions.validate(token);
+    }
+
     public void logout() {
         System.out.println("[AUTH] Logout called");
     }
+
+    public void logout(User user) {
+        if (user == null) {
+            return;
+        }
+        sessions.revoke(user.getSessionToken());
+        user.logout();
+        System.out.println("[AUTH] Logout: " + user.getUsername());
+    }
 }
@@ -0,0 +1,82 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.services.ReportSink.Column;
+import com.employeemgmt.services.ReportSink.Header;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.List;
+
+/*
+    CsvReportSink
+    -------------
+    Writes a report as CSV: one header line with the column names, then
+    one line per row as it arrives. Every value is quoted so names with
+    commas survive. The caller owns the Writer (and closes it).
+
+    CSV has no place for an error, so denied() and failed() throw an
+    IllegalStateException back to the caller instead of writing into the
+    file - a half-written export must not look like a finished one.
+*/
+public class CsvReportSink<R> implements ReportSink<R> {
+
+    private final Writer out;
+    private List<Column<R>> columns;
+
+    public CsvReportSink(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void begin(Header<R> header) {
+        columns = header.getColumns();
+        StringBuilder sb = new StringBuilder();
+        for (Column<R> c : columns) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(quote(c.getName()));
+        }
+        line(sb);
+    }
+
+    @Override
+    public void row(R row) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(quote(columns.get(i).valueOf(row)));
+        }
+        line(sb);
+    }
+
+    @Override
+    public void end(int rowCount) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void denied(String message) {
+        throw new IllegalStateException(message);
+    }
+
+    @Override
+    public void failed(String message) {
+        throw new IllegalStateException("CSV report incomplete: " + message);
+    }
+
+    private void line(CharSequence s) {
+        try {
+            out.append(s).append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String quote(Object value) {
+        String v = (value == null) ? "" : value.toString();
+        return "\"" + v.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -2,9 +2,14 @@ package com.employeemgmt.services;
 
 import com.employeemgmt.dao.EmployeeDAO;
 import com.employeemgmt.dao.PayStatementDAO;
+import com.employeemgmt.dao.PayrollDAO;
+import com.employeemgmt.dao.PayYtdDAO;
+import com.employeemgmt.dao.PayYtdDAO.YtdTotals;
 import com.employeemgmt.models.Employee;
 import com.employeemgmt.models.PayStatement;
 import com.employeemgmt.models.User;
+import com.employeemgmt.utils.EnvLoader;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -21,12 +26,22 @@ import java.util.Set;
 */
 public class EmployeeService {
 
+    // a loaded band is reused for a minute so trying different percentages stays in memory
+    private static final long BAND_REUSE_MILLIS = 60_000;
+
     private final EmployeeDAO employeeDAO;
     private final PayStatementDAO payStatementDAO;
+    private final PayYtdDAO payYtdDAO;
+    private final PayrollDAO payrollDAO;
+    private final SalaryRaiseSimulator raiseSimulator;
+    private SalaryRaiseSimulator.Snapshot lastBand;
 
     public EmployeeService() {
         this.employeeDAO = new EmployeeDAO();
         this.payStatementDAO = new PayStatementDAO();
+        this.payYtdDAO = new PayYtdDAO();
+        this.payrollDAO = new PayrollDAO();
+        this.raiseSimulator = new SalaryRaiseSimulator(employeeDAO);
     }
 
     // small wrapper so UI gets success flag + message + list
@@ -65,6 +80,23 @@ public class EmployeeService {
         public int getCount() { return history.size(); }
     }
 
+    // for salary band what-if previews
+    public static class RaisePreviewResult {
+        private final boolean success;
+        private final String message;
+        private final SalaryRaiseSimulator.Preview preview;
+
+        public RaisePreviewResult(boolean success, String message, SalaryRaiseSimulator.Preview preview) {
+            this.success = success;
+            this.message = message;
+            this.preview = preview;
+        }
+
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+        public SalaryRaiseSimulator.Preview getPreview() { return preview; }
+    }
+
     // ========== BASIC SEARCH METHODS (used by consoles + FX) ==========
 
     // search by employee ID (with permission check)
@@ -277,6 +309,7 @@ public class EmployeeService {
         try {
             boolean ok = employeeDAO.update(emp);
             if (ok) {
+                lastBand = null;
                 ensurePayHistory(emp);
 
                 List<Employee> list = new ArrayList<>();
@@ -317,7 +350,8 @@ public class EmployeeService {
         }
     }
 
-    // salary update for a given salary band (used by Salary Tools screen)
+    // salary update for a given salary band, applied chunk by chunk (SalaryBulkUpdateJob)
+    // so the band isn't locked for the whole update; rerunning an interrupted raise resumes it
     public SearchResult updateSalaryRange(double percent, double min, double max, User user) {
         if (!user.isAdmin()) {
             return new SearchResult(false,
@@ -325,9 +359,10 @@ public class EmployeeService {
         }
 
         try {
-            int updated = employeeDAO.updateSalaryByRange(percent, min, max);
-            return new SearchResult(true,
-                    updated + " employees updated.", null);
+            lastBand = null;
+            SalaryBulkUpdateJob.Result result = new SalaryBulkUpdateJob().run(percent, min, max, null);
+            return new SearchResult(result.isSuccess(),
+                    result.getMessage() + ".", null);
 
         } catch (Exception e) {
             return new SearchResult(false,
@@ -335,6 +370,137 @@ public class EmployeeService {
         }
     }
 
+    // what a band raise would do, without writing anything (admins only)
+    public RaisePreviewResult previewSalaryRange(double percent, double min, double max, User user) {
+        if (!user.isAdmin()) {
+            return new RaisePreviewResult(false,
+                    "Only HR Admins can modify salaries.", null);
+        }
+
+        try {
+            BigDecimal lo = BigDecimal.valueOf(min);
+            BigDecimal hi = BigDecimal.valueOf(max);
+            SalaryRaiseSimulator.Snapshot band = lastBand;
+            if (band == null || band.getMin().compareTo(lo) != 0 || band.getMax().compareTo(hi) != 0
+                    || System.currentTimeMillis() - band.getLoadedAt() > BAND_REUSE_MILLIS) {
+                band = raiseSimulator.load(lo, hi);
+                if (band == null) {
+                    return new RaisePreviewResult(false,
+                            "Could not load salaries for the preview.", null);
+                }
+                lastBand = band;
+            }
+
+            SalaryRaiseSimulator.Preview preview = band.preview(BigDecimal.valueOf(percent));
+            return new RaisePreviewResult(true, preview.summary(), preview);
+
+        } catch (Exception e) {
+            return new RaisePreviewResult(false,
+                    "Error previewing raise: " + e.getMessage(), null);
+        }
+    }
+
+    // apply exactly a previewed band raise (admins only), chunk by chunk through SalaryBulkUpdateJob;
+    // refused if the band changed since. Takes a while for a big band - not for the FX thread
+    public SearchResult commitSalaryRange(SalaryRaiseSimulator.Preview preview, User user) {
+        if (!user.isAdmin()) {
+            return new SearchResult(false,
+                    "Only HR Admins can modify salaries.", null);
+        }
+        if (preview == null) {
+            return new SearchResult(false,
+                    "Preview the raise first.", null);
+        }
+
+        try {
+            lastBand = null;
+            SalaryBulkUpdateJob.Result result = new SalaryBulkUpdateJob().apply(preview, null);
+            if (!result.isSuccess()) {
+                return new SearchResult(false, result.getMessage() + ".", null);
+            }
+            return new SearchResult(true,
+                    result.getMessage() + " (" + SalaryRaiseSimulator.signed(preview.getIncrease()) + " a year"
+                            + (result.getResumedAfter() > 0 ? ", resumed after empid " + result.getResumedAfter() : "")
+                            + ").", null);
+
+        } catch (Exception e) {
+            return new SearchResult(false,
+                    "Error applying the previewed raise: " + e.getMessage(), null);
+        }
+    }
+
+    // recompute this pay date's statements for just the employees edited since they
+    // were written (single raises, band raises, employee edits) - admins only.
+    // Salary Tools and employee edits write employees.Salary, so wherever that column is
+    // there the correction is made on pay_statements from it (PayStatementDAO); only a
+    // database with nothing but the enhanced schema (base_salary, pay_statement) gets a
+    // payroll correction run (PayrollRunEngine.runChanged)
+    public SearchResult recomputeChangedPayroll(LocalDate payDate, User user) {
+        if (!user.isAdmin()) {
+            return new SearchResult(false,
+                    "Only HR Admins can run payroll.", null);
+        }
+        Set<String> employees = payrollDAO.findColumns("employees");
+        if (employees == null) {
+            return new SearchResult(false, "Could not check the database schema.", null);
+        }
+        if (employees.contains("salary")) {
+            return recomputeChangedStatements(payDate, employees);
+        }
+        if (!employees.contains("base_salary")) {
+            return new SearchResult(false,
+                    "employees has neither Salary nor base_salary, so nothing was recomputed.", null);
+        }
+
+        PayrollRunEngine engine;
+        try {
+            engine = new PayrollRunEngine();
+        } catch (IllegalStateException e) {
+            return new SearchResult(false,
+                    "Payroll not run: " + e.getMessage(), null);
+        }
+        try {
+            PayrollRunEngine.RunResult result = engine.runChanged(payDate);
+            if (!result.isSuccess()) {
+                return new SearchResult(false, result.getFailure(), null);
+            }
+            return new SearchResult(true,
+                    result.getEmployeeCount() + " changed employees recomputed, "
+                            + result.getWritten() + " statements updated for " + payDate + ".", null);
+
+        } catch (Exception e) {
+            return new SearchResult(false,
+                    "Error recomputing payroll: " + e.getMessage(), null);
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    // dBeaver schema: the pay date's pay_statements rows of employees changed since their
+    // statement was written get the amounts the pay history would write from Salary now
+    private SearchResult recomputeChangedStatements(LocalDate payDate, Set<String> employees) {
+        Set<String> statements = payrollDAO.findColumns("pay_statements");
+        if (statements == null) {
+            return new SearchResult(false, "Could not check the database schema.", null);
+        }
+        if (statements.isEmpty()) {
+            return new SearchResult(false,
+                    "There is no pay_statements table, so nothing was recomputed.", null);
+        }
+        if (!employees.contains("updated_at") || !statements.contains("updated_at")) {
+            return new SearchResult(false, "Changes can't be tracked yet - apply migrations V004 "
+                    + "(employees.updated_at) and V012 (pay_statements.updated_at) first.", null);
+        }
+
+        int slackSeconds = EnvLoader.getInt("PAYROLL_CHANGE_SLACK_SECONDS", 300, 1);
+        int rewritten = payStatementDAO.recomputeChanged(payDate, slackSeconds);
+        if (rewritten < 0) {
+            return new SearchResult(false, "Error recomputing the pay statements for " + payDate + ".", null);
+        }
+        return new SearchResult(true,
+                rewritten + " pay statements updated for " + payDate + ".", null);
+    }
+
     // ========== PAY HISTORY HELPERS ==========
 
     // ensure there is a pay history from hire date up to now
@@ -369,4 +535,13 @@ public class EmployeeService {
                     "Error loading pay history: " + e.getMessage(), null);
         }
     }
+
+    // year-to-date totals, same permission rule as the pay history; a pay_ytd lookup kept by the
+    // pay_statements triggers (V011). null if not allowed or pay_ytd can't be read
+    public YtdTotals getYearToDate(int empid, int year, User user) {
+        if (!user.isAdmin() && user.getEmpid() != empid) {
+            return null;
+        }
+        return payYtdDAO.find(empid, year);
+    }
 }
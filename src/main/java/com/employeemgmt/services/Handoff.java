@@ -0,0 +1,95 @@
+package com.employeemgmt.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+    Handoff
+    -------
+    The bounded queue between two stages of a pipeline (PayrollRunEngine,
+    PayStubRenderer).
+
+    - put() blocks while the queue is full, so a fast stage can't run
+      ahead of a slow one and fill the heap
+    - finish(n) tells n consumers there is nothing more; take() then
+      returns null once for each of them
+    - every stage of a run shares one failure flag: the first stage that
+      fails sets it, and put()/take() notice within POLL_MILLIS and give
+      up, so nobody waits forever on a stage that has died
+*/
+final class Handoff<T> {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final BlockingQueue<T> queue;
+    private final T noMore;
+    private final AtomicReference<String> failure;
+
+    // noMore = an item of T that never carries data, used as the end marker
+    Handoff(int capacity, T noMore, AtomicReference<String> failure) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.noMore = noMore;
+        this.failure = failure;
+    }
+
+    // blocking put that gives up once some stage has failed; false = stop
+    boolean put(T item) {
+        try {
+            while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (failure.get() != null) {
+                    return false;
+                }
+            }
+            return failure.get() == null;
+        } catch (InterruptedException e) {
+            fail("interrupted");
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // same, adding the time spent blocked to waitNanos[0] (stage timings leave it out)
+    boolean put(T item, long[] waitNanos) {
+        long began = System.nanoTime();
+        try {
+            return put(item);
+        } finally {
+            waitNanos[0] += System.nanoTime() - began;
+        }
+    }
+
+    // next item, or null when the producer has finished or some stage has failed
+    T take() {
+        try {
+            T item;
+            while ((item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                if (failure.get() != null) {
+                    return null;
+                }
+            }
+            return item == noMore || failure.get() != null ? null : item;
+        } catch (InterruptedException e) {
+            fail("interrupted");
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    // one end marker per consumer
+    void finish(int consumers) {
+        finish(consumers, new long[1]);
+    }
+
+    void finish(int consumers, long[] waitNanos) {
+        for (int i = 0; i < consumers; i++) {
+            put(noMore, waitNanos);
+        }
+    }
+
+    // records the run's first failure; later ones are dropped
+    void fail(String why) {
+        failure.compareAndSet(null, why);
+    }
+}
@@ -0,0 +1,120 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.services.ReportSink.Column;
+import com.employeemgmt.services.ReportSink.Header;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+
+/*
+    JsonReportSink
+    --------------
+    Writes a report as a JSON object, streamed row by row:
+
+        {"title":"...","rows":[
+        {"name":"Developer","total_net":41250.00},
+        ...
+        ],"count":2}
+
+    Numbers stay numbers, everything else is written as a string.
+    On denied() it writes {"error":"..."} instead; on failed() the rows
+    array is closed and "error" takes the place of "count", so a reader
+    can't mistake a cut-off report for a complete one.
+*/
+public class JsonReportSink<R> implements ReportSink<R> {
+
+    private final Writer out;
+    private List<Column<R>> columns;
+    private boolean firstRow;
+
+    public JsonReportSink(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void begin(Header<R> header) {
+        columns = header.getColumns();
+        firstRow = true;
+        write("{\"title\":" + string(header.getTitle()) + ",\"rows\":[\n");
+    }
+
+    @Override
+    public void row(R row) {
+        StringBuilder sb = new StringBuilder();
+        if (!firstRow) sb.append(",\n");
+        firstRow = false;
+
+        sb.append('{');
+        for (int i = 0; i < columns.size(); i++) {
+            Column<R> c = columns.get(i);
+            if (i > 0) sb.append(',');
+            sb.append(string(c.getName())).append(':').append(value(c.valueOf(row)));
+        }
+        sb.append('}');
+        write(sb);
+    }
+
+    @Override
+    public void end(int rowCount) {
+        write((firstRow ? "" : "\n") + "],\"count\":" + rowCount + "}\n");
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void denied(String message) {
+        write("{\"error\":" + string(message) + "}\n");
+    }
+
+    @Override
+    public void failed(String message) {
+        write((firstRow ? "" : "\n") + "],\"error\":" + string(message) + "}\n");
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(CharSequence s) {
+        try {
+            out.append(s);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String value(Object v) {
+        if (v == null) return "null";
+        if (v instanceof BigDecimal) return ((BigDecimal) v).toPlainString();
+        if (v instanceof Number || v instanceof Boolean) return v.toString();
+        return string(v.toString());
+    }
+
+    private static String string(String s) {
+        if (s == null) return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '"':  sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (ch < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) ch));
+                    } else {
+                        sb.append(ch);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
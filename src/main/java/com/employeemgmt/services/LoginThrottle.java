@@ -0,0 +1,203 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.utils.EnvLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+    LoginThrottle
+    -------------
+    Cheap in-memory checks that run BEFORE a login touches the database
+    or the password hasher, so credential stuffing can't turn into DB/CPU load.
+
+    - per-username and per-source token buckets (LOGIN_RATE_PER_USER /
+      LOGIN_RATE_PER_SOURCE attempts per minute, with a small burst)
+    - temporary lockout: APP_MAX_LOGIN_ATTEMPTS failures within
+      LOGIN_LOCKOUT_SECONDS locks that username for LOGIN_LOCKOUT_SECONDS
+
+    A successful login gives its tokens back (recordSuccess), so the buckets
+    only fill up with failed attempts and people logging in normally from
+    one machine never slow each other down.
+
+    Buckets are one AtomicLong per key updated with compareAndSet (GCRA:
+    we store the time the bucket will be full again), so there are no locks
+    on the hot path. Failure counts live in a ConcurrentHashMap, which only
+    locks the one bin being updated. Idle entries are dropped every few
+    thousand checks so the maps can't grow forever.
+*/
+public class LoginThrottle {
+
+    private static final int SWEEP_EVERY = 4096;
+
+    private static LoginThrottle instance;
+
+    public enum Decision { ALLOWED, RATE_LIMITED, LOCKED_OUT }
+
+    public static class Verdict {
+        private static final Verdict ALLOW = new Verdict(Decision.ALLOWED, 0);
+
+        private final Decision decision;
+        private final long retryAfterSeconds;
+
+        Verdict(Decision decision, long retryAfterSeconds) {
+            this.decision = decision;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public Decision getDecision() { return decision; }
+        public long getRetryAfterSeconds() { return retryAfterSeconds; }
+        public boolean isAllowed() { return decision == Decision.ALLOWED; }
+    }
+
+    // token bucket per key, one AtomicLong each ("theoretical arrival time" in nanos)
+    private static class RateLimiter {
+        private final long intervalNanos;  // time to earn one attempt back
+        private final long toleranceNanos; // how far ahead a burst may run
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+        RateLimiter(int perMinute, int burst) {
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        }
+
+        // 0 if the attempt may go ahead, otherwise nanos until it would
+        long tryAcquire(String key, long now) {
+            AtomicLong tat = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+            while (true) {
+                long current = tat.get();
+                long base = Math.max(current, now);
+                if (base - now > toleranceNanos) {
+                    return base - toleranceNanos - now;
+                }
+                if (tat.compareAndSet(current, base + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        // gives one attempt back (never past a full bucket)
+        void refund(String key, long now) {
+            AtomicLong tat = buckets.get(key);
+            if (tat != null) {
+                tat.getAndUpdate(t -> Math.max(now, t - intervalNanos));
+            }
+        }
+
+        // a full bucket carries no information
+        void sweep(long now) {
+            buckets.values().removeIf(tat -> tat.get() <= now);
+        }
+
+        int size() { return buckets.size(); }
+    }
+
+    // failures within the current window, and lockout end (0 = not locked)
+    private static class Strikes {
+        private final int failures;
+        private final long windowStart;
+        private final long lockedUntil;
+
+        Strikes(int failures, long windowStart, long lockedUntil) {
+            this.failures = failures;
+            this.windowStart = windowStart;
+            this.lockedUntil = lockedUntil;
+        }
+
+        // nanoTime can be negative, so 0 has to be ruled out before comparing
+        boolean isLocked(long now) {
+            return lockedUntil != 0 && lockedUntil - now > 0;
+        }
+    }
+
+    private final RateLimiter perUser;
+    private final RateLimiter perSource;
+    private final ConcurrentHashMap<String, Strikes> strikes = new ConcurrentHashMap<>();
+    private final int maxFailures;
+    private final long lockoutNanos;
+    private final LongSupplier clock;
+    private final AtomicInteger checks = new AtomicInteger();
+
+    public LoginThrottle(int userPerMinute, int userBurst, int sourcePerMinute, int sourceBurst,
+                         int maxFailures, int lockoutSeconds, LongSupplier clock) {
+        this.perUser = new RateLimiter(userPerMinute, userBurst);
+        this.perSource = new RateLimiter(sourcePerMinute, sourceBurst);
+        this.maxFailures = Math.max(1, maxFailures);
+        this.lockoutNanos = TimeUnit.SECONDS.toNanos(lockoutSeconds);
+        this.clock = clock;
+    }
+
+    public static synchronized LoginThrottle getInstance() {
+        if (instance == null) {
+            instance = new LoginThrottle(
+                    EnvLoader.getInt("LOGIN_RATE_PER_USER", 10, 1), EnvLoader.getInt("LOGIN_BURST_PER_USER", 5, 1),
+                    EnvLoader.getInt("LOGIN_RATE_PER_SOURCE", 60, 1), EnvLoader.getInt("LOGIN_BURST_PER_SOURCE", 20, 1),
+                    EnvLoader.getInt("APP_MAX_LOGIN_ATTEMPTS", 3, 1), EnvLoader.getInt("LOGIN_LOCKOUT_SECONDS", 300, 1),
+                    System::nanoTime);
+        }
+        return instance;
+    }
+
+    // call before doing any real work for a login attempt
+    public Verdict check(String username, String source) {
+        long now = clock.getAsLong();
+        if (checks.incrementAndGet() % SWEEP_EVERY == 0) {
+            sweep(now);
+        }
+
+        Strikes s = strikes.get(username);
+        if (s != null && s.isLocked(now)) {
+            return new Verdict(Decision.LOCKED_OUT, toSeconds(s.lockedUntil - now));
+        }
+
+        long wait = perSource.tryAcquire(source, now);
+        if (wait == 0) {
+            wait = perUser.tryAcquire(username, now);
+            if (wait != 0) {
+                perSource.refund(source, now); // refused, so the source didn't really use a try
+            }
+        }
+        return wait == 0 ? Verdict.ALLOW : new Verdict(Decision.RATE_LIMITED, toSeconds(wait));
+    }
+
+    public void recordFailure(String username) {
+        long now = clock.getAsLong();
+        strikes.compute(username, (k, s) -> {
+            // a new window if there was none, it ran out, or a lockout just ended
+            if (s == null || now - s.windowStart > lockoutNanos || (s.lockedUntil != 0 && s.lockedUntil - now <= 0)) {
+                s = new Strikes(0, now, 0);
+            }
+            int failures = s.failures + 1;
+            if (failures >= maxFailures) {
+                System.err.println("[SECURITY] Too many failed logins for '" + k + "', locking for "
+                        + toSeconds(lockoutNanos) + "s");
+                return new Strikes(failures, s.windowStart, now + lockoutNanos);
+            }
+            return new Strikes(failures, s.windowStart, 0);
+        });
+    }
+
+    // clears the failures and refunds what check() charged for this attempt
+    public void recordSuccess(String username, String source) {
+        long now = clock.getAsLong();
+        strikes.remove(username);
+        perUser.refund(username, now);
+        perSource.refund(source, now);
+    }
+
+    public int trackedKeys() {
+        return perUser.size() + perSource.size() + strikes.size();
+    }
+
+    private void sweep(long now) {
+        perUser.sweep(now);
+        perSource.sweep(now);
+        strikes.values().removeIf(s -> !s.isLocked(now) && now - s.windowStart > lockoutNanos);
+    }
+
+    private static long toSeconds(long nanos) {
+        return Math.max(1, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
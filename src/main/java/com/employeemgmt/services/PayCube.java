@@ -0,0 +1,414 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.dao.ReportDAO.PayFact;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    PayCube
+    -------
+    In-memory pay cube so HR can slice pay totals any way they want
+    without us writing another SQL string for every combination.
+
+    - dimensions: year, quarter, month, division, job title, state
+    - measures: gross cents, net cents, statement count (all primitive longs)
+    - facts are rolled up once into "base cells" at the finest grain
+      (year + month + division + job + state), so a query only walks
+      the base cells, not every pay statement
+    - strings are dictionary-encoded to small ints so a cell is just numbers
+    - refresh is incremental: ReportService feeds it new rows by pay_id watermark
+
+    Drill-down = add a dimension to the group-by, roll-up = take one away.
+*/
+public class PayCube {
+
+    public enum Dimension {
+        YEAR, QUARTER, MONTH, DIVISION, JOB_TITLE, STATE
+    }
+
+    // label used when a statement has no division/job/state joined
+    public static final String UNKNOWN = "(none)";
+
+    // each dictionary dimension gets 14 bits in the packed cell key
+    private static final int DICT_BITS = 14;
+    private static final int DICT_MAX = (1 << DICT_BITS) - 1;
+
+    // dictionaries (value -> code, code -> value)
+    private final Dictionary divisions = new Dictionary();
+    private final Dictionary jobs = new Dictionary();
+    private final Dictionary states = new Dictionary();
+
+    // base cells stored column-wise in primitive arrays
+    private final Map<Long, Integer> cellIndex = new HashMap<>();
+    private int cellCount = 0;
+    private int[] cellYear = new int[64];
+    private int[] cellMonth = new int[64];
+    private int[] cellDiv = new int[64];
+    private int[] cellJob = new int[64];
+    private int[] cellState = new int[64];
+    private long[] cellGross = new long[64];
+    private long[] cellNet = new long[64];
+    private long[] cellStatements = new long[64];
+
+    // highest pay_id loaded so far (watermark for incremental refresh)
+    private int lastPayId = 0;
+    private long factCount = 0;
+
+    // ===== one row of a query result =====
+    public static class Cell {
+        private final Map<Dimension, String> key;
+        private final long grossCents;
+        private final long netCents;
+        private final long statements;
+
+        public Cell(Map<Dimension, String> key, long grossCents, long netCents, long statements) {
+            this.key = key;
+            this.grossCents = grossCents;
+            this.netCents = netCents;
+            this.statements = statements;
+        }
+
+        public Map<Dimension, String> getKey() { return key; }
+        public String get(Dimension d) { return key.get(d); }
+        public long getGrossCents() { return grossCents; }
+        public long getNetCents() { return netCents; }
+        public long getStatements() { return statements; }
+        public BigDecimal getGross() { return BigDecimal.valueOf(grossCents, 2); }
+        public BigDecimal getNet() { return BigDecimal.valueOf(netCents, 2); }
+
+        // "2025 | Q1 | Engineering"
+        public String getLabel() {
+            return key.isEmpty() ? "All" : String.join(" | ", key.values());
+        }
+    }
+
+    // ===== a group-by + filters, with drill-down / roll-up helpers =====
+    public static class Query {
+        private final List<Dimension> groupBy;
+        private final Map<Dimension, String> filters;
+
+        public Query(List<Dimension> groupBy, Map<Dimension, String> filters) {
+            this.groupBy = List.copyOf(groupBy);
+            this.filters = filters.isEmpty()
+                    ? new EnumMap<>(Dimension.class)
+                    : new EnumMap<>(filters);
+        }
+
+        public static Query by(Dimension... dims) {
+            return new Query(Arrays.asList(dims), Map.of());
+        }
+
+        public List<Dimension> getGroupBy() { return groupBy; }
+        public Map<Dimension, String> getFilters() { return filters; }
+
+        // add a finer dimension (e.g. YEAR -> YEAR, QUARTER)
+        public Query drillDown(Dimension d) {
+            if (groupBy.contains(d)) return this;
+            List<Dimension> next = new ArrayList<>(groupBy);
+            next.add(d);
+            return new Query(next, filters);
+        }
+
+        // drop a dimension so its values get summed together
+        public Query rollUp(Dimension d) {
+            List<Dimension> next = new ArrayList<>(groupBy);
+            next.remove(d);
+            return new Query(next, filters);
+        }
+
+        // keep only cells where d == value (slice/dice)
+        public Query where(Dimension d, String value) {
+            Map<Dimension, String> next = new EnumMap<>(Dimension.class);
+            next.putAll(filters);
+            next.put(d, value);
+            return new Query(groupBy, next);
+        }
+    }
+
+    // ===== loading =====
+
+    // add one pay statement to the cube
+    public synchronized void add(PayFact fact) {
+        if (fact == null || fact.getPayDate() == null) {
+            return;
+        }
+        add(fact.getPayDate(), fact.getDivision(), fact.getJobTitle(), fact.getState(),
+                toCents(fact.getGross()), toCents(fact.getNet()));
+        lastPayId = Math.max(lastPayId, fact.getPayId());
+    }
+
+    // lower-level add, also handy for tests
+    public synchronized void add(LocalDate payDate, String division, String jobTitle, String state,
+                                 long grossCents, long netCents) {
+        int year = payDate.getYear();
+        int month = payDate.getMonthValue();
+        int div = divisions.code(division);
+        int job = jobs.code(jobTitle);
+        int st = states.code(state);
+
+        long key = packBase(year, month, div, job, st);
+        Integer idx = cellIndex.get(key);
+        if (idx == null) {
+            idx = newCell(year, month, div, job, st);
+            cellIndex.put(key, idx);
+        }
+
+        cellGross[idx] += grossCents;
+        cellNet[idx] += netCents;
+        cellStatements[idx]++;
+        factCount++;
+    }
+
+    // throw everything away (used before a full rebuild)
+    public synchronized void clear() {
+        divisions.clear();
+        jobs.clear();
+        states.clear();
+        cellIndex.clear();
+        cellCount = 0;
+        lastPayId = 0;
+        factCount = 0;
+    }
+
+    public synchronized int getLastPayId() { return lastPayId; }
+    public synchronized long getFactCount() { return factCount; }
+    public synchronized int getCellCount() { return cellCount; }
+
+    // ===== querying =====
+
+    public synchronized List<Cell> query(Query q) {
+        List<Dimension> dims = q.getGroupBy();
+
+        // turn the string filters into codes once, up front
+        int fYear = -1, fQuarter = -1, fMonth = -1, fDiv = -1, fJob = -1, fState = -1;
+        for (Map.Entry<Dimension, String> f : q.getFilters().entrySet()) {
+            String v = f.getValue();
+            switch (f.getKey()) {
+                case YEAR -> fYear = parseOrMissing(v);
+                case QUARTER -> fQuarter = parseQuarter(v);
+                case MONTH -> fMonth = parseOrMissing(v);
+                case DIVISION -> fDiv = divisions.find(v);
+                case JOB_TITLE -> fJob = jobs.find(v);
+                case STATE -> fState = states.find(v);
+            }
+            // filter value never seen -> no rows can match
+            if (fYear == -2 || fQuarter == -2 || fMonth == -2
+                    || fDiv == -2 || fJob == -2 || fState == -2) {
+                return new ArrayList<>();
+            }
+        }
+
+        // group key -> {gross, net, statements}
+        Map<Long, long[]> groups = new HashMap<>();
+        for (int i = 0; i < cellCount; i++) {
+            int quarter = (cellMonth[i] - 1) / 3 + 1;
+            if (fYear >= 0 && cellYear[i] != fYear) continue;
+            if (fQuarter >= 0 && quarter != fQuarter) continue;
+            if (fMonth >= 0 && cellMonth[i] != fMonth) continue;
+            if (fDiv >= 0 && cellDiv[i] != fDiv) continue;
+            if (fJob >= 0 && cellJob[i] != fJob) continue;
+            if (fState >= 0 && cellState[i] != fState) continue;
+
+            long gk = 0;
+            for (Dimension d : dims) {
+                gk = (gk << bitsOf(d)) | codeOf(d, i, quarter);
+            }
+
+            long[] acc = groups.computeIfAbsent(gk, k -> new long[3]);
+            acc[0] += cellGross[i];
+            acc[1] += cellNet[i];
+            acc[2] += cellStatements[i];
+        }
+
+        // dimension order: years/quarters/months by number, names alphabetically
+        // ("(none)" last) - dictionary codes are just load order
+        List<Long> keys = new ArrayList<>(groups.keySet());
+        keys.sort((a, b) -> compareGroups(a, b, dims));
+
+        List<Cell> result = new ArrayList<>(keys.size());
+        for (Long gk : keys) {
+            long[] acc = groups.get(gk);
+            result.add(new Cell(unpackGroup(gk, dims), acc[0], acc[1], acc[2]));
+        }
+        return result;
+    }
+
+    // ===== internals =====
+
+    // group keys pack every dimension into one long: 14+3+4+14+14+14 = 63 bits max
+    private static int bitsOf(Dimension d) {
+        return switch (d) {
+            case QUARTER -> 3;
+            case MONTH -> 4;
+            default -> DICT_BITS;
+        };
+    }
+
+    private int codeOf(Dimension d, int i, int quarter) {
+        return switch (d) {
+            case YEAR -> cellYear[i];
+            case QUARTER -> quarter;
+            case MONTH -> cellMonth[i];
+            case DIVISION -> cellDiv[i];
+            case JOB_TITLE -> cellJob[i];
+            case STATE -> cellState[i];
+        };
+    }
+
+    private int compareGroups(long a, long b, List<Dimension> dims) {
+        int[] ca = unpackCodes(a, dims);
+        int[] cb = unpackCodes(b, dims);
+        for (int j = 0; j < dims.size(); j++) {
+            int c = compareCodes(dims.get(j), ca[j], cb[j]);
+            if (c != 0) return c;
+        }
+        return 0;
+    }
+
+    private int compareCodes(Dimension d, int a, int b) {
+        Dictionary dict = switch (d) {
+            case DIVISION -> divisions;
+            case JOB_TITLE -> jobs;
+            case STATE -> states;
+            default -> null;
+        };
+        if (dict == null || a == b) {
+            return Integer.compare(a, b);
+        }
+        if (a == 0 || b == 0) {
+            return a == 0 ? 1 : -1; // code 0 = "(none)"
+        }
+        return dict.value(a).compareToIgnoreCase(dict.value(b));
+    }
+
+    private static int[] unpackCodes(long gk, List<Dimension> dims) {
+        int[] codes = new int[dims.size()];
+        for (int j = dims.size() - 1; j >= 0; j--) {
+            int bits = bitsOf(dims.get(j));
+            codes[j] = (int) (gk & ((1L << bits) - 1));
+            gk >>>= bits;
+        }
+        return codes;
+    }
+
+    private Map<Dimension, String> unpackGroup(long gk, List<Dimension> dims) {
+        Map<Dimension, String> key = new EnumMap<>(Dimension.class);
+        for (int j = dims.size() - 1; j >= 0; j--) {
+            Dimension d = dims.get(j);
+            int bits = bitsOf(d);
+            int code = (int) (gk & ((1L << bits) - 1));
+            gk >>>= bits;
+            key.put(d, switch (d) {
+                case YEAR -> String.valueOf(code);
+                case QUARTER -> "Q" + code;
+                case MONTH -> String.format("%02d", code);
+                case DIVISION -> divisions.value(code);
+                case JOB_TITLE -> jobs.value(code);
+                case STATE -> states.value(code);
+            });
+        }
+        return key;
+    }
+
+    // year and month get 16 bits together, the three dictionaries 14 bits each
+    private static long packBase(int year, int month, int div, int job, int st) {
+        long k = ((long) year << 4) | month;
+        k = (k << DICT_BITS) | div;
+        k = (k << DICT_BITS) | job;
+        k = (k << DICT_BITS) | st;
+        return k;
+    }
+
+    private int newCell(int year, int month, int div, int job, int st) {
+        if (cellCount == cellYear.length) {
+            int n = cellCount * 2;
+            cellYear = Arrays.copyOf(cellYear, n);
+            cellMonth = Arrays.copyOf(cellMonth, n);
+            cellDiv = Arrays.copyOf(cellDiv, n);
+            cellJob = Arrays.copyOf(cellJob, n);
+            cellState = Arrays.copyOf(cellState, n);
+            cellGross = Arrays.copyOf(cellGross, n);
+            cellNet = Arrays.copyOf(cellNet, n);
+            cellStatements = Arrays.copyOf(cellStatements, n);
+        }
+        int i = cellCount++;
+        cellYear[i] = year;
+        cellMonth[i] = month;
+        cellDiv[i] = div;
+        cellJob[i] = job;
+        cellState[i] = st;
+        cellGross[i] = 0;
+        cellNet[i] = 0;
+        cellStatements[i] = 0;
+        return i;
+    }
+
+    public static long toCents(BigDecimal amount) {
+        if (amount == null) return 0L;
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // -1 = no filter, -2 = filter can never match
+    private static int parseOrMissing(String v) {
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (Exception e) {
+            return -2;
+        }
+    }
+
+    private static int parseQuarter(String v) {
+        if (v == null) return -2;
+        String t = v.trim().toUpperCase();
+        if (t.startsWith("Q")) t = t.substring(1);
+        int q = parseOrMissing(t);
+        return (q >= 1 && q <= 4) ? q : -2;
+    }
+
+    // small string <-> int dictionary, code 0 is reserved for "(none)"
+    private static class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        Dictionary() {
+            clear();
+        }
+
+        int code(String value) {
+            String v = (value == null || value.isBlank()) ? UNKNOWN : value;
+            Integer c = codes.get(v);
+            if (c != null) return c;
+            if (values.size() > DICT_MAX) {
+                throw new IllegalStateException("Too many distinct values for pay cube dimension");
+            }
+            c = values.size();
+            codes.put(v, c);
+            values.add(v);
+            return c;
+        }
+
+        // -2 when the value was never loaded
+        int find(String value) {
+            Integer c = codes.get(value == null ? UNKNOWN : value);
+            return c != null ? c : -2;
+        }
+
+        String value(int code) {
+            return values.get(code);
+        }
+
+        void clear() {
+            codes.clear();
+            values.clear();
+            codes.put(UNKNOWN, 0);
+            values.add(UNKNOWN);
+        }
+    }
+}
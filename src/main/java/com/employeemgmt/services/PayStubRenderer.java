@@ -0,0 +1,280 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.dao.PayStatementDAO;
+import com.employeemgmt.dao.PayStatementDAO.StubRow;
+import com.employeemgmt.models.PayStatement;
+import com.employeemgmt.utils.EnvLoader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    PayStubRenderer
+    ---------------
+    Writes every employee's pay stubs, one file per employee
+    (<outDir>/<empid>.txt or .html) with a stub per pay date, oldest first.
+
+        reader   - this thread; streams the statements off the driver in
+                   (empid, pay_date) order (PayStatementDAO.streamForStubs)
+                   and hands over one employee at a time
+        renderers - PAY_STUB_THREADS workers (default = cores); each fills
+                   its own StringBuilder from the compiled PayStubTemplate
+                   and writes the whole file with one FileChannel write
+
+    The queue between them holds PAY_STUB_QUEUE_EMPLOYEES employees
+    (default 64), so a slow disk holds the reader back instead of the
+    table piling up in memory. Year to date is summed per employee as the
+    stubs go (in cents) and starts again every calendar year.
+
+    Files are overwritten, so rendering again after a payroll correction
+    just replaces them. The first failure (unreadable statements, a file
+    that can't be written) stops everything within a poll interval; files
+    already written stay.
+*/
+public class PayStubRenderer {
+
+
+    // where the statements come from (PayStatementDAO::streamForStubs, or a fake in tests)
+    public interface StubSource {
+        // hands rows to the handler in (empid, pay_date) order until it returns false; -1 if the read failed
+        int read(StubRow handler);
+    }
+
+    // one employee's statements, as the reader collected them
+    private static final class EmployeeStubs {
+        final int empid;
+        final String name;
+        final String email;
+        final List<PayStatement> statements = new ArrayList<>();
+
+        EmployeeStubs(int empid, String name, String email) {
+            this.empid = empid;
+            this.name = name;
+            this.email = email;
+        }
+    }
+
+    // end-of-stream marker (compared by identity)
+    private static final EmployeeStubs NO_MORE_EMPLOYEES = new EmployeeStubs(-1, null, null);
+
+    private final int threads;
+    private final int queueEmployees;
+
+    public PayStubRenderer() {
+        this(EnvLoader.getInt("PAY_STUB_THREADS", Runtime.getRuntime().availableProcessors(), 1),
+                EnvLoader.getInt("PAY_STUB_QUEUE_EMPLOYEES", 64, 1));
+    }
+
+    public PayStubRenderer(int threads, int queueEmployees) {
+        this.threads = Math.max(1, threads);
+        this.queueEmployees = Math.max(1, queueEmployees);
+    }
+
+    /**
+     * Render every pay statement in the database into outDir
+     */
+    public Result renderAll(Path outDir, PayStubTemplate template) {
+        PayStatementDAO dao = new PayStatementDAO();
+        Result result = render(outDir, template, dao::streamForStubs);
+        System.out.println("[STUBS] " + result);
+        return result;
+    }
+
+    /**
+     * The pipeline itself: source -> renderers -> one file per employee
+     */
+    public Result render(Path outDir, PayStubTemplate template, StubSource source) {
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(outDir);
+        } catch (IOException e) {
+            return new Result(0, 0, 0, "could not create " + outDir + ": " + e.getMessage(), millisSince(start));
+        }
+
+        AtomicReference<String> failure = new AtomicReference<>();
+        Handoff<EmployeeStubs> toRender = new Handoff<>(queueEmployees, NO_MORE_EMPLOYEES, failure);
+        AtomicInteger files = new AtomicInteger();
+        LongAdder stubs = new LongAdder();
+        LongAdder bytes = new LongAdder();
+
+        AtomicInteger threadNo = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "pay-stubs-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        for (int w = 0; w < threads; w++) {
+            workers.execute(() -> {
+                StringBuilder sb = new StringBuilder(16 * 1024);
+                String[] values = new String[9];
+                try {
+                    EmployeeStubs employee;
+                    while ((employee = toRender.take()) != null) {
+                        bytes.add(renderEmployee(employee, template, outDir, sb, values));
+                        stubs.add(employee.statements.size());
+                        files.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    failure.compareAndSet(null, "could not write stubs: " + e.getMessage());
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, "renderer failed: " + e);
+                }
+            });
+        }
+
+        // reader (this thread): consecutive rows of the same empid make one employee
+        try {
+            EmployeeStubs[] current = new EmployeeStubs[1];
+            int rows = source.read((statement, name, email) -> {
+                if (current[0] != null && current[0].empid != statement.getEmpid()) {
+                    if (!toRender.put(current[0])) {
+                        return false;
+                    }
+                    current[0] = null;
+                }
+                if (current[0] == null) {
+                    current[0] = new EmployeeStubs(statement.getEmpid(), name, email);
+                }
+                current[0].statements.add(statement);
+                return true;
+            });
+            if (rows < 0) {
+                failure.compareAndSet(null, "could not read pay statements");
+            } else if (current[0] != null) {
+                toRender.put(current[0]);
+            }
+            toRender.finish(threads);
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, "reader failed: " + e);
+        } finally {
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                    workers.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        return new Result(files.get(), stubs.sum(), bytes.sum(), failure.get(), millisSince(start));
+    }
+
+    // render all of one employee's stubs and write the file in one go; returns the bytes written
+    private static long renderEmployee(EmployeeStubs employee, PayStubTemplate template, Path outDir,
+                                       StringBuilder sb, String[] values) throws IOException {
+        sb.setLength(0);
+        sb.append(template.getFileHeader());
+
+        values[PayStubTemplate.EMPID] = String.valueOf(employee.empid);
+        values[PayStubTemplate.NAME] = template.escape(employee.name);
+        values[PayStubTemplate.EMAIL] = template.escape(employee.email);
+
+        int year = Integer.MIN_VALUE;
+        long ytdGross = 0;
+        long ytdNet = 0;
+        for (PayStatement p : employee.statements) {
+            int y = p.getPayDate() == null ? Integer.MIN_VALUE : p.getPayDate().getYear();
+            if (y != year) {
+                year = y;
+                ytdGross = 0;
+                ytdNet = 0;
+            }
+            long gross = cents(p.getGrossPay());
+            long net = cents(p.getNetPay());
+            ytdGross += gross;
+            ytdNet += net;
+
+            values[PayStubTemplate.PAY_DATE] = p.getPayDate() == null ? "" : p.getPayDate().toString();
+            values[PayStubTemplate.GROSS] = money(gross);
+            values[PayStubTemplate.DEDUCTIONS] = money(gross - net);
+            values[PayStubTemplate.NET] = money(net);
+            values[PayStubTemplate.YTD_GROSS] = money(ytdGross);
+            values[PayStubTemplate.YTD_NET] = money(ytdNet);
+            template.render(sb, values);
+        }
+        sb.append(template.getFileFooter());
+
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(CharBuffer.wrap(sb));
+        long size = buffer.remaining();
+        Path file = outDir.resolve(employee.empid + template.getExtension());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * What one rendering did
+     */
+    public static class Result {
+        private final int files;
+        private final long stubs;
+        private final long bytes;
+        private final String failure;
+        private final long millis;
+
+        Result(int files, long stubs, long bytes, String failure, long millis) {
+            this.files = files;
+            this.stubs = stubs;
+            this.bytes = bytes;
+            this.failure = failure;
+            this.millis = millis;
+        }
+
+        public boolean isSuccess() { return failure == null; }
+        public String getFailure() { return failure; }
+        // one file per employee
+        public int getFiles() { return files; }
+        public long getStubs() { return stubs; }
+        public long getBytes() { return bytes; }
+        public long getMillis() { return millis; }
+
+        public long getStubsPerSecond() {
+            return millis == 0 ? stubs : stubs * 1000 / millis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Pay stubs%s: %d stubs in %d files (%d KB) in %dms, %d stubs/s",
+                    failure == null ? "" : " FAILED (" + failure + ")",
+                    stubs, files, bytes / 1024, millis, getStubsPerSecond());
+        }
+    }
+
+    // amounts are DECIMAL(x,2); anything finer is rounded the way MySQL stores it
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // cents as 1234.50 / -0.05, like BigDecimal.toPlainString() of the amount
+    static String money(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        return (cents < 0 ? "-" : "") + (abs / 100) + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,167 @@
+package com.employeemgmt.services;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    PayStubTemplate
+    ---------------
+    A pay stub layout with {{field}} placeholders, compiled once into
+    literal pieces and field numbers, so rendering a stub is just appends
+    into a StringBuilder - no searching or replacing per stub.
+
+    Fields: empid, name, email, pay_date, gross, deductions, net,
+            ytd_gross, ytd_net   (year to date, up to and including the stub)
+
+    An unknown or unclosed placeholder fails at compile time, before any
+    file is written. HTML templates (compileHtml, or a .html/.htm file)
+    get the values HTML-escaped and each employee's file wrapped in a
+    small page; text templates are written as they are.
+*/
+public class PayStubTemplate {
+
+    public static final int EMPID = 0;
+    public static final int NAME = 1;
+    public static final int EMAIL = 2;
+    public static final int PAY_DATE = 3;
+    public static final int GROSS = 4;
+    public static final int DEDUCTIONS = 5;
+    public static final int NET = 6;
+    public static final int YTD_GROSS = 7;
+    public static final int YTD_NET = 8;
+
+    private static final List<String> FIELDS = List.of(
+            "empid", "name", "email", "pay_date", "gross", "deductions", "net", "ytd_gross", "ytd_net");
+
+    public static final String DEFAULT_TEXT = """
+            ==================================================
+             PAY STUB  {{pay_date}}
+             {{name}} (#{{empid}})  {{email}}
+            --------------------------------------------------
+             Gross pay        {{gross}}
+             Deductions       {{deductions}}
+             Net pay          {{net}}
+            --------------------------------------------------
+             Year to date     gross {{ytd_gross}}   net {{ytd_net}}
+            ==================================================
+
+            """;
+
+    public static final String DEFAULT_HTML = """
+            <div class="stub">
+              <h2>Pay stub {{pay_date}}</h2>
+              <p>{{name}} (#{{empid}}) {{email}}</p>
+              <table>
+                <tr><td>Gross pay</td><td>{{gross}}</td></tr>
+                <tr><td>Deductions</td><td>{{deductions}}</td></tr>
+                <tr><td>Net pay</td><td>{{net}}</td></tr>
+                <tr><td>Year to date</td><td>gross {{ytd_gross}}, net {{ytd_net}}</td></tr>
+              </table>
+            </div>
+            """;
+
+    private static final String HTML_HEADER =
+            "<!DOCTYPE html>\n<html><head><meta charset=\"utf-8\"><title>Pay stubs</title></head><body>\n";
+    private static final String HTML_FOOTER = "</body></html>\n";
+
+    private final String[] literals; // literals[i] goes before fields[i]; the last one closes the stub
+    private final int[] fields;
+    private final boolean html;
+
+    private PayStubTemplate(String[] literals, int[] fields, boolean html) {
+        this.literals = literals;
+        this.fields = fields;
+        this.html = html;
+    }
+
+    public static PayStubTemplate compileText(String source) {
+        return compile(source, false);
+    }
+
+    public static PayStubTemplate compileHtml(String source) {
+        return compile(source, true);
+    }
+
+    /**
+     * Read and compile a template file; .html/.htm files are HTML templates
+     * @throws IllegalArgumentException if the template has an unknown or unclosed placeholder
+     */
+    public static PayStubTemplate load(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        return compile(Files.readString(file, StandardCharsets.UTF_8), name.endsWith(".html") || name.endsWith(".htm"));
+    }
+
+    private static PayStubTemplate compile(String source, boolean html) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> fields = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("unclosed {{ at position " + open + " in pay stub template");
+            }
+            String name = source.substring(open + 2, close).trim().toLowerCase();
+            int field = FIELDS.indexOf(name);
+            if (field < 0) {
+                throw new IllegalArgumentException("unknown field {{" + name + "}} in pay stub template, known: "
+                        + String.join(", ", FIELDS));
+            }
+            literals.add(source.substring(pos, open));
+            fields.add(field);
+            pos = close + 2;
+        }
+        literals.add(source.substring(pos));
+
+        int[] fieldArray = new int[fields.size()];
+        for (int i = 0; i < fieldArray.length; i++) {
+            fieldArray[i] = fields.get(i);
+        }
+        return new PayStubTemplate(literals.toArray(new String[0]), fieldArray, html);
+    }
+
+    /**
+     * Append one stub; values are indexed by the field constants and already escaped
+     */
+    public void render(StringBuilder out, String[] values) {
+        for (int i = 0; i < fields.length; i++) {
+            out.append(literals[i]).append(values[fields[i]]);
+        }
+        out.append(literals[fields.length]);
+    }
+
+    // free text (name, email) as it has to go into this template
+    public String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!html) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '&' -> sb.append("&amp;");
+                case '"' -> sb.append("&quot;");
+                case '\'' -> sb.append("&#39;");
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    public boolean isHtml() { return html; }
+    public String getFileHeader() { return html ? HTML_HEADER : ""; }
+    public String getFileFooter() { return html ? HTML_FOOTER : ""; }
+    public String getExtension() { return html ? ".html" : ".txt"; }
+}
@@ -0,0 +1,229 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.models.Payroll;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/*
+    PayrollCentsKernel
+    ------------------
+    The PayrollDeductions rules again, in whole cents held in longs, for bulk
+    runs where the BigDecimal version (a dozen new BigDecimals per employee
+    plus the Payroll recalculating itself after every setter) is most of the
+    garbage. compute(...) allocates nothing.
+
+    The answers are exactly the BigDecimal ones - PayrollCentsKernelTest
+    compares the two over millions of random inputs. The rounding rules,
+    spelled out:
+
+      gross      = annual salary cents / periods per year, rounded HALF_UP
+      income tax = TaxTable.withholdingCents when the rules have a bracket
+                   table for it (the same call the BigDecimal rules make),
+                   otherwise the flat rate like every other percentage
+      each rate  = rate is compiled to units / 10^scale (0.0145 -> 145 / 10^4);
+                   amount = gross * units / 10^scale, rounded HALF_UP
+      health     = the flat premium, but never more than the gross
+      taxes      = federal + state + social security + medicare
+      deductions = taxes + 401k + health
+      net        = gross - deductions
+
+    HALF_UP on a positive quotient a / b: round up when the remainder is at
+    least half of b (checked as r >= b - r so nothing overflows).
+
+    Anything the kernel can't do exactly says so (compile() returns null,
+    compute() returns false) and the caller uses PayrollDeductions instead:
+    a rate with more than 18 decimals, a salary with fractions of a cent,
+    or a product that would not fit in a long.
+*/
+public final class PayrollCentsKernel {
+
+    // centsOf(...) for an amount that isn't a whole number of cents
+    public static final long NOT_CENTS = Long.MIN_VALUE;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    // one percentage rule: amount = gross * units / divisor, HALF_UP
+    private static final class Rate {
+        final long units;
+        final long divisor;
+        final long maxGross; // beyond this gross * units overflows
+
+        Rate(long units, long divisor) {
+            this.units = units;
+            this.divisor = divisor;
+            this.maxGross = units == 0 ? Long.MAX_VALUE : Long.MAX_VALUE / units;
+        }
+    }
+
+    /**
+     * One employee's statement in cents (reused by the caller, one per thread)
+     */
+    public static final class Statement {
+        long gross;
+        long federal;
+        long state;
+        long socialSecurity;
+        long medicare;
+        long retirement401k;
+        long health;
+        long taxes;
+        long deductions;
+        long net;
+
+        public long getGross() { return gross; }
+        public long getFederal() { return federal; }
+        public long getState() { return state; }
+        public long getSocialSecurity() { return socialSecurity; }
+        public long getMedicare() { return medicare; }
+        public long getRetirement401k() { return retirement401k; }
+        public long getHealth() { return health; }
+        public long getTaxes() { return taxes; }
+        public long getDeductions() { return deductions; }
+        public long getNet() { return net; }
+
+        /**
+         * Same Payroll that PayrollDeductions.statementFor would have built (for display, not the hot path)
+         */
+        public Payroll toPayroll(int empid, LocalDate payDate) {
+            Payroll p = new Payroll(empid, payDate, money(gross), money(federal), money(state), money(retirement401k));
+            p.setFederalSocialSecurity(money(socialSecurity));
+            p.setFederalMedicare(money(medicare));
+            p.setHealthCare(money(health));
+            return p;
+        }
+    }
+
+    private final int periodsPerYear;
+    private final Rate federal;
+    private final Rate state;
+    private final Rate socialSecurity;
+    private final Rate medicare;
+    private final Rate retirement401k;
+    private final long healthCents;
+
+    private PayrollCentsKernel(PayrollDeductions rules, Rate federal, Rate state, Rate socialSecurity,
+                               Rate medicare, Rate retirement401k, long healthCents) {
+        this.periodsPerYear = rules.getPeriodsPerYear();
+        this.federal = federal;
+        this.state = state;
+        this.socialSecurity = socialSecurity;
+        this.medicare = medicare;
+        this.retirement401k = retirement401k;
+        this.healthCents = healthCents;
+    }
+
+    /**
+     * Compile the rules once per run
+     * @return the kernel, or null if some rule can't be done exactly in longs
+     */
+    public static PayrollCentsKernel compile(PayrollDeductions rules) {
+        Rate federal = rate(rules.getFederalRate());
+        Rate state = rate(rules.getStateRate());
+        Rate socialSecurity = rate(rules.getSocialSecurityRate());
+        Rate medicare = rate(rules.getMedicareRate());
+        Rate retirement401k = rate(rules.getRetirement401kRate());
+        long health = centsOf(rules.getHealthPerPeriod());
+        if (federal == null || state == null || socialSecurity == null || medicare == null
+                || retirement401k == null || health == NOT_CENTS) {
+            return null;
+        }
+        return new PayrollCentsKernel(rules, federal, state, socialSecurity, medicare, retirement401k, health);
+    }
+
+    /**
+     * Fill 'into' with the statement for a positive annual salary
+     * @return false if the numbers are too big to do exactly (use PayrollDeductions then)
+     */
+    public boolean compute(long annualSalaryCents, Statement into) {
+        return compute(annualSalaryCents, null, null, into);
+    }
+
+    /**
+     * Same, with federal/state income tax from bracket tables (null = flat rate);
+     * pass PayrollDeductions.federalTable / stateTable for the pay date's year
+     */
+    public boolean compute(long annualSalaryCents, TaxTable federalTable, TaxTable stateTable, Statement into) {
+        if (annualSalaryCents <= 0) {
+            return false;
+        }
+        long gross = divideHalfUp(annualSalaryCents, periodsPerYear);
+        if (gross > federal.maxGross || gross > state.maxGross || gross > socialSecurity.maxGross
+                || gross > medicare.maxGross || gross > retirement401k.maxGross) {
+            return false;
+        }
+
+        into.gross = gross;
+        into.federal = federalTable != null ? federalTable.withholdingCents(gross, periodsPerYear) : apply(federal, gross);
+        into.state = stateTable != null ? stateTable.withholdingCents(gross, periodsPerYear) : apply(state, gross);
+        into.socialSecurity = apply(socialSecurity, gross);
+        into.medicare = apply(medicare, gross);
+        into.retirement401k = apply(retirement401k, gross);
+        into.health = Math.min(healthCents, gross);
+        into.taxes = into.federal + into.state + into.socialSecurity + into.medicare;
+        into.deductions = into.taxes + into.retirement401k + into.health;
+        into.net = gross - into.deductions;
+        return true;
+    }
+
+    /**
+     * Exact cents of an amount (60000 -> 6000000, 12.5 -> 1250)
+     * @return NOT_CENTS for null, fractions of a cent, or amounts too big for a long
+     */
+    public static long centsOf(BigDecimal amount) {
+        if (amount == null) {
+            return NOT_CENTS;
+        }
+        int scale = amount.scale();
+        if (scale > 2) {
+            // 12.50000 is fine, 12.505 is not
+            amount = amount.stripTrailingZeros();
+            scale = amount.scale();
+            if (scale > 2) {
+                return NOT_CENTS;
+            }
+        }
+        if (amount.precision() - scale > 16) {
+            return NOT_CENTS;
+        }
+        if (scale < 0) {
+            // 1E+3 style, rare; let BigDecimal do it
+            return amount.setScale(2).unscaledValue().longValue();
+        }
+        return amount.unscaledValue().longValue() * POWERS_OF_TEN[2 - scale];
+    }
+
+    public static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    // a >= 0, b > 0
+    static long divideHalfUp(long a, long b) {
+        long q = a / b;
+        long r = a % b;
+        return r >= b - r ? q + 1 : q;
+    }
+
+    private static long apply(Rate rate, long gross) {
+        if (rate.units == 0) {
+            return 0;
+        }
+        return divideHalfUp(gross * rate.units, rate.divisor);
+    }
+
+    private static Rate rate(BigDecimal r) {
+        BigDecimal plain = r.stripTrailingZeros();
+        if (plain.scale() < 0) {
+            plain = plain.setScale(0);
+        }
+        if (plain.scale() >= POWERS_OF_TEN.length || plain.precision() > 18) {
+            return null;
+        }
+        return new Rate(plain.unscaledValue().longValue(), POWERS_OF_TEN[plain.scale()]);
+    }
+}
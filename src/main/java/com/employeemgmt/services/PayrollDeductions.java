@@ -0,0 +1,170 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.models.Payroll;
+import com.employeemgmt.utils.EnvLoader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/*
+    PayrollDeductions
+    -----------------
+    The deduction rules a payroll run applies to one pay period, replacing the
+    old hard-coded "net = gross * 0.88" estimate.
+
+    - gross for the period = annual base salary / periods per year
+    - federal and state income tax come from the bracket tables (TaxTables)
+      when there is a table for that jurisdiction and year; otherwise they
+      fall back to the flat federal/state percentages
+    - Social Security, Medicare and 401k are percentages of the gross;
+      health care is a flat amount per period
+    - every amount is rounded to cents (HALF_UP) on its own, so the pieces
+      always add up to exactly what the statement shows
+
+    Rates come from .env (PAYROLL_*), see fromEnv(). Immutable, so one
+    instance is shared by all the calculator threads of a run.
+*/
+public final class PayrollDeductions {
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    private final int periodsPerYear;
+    private final BigDecimal federalRate;
+    private final BigDecimal stateRate;
+    private final BigDecimal socialSecurityRate;
+    private final BigDecimal medicareRate;
+    private final BigDecimal retirement401kRate;
+    private final BigDecimal healthPerPeriod;
+    private final TaxTables taxTables; // null = flat federal/state rates only
+
+    // rates are fractions (0.062 = 6.2%), health is dollars per period
+    public PayrollDeductions(int periodsPerYear, BigDecimal federalRate, BigDecimal stateRate,
+                             BigDecimal socialSecurityRate, BigDecimal medicareRate,
+                             BigDecimal retirement401kRate, BigDecimal healthPerPeriod) {
+        this(periodsPerYear, federalRate, stateRate, socialSecurityRate, medicareRate,
+                retirement401kRate, healthPerPeriod, null);
+    }
+
+    // same, but federal/state income tax from bracket tables where they exist
+    public PayrollDeductions(int periodsPerYear, BigDecimal federalRate, BigDecimal stateRate,
+                             BigDecimal socialSecurityRate, BigDecimal medicareRate,
+                             BigDecimal retirement401kRate, BigDecimal healthPerPeriod, TaxTables taxTables) {
+        if (periodsPerYear <= 0) {
+            throw new IllegalArgumentException("periodsPerYear must be positive");
+        }
+        this.periodsPerYear = periodsPerYear;
+        this.federalRate = nonNegative(federalRate, "federal");
+        this.stateRate = nonNegative(stateRate, "state");
+        this.socialSecurityRate = nonNegative(socialSecurityRate, "social security");
+        this.medicareRate = nonNegative(medicareRate, "medicare");
+        this.retirement401kRate = nonNegative(retirement401kRate, "401k");
+        this.healthPerPeriod = nonNegative(healthPerPeriod, "health").setScale(2, RoundingMode.HALF_UP);
+        this.taxTables = taxTables;
+    }
+
+    // rates from .env; percentages are written as percent there (PAYROLL_FEDERAL_PERCENT=12 -> 0.12)
+    public static PayrollDeductions fromEnv() {
+        return new PayrollDeductions(
+                EnvLoader.getInt("PAYROLL_PERIODS_PER_YEAR", 12, 1),
+                percentEnv("PAYROLL_FEDERAL_PERCENT", "12"),
+                percentEnv("PAYROLL_STATE_PERCENT", "5"),
+                percentEnv("PAYROLL_SOCIAL_SECURITY_PERCENT", "6.2"),
+                percentEnv("PAYROLL_MEDICARE_PERCENT", "1.45"),
+                percentEnv("PAYROLL_401K_PERCENT", "4"),
+                decimalEnv("PAYROLL_HEALTH_PER_PERIOD", "150.00"),
+                "false".equalsIgnoreCase(EnvLoader.getEnv("PAYROLL_TAX_BRACKETS", "true").trim())
+                        ? null : TaxTables.getInstance());
+    }
+
+    /**
+     * Build one employee's statement for the period
+     * @param annualSalary employees.base_salary
+     * @return the statement with every deduction filled in, or null if there's no salary
+     */
+    public Payroll statementFor(int empid, LocalDate payDate, BigDecimal annualSalary) {
+        return statementFor(empid, payDate, annualSalary, null);
+    }
+
+    /**
+     * Same, with state income tax for the employee's state (null = flat state rate)
+     */
+    public Payroll statementFor(int empid, LocalDate payDate, BigDecimal annualSalary, String stateCode) {
+        if (annualSalary == null || annualSalary.signum() <= 0) {
+            return null;
+        }
+        BigDecimal gross = periodGross(annualSalary);
+        int year = payDate.getYear();
+
+        Payroll p = new Payroll(empid, payDate, gross,
+                incomeTax(gross, federalTable(year), federalRate),
+                incomeTax(gross, stateTable(stateCode, year), stateRate),
+                cents(gross, retirement401kRate));
+        p.setFederalSocialSecurity(cents(gross, socialSecurityRate));
+        p.setFederalMedicare(cents(gross, medicareRate));
+        // never take more health premium than there is pay
+        p.setHealthCare(healthPerPeriod.min(gross));
+        return p;
+    }
+
+    public BigDecimal periodGross(BigDecimal annualSalary) {
+        return annualSalary.divide(BigDecimal.valueOf(periodsPerYear), 2, RoundingMode.HALF_UP);
+    }
+
+    // bracket table for federal tax in that year, or null for the flat rate
+    public TaxTable federalTable(int year) {
+        return taxTables == null ? null : taxTables.table(TaxTables.FEDERAL, year);
+    }
+
+    // bracket table for that state and year, or null for the flat rate
+    public TaxTable stateTable(String stateCode, int year) {
+        return taxTables == null ? null : taxTables.table(stateCode, year);
+    }
+
+    public int getPeriodsPerYear() { return periodsPerYear; }
+    public BigDecimal getFederalRate() { return federalRate; }
+    public BigDecimal getStateRate() { return stateRate; }
+    public BigDecimal getSocialSecurityRate() { return socialSecurityRate; }
+    public BigDecimal getMedicareRate() { return medicareRate; }
+    public BigDecimal getRetirement401kRate() { return retirement401kRate; }
+    public BigDecimal getHealthPerPeriod() { return healthPerPeriod; }
+    public TaxTables getTaxTables() { return taxTables; }
+
+    @Override
+    public String toString() {
+        return String.format("periods=%d federal=%s state=%s ss=%s medicare=%s 401k=%s health=%s brackets=%s",
+                periodsPerYear, federalRate, stateRate, socialSecurityRate, medicareRate,
+                retirement401kRate, healthPerPeriod, taxTables == null ? "off" : taxTables.getVersion());
+    }
+
+    private BigDecimal incomeTax(BigDecimal gross, TaxTable table, BigDecimal flatRate) {
+        if (table == null) {
+            return cents(gross, flatRate);
+        }
+        return PayrollCentsKernel.money(table.withholdingCents(PayrollCentsKernel.centsOf(gross), periodsPerYear));
+    }
+
+    private static BigDecimal cents(BigDecimal gross, BigDecimal rate) {
+        return gross.multiply(rate).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal nonNegative(BigDecimal v, String name) {
+        if (v == null || v.signum() < 0) {
+            throw new IllegalArgumentException(name + " deduction must be zero or more");
+        }
+        return v;
+    }
+
+
+    private static BigDecimal percentEnv(String key, String defaultPercent) {
+        return decimalEnv(key, defaultPercent).divide(HUNDRED);
+    }
+
+    private static BigDecimal decimalEnv(String key, String defaultValue) {
+        try {
+            BigDecimal v = new BigDecimal(EnvLoader.getEnv(key, defaultValue).trim());
+            return v.signum() >= 0 ? v : new BigDecimal(defaultValue);
+        } catch (NumberFormatException e) {
+            return new BigDecimal(defaultValue);
+        }
+    }
+}
@@ -0,0 +1,649 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.dao.PayrollDAO;
+import com.employeemgmt.dao.PayrollDAO.EmployeeSalary;
+import com.employeemgmt.dao.PayrollDAO.StatementBatch;
+import com.employeemgmt.dao.PayrollDAO.StatementBatchWriter;
+import com.employeemgmt.dao.PayrollRunDAO;
+import com.employeemgmt.dao.PayrollRunDAO.PayrollRun;
+import com.employeemgmt.models.Payroll;
+import com.employeemgmt.utils.EnvLoader;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/*
+    PayrollRunEngine
+    ----------------
+    Runs payroll for the whole company for one pay date, as a pipeline:
+
+        reader      - streams active salaries off the driver (one query,
+                      never the whole table in memory) and cuts them into
+                      chunks of PAYROLL_CHUNK_SIZE (default 500)
+        calculators - PAYROLL_THREADS workers (default = cores) turn each
+                      chunk into a StatementBatch (cents in arrays)
+        writer      - one connection, one JDBC batch + commit per chunk
+                      through PayrollDAO's INSERT_PAY_STATEMENT
+
+    The stages are joined by bounded queues (PAYROLL_QUEUE_CHUNKS chunks
+    each, default 4), so a slow database makes the calculators and then
+    the reader wait instead of piling statements up in memory. At most
+    about (2 * queue + threads + 2) chunks are alive at any time.
+
+    If any stage fails the others stop within a poll interval and the
+    result says what went wrong; batches already committed stay written.
+
+    Stage times are busy time (waiting on a queue doesn't count), and the
+    calculator time is summed over all calculators - so with the stages
+    overlapping they don't add up to the total. Whichever stage is close
+    to the total is the bottleneck.
+
+    The calculators use PayrollCentsKernel (long cents, same results as
+    PayrollDeductions, no garbage per employee) unless PAYROLL_FIXED_POINT
+    is false; a row the kernel can't do exactly goes through the BigDecimal
+    rules instead. Totals are kept in cents either way.
+
+    Runs are journaled in payroll_run (PayrollRunDAO). Chunks are numbered
+    as the reader cuts them; the writer commits each batch together with
+    the run's checkpoint - the last empid of the newest chunk that has every
+    earlier chunk committed too (calculators can finish out of order, so
+    that's not always the chunk just written). If the process dies, the next
+    run for that pay date picks the unfinished run up and only reads
+    employees after the checkpoint. Anything committed past the checkpoint
+    gets computed again, and INSERT_PAY_STATEMENT skips it as a duplicate of
+    (empid, pay_date) - nobody is paid twice. A run still RUNNING and
+    checkpointed less than PAYROLL_RUN_STALE_MINUTES ago (default 10) is
+    taken to be alive somewhere else and left alone.
+
+    runChanged(payDate) is the correction run: only employees whose row,
+    address or city changed (updated_at, V004/V008) since the pay date's
+    last completed run
+    started reading are recomputed, and their statements replace the ones
+    on file. The watermark is pushed back PAYROLL_CHANGE_SLACK_SECONDS
+    (default 300) so an edit still uncommitted while that run read its
+    salaries isn't missed - recomputing an unchanged employee just writes
+    the same numbers again.
+
+    compute(...) is the in-memory variant for a list that's already loaded
+    (fork/join, BigDecimal rules, keeps the Payroll objects), handy for
+    previews and tests.
+*/
+public class PayrollRunEngine {
+
+    // below this many employees a fork/join task just does the work itself
+    private static final int SPLIT_THRESHOLD = 512;
+
+    // a chunk of rows as the reader cut it, numbered from 0
+    private static final class Chunk {
+        final long seq;
+        final List<EmployeeSalary> rows;
+
+        Chunk(long seq, List<EmployeeSalary> rows) {
+            this.seq = seq;
+            this.rows = rows;
+        }
+
+        int lastEmpid() {
+            return rows.get(rows.size() - 1).getEmpid();
+        }
+    }
+
+    // a computed chunk on its way to the writer (may be empty if every row was skipped)
+    private static final class Computed {
+        final long seq;
+        final int lastEmpid;
+        final StatementBatch batch;
+
+        Computed(long seq, int lastEmpid, StatementBatch batch) {
+            this.seq = seq;
+            this.lastEmpid = lastEmpid;
+            this.batch = batch;
+        }
+    }
+
+    // end-of-stream markers (compared by identity)
+    private static final Chunk NO_MORE_ROWS = new Chunk(-1, new ArrayList<>(0));
+    private static final Computed NO_MORE_STATEMENTS = new Computed(-1, -1, null);
+
+    // where a run reads its salaries from (PayrollDAO::streamActiveSalaries, or a fake in tests)
+    public interface SalarySource {
+        // hands rows to the handler until it returns false; -1 if the read failed
+        int read(Predicate<EmployeeSalary> handler);
+    }
+
+    // where a correction run reads the changed employees from (PayrollDAO::streamChangedSalaries, or a fake in tests)
+    public interface ChangedSource {
+        // hands the employees changed after changedAfter to the handler, in empid order; -1 if the read failed
+        int read(LocalDateTime changedAfter, Predicate<EmployeeSalary> handler);
+    }
+
+    // where a run writes its statements to, one committed batch per call
+    public interface StatementSink {
+        int write(StatementBatch batch) throws SQLException;
+    }
+
+    private final PayrollDAO payrollDAO;
+    private final PayrollDeductions deductions;
+    private final PayrollCentsKernel kernel; // null = BigDecimal only
+    private final int threads;
+    private final int chunkSize;
+    private final int queueChunks;
+    private final int staleMinutes;
+    private final int changeSlackSeconds;
+    private final ForkJoinPool pool;
+
+    public PayrollRunEngine() {
+        this(new PayrollDAO(), PayrollDeductions.fromEnv(),
+                EnvLoader.getInt("PAYROLL_THREADS", Runtime.getRuntime().availableProcessors(), 1),
+                EnvLoader.getInt("PAYROLL_CHUNK_SIZE", 500, 1),
+                EnvLoader.getInt("PAYROLL_QUEUE_CHUNKS", 4, 1),
+                !"false".equalsIgnoreCase(EnvLoader.getEnv("PAYROLL_FIXED_POINT", "true").trim()));
+    }
+
+    public PayrollRunEngine(PayrollDAO payrollDAO, PayrollDeductions deductions, int threads) {
+        this(payrollDAO, deductions, threads, 500, 4, true);
+    }
+
+    public PayrollRunEngine(PayrollDAO payrollDAO, PayrollDeductions deductions,
+                            int threads, int chunkSize, int queueChunks, boolean fixedPoint) {
+        this.payrollDAO = payrollDAO;
+        this.deductions = deductions;
+        this.kernel = fixedPoint ? PayrollCentsKernel.compile(deductions) : null;
+        this.threads = Math.max(1, threads);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.queueChunks = Math.max(1, queueChunks);
+        this.staleMinutes = EnvLoader.getInt("PAYROLL_RUN_STALE_MINUTES", 10, 1);
+        this.changeSlackSeconds = EnvLoader.getInt("PAYROLL_CHANGE_SLACK_SECONDS", 300, 1);
+        this.pool = new ForkJoinPool(this.threads);
+    }
+
+    /**
+     * Timings and totals of one run
+     */
+    public static class RunResult {
+        private final LocalDate payDate;
+        private final List<Payroll> statements;
+        private final int employeeCount;
+        private final int skipped;
+        private final int written;
+        private final String failure;
+        private final BigDecimal totalGross;
+        private final BigDecimal totalTaxes;
+        private final BigDecimal totalDeductions;
+        private final BigDecimal totalNet;
+        private final long loadMillis;
+        private final long computeMillis;
+        private final long writeMillis;
+        private final long totalMillis;
+        private long runId;       // payroll_run.run_id, 0 = not journaled
+        private int resumedAfter; // checkpoint this run started from, 0 = from the start
+
+        RunResult(LocalDate payDate, List<Payroll> statements, int employeeCount, int written, String failure,
+                  Totals totals, long loadMillis, long computeMillis, long writeMillis, long totalMillis) {
+            this.payDate = payDate;
+            this.statements = statements;
+            this.employeeCount = employeeCount;
+            this.skipped = totals.skipped;
+            this.written = written;
+            this.failure = failure;
+            this.totalGross = PayrollCentsKernel.money(totals.gross);
+            this.totalTaxes = PayrollCentsKernel.money(totals.taxes);
+            this.totalDeductions = PayrollCentsKernel.money(totals.deductions);
+            this.totalNet = PayrollCentsKernel.money(totals.net);
+            this.loadMillis = loadMillis;
+            this.computeMillis = computeMillis;
+            this.writeMillis = writeMillis;
+            this.totalMillis = totalMillis;
+        }
+
+        public LocalDate getPayDate() { return payDate; }
+        // only kept by compute(...); a pipelined run streams them to the database
+        public List<Payroll> getStatements() { return statements; }
+        public int getEmployeeCount() { return employeeCount; }
+        public int getSkipped() { return skipped; }
+        public int getWritten() { return written; }
+        public boolean isSuccess() { return failure == null; }
+        public String getFailure() { return failure; }
+        public BigDecimal getTotalGross() { return totalGross; }
+        public BigDecimal getTotalTaxes() { return totalTaxes; }
+        public BigDecimal getTotalDeductions() { return totalDeductions; }
+        public BigDecimal getTotalNet() { return totalNet; }
+        public long getLoadMillis() { return loadMillis; }
+        public long getComputeMillis() { return computeMillis; }
+        public long getWriteMillis() { return writeMillis; }
+        public long getTotalMillis() { return totalMillis; }
+        public long getRunId() { return runId; }
+        public int getResumedAfter() { return resumedAfter; }
+
+        void journaled(long runId, int resumedAfter) {
+            this.runId = runId;
+            this.resumedAfter = resumedAfter;
+        }
+
+        static RunResult failed(LocalDate payDate, String failure) {
+            return new RunResult(payDate, Collections.emptyList(), 0, 0, failure, new Totals(), 0, 0, 0, 0);
+        }
+
+        @Override
+        public String toString() {
+            String journal = runId == 0 ? "" : " (run #" + runId
+                    + (resumedAfter > 0 ? ", resumed after empid " + resumedAfter : "") + ")";
+            return String.format("Payroll run %s%s%s: %d statements (%d skipped, %d written) gross=%s taxes=%s net=%s "
+                            + "| load %dms, compute %dms, write %dms, total %dms",
+                    payDate, journal, failure == null ? "" : " FAILED (" + failure + ")",
+                    employeeCount, skipped, written, totalGross, totalTaxes, totalNet,
+                    loadMillis, computeMillis, writeMillis, totalMillis);
+        }
+    }
+
+    // running sums (in cents) of one slice of the employees
+    static final class Totals {
+        long gross;
+        long taxes;
+        long deductions;
+        long net;
+        int count;
+        int skipped;
+
+        void add(long grossCents, long taxCents, long deductionCents, long netCents) {
+            gross += grossCents;
+            taxes += taxCents;
+            deductions += deductionCents;
+            net += netCents;
+            count++;
+        }
+
+        // statements from the rules are always whole cents
+        void add(Payroll p) {
+            add(PayrollCentsKernel.centsOf(p.getTotalEarnings()), PayrollCentsKernel.centsOf(p.getTotalTaxDeductions()),
+                    PayrollCentsKernel.centsOf(p.getTotalDeductions()), PayrollCentsKernel.centsOf(p.getNetPay()));
+        }
+
+        Totals merge(Totals other) {
+            gross += other.gross;
+            taxes += other.taxes;
+            deductions += other.deductions;
+            net += other.net;
+            count += other.count;
+            skipped += other.skipped;
+            return this;
+        }
+    }
+
+    /**
+     * Compute (and unless dryRun, save) every active employee's statement for payDate;
+     * a saving run picks up an unfinished run for the same pay date from its checkpoint
+     */
+    public RunResult run(LocalDate payDate, boolean dryRun) {
+        RunResult result = dryRun
+                ? run(payDate, payrollDAO::streamActiveSalaries, batch -> 0)
+                : journaledRun(payDate, new PayrollRunDAO());
+        System.out.println("[PAYROLL] " + result + " | rules: " + deductions);
+        return result;
+    }
+
+    /**
+     * Correction run: recompute (and replace) the statements of employees changed
+     * since the pay date's last completed run; everyone else is left alone
+     */
+    public RunResult runChanged(LocalDate payDate) {
+        PayrollRunDAO journal = new PayrollRunDAO();
+        RunResult result;
+        PayrollRun unfinished = journal.findUnfinished(payDate);
+        LocalDateTime watermark = journal.findWatermark(payDate);
+        if (unfinished != null) {
+            result = RunResult.failed(payDate, "run #" + unfinished.getRunId() + " for this pay date hasn't finished"
+                    + " - run the full payroll again to complete it first");
+        } else if (watermark == null) {
+            result = RunResult.failed(payDate, "no completed run for this pay date to correct");
+        } else {
+            PayrollRun run = journal.start(payDate, deductions.toString(), true);
+            try (StatementBatchWriter writer = payrollDAO.openCorrectionWriter()) {
+                if (run != null) {
+                    writer.journalTo(run.getRunId());
+                }
+                result = runChanged(payDate, watermark, payrollDAO::streamChangedSalaries, writer::write);
+            } catch (SQLException e) {
+                result = RunResult.failed(payDate, "could not open a connection: " + e.getMessage());
+            }
+            if (run != null) {
+                result.journaled(run.getRunId(), 0);
+                journal.finish(run.getRunId(), result.isSuccess(), result.getFailure());
+            }
+        }
+        System.out.println("[PAYROLL] Correction " + result + " | rules: " + deductions);
+        return result;
+    }
+
+    /**
+     * The correction run itself: employees changed after the watermark, pushed back by
+     * PAYROLL_CHANGE_SLACK_SECONDS, are recomputed into the sink
+     */
+    public RunResult runChanged(LocalDate payDate, LocalDateTime watermark, ChangedSource source, StatementSink sink) {
+        LocalDateTime since = watermark.minusSeconds(changeSlackSeconds);
+        System.out.println("[PAYROLL] Recomputing employees changed since " + since);
+        return run(payDate, handler -> source.read(since, handler), sink);
+    }
+
+    public int getChangeSlackSeconds() {
+        return changeSlackSeconds;
+    }
+
+    private RunResult journaledRun(LocalDate payDate, PayrollRunDAO journal) {
+        String rules = deductions.toString();
+        PayrollRun run = journal.findUnfinished(payDate);
+        if (run != null && run.isRunning() && run.getIdleSeconds() < staleMinutes * 60L) {
+            return RunResult.failed(payDate, "run #" + run.getRunId() + " for this pay date is still running"
+                    + " (last checkpoint " + run.getIdleSeconds() + "s ago)");
+        }
+
+        int resumeAfter = 0;
+        if (run != null && journal.resume(run.getRunId(), rules)) {
+            resumeAfter = run.getLastEmpid();
+            System.out.println("[PAYROLL] Resuming run #" + run.getRunId() + " after empid " + resumeAfter
+                    + " (" + run.getStatementsWritten() + " statements already written)");
+            if (!rules.equals(run.getRules())) {
+                System.err.println("[PAYROLL] Rules changed since run #" + run.getRunId() + " started: "
+                        + run.getRules());
+            }
+        } else {
+            run = journal.start(payDate, rules);
+            if (run == null) {
+                System.err.println("[PAYROLL] No run journal (is migration V003 applied?) - running without checkpoints");
+            }
+        }
+
+        RunResult result;
+        int after = resumeAfter;
+        try (StatementBatchWriter writer = payrollDAO.openBatchWriter()) {
+            if (run != null) {
+                writer.journalTo(run.getRunId());
+            }
+            result = run(payDate, handler -> payrollDAO.streamActiveSalaries(after, handler), writer::write);
+        } catch (SQLException e) {
+            result = RunResult.failed(payDate, "could not open a connection: " + e.getMessage());
+        }
+
+        if (run != null) {
+            result.journaled(run.getRunId(), resumeAfter);
+            journal.finish(run.getRunId(), result.isSuccess(), result.getFailure());
+        }
+        return result;
+    }
+
+    /**
+     * The pipeline itself: source -> calculators -> sink, bounded queues in between
+     */
+    public RunResult run(LocalDate payDate, SalarySource source, StatementSink sink) {
+        long start = System.nanoTime();
+
+        AtomicReference<String> failure = new AtomicReference<>();
+        Handoff<Chunk> toCompute = new Handoff<>(queueChunks, NO_MORE_ROWS, failure);
+        Handoff<Computed> toWrite = new Handoff<>(queueChunks, NO_MORE_STATEMENTS, failure);
+        AtomicInteger calculatorsLeft = new AtomicInteger(threads);
+        LongAdder readNanos = new LongAdder();
+        LongAdder computeNanos = new LongAdder();
+        Totals totals = new Totals();
+
+        AtomicInteger threadNo = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads + 1, r -> {
+            Thread t = new Thread(r, "payroll-run-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        // reader
+        workers.execute(() -> {
+            long began = System.nanoTime();
+            AtomicReference<List<EmployeeSalary>> chunk = new AtomicReference<>(new ArrayList<>(chunkSize));
+            long[] seq = new long[1];
+            long[] waitNanos = new long[1];
+            try {
+                int rows = source.read(row -> {
+                    chunk.get().add(row);
+                    if (chunk.get().size() < chunkSize) {
+                        return true;
+                    }
+                    Chunk full = new Chunk(seq[0]++, chunk.getAndSet(new ArrayList<>(chunkSize)));
+                    return toCompute.put(full, waitNanos);
+                });
+                if (rows < 0) {
+                    failure.compareAndSet(null, "could not read employees");
+                } else if (!chunk.get().isEmpty()) {
+                    toCompute.put(new Chunk(seq[0]++, chunk.get()), waitNanos);
+                }
+                toCompute.finish(threads, waitNanos);
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, "reader failed: " + e);
+            } finally {
+                readNanos.add(System.nanoTime() - began - waitNanos[0]);
+            }
+        });
+
+        // calculators
+        for (int c = 0; c < threads; c++) {
+            workers.execute(() -> {
+                Totals mine = new Totals();
+                PayrollCentsKernel.Statement cents = new PayrollCentsKernel.Statement();
+                long busy = 0;
+                long[] waitNanos = new long[1];
+                try {
+                    Chunk chunk;
+                    while ((chunk = toCompute.take()) != null) {
+                        long began = System.nanoTime();
+                        StatementBatch out = new StatementBatch(payDate, chunk.rows.size());
+                        for (EmployeeSalary row : chunk.rows) {
+                            calculate(row, payDate, cents, out, mine);
+                        }
+                        busy += System.nanoTime() - began;
+                        // empty batches go too, the checkpoint has to move past them
+                        if (!toWrite.put(new Computed(chunk.seq, chunk.lastEmpid(), out), waitNanos)) {
+                            break;
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, "calculator failed: " + e);
+                } finally {
+                    computeNanos.add(busy);
+                    synchronized (totals) {
+                        totals.merge(mine);
+                    }
+                    if (calculatorsLeft.decrementAndGet() == 0) {
+                        toWrite.finish(1, waitNanos);
+                    }
+                }
+            });
+        }
+
+        // writer (this thread)
+        int written = 0;
+        long writeNanos = 0;
+        Checkpoints checkpoints = new Checkpoints();
+        try {
+            Computed done;
+            while ((done = toWrite.take()) != null) {
+                long began = System.nanoTime();
+                try {
+                    done.batch.setCheckpoint(checkpoints.ifCommitted(done.seq, done.lastEmpid));
+                    written += sink.write(done.batch);
+                    checkpoints.committed(done.seq, done.lastEmpid);
+                } catch (SQLException e) {
+                    failure.compareAndSet(null, "write failed after " + written + " statements: " + e.getMessage());
+                }
+                writeNanos += System.nanoTime() - began;
+            }
+        } finally {
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                    workers.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        long end = System.nanoTime();
+
+        synchronized (totals) {
+            return new RunResult(payDate, Collections.emptyList(), totals.count, written, failure.get(), totals,
+                    readNanos.sum() / 1_000_000, computeNanos.sum() / 1_000_000,
+                    writeNanos / 1_000_000, millis(start, end));
+        }
+    }
+
+    // which chunks are committed; the checkpoint only moves past a chunk once all earlier ones are in
+    static final class Checkpoints {
+        private final TreeMap<Long, Integer> ahead = new TreeMap<>(); // committed out of order
+        private long next;
+
+        // checkpoint once chunk seq (ending at lastEmpid) commits, or -1 if it doesn't move
+        int ifCommitted(long seq, int lastEmpid) {
+            if (seq != next) {
+                return -1;
+            }
+            int empid = lastEmpid;
+            for (long s = seq + 1; ahead.containsKey(s); s++) {
+                empid = ahead.get(s);
+            }
+            return empid;
+        }
+
+        void committed(long seq, int lastEmpid) {
+            if (seq != next) {
+                ahead.put(seq, lastEmpid);
+                return;
+            }
+            next++;
+            while (ahead.remove(next) != null) {
+                next++;
+            }
+        }
+    }
+
+    /**
+     * In-memory variant: statements for an already loaded list (fork/join, no database)
+     */
+    public RunResult compute(List<EmployeeSalary> salaries, LocalDate payDate) {
+        long start = System.nanoTime();
+        // index access below, so make sure it's not a linked list
+        List<EmployeeSalary> rows = salaries instanceof RandomAccess ? salaries : new ArrayList<>(salaries);
+        Payroll[] out = new Payroll[rows.size()];
+        Totals totals = pool.invoke(new ComputeTask(rows, payDate, out, 0, rows.size()));
+        List<Payroll> statements = compact(out, totals.count);
+        long end = System.nanoTime();
+        return new RunResult(payDate, statements, totals.count, 0, null, totals,
+                0, millis(start, end), 0, millis(start, end));
+    }
+
+    // one employee into the batch: kernel when it can, BigDecimal rules otherwise
+    private void calculate(EmployeeSalary row, LocalDate payDate, PayrollCentsKernel.Statement cents,
+                           StatementBatch out, Totals totals) {
+        BigDecimal salary = row.getBaseSalary();
+        if (salary == null || salary.signum() <= 0) {
+            totals.skipped++;
+            return;
+        }
+        if (kernel != null) {
+            int year = payDate.getYear();
+            long salaryCents = PayrollCentsKernel.centsOf(salary);
+            if (salaryCents != PayrollCentsKernel.NOT_CENTS
+                    && kernel.compute(salaryCents, deductions.federalTable(year),
+                            deductions.stateTable(row.getStateCode(), year), cents)) {
+                out.add(row.getEmpid(), cents.getGross(), cents.getTaxes(), cents.getNet());
+                totals.add(cents.getGross(), cents.getTaxes(), cents.getDeductions(), cents.getNet());
+                return;
+            }
+        }
+        Payroll p = deductions.statementFor(row.getEmpid(), payDate, salary, row.getStateCode());
+        out.add(row.getEmpid(), PayrollCentsKernel.centsOf(p.getTotalEarnings()),
+                PayrollCentsKernel.centsOf(p.getTotalTaxDeductions()), PayrollCentsKernel.centsOf(p.getNetPay()));
+        totals.add(p);
+    }
+
+    public boolean isFixedPoint() {
+        return kernel != null;
+    }
+
+    public PayrollDeductions getDeductions() {
+        return deductions;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // splits [from, to) in halves until small, each leaf fills its part of 'out'
+    private final class ComputeTask extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<EmployeeSalary> rows;
+        private final LocalDate payDate;
+        private final Payroll[] out;
+        private final int from;
+        private final int to;
+
+        ComputeTask(List<EmployeeSalary> rows, LocalDate payDate, Payroll[] out, int from, int to) {
+            this.rows = rows;
+            this.payDate = payDate;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                Totals t = new Totals();
+                for (int i = from; i < to; i++) {
+                    EmployeeSalary row = rows.get(i);
+                    Payroll p = deductions.statementFor(row.getEmpid(), payDate, row.getBaseSalary(), row.getStateCode());
+                    out[i] = p;
+                    if (p == null) {
+                        t.skipped++;
+                    } else {
+                        t.add(p);
+                    }
+                }
+                return t;
+            }
+            int mid = (from + to) >>> 1;
+            ComputeTask left = new ComputeTask(rows, payDate, out, from, mid);
+            left.fork();
+            Totals right = new ComputeTask(rows, payDate, out, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    // drops the nulls (employees without a usable salary), keeping empid order
+    private static List<Payroll> compact(Payroll[] out, int size) {
+        if (size == out.length) {
+            return Arrays.asList(out);
+        }
+        List<Payroll> list = new ArrayList<>(size);
+        for (Payroll p : out) {
+            if (p != null) list.add(p);
+        }
+        return list;
+    }
+
+    private static long millis(long fromNanos, long toNanos) {
+        return (toNanos - fromNanos) / 1_000_000;
+    }
+}
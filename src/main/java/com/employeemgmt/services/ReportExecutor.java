@@ -0,0 +1,138 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.dao.QueryControl;
+import com.employeemgmt.utils.EnvLoader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    ReportExecutor
+    --------------
+    Runs reports off the UI thread.
+
+    - heavy reports (pay by division, hires in range, trends, ...) go through
+      a small fixed pool with a bounded queue, so three admins running
+      year-end reports at once can't pile unlimited queries onto MySQL.
+      When the queue is full the job fails fast with "busy, try again".
+    - lightweight lookups use their own pool and never wait behind heavy ones
+    - every job gets a QueryControl: SQL it runs gets setQueryTimeout(...),
+      and job.cancel() calls Statement.cancel() on the query in flight
+
+    Sizes/timeouts can be set in .env:
+      REPORT_HEAVY_THREADS, REPORT_HEAVY_QUEUE, REPORT_HEAVY_TIMEOUT_SECONDS,
+      REPORT_LIGHT_THREADS, REPORT_LIGHT_TIMEOUT_SECONDS
+*/
+public class ReportExecutor {
+
+    private static ReportExecutor instance;
+
+    private final ThreadPoolExecutor heavyPool;
+    private final ThreadPoolExecutor lightPool;
+    private final int heavyTimeoutSeconds;
+    private final int lightTimeoutSeconds;
+
+    // handle the UI keeps so it can show progress / cancel
+    public static class ReportJob<T> {
+        private final QueryControl control;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        ReportJob(QueryControl control) {
+            this.control = control;
+        }
+
+        public CompletableFuture<T> getResult() { return result; }
+        public boolean isDone() { return result.isDone(); }
+
+        // stops a queued job from starting and cancels a running query
+        public void cancel() {
+            control.cancel();
+            result.cancel(false);
+        }
+    }
+
+    private ReportExecutor(int heavyThreads, int heavyQueue, int heavyTimeout,
+                           int lightThreads, int lightTimeout) {
+        this.heavyPool = new ThreadPoolExecutor(heavyThreads, heavyThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(heavyQueue), daemonThreads("report-heavy"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.lightPool = new ThreadPoolExecutor(lightThreads, lightThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("report-light"));
+        this.heavyTimeoutSeconds = heavyTimeout;
+        this.lightTimeoutSeconds = lightTimeout;
+    }
+
+    public static synchronized ReportExecutor getInstance() {
+        if (instance == null) {
+            instance = new ReportExecutor(
+                    EnvLoader.getInt("REPORT_HEAVY_THREADS", 2, 1),
+                    EnvLoader.getInt("REPORT_HEAVY_QUEUE", 6, 1),
+                    EnvLoader.getInt("REPORT_HEAVY_TIMEOUT_SECONDS", 60, 1),
+                    EnvLoader.getInt("REPORT_LIGHT_THREADS", 4, 1),
+                    EnvLoader.getInt("REPORT_LIGHT_TIMEOUT_SECONDS", 10, 1));
+        }
+        return instance;
+    }
+
+    // big grouped/joined reports: bounded concurrency + bounded queue
+    public <T> ReportJob<T> submitHeavy(Callable<T> work) {
+        return submit(heavyPool, heavyTimeoutSeconds, work);
+    }
+
+    // quick lookups: separate pool so they never queue behind heavy reports
+    public <T> ReportJob<T> submitLight(Callable<T> work) {
+        return submit(lightPool, lightTimeoutSeconds, work);
+    }
+
+    private <T> ReportJob<T> submit(ThreadPoolExecutor pool, int timeoutSeconds, Callable<T> work) {
+        ReportJob<T> job = new ReportJob<>(new QueryControl(timeoutSeconds));
+
+        try {
+            pool.execute(() -> {
+                if (job.isDone()) {
+                    return; // cancelled while it was still queued
+                }
+                QueryControl.bind(job.control);
+                try {
+                    job.result.complete(work.call());
+                } catch (Throwable t) {
+                    job.result.completeExceptionally(t);
+                } finally {
+                    QueryControl.unbind();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            job.result.completeExceptionally(
+                    new RejectedExecutionException("Report server is busy, please try again in a moment."));
+        }
+
+        return job;
+    }
+
+    // ===== numbers for an admin/status screen =====
+    public int getHeavyRunning() { return heavyPool.getActiveCount(); }
+    public int getHeavyQueued() { return heavyPool.getQueue().size(); }
+    public int getHeavyQueueCapacity() {
+        return heavyPool.getQueue().size() + heavyPool.getQueue().remainingCapacity();
+    }
+
+    public void shutdown() {
+        heavyPool.shutdownNow();
+        lightPool.shutdownNow();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
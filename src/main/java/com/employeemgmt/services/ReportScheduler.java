@@ -0,0 +1,150 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.dao.ReportCache;
+import com.employeemgmt.dao.ReportDAO;
+import com.employeemgmt.dao.ReportDAO.NameAndTotal;
+import com.employeemgmt.utils.EnvLoader;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/*
+    ReportScheduler
+    ---------------
+    Precomputes the standard month reports overnight so the first-business-day
+    rush reads snapshot files instead of hitting MySQL.
+
+    - runs once a day at REPORT_PRECOMPUTE_HOUR (default 2 = 2am local time)
+    - builds every standard report for the month that just closed and writes
+      it through ReportSnapshotStore
+    - on start it also catches up right away if last month's snapshots are
+      missing (e.g. the app was down overnight)
+    - can be run one-off from the command line:  Main precompute-reports
+    - a pay statement write that races the precompute (ReportCache
+      generation moved during the query or the file write) throws the
+      snapshot away and tries again, so a stale file is never left behind
+*/
+public class ReportScheduler {
+
+    // report type name -> used both as snapshot file name and by ReportService
+    public static final String NET_PAY_BY_JOB = "netPayByJob";
+    public static final String NET_PAY_BY_DIVISION = "netPayByDivision";
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static ReportScheduler instance;
+
+    private final ReportDAO reportDAO = new ReportDAO();
+    private final ReportSnapshotStore store = ReportSnapshotStore.getInstance();
+    private final ReportCache cache = ReportCache.getInstance();
+    private ScheduledExecutorService timer;
+
+    private ReportScheduler() {}
+
+    public static synchronized ReportScheduler getInstance() {
+        if (instance == null) {
+            instance = new ReportScheduler();
+        }
+        return instance;
+    }
+
+    // starts the nightly job on a background (daemon) thread
+    public synchronized void start() {
+        if (timer != null) {
+            return;
+        }
+
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "report-precompute");
+            t.setDaemon(true);
+            return t;
+        });
+
+        // catch up straight away if last month was never precomputed
+        YearMonth closed = YearMonth.now().minusMonths(1);
+        if (!store.exists(NET_PAY_BY_JOB, closed) || !store.exists(NET_PAY_BY_DIVISION, closed)) {
+            timer.execute(this::precomputeClosedMonth);
+        }
+
+        int hour = precomputeHour();
+        timer.scheduleAtFixedRate(this::precomputeClosedMonth,
+                delayUntil(hour), TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+    }
+
+    // the month before the current one is "closed"
+    public void precomputeClosedMonth() {
+        precompute(YearMonth.now().minusMonths(1));
+    }
+
+    // builds and writes every standard report for that month; returns how many were written
+    public int precompute(YearMonth month) {
+        int written = 0;
+        written += precomputeOne(NET_PAY_BY_JOB, month,
+                () -> reportDAO.totalNetPayByJob(month.getYear(), month.getMonthValue()));
+        written += precomputeOne(NET_PAY_BY_DIVISION, month,
+                () -> reportDAO.totalNetPayByDivision(month.getYear(), month.getMonthValue()));
+        System.out.println("[REPORTS] Precomputed " + written + " report snapshot(s) for " + month);
+        return written;
+    }
+
+    private int precomputeOne(String type, YearMonth month, Supplier<List<NameAndTotal>> query) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            long generation = cache.getGeneration();
+            // taken first: a statement written during the query leaves the file stale, not wrong
+            String fingerprint = reportDAO.monthFingerprint(month.getYear(), month.getMonthValue());
+            if (fingerprint == null) {
+                return 0;
+            }
+            List<NameAndTotal> rows = query.get();
+            // empty usually means the query failed or the month has no pay data yet;
+            // don't freeze that into a file, let the live query handle it
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            if (cache.getGeneration() != generation) {
+                continue; // pay data changed while we were reading it
+            }
+            try {
+                store.write(type, month, fingerprint, rows);
+            } catch (IOException e) {
+                System.err.println("Could not write " + type + " snapshot for " + month + ": " + e.getMessage());
+                return 0;
+            }
+            // a write after this point deletes the file itself (ReportSnapshotStore listens to the cache)
+            if (cache.getGeneration() == generation) {
+                return 1;
+            }
+            store.delete(type, month);
+        }
+        System.err.println("Skipped " + type + " snapshot for " + month + ": pay data kept changing");
+        return 0;
+    }
+
+    private static int precomputeHour() {
+        int h = EnvLoader.getInt("REPORT_PRECOMPUTE_HOUR", 2, 0);
+        return h <= 23 ? h : 2;
+    }
+
+    // millis from now until the next HH:00
+    private static long delayUntil(int hour) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(hour, 0);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        return Duration.between(now, next).toMillis();
+    }
+}
@@ -1,80 +1,370 @@
 package com.employeemgmt.services;
 
+import com.employeemgmt.dao.ReportCache;
 import com.employeemgmt.dao.ReportDAO;
+import com.employeemgmt.dao.ReportDAO.MonthlyTotal;
+import com.employeemgmt.dao.ReportDAO.NameAndTotal;
+import com.employeemgmt.dao.ReportDAO.SalaryStats;
+import com.employeemgmt.dao.ReportDAO.StatsGrouping;
 import com.employeemgmt.models.Employee;
 import com.employeemgmt.models.User;
+import com.employeemgmt.services.PayCube.Cell;
+import com.employeemgmt.services.PayCube.Query;
+import com.employeemgmt.utils.EnvLoader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DateTimeException;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Supplier;
 
 // Small service so the UI gets clean strings + permission checks
 public class ReportService {
 
     private final ReportDAO reportDAO = new ReportDAO();
+    private final ReportSnapshotStore snapshots = ReportSnapshotStore.getInstance();
+
+    // month x (job title | division) grid for trend tables/charts.
+    // every month in the range gets a row, even if nobody was paid that month
+    public static class TrendMatrix {
+        private final List<YearMonth> months;
+        private final List<String> names;
+        private final BigDecimal[][] totals; // [month][name], never null
+
+        public TrendMatrix(List<YearMonth> months, List<String> names, BigDecimal[][] totals) {
+            this.months = months;
+            this.names = names;
+            this.totals = totals;
+        }
+
+        public List<YearMonth> getMonths() { return months; }
+        public List<String> getNames() { return names; }
+        public BigDecimal get(int monthIdx, int nameIdx) { return totals[monthIdx][nameIdx]; }
+        public boolean isEmpty() { return names.isEmpty(); }
+    }
+
+    // one cube shared by every screen, loaded lazily and topped up by pay_id watermark.
+    // New statements (a ReportCache invalidation saying INSERTED) only mark it behind: the
+    // next query pulls the rows after its last pay_id. An edit or delete (CHANGED) can't be
+    // applied that way, so that marks it stale and the next query reloads it. Writes from
+    // other processes aren't heard: every PAY_CUBE_TTL_SECONDS (default 300) a query tops up
+    // anyway, and every PAY_CUBE_REBUILD_MINUTES (default 60) it reloads, which also picks up
+    // an insert that committed after a higher pay_id had already been read.
+    private static final PayCube PAY_CUBE = new PayCube();
+    private static final long PAY_CUBE_TTL_MS = EnvLoader.getLong("PAY_CUBE_TTL_SECONDS", 300, 1) * 1000;
+    private static final long PAY_CUBE_REBUILD_MS = EnvLoader.getLong("PAY_CUBE_REBUILD_MINUTES", 60, 1) * 60_000;
+    private static volatile boolean payCubeStale = true;
+    private static volatile boolean payCubeBehind = false;
+    private static long payCubeBuiltAt = 0;
+    private static long payCubeToppedUpAt = 0;
+
+    static {
+        ReportCache.getInstance().addInvalidationListener((month, write) -> {
+            if (write == ReportCache.Write.INSERTED) {
+                payCubeBehind = true;
+            } else {
+                payCubeStale = true;
+            }
+        });
+    }
 
     public List<String> monthlyPayByJob(int year, int month, User adminUser) {
+        List<String> lines = new ArrayList<>();
+        monthlyPayByJob(year, month, adminUser, TextReportSink.toLines(lines, ReportService::totalLine));
+        return lines;
+    }
+
+    public List<String> monthlyPayByDivision(int year, int month, User adminUser) {
+        List<String> lines = new ArrayList<>();
+        monthlyPayByDivision(year, month, adminUser, TextReportSink.toLines(lines, ReportService::totalLine));
+        return lines;
+    }
+
+    // row-at-a-time versions: rows go straight to the sink (console, FX, CSV, JSON...)
+    public void monthlyPayByJob(int year, int month, User adminUser, ReportSink<NameAndTotal> sink) {
+        if (adminUser == null || !adminUser.isAdmin()) {
+            sink.denied("Access denied: HR Admin only.");
+            return;
+        }
+
+        sink.begin(totalsHeader("Total net pay by job title for " + year + "-" + String.format("%02d", month),
+                "job_title"));
+        var rows = snapshotOr(ReportScheduler.NET_PAY_BY_JOB, year, month,
+                () -> reportDAO.totalNetPayByJob(year, month));
+        rows.forEach(sink::row);
+        sink.end(rows.size());
+    }
+
+    public void monthlyPayByDivision(int year, int month, User adminUser, ReportSink<NameAndTotal> sink) {
+        if (adminUser == null || !adminUser.isAdmin()) {
+            sink.denied("Access denied: HR Admin only.");
+            return;
+        }
+
+        sink.begin(totalsHeader("Total net pay by division for " + year + "-" + String.format("%02d", month),
+                "division"));
+        var rows = snapshotOr(ReportScheduler.NET_PAY_BY_DIVISION, year, month,
+                () -> reportDAO.totalNetPayByDivision(year, month));
+        rows.forEach(sink::row);
+        sink.end(rows.size());
+    }
+
+    private static ReportSink.Header<NameAndTotal> totalsHeader(String title, String nameColumn) {
+        return new ReportSink.Header<>(title, List.of(
+                new ReportSink.Column<NameAndTotal>(nameColumn, NameAndTotal::getName),
+                new ReportSink.Column<NameAndTotal>("total_net", NameAndTotal::getTotalNet)
+        ), "No pay data found for that month.");
+    }
+
+    private static String totalLine(NameAndTotal r) {
+        return r.getName() + " -> " + r.getTotalNet();
+    }
+
+    // precomputed snapshot file if the scheduler wrote one and the month's pay data is still
+    // what it was built from (one index-only query instead of the joins), otherwise the live query
+    private List<NameAndTotal> snapshotOr(String type, int year, int month,
+                                          Supplier<List<NameAndTotal>> live) {
+        try {
+            YearMonth ym = YearMonth.of(year, month);
+            if (snapshots.exists(type, ym)) {
+                var snap = snapshots.read(type, ym, reportDAO.monthFingerprint(year, month));
+                if (snap.isPresent()) {
+                    return snap.get();
+                }
+            }
+        } catch (DateTimeException ignored) {
+            // bad month, the DAO logs it and returns nothing
+        }
+        return live.get();
+    }
+
+    public List<String> employeesHiredBetween(LocalDate start, LocalDate end, User adminUser) {
+        List<String> lines = new ArrayList<>();
+        employeesHiredBetween(start, end, adminUser, TextReportSink.toLines(lines, ReportService::hireLine));
+        return lines;
+    }
+
+    // streams straight off the ResultSet, so the first hire shows up before the last one is read
+    public void employeesHiredBetween(LocalDate start, LocalDate end, User adminUser, ReportSink<Employee> sink) {
+        if (adminUser == null || !adminUser.isAdmin()) {
+            sink.denied("Access denied: HR Admin only.");
+            return;
+        }
+
+        sink.begin(new ReportSink.Header<>("Employees hired between " + start + " and " + end, List.of(
+                new ReportSink.Column<Employee>("empid", Employee::getEmpid),
+                new ReportSink.Column<Employee>("name", Employee::getFullName),
+                new ReportSink.Column<Employee>("email", Employee::getEmail),
+                new ReportSink.Column<Employee>("hire_date", Employee::getHireDate)
+        ), "No employees hired in that date range."));
+        int count = reportDAO.streamEmployeesHiredBetween(start, end, sink::row);
+        if (count < 0) {
+            sink.failed("could not read all employees, the list above is cut short");
+            return;
+        }
+        sink.end(count);
+    }
+
+    public static String hireLine(Employee e) {
+        return e.getEmpid() + " | " +
+               e.getFullName() + " | " +
+               e.getEmail() + " | " +
+               e.getHireDate();
+    }
+
+    // ========== SALARY STATISTICS (computed in the database) ==========
+
+    public List<String> salaryStatistics(StatsGrouping grouping, User adminUser) {
         if (adminUser == null || !adminUser.isAdmin()) {
             return List.of("Access denied: HR Admin only.");
         }
 
-        var rows = reportDAO.totalNetPayByJob(year, month);
+        List<SalaryStats> stats = reportDAO.salaryStatistics(grouping);
         List<String> lines = new ArrayList<>();
 
-        if (rows.isEmpty()) {
-            lines.add("No pay data found for that month.");
+        if (stats.isEmpty()) {
+            lines.add("No salary data found.");
             return lines;
         }
 
-        lines.add("Total net pay by job title for " + year + "-" + String.format("%02d", month));
+        lines.add("Salary statistics" + (grouping == StatsGrouping.NONE ? ""
+                : " by " + grouping.name().toLowerCase().replace('_', ' ')));
         lines.add("------------------------------------------------");
-        rows.forEach(r -> lines.add(r.getName() + " -> " + r.getTotalNet()));
+        for (SalaryStats s : stats) {
+            lines.add(s.getGroup() + " (" + s.getCount() + " employees)");
+            lines.add("   Total: " + money(s.getSum()) + "   Average: " + money(s.getMean())
+                    + "   Std dev: " + String.format("$%,.2f", s.getStddev()));
+            lines.add("   Min: " + money(s.getMin()) + "   Median: " + money(s.getMedian())
+                    + "   P90: " + money(s.getP90()) + "   P99: " + money(s.getP99())
+                    + "   Max: " + money(s.getMax()));
+        }
         return lines;
     }
 
-    public List<String> monthlyPayByDivision(int year, int month, User adminUser) {
+    private static String money(BigDecimal amount) {
+        if (amount == null) return "-";
+        return String.format("$%,.2f", amount.setScale(2, RoundingMode.HALF_UP));
+    }
+
+    // ========== PAY CUBE (any group-by over year/quarter/month/division/job/state) ==========
+
+    // pulls only pay statements newer than what the cube already has
+    // (rows come in pay_id order, so a failed read still leaves a clean watermark)
+    public void refreshPayCube() {
+        synchronized (PAY_CUBE) {
+            // cleared first: an insert during the read marks it behind again
+            payCubeBehind = false;
+            if (reportDAO.streamPayFactsAfter(PAY_CUBE.getLastPayId(), PAY_CUBE::add) < 0) {
+                payCubeBehind = true;
+            }
+            payCubeToppedUpAt = System.currentTimeMillis();
+        }
+    }
+
+    // full reload, needed after statements were edited or deleted
+    public void rebuildPayCube() {
+        synchronized (PAY_CUBE) {
+            // cleared first: a write during the reload marks it stale again
+            payCubeStale = false;
+            payCubeBehind = false;
+            PAY_CUBE.clear();
+            if (reportDAO.streamPayFactsAfter(0, PAY_CUBE::add) < 0) {
+                payCubeStale = true;
+            }
+            payCubeBuiltAt = System.currentTimeMillis();
+            payCubeToppedUpAt = payCubeBuiltAt;
+        }
+    }
+
+    // raw cube cells for callers that want numbers (charts, tables)
+    public List<Cell> payCubeQuery(Query query, User adminUser) {
+        if (adminUser == null || !adminUser.isAdmin()) {
+            return new ArrayList<>();
+        }
+        synchronized (PAY_CUBE) {
+            long now = System.currentTimeMillis();
+            if (payCubeStale || now - payCubeBuiltAt > PAY_CUBE_REBUILD_MS) {
+                rebuildPayCube();
+            } else if (payCubeBehind || now - payCubeToppedUpAt > PAY_CUBE_TTL_MS) {
+                refreshPayCube();
+            }
+            return PAY_CUBE.query(query);
+        }
+    }
+
+    // same thing formatted as report lines
+    public List<String> payCubeReport(Query query, User adminUser) {
         if (adminUser == null || !adminUser.isAdmin()) {
             return List.of("Access denied: HR Admin only.");
         }
 
-        var rows = reportDAO.totalNetPayByDivision(year, month);
+        List<Cell> cells = payCubeQuery(query, adminUser);
         List<String> lines = new ArrayList<>();
 
-        if (rows.isEmpty()) {
-            lines.add("No pay data found for that month.");
+        if (cells.isEmpty()) {
+            lines.add("No pay data found for that selection.");
             return lines;
         }
 
-        lines.add("Total net pay by division for " + year + "-" + String.format("%02d", month));
+        lines.add("Pay totals by " + (query.getGroupBy().isEmpty() ? "ALL" : query.getGroupBy())
+                + (query.getFilters().isEmpty() ? "" : " where " + query.getFilters()));
         lines.add("------------------------------------------------");
-        rows.forEach(r -> lines.add(r.getName() + " -> " + r.getTotalNet()));
+        for (Cell c : cells) {
+            lines.add(c.getLabel() + " -> gross " + c.getGross() + ", net " + c.getNet()
+                    + " (" + c.getStatements() + " statements)");
+        }
         return lines;
     }
 
-    public List<String> employeesHiredBetween(LocalDate start, LocalDate end, User adminUser) {
-        if (adminUser == null || !adminUser.isAdmin()) {
-            return List.of("Access denied: HR Admin only.");
+    // ========== TRENDS (many months, one query) ==========
+
+    public TrendMatrix monthlyPayTrendByJob(YearMonth from, YearMonth to, User adminUser) {
+        if (adminUser == null || !adminUser.isAdmin() || from == null || to == null || from.isAfter(to)) {
+            return toMatrix(List.of(), from, to);
+        }
+        return toMatrix(reportDAO.netPayTrendByJob(from, to), from, to);
+    }
+
+    public TrendMatrix monthlyPayTrendByDivision(YearMonth from, YearMonth to, User adminUser) {
+        if (adminUser == null || !adminUser.isAdmin() || from == null || to == null || from.isAfter(to)) {
+            return toMatrix(List.of(), from, to);
         }
+        return toMatrix(reportDAO.netPayTrendByDivision(from, to), from, to);
+    }
 
-        List<Employee> list = reportDAO.employeesHiredBetween(start, end);
+    // fixed-width text table: one row per month, one column per job/division
+    public List<String> formatTrend(String title, TrendMatrix matrix) {
         List<String> lines = new ArrayList<>();
 
-        if (list.isEmpty()) {
-            lines.add("No employees hired in that date range.");
+        if (matrix.isEmpty()) {
+            lines.add("No pay data found for that range.");
             return lines;
         }
 
-        lines.add("Employees hired between " + start + " and " + end);
-        lines.add("------------------------------------------------");
+        lines.add(title);
 
-        for (Employee e : list) {
-            lines.add(
-                    e.getEmpid() + " | " +
-                    e.getFullName() + " | " +
-                    e.getEmail() + " | " +
-                    e.getHireDate()
-            );
+        StringBuilder header = new StringBuilder(String.format("%-8s", "Month"));
+        for (String name : matrix.getNames()) {
+            header.append(String.format(" %14s", shorten(name, 14)));
         }
+        lines.add(header.toString());
+        lines.add("-".repeat(header.length()));
 
+        for (int m = 0; m < matrix.getMonths().size(); m++) {
+            StringBuilder row = new StringBuilder(String.format("%-8s", matrix.getMonths().get(m)));
+            for (int n = 0; n < matrix.getNames().size(); n++) {
+                row.append(String.format(" %,14.2f", matrix.get(m, n)));
+            }
+            lines.add(row.toString());
+        }
         return lines;
     }
+
+    private TrendMatrix toMatrix(List<MonthlyTotal> rows, YearMonth from, YearMonth to) {
+        List<YearMonth> months = new ArrayList<>();
+        if (from != null && to != null) {
+            for (YearMonth m = from; !m.isAfter(to); m = m.plusMonths(1)) {
+                months.add(m);
+            }
+        }
+
+        TreeSet<String> nameSet = new TreeSet<>();
+        for (MonthlyTotal r : rows) {
+            nameSet.add(nameOf(r));
+        }
+        List<String> names = new ArrayList<>(nameSet);
+
+        Map<String, Integer> nameIdx = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            nameIdx.put(names.get(i), i);
+        }
+
+        BigDecimal[][] totals = new BigDecimal[months.size()][names.size()];
+        for (BigDecimal[] row : totals) {
+            Arrays.fill(row, BigDecimal.ZERO);
+        }
+        for (MonthlyTotal r : rows) {
+            int m = (int) from.until(r.getMonth(), ChronoUnit.MONTHS);
+            if (m >= 0 && m < months.size() && r.getTotalNet() != null) {
+                totals[m][nameIdx.get(nameOf(r))] = r.getTotalNet();
+            }
+        }
+
+        return new TrendMatrix(months, names, totals);
+    }
+
+    private static String nameOf(MonthlyTotal r) {
+        return r.getName() != null ? r.getName() : PayCube.UNKNOWN;
+    }
+
+    private static String shorten(String s, int max) {
+        return s.length() <= max ? s : s.substring(0, max - 1) + "~";
+    }
 }
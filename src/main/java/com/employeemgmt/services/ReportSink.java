@@ -0,0 +1,69 @@
+package com.employeemgmt.services;
+
+import java.util.List;
+import java.util.function.Function;
+
+/*
+    ReportSink
+    ----------
+    Row-at-a-time receiver for report output.
+
+    ReportService pushes rows into a sink as they come off the ResultSet
+    instead of building the whole report as a List<String> first. That
+    means the first row can be shown before the last row is fetched, and
+    memory stays flat no matter how big the report is.
+
+    Call order:  begin(header) -> row(r) ... row(r) -> end(rowCount)
+    or           begin(header) -> row(r) ... -> failed(message)  when the
+                 query broke off, so the rows so far are NOT the whole report
+    or just      denied(message)  when the user isn't allowed to run it.
+
+    The header carries the column definitions, so generic sinks (text,
+    CSV, JSON, FX) can render any report type; a sink that knows the row
+    type can just use the typed row directly.
+*/
+public interface ReportSink<R> {
+
+    // one output column: a name plus how to pull the value out of a row
+    class Column<R> {
+        private final String name;
+        private final Function<R, Object> value;
+
+        public Column(String name, Function<R, Object> value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        public String getName() { return name; }
+        public Object valueOf(R row) { return value.apply(row); }
+    }
+
+    // report title, its columns, and what to say when there are no rows
+    class Header<R> {
+        private final String title;
+        private final List<Column<R>> columns;
+        private final String emptyMessage;
+
+        public Header(String title, List<Column<R>> columns, String emptyMessage) {
+            this.title = title;
+            this.columns = List.copyOf(columns);
+            this.emptyMessage = emptyMessage;
+        }
+
+        public String getTitle() { return title; }
+        public List<Column<R>> getColumns() { return columns; }
+        public String getEmptyMessage() { return emptyMessage; }
+    }
+
+    void begin(Header<R> header);
+
+    void row(R row);
+
+    void end(int rowCount);
+
+    // permission problems etc. - begin/row/end are not called
+    void denied(String message);
+
+    // the report stopped partway (query error); end is not called
+    void failed(String message);
+}
@@ -0,0 +1,167 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.dao.ReportCache;
+import com.employeemgmt.dao.ReportDAO.NameAndTotal;
+import com.employeemgmt.utils.EnvLoader;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/*
+    ReportSnapshotStore
+    -------------------
+    Small CSV files holding precomputed month reports, e.g.
+
+        report-snapshots/2025-09/netPayByJob.csv
+
+        # source 412/90817/1203311.50
+        name,total_net
+        "Software Engineer",41250.00
+        ...
+
+    The scheduler writes them overnight for the month that just closed,
+    and ReportService reads them back so the month-end rush doesn't hit
+    the database. Files are written to a temp name and then moved into
+    place, so a reader never sees half a file.
+
+    The "# source" line is ReportDAO.monthFingerprint() of the month the
+    file was built from; read() only hands the rows back if the caller's
+    current fingerprint matches, so a statement written later by any
+    process (backfill, fix, another app instance) makes the file stale.
+    Writes made in this process also delete the month's files straight
+    away (ReportCache listener). Directory comes from REPORT_SNAPSHOT_DIR.
+*/
+public class ReportSnapshotStore {
+
+    private static final String HEADER = "name,total_net";
+    private static final String SOURCE_PREFIX = "# source ";
+
+    private static ReportSnapshotStore instance;
+
+    private final Path baseDir;
+
+    ReportSnapshotStore(Path baseDir) {
+        this.baseDir = baseDir;
+    }
+
+    public static synchronized ReportSnapshotStore getInstance() {
+        if (instance == null) {
+            instance = new ReportSnapshotStore(
+                    Paths.get(EnvLoader.getEnv("REPORT_SNAPSHOT_DIR", "report-snapshots")));
+            // drop snapshots for a month as soon as its pay data changes
+            ReportCache.getInstance().addInvalidationListener((month, write) -> instance.delete(month));
+        }
+        return instance;
+    }
+
+    public Path getBaseDir() {
+        return baseDir;
+    }
+
+    public boolean exists(String reportType, YearMonth month) {
+        return Files.isRegularFile(fileFor(reportType, month));
+    }
+
+    // empty if there's no snapshot, it can't be read, or it was built from other pay data
+    // than 'fingerprint' (ReportDAO.monthFingerprint now) -> caller falls back to the DB
+    public Optional<List<NameAndTotal>> read(String reportType, YearMonth month, String fingerprint) {
+        Path file = fileFor(reportType, month);
+        if (fingerprint == null || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        List<NameAndTotal> rows = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if (!(SOURCE_PREFIX + fingerprint).equals(in.readLine())) {
+                return Optional.empty();
+            }
+            String line = in.readLine();
+            if (!HEADER.equals(line)) {
+                return Optional.empty();
+            }
+            while ((line = in.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                int comma = line.lastIndexOf(',');
+                String name = unquote(line.substring(0, comma));
+                BigDecimal total = new BigDecimal(line.substring(comma + 1));
+                rows.add(new NameAndTotal(name, total));
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not read report snapshot " + file + ": " + e.getMessage());
+            return Optional.empty();
+        }
+        return Optional.of(rows);
+    }
+
+    // 'fingerprint' = ReportDAO.monthFingerprint taken before the rows were queried
+    public void write(String reportType, YearMonth month, String fingerprint, List<NameAndTotal> rows)
+            throws IOException {
+        Path file = fileFor(reportType, month);
+        Files.createDirectories(file.getParent());
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            out.write(SOURCE_PREFIX + fingerprint);
+            out.newLine();
+            out.write(HEADER);
+            out.newLine();
+            for (NameAndTotal r : rows) {
+                out.write(quote(r.getName()));
+                out.write(',');
+                out.write(r.getTotalNet() != null ? r.getTotalNet().toPlainString() : "0");
+                out.newLine();
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // removes one report's snapshot for that month
+    public void delete(String reportType, YearMonth month) {
+        try {
+            Files.deleteIfExists(fileFor(reportType, month));
+        } catch (IOException e) {
+            System.err.println("Could not delete " + reportType + " snapshot for " + month + ": " + e.getMessage());
+        }
+    }
+
+    // removes every snapshot for that month
+    public void delete(YearMonth month) {
+        Path dir = baseDir.resolve(month.toString());
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (var files = Files.list(dir)) {
+            for (Path f : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(f);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not clear report snapshots for " + month + ": " + e.getMessage());
+        }
+    }
+
+    private Path fileFor(String reportType, YearMonth month) {
+        return baseDir.resolve(month.toString()).resolve(reportType + ".csv");
+    }
+
+    private static String quote(String s) {
+        String v = (s == null) ? "" : s;
+        return "\"" + v.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String unquote(String s) {
+        if (s.length() >= 2 && s.startsWith("\"") && s.endsWith("\"")) {
+            return s.substring(1, s.length() - 1).replace("\"\"", "\"");
+        }
+        return s;
+    }
+}
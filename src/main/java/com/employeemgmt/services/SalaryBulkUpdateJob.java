@@ -0,0 +1,395 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.dao.SalaryUpdateJobDAO;
+import com.employeemgmt.dao.SalaryUpdateJobDAO.Chunk;
+import com.employeemgmt.dao.SalaryUpdateJobDAO.Job;
+import com.employeemgmt.utils.EnvLoader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/*
+    SalaryBulkUpdateJob
+    -------------------
+    A salary band raise that doesn't lock the band for its whole duration.
+    The old way was one "UPDATE employees ... WHERE Salary BETWEEN" holding
+    row locks on every employee of the band until it finished.
+
+    The band is walked in empid order, SALARY_UPDATE_CHUNK_SIZE employees
+    (default 500) at a time. Every chunk is its own short transaction that
+    also moves the job's watermark (salary_update_job.last_empid, V005), see
+    SalaryUpdateJobDAO.applyChunk. Between chunks the job sleeps as long as
+    it takes to stay under SALARY_UPDATE_ROWS_PER_SECOND (default 2000,
+    0 = no limit), so logins and edits get their turn.
+
+    apply(preview) is the same walk for a raise previewed in Salary Tools
+    (SalaryRaiseSimulator): each chunk gives the preview's employees exactly
+    the preview's new salaries, after checking they still have the old ones
+    (SalaryUpdateJobDAO.applyChanges). If a chunk finds a salary that moved,
+    the job stops there as FAILED; what was committed stays, and previewing
+    and applying the same raise again carries on after the watermark.
+
+    Resuming: running the same raise (same band, same percent) again while
+    an earlier job for it is unfinished carries on after that job's
+    watermark, so nobody is raised twice - but only within
+    SALARY_UPDATE_RESUME_HOURS (default 24) of the job's last chunk. After
+    that the same numbers are taken to be a new raise and start from the
+    beginning, instead of quietly finishing one from months ago. A job still RUNNING that committed
+    a chunk less than SALARY_UPDATE_STALE_MINUTES ago (default 10) is taken
+    to be alive and is left alone. Only one run can have a job: two runs
+    of the same raise can't both start or take over one (V009), and a run
+    whose job was taken over from it stops at its next chunk.
+
+    percent, min and max are used as salary_update_job stores them
+    (DECIMAL(12,6) and DECIMAL(12,2)); values that don't fit exactly are
+    refused, so the raise that's looked up for resuming is the one run.
+
+    Progress goes to the listener after every chunk (or to the console,
+    at most once a second, without one).
+*/
+public class SalaryBulkUpdateJob {
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+    public interface ProgressListener {
+        void progress(Progress progress);
+    }
+
+    // the next chunk after the watermark, done as one transaction (see SalaryUpdateJobDAO)
+    private interface ChunkStep {
+        Chunk next(long jobId, int afterEmpid);
+    }
+
+    // the job a run works on, or why it has none
+    private static final class Claim {
+        final long jobId;
+        final int watermark;
+        final int updatedBefore;
+        final Result refused;
+
+        Claim(long jobId, int watermark, int updatedBefore, Result refused) {
+            this.jobId = jobId;
+            this.watermark = watermark;
+            this.updatedBefore = updatedBefore;
+            this.refused = refused;
+        }
+    }
+
+    private final SalaryUpdateJobDAO jobDAO;
+    private final int chunkSize;
+    private final int rowsPerSecond;
+    private final int staleMinutes;
+    private final long resumeSeconds;
+
+    public SalaryBulkUpdateJob() {
+        this(new SalaryUpdateJobDAO(),
+                EnvLoader.getInt("SALARY_UPDATE_CHUNK_SIZE", 500, 1),
+                EnvLoader.getInt("SALARY_UPDATE_ROWS_PER_SECOND", 2000, 0),
+                EnvLoader.getInt("SALARY_UPDATE_STALE_MINUTES", 10, 1),
+                EnvLoader.getInt("SALARY_UPDATE_RESUME_HOURS", 24, 1));
+    }
+
+    public SalaryBulkUpdateJob(SalaryUpdateJobDAO jobDAO, int chunkSize, int rowsPerSecond, int staleMinutes) {
+        this(jobDAO, chunkSize, rowsPerSecond, staleMinutes, 24);
+    }
+
+    public SalaryBulkUpdateJob(SalaryUpdateJobDAO jobDAO, int chunkSize, int rowsPerSecond, int staleMinutes,
+                               int resumeHours) {
+        this.jobDAO = jobDAO;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.rowsPerSecond = Math.max(0, rowsPerSecond);
+        this.staleMinutes = Math.max(1, staleMinutes);
+        // never shorter than the stale time, or a live job could be expired
+        this.resumeSeconds = Math.max(this.staleMinutes * 60L, Math.max(1, resumeHours) * 3600L);
+    }
+
+    /**
+     * Raise everyone with a salary in [min, max] by percent, chunk by chunk
+     * @param listener gets progress after every chunk; null = log to the console
+     */
+    public Result run(double percent, double min, double max, ProgressListener listener) {
+        BigDecimal pct = columnValue(percent, 6, 6);
+        BigDecimal lo = columnValue(min, 2, 10);
+        BigDecimal hi = columnValue(max, 2, 10);
+        if (pct == null) {
+            return Result.failed("percent must be under 1,000,000 with at most 6 decimals");
+        }
+        if (lo == null || hi == null) {
+            return Result.failed("min and max must be salaries with at most 2 decimals");
+        }
+        BigDecimal factor = BigDecimal.ONE.add(pct.divide(HUNDRED));
+        if (factor.signum() <= 0) {
+            return Result.failed("a cut can't be 100% or more");
+        }
+
+        Claim claim = claim(lo, hi, pct);
+        if (claim.refused != null) {
+            return claim.refused;
+        }
+        int remaining = jobDAO.countRemaining(lo, hi, claim.watermark);
+        return walk(claim, remaining, listener,
+                (jobId, after) -> jobDAO.applyChunk(jobId, lo, hi, factor, after, chunkSize));
+    }
+
+    /**
+     * Apply a previewed band raise: exactly its employees get exactly its new salaries, chunk by chunk
+     * @param listener gets progress after every chunk; null = log to the console
+     */
+    public Result apply(SalaryRaiseSimulator.Preview preview, ProgressListener listener) {
+        BigDecimal pct = columnValue(preview.getPercent(), 6, 6);
+        BigDecimal lo = columnValue(preview.getMin(), 2, 10);
+        BigDecimal hi = columnValue(preview.getMax(), 2, 10);
+        if (pct == null) {
+            return Result.failed("percent must be under 1,000,000 with at most 6 decimals");
+        }
+        if (lo == null || hi == null) {
+            return Result.failed("min and max must be salaries with at most 2 decimals");
+        }
+
+        int n = preview.getAffectedCount();
+        int[] empids = new int[n];
+        BigDecimal[] oldSalaries = new BigDecimal[n];
+        BigDecimal[] newSalaries = new BigDecimal[n];
+        for (int i = 0; i < n; i++) {
+            empids[i] = preview.getEmpid(i);
+            oldSalaries[i] = preview.getOldSalary(i);
+            newSalaries[i] = preview.getNewSalary(i);
+        }
+
+        // a look without locks first, so a preview that is out of date writes nothing
+        int band = jobDAO.checkBand(lo, hi, empids, oldSalaries);
+        if (band == SalaryUpdateJobDAO.BAND_CHANGED) {
+            return Result.failed("salaries in that range changed since the preview - nothing was applied,"
+                    + " preview again");
+        }
+        if (band < 0) {
+            return Result.failed("could not read the salary range");
+        }
+
+        Claim claim = claim(lo, hi, pct);
+        if (claim.refused != null) {
+            return claim.refused;
+        }
+        int remaining = n - firstAfter(empids, claim.watermark);
+        return walk(claim, remaining, listener, (jobId, after) -> {
+            int from = firstAfter(empids, after);
+            if (from == n) {
+                return new Chunk(SalaryUpdateJobDAO.BAND_DONE, 0);
+            }
+            return jobDAO.applyChanges(jobId, after, empids, oldSalaries, newSalaries,
+                    from, Math.min(n, from + chunkSize));
+        });
+    }
+
+    // pick up a recent unfinished job for the same raise, or start one
+    private Claim claim(BigDecimal lo, BigDecimal hi, BigDecimal pct) {
+        Job unfinished = jobDAO.findUnfinished(lo, hi, pct, resumeSeconds);
+        if (unfinished != null && unfinished.isRunning() && unfinished.getIdleSeconds() < staleMinutes * 60L) {
+            return new Claim(-1, 0, 0, Result.failed("job #" + unfinished.getJobId() + " for this raise is still running"
+                    + " (last chunk " + unfinished.getIdleSeconds() + "s ago)"));
+        }
+        if (unfinished != null && unfinished.isRunning() && unfinished.getIdleSeconds() >= resumeSeconds) {
+            // its run died too long ago to pick up where it stopped; it only holds the V009 key now
+            if (jobDAO.expire(unfinished.getJobId(), resumeSeconds)) {
+                System.out.println("[SALARY] Job #" + unfinished.getJobId() + " expired (idle "
+                        + unfinished.getIdleSeconds() / 3600 + "h), starting a new one");
+            }
+            unfinished = null;
+        }
+        if (unfinished != null && jobDAO.resume(unfinished.getJobId(), staleMinutes * 60L)) {
+            System.out.println("[SALARY] Resuming job #" + unfinished.getJobId() + " after empid "
+                    + unfinished.getLastEmpid() + " (" + unfinished.getRowsUpdated() + " already raised)");
+            return new Claim(unfinished.getJobId(), unfinished.getLastEmpid(), unfinished.getRowsUpdated(), null);
+        }
+        long jobId = jobDAO.start(lo, hi, pct);
+        if (jobId == SalaryUpdateJobDAO.ALREADY_RUNNING) {
+            return new Claim(-1, 0, 0, Result.failed("another run of this raise just started"));
+        }
+        if (jobId < 0) {
+            return new Claim(-1, 0, 0, Result.failed("could not start the job (are migrations V005 and V009 applied?)"));
+        }
+        return new Claim(jobId, 0, 0, null);
+    }
+
+    // runs chunks until the band is done, the job fails, or another run takes it over
+    private Result walk(Claim claim, int remaining, ProgressListener listener, ChunkStep step) {
+        long jobId = claim.jobId;
+        int watermark = claim.watermark;
+        int updatedBefore = claim.updatedBefore;
+        ProgressListener progress = listener != null ? listener : consoleProgress();
+        int resumedAfter = watermark;
+        int updated = 0;
+        long start = System.nanoTime();
+
+        while (true) {
+            Chunk chunk = step.next(jobId, watermark);
+            if (chunk == null || chunk.isChanged()) {
+                String message = chunk == null
+                        ? "stopped after empid " + watermark + " - run the same raise again to resume"
+                        : "salaries changed since the preview after empid " + watermark
+                                + " - preview and apply the same raise again to do the rest";
+                jobDAO.finish(jobId, false, message);
+                return new Result(false, message, jobId, updatedBefore + updated, resumedAfter, millisSince(start));
+            }
+            if (chunk.isTakenOver()) {
+                // the job is another run's now; leave its status alone
+                return new Result(false, "job was taken over by another run after empid " + watermark, jobId,
+                        updatedBefore + updated, resumedAfter, millisSince(start));
+            }
+            if (chunk.isDone()) {
+                break;
+            }
+            watermark = chunk.getLastEmpid();
+            updated += chunk.getUpdated();
+            progress.progress(new Progress(jobId, updatedBefore + updated, updated, remaining, watermark,
+                    millisSince(start)));
+            throttle(updated, start);
+        }
+
+        jobDAO.finish(jobId, true, null);
+        return new Result(true, (updatedBefore + updated) + " employees updated", jobId,
+                updatedBefore + updated, resumedAfter, millisSince(start));
+    }
+
+    // index of the first empid above 'after' in an ascending array (length if none)
+    private static int firstAfter(int[] empids, int after) {
+        int i = Arrays.binarySearch(empids, after);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    // sleep until 'done' rows are within the rate limit
+    private void throttle(int done, long startNanos) {
+        if (rowsPerSecond == 0) {
+            return;
+        }
+        long dueNanos = startNanos + done * 1_000_000_000L / rowsPerSecond;
+        long sleepMillis = (dueNanos - System.nanoTime()) / 1_000_000;
+        if (sleepMillis > 0) {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // value as a DECIMAL(precision, scale) column holds it, null if it would be rounded or doesn't fit
+    static BigDecimal columnValue(double value, int scale, int integerDigits) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return null;
+        }
+        return columnValue(BigDecimal.valueOf(value), scale, integerDigits);
+    }
+
+    static BigDecimal columnValue(BigDecimal value, int scale, int integerDigits) {
+        try {
+            BigDecimal v = value.setScale(scale, RoundingMode.UNNECESSARY);
+            return v.precision() - v.scale() <= integerDigits ? v : null;
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    private static ProgressListener consoleProgress() {
+        long[] lastLog = {0};
+        return p -> {
+            long now = System.currentTimeMillis();
+            if (now - lastLog[0] >= 1000) {
+                lastLog[0] = now;
+                System.out.println("[SALARY] " + p);
+            }
+        };
+    }
+
+    public int getChunkSize() { return chunkSize; }
+    public int getRowsPerSecond() { return rowsPerSecond; }
+
+    /**
+     * Where a job is after a chunk
+     */
+    public static class Progress {
+        private final long jobId;
+        private final int totalUpdated;
+        private final int updatedThisRun;
+        private final int expectedThisRun;
+        private final int lastEmpid;
+        private final long elapsedMillis;
+
+        Progress(long jobId, int totalUpdated, int updatedThisRun, int expectedThisRun, int lastEmpid,
+                 long elapsedMillis) {
+            this.jobId = jobId;
+            this.totalUpdated = totalUpdated;
+            this.updatedThisRun = updatedThisRun;
+            this.expectedThisRun = expectedThisRun;
+            this.lastEmpid = lastEmpid;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getJobId() { return jobId; }
+        // including what an interrupted earlier run of the job already did
+        public int getTotalUpdated() { return totalUpdated; }
+        public int getUpdatedThisRun() { return updatedThisRun; }
+        // band size counted when this run started, -1 if unknown
+        public int getExpectedThisRun() { return expectedThisRun; }
+        public int getLastEmpid() { return lastEmpid; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public int getPercentDone() {
+            if (expectedThisRun <= 0) return -1;
+            return (int) Math.min(100, updatedThisRun * 100L / expectedThisRun);
+        }
+
+        public long getRowsPerSecond() {
+            return elapsedMillis == 0 ? updatedThisRun : updatedThisRun * 1000L / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("job #%d: %d / %s updated (%s), at empid %d, %d rows/s",
+                    jobId, updatedThisRun, expectedThisRun < 0 ? "?" : String.valueOf(expectedThisRun),
+                    getPercentDone() < 0 ? "?" : getPercentDone() + "%", lastEmpid, getRowsPerSecond());
+        }
+    }
+
+    public static class Result {
+        private final boolean success;
+        private final String message;
+        private final long jobId;
+        private final int updated;
+        private final int resumedAfter;
+        private final long millis;
+
+        Result(boolean success, String message, long jobId, int updated, int resumedAfter, long millis) {
+            this.success = success;
+            this.message = message;
+            this.jobId = jobId;
+            this.updated = updated;
+            this.resumedAfter = resumedAfter;
+            this.millis = millis;
+        }
+
+        static Result failed(String message) {
+            return new Result(false, message, -1, 0, 0, 0);
+        }
+
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+        public long getJobId() { return jobId; }
+        // employees raised by this job, counting an interrupted earlier run of it
+        public int getUpdated() { return updated; }
+        // 0 = the job started from the beginning
+        public int getResumedAfter() { return resumedAfter; }
+        public long getMillis() { return millis; }
+
+        @Override
+        public String toString() {
+            return (jobId > 0 ? "Salary job #" + jobId : "Salary job") + (success ? "" : " FAILED") + ": " + message
+                    + (resumedAfter > 0 ? " (resumed after empid " + resumedAfter + ")" : "")
+                    + " in " + millis + "ms";
+        }
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
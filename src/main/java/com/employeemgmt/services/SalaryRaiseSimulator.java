@@ -0,0 +1,268 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.dao.EmployeeDAO;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    SalaryRaiseSimulator
+    --------------------
+    What-if for a salary band raise, before anything is written:
+
+        Snapshot s = simulator.load(min, max);     one query for the band
+        Preview  p = s.preview(new BigDecimal("3.5"));   pure, no database
+        new SalaryBulkUpdateJob().apply(p, null);   applies exactly p
+
+    The snapshot keeps the band as parallel arrays (empid, salary in cents,
+    division index), so trying different percentages on it is a loop over
+    longs - a few milliseconds even for a big band.
+
+    New salary = old * (1 + percent / 100), rounded HALF_UP to cents, done
+    in exact integer math (percent can have up to 6 decimals). The preview
+    keeps every affected employee's old and new salary, and the job writes
+    those numbers as they are, nothing is recomputed in SQL, in short
+    per-chunk transactions. If the band changed between load and apply
+    (someone got a raise, joined or left it), nothing is written and the
+    admin previews again.
+*/
+public class SalaryRaiseSimulator {
+
+    // 100% in millionths of a percent
+    private static final long HUNDRED_PERCENT = 100_000_000L;
+
+    private final EmployeeDAO employeeDAO;
+
+    public SalaryRaiseSimulator() {
+        this(new EmployeeDAO());
+    }
+
+    public SalaryRaiseSimulator(EmployeeDAO employeeDAO) {
+        this.employeeDAO = employeeDAO;
+    }
+
+    /**
+     * Read the band [min, max] and the company's salary total into a snapshot
+     * @return the snapshot, or null if the database couldn't be read
+     */
+    public Snapshot load(BigDecimal min, BigDecimal max) {
+        BigDecimal companyTotal = employeeDAO.totalSalary();
+        if (companyTotal == null) {
+            return null;
+        }
+        Snapshot snapshot = new Snapshot(min, max, companyTotal);
+        if (employeeDAO.streamSalaryBand(min, max, snapshot::add) < 0) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    /**
+     * One salary band, as it was when loaded
+     */
+    public static class Snapshot {
+        private final BigDecimal min;
+        private final BigDecimal max;
+        private final long companyTotalCents;
+        private final long loadedAt = System.currentTimeMillis();
+
+        private int size;
+        private int[] empids = new int[256];
+        private long[] salaryCents = new long[256];
+        private int[] divisionOf = new int[256];
+        private final List<String> divisions = new ArrayList<>();
+        private final Map<String, Integer> divisionIndex = new HashMap<>();
+
+        public Snapshot(BigDecimal min, BigDecimal max, BigDecimal companyTotal) {
+            this.min = min;
+            this.max = max;
+            this.companyTotalCents = cents(companyTotal);
+        }
+
+        // filled by load(), in empid order; no division = "(none)"
+        public void add(int empid, BigDecimal salary, String division) {
+            if (size == empids.length) {
+                empids = Arrays.copyOf(empids, size * 2);
+                salaryCents = Arrays.copyOf(salaryCents, size * 2);
+                divisionOf = Arrays.copyOf(divisionOf, size * 2);
+            }
+            String name = division == null ? "(none)" : division;
+            Integer d = divisionIndex.get(name);
+            if (d == null) {
+                d = divisions.size();
+                divisions.add(name);
+                divisionIndex.put(name, d);
+            }
+            empids[size] = empid;
+            salaryCents[size] = cents(salary);
+            divisionOf[size] = d;
+            size++;
+        }
+
+        /**
+         * Raise everyone in the band by percent (negative = cut, more than -100)
+         * @throws IllegalArgumentException for percent <= -100 or more than 6 decimals
+         */
+        public Preview preview(BigDecimal percent) {
+            long began = System.nanoTime();
+            long percentMicros = percentMicros(percent);
+            long factor = HUNDRED_PERCENT + percentMicros;
+
+            int[] ids = Arrays.copyOf(empids, size);
+            long[] before = Arrays.copyOf(salaryCents, size);
+            long[] after = new long[size];
+            int divisionCount = divisions.size();
+            int[] divCount = new int[divisionCount];
+            long[] divBefore = new long[divisionCount];
+            long[] divAfter = new long[divisionCount];
+            long bandBefore = 0;
+            long bandAfter = 0;
+
+            for (int i = 0; i < size; i++) {
+                long raised = raise(before[i], factor);
+                after[i] = raised;
+                int d = divisionOf[i];
+                divCount[d]++;
+                divBefore[d] += before[i];
+                divAfter[d] += raised;
+                bandBefore += before[i];
+                bandAfter += raised;
+            }
+
+            List<DivisionDiff> byDivision = new ArrayList<>(divisionCount);
+            for (int d = 0; d < divisionCount; d++) {
+                byDivision.add(new DivisionDiff(divisions.get(d), divCount[d], divBefore[d], divAfter[d]));
+            }
+            byDivision.sort((a, b) -> Long.compare(b.deltaCents, a.deltaCents));
+
+            return new Preview(this, percent, ids, before, after, byDivision, bandBefore, bandAfter,
+                    (System.nanoTime() - began) / 1_000);
+        }
+
+        public BigDecimal getMin() { return min; }
+        public BigDecimal getMax() { return max; }
+        public int size() { return size; }
+        public long getLoadedAt() { return loadedAt; }
+        public BigDecimal getCompanyTotal() { return PayrollCentsKernel.money(companyTotalCents); }
+    }
+
+    /**
+     * The effect of one raise on one snapshot; nothing has been written
+     */
+    public static class Preview {
+        private final Snapshot snapshot;
+        private final BigDecimal percent;
+        private final int[] empids;
+        private final long[] oldCents;
+        private final long[] newCents;
+        private final List<DivisionDiff> byDivision;
+        private final long bandBeforeCents;
+        private final long bandAfterCents;
+        private final long tookMicros;
+
+        Preview(Snapshot snapshot, BigDecimal percent, int[] empids, long[] oldCents, long[] newCents,
+                List<DivisionDiff> byDivision, long bandBeforeCents, long bandAfterCents, long tookMicros) {
+            this.snapshot = snapshot;
+            this.percent = percent;
+            this.empids = empids;
+            this.oldCents = oldCents;
+            this.newCents = newCents;
+            this.byDivision = byDivision;
+            this.bandBeforeCents = bandBeforeCents;
+            this.bandAfterCents = bandAfterCents;
+            this.tookMicros = tookMicros;
+        }
+
+        public BigDecimal getPercent() { return percent; }
+        public BigDecimal getMin() { return snapshot.min; }
+        public BigDecimal getMax() { return snapshot.max; }
+        public int getAffectedCount() { return empids.length; }
+        public int getEmpid(int i) { return empids[i]; }
+        public BigDecimal getOldSalary(int i) { return PayrollCentsKernel.money(oldCents[i]); }
+        public BigDecimal getNewSalary(int i) { return PayrollCentsKernel.money(newCents[i]); }
+        // largest change first
+        public List<DivisionDiff> getByDivision() { return byDivision; }
+        public BigDecimal getBandTotalBefore() { return PayrollCentsKernel.money(bandBeforeCents); }
+        public BigDecimal getBandTotalAfter() { return PayrollCentsKernel.money(bandAfterCents); }
+        public BigDecimal getCompanyTotalBefore() { return PayrollCentsKernel.money(snapshot.companyTotalCents); }
+        public BigDecimal getCompanyTotalAfter() {
+            return PayrollCentsKernel.money(snapshot.companyTotalCents - bandBeforeCents + bandAfterCents);
+        }
+        public BigDecimal getIncrease() { return PayrollCentsKernel.money(bandAfterCents - bandBeforeCents); }
+        public long getTookMicros() { return tookMicros; }
+
+        // short multi-line summary for the Salary Tools log / console
+        public String summary() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%s%% raise for salaries %s - %s: %d employees, %s a year%n",
+                    percent.toPlainString(), getMin(), getMax(), getAffectedCount(), signed(getIncrease())));
+            sb.append(String.format("Company payroll: %s -> %s%n", getCompanyTotalBefore(), getCompanyTotalAfter()));
+            for (DivisionDiff d : byDivision) {
+                sb.append(String.format("  %-24s %6d employees  %s -> %s  (%s)%n",
+                        d.getDivision(), d.getEmployeeCount(), d.getTotalBefore(), d.getTotalAfter(),
+                        signed(d.getDelta())));
+            }
+            return sb.toString();
+        }
+    }
+
+    public static class DivisionDiff {
+        private final String division;
+        private final int employeeCount;
+        private final long beforeCents;
+        private final long afterCents;
+        private final long deltaCents;
+
+        DivisionDiff(String division, int employeeCount, long beforeCents, long afterCents) {
+            this.division = division;
+            this.employeeCount = employeeCount;
+            this.beforeCents = beforeCents;
+            this.afterCents = afterCents;
+            this.deltaCents = afterCents - beforeCents;
+        }
+
+        public String getDivision() { return division; }
+        public int getEmployeeCount() { return employeeCount; }
+        public BigDecimal getTotalBefore() { return PayrollCentsKernel.money(beforeCents); }
+        public BigDecimal getTotalAfter() { return PayrollCentsKernel.money(afterCents); }
+        public BigDecimal getDelta() { return PayrollCentsKernel.money(deltaCents); }
+    }
+
+    static String signed(BigDecimal amount) {
+        return amount.signum() < 0 ? amount.toPlainString() : "+" + amount.toPlainString();
+    }
+
+    // salary * factor / 100%, HALF_UP to cents; BigDecimal only if the product won't fit a long
+    static long raise(long cents, long factor) {
+        if (cents <= Long.MAX_VALUE / factor) {
+            return PayrollCentsKernel.divideHalfUp(cents * factor, HUNDRED_PERCENT);
+        }
+        return BigDecimal.valueOf(cents).multiply(BigDecimal.valueOf(factor))
+                .divide(BigDecimal.valueOf(HUNDRED_PERCENT), 0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static long percentMicros(BigDecimal percent) {
+        if (percent == null) {
+            throw new IllegalArgumentException("percent is required");
+        }
+        long micros;
+        try {
+            micros = percent.movePointRight(6).setScale(0).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("percent can have at most 6 decimals");
+        }
+        if (micros <= -HUNDRED_PERCENT) {
+            throw new IllegalArgumentException("a cut can't be 100% or more");
+        }
+        return micros;
+    }
+
+    // salaries are DECIMAL with 2 decimals; anything finer is rounded the way MySQL stores it
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,170 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.dao.SessionDAO;
+import com.employeemgmt.models.Session;
+import com.employeemgmt.models.User;
+import com.employeemgmt.utils.EnvLoader;
+import com.employeemgmt.utils.SecurityUtils;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+    SessionService
+    --------------
+    Token-based login sessions that work across app instances.
+
+    - login creates a session: random token for the caller
+      (SecurityUtils.generateSecureToken), SHA-256 of it stored in the
+      user_session table together with user id / name / role / empid
+    - validate(token) gives back the logged-in User without touching
+      user_account: first from the local map, otherwise one primary-key
+      read of user_session (and then it's cached)
+    - a cached session is re-checked against the table every
+      SESSION_CACHE_SECONDS (default 30), so a logout on another node is
+      picked up quickly
+    - sliding expiry of APP_SESSION_TIMEOUT seconds (default 1800); the
+      new expiry is only written once less than half of it is left, so a
+      busy session doesn't cause a write per request
+    - a password or role change ends every session of that user
+      (revokeAll), not just the one making the change
+    - a background sweep drops expired sessions from the map and the table
+*/
+public class SessionService {
+
+    private static final long SWEEP_INTERVAL_SECONDS = 300;
+
+    private static SessionService instance;
+
+    // cached session + when we last confirmed it against the table
+    private static class Cached {
+        private final Session session;
+        private final long checkedAt;
+
+        Cached(Session session, long checkedAt) {
+            this.session = session;
+            this.checkedAt = checkedAt;
+        }
+    }
+
+    private final SessionDAO sessionDAO = new SessionDAO();
+    private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+    private final long timeoutSeconds;
+    private final long recheckMillis;
+    private ScheduledExecutorService sweeper;
+
+    private SessionService() {
+        this.timeoutSeconds = EnvLoader.getLong("APP_SESSION_TIMEOUT", 1800, 1);
+        this.recheckMillis = EnvLoader.getLong("SESSION_CACHE_SECONDS", 30, 1) * 1000L;
+    }
+
+    public static synchronized SessionService getInstance() {
+        if (instance == null) {
+            instance = new SessionService();
+        }
+        return instance;
+    }
+
+    // new session for a user who just logged in; returns the token, or null if it couldn't be stored
+    public String create(User user) {
+        if (user == null || user.getRole() == null) {
+            return null;
+        }
+        ensureSweeper();
+
+        String token = SecurityUtils.generateSecureToken();
+        LocalDateTime now = LocalDateTime.now();
+        Session session = new Session(SecurityUtils.hashToken(token), user.getUserId(), user.getUsername(),
+                user.getRole(), user.getEmpid(), now, now.plusSeconds(timeoutSeconds));
+
+        if (!sessionDAO.insert(session)) {
+            return null;
+        }
+        cache.put(session.getTokenHash(), new Cached(session, System.currentTimeMillis()));
+        return token;
+    }
+
+    // the logged-in user for this token, or null if it's unknown/expired/logged out
+    public User validate(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String hash = SecurityUtils.hashToken(token);
+        LocalDateTime now = LocalDateTime.now();
+        long nowMs = System.currentTimeMillis();
+
+        Cached cached = cache.get(hash);
+        Session session;
+        if (cached != null && nowMs - cached.checkedAt < recheckMillis) {
+            session = cached.session;
+        } else {
+            session = sessionDAO.findByTokenHash(hash);
+            if (session == null) {
+                cache.remove(hash);
+                return null;
+            }
+            cache.put(hash, new Cached(session, nowMs));
+        }
+
+        if (session.isExpired(now)) {
+            cache.remove(hash);
+            return null;
+        }
+
+        slide(session, now);
+        return session.toUser();
+    }
+
+    // logout: gone from this node right away, other nodes see it on their next re-check
+    public void revoke(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        String hash = SecurityUtils.hashToken(token);
+        cache.remove(hash);
+        sessionDAO.delete(hash);
+    }
+
+    // every session of the user (password or role changed): gone from this node and the table
+    // right away, other nodes drop their cached copies on the next re-check
+    public boolean revokeAll(int userId) {
+        cache.values().removeIf(c -> c.session.getUserId() == userId);
+        return sessionDAO.deleteByUser(userId) >= 0;
+    }
+
+    public int cachedCount() {
+        return cache.size();
+    }
+
+    // drops expired sessions from the map and the table
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        cache.values().removeIf(c -> c.session.isExpired(now));
+        sessionDAO.deleteExpired(now);
+    }
+
+    private void slide(Session session, LocalDateTime now) {
+        long secondsLeft = Duration.between(now, session.getExpiresAt()).getSeconds();
+        if (secondsLeft < timeoutSeconds / 2) {
+            LocalDateTime newExpiry = now.plusSeconds(timeoutSeconds);
+            session.setExpiresAt(newExpiry);
+            sessionDAO.extend(session.getTokenHash(), newExpiry);
+        }
+    }
+
+    private synchronized void ensureSweeper() {
+        if (sweeper != null) {
+            return;
+        }
+        sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "session-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+}
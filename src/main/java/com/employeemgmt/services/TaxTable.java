@@ -0,0 +1,126 @@
+package com.employeemgmt.services;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/*
+    TaxTable
+    --------
+    One jurisdiction's income tax brackets for one year, compiled into plain
+    arrays so a lookup is a binary search plus one multiply:
+
+        floors[i]    - taxable income (cents) where bracket i starts, floors[0] = 0
+        rates[i]     - bracket rate in millionths (22% -> 220000)
+        baseTax[i]   - tax on everything below floors[i], in cent-millionths,
+                       precomputed when the table is built
+
+    tax(T) = baseTax[i] + (T - floors[i]) * rates[i], where floors[i] <= T,
+    then rounded HALF_UP to cents once at the end. Everything stays exact:
+    rates have at most 6 decimals, so nothing gets rounded mid-way.
+
+    Withholding for one pay period uses the annualized method:
+        annual = period gross * periods - standard deduction (not below 0)
+        period tax = tax(annual) / periods, rounded HALF_UP
+
+    Built by TaxTables from the bracket file; immutable and shared.
+*/
+public final class TaxTable {
+
+    static final long RATE_SCALE = 1_000_000L;
+
+    // above this the cent-millionths no longer fit in a long; BigInteger takes over
+    private static final long MAX_FAST_TAXABLE = 4_000_000_000_000L;
+
+    private final String jurisdiction;
+    private final int year;
+    private final long standardDeduction;
+    private final long[] floors;
+    private final long[] rates;
+    private final long[] baseTax;
+
+    /**
+     * @param floors bracket starts in cents, ascending, first one 0
+     * @param rates  bracket rates in millionths, 0 - 1,000,000
+     */
+    TaxTable(String jurisdiction, int year, long standardDeduction, long[] floors, long[] rates) {
+        if (floors.length == 0 || floors.length != rates.length || floors[0] != 0) {
+            throw new IllegalArgumentException(jurisdiction + " " + year + ": brackets must start at 0");
+        }
+        if (standardDeduction < 0) {
+            throw new IllegalArgumentException(jurisdiction + " " + year + ": negative standard deduction");
+        }
+        for (int i = 0; i < floors.length; i++) {
+            if (i > 0 && floors[i] <= floors[i - 1]) {
+                throw new IllegalArgumentException(jurisdiction + " " + year + ": bracket floors must go up");
+            }
+            if (rates[i] < 0 || rates[i] > RATE_SCALE) {
+                throw new IllegalArgumentException(jurisdiction + " " + year + ": rate out of range");
+            }
+        }
+        this.jurisdiction = jurisdiction;
+        this.year = year;
+        this.standardDeduction = standardDeduction;
+        this.floors = floors.clone();
+        this.rates = rates.clone();
+        this.baseTax = new long[floors.length];
+        for (int i = 1; i < floors.length; i++) {
+            baseTax[i] = Math.addExact(baseTax[i - 1],
+                    Math.multiplyExact(floors[i] - floors[i - 1], rates[i - 1]));
+        }
+    }
+
+    /**
+     * Tax for one pay period (annualized method), in cents
+     */
+    public long withholdingCents(long periodGrossCents, int periodsPerYear) {
+        if (periodGrossCents <= 0) {
+            return 0;
+        }
+        long annual = periodGrossCents > Long.MAX_VALUE / periodsPerYear
+                ? Long.MAX_VALUE : periodGrossCents * periodsPerYear;
+        long annualTax = annualTaxCents(Math.max(0, annual - standardDeduction));
+        return PayrollCentsKernel.divideHalfUp(annualTax, periodsPerYear);
+    }
+
+    /**
+     * Tax on a year's taxable income, in cents (HALF_UP)
+     */
+    public long annualTaxCents(long taxableCents) {
+        if (taxableCents <= 0) {
+            return 0;
+        }
+        int i = bracketOf(taxableCents);
+        if (taxableCents > MAX_FAST_TAXABLE) {
+            return slowTax(i, taxableCents);
+        }
+        long micros = baseTax[i] + (taxableCents - floors[i]) * rates[i];
+        return PayrollCentsKernel.divideHalfUp(micros, RATE_SCALE);
+    }
+
+    // index of the last floor <= taxable
+    int bracketOf(long taxableCents) {
+        int i = Arrays.binarySearch(floors, taxableCents);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private long slowTax(int i, long taxableCents) {
+        BigInteger micros = BigInteger.valueOf(baseTax[i])
+                .add(BigInteger.valueOf(taxableCents - floors[i]).multiply(BigInteger.valueOf(rates[i])));
+        return new BigDecimal(micros).divide(BigDecimal.valueOf(RATE_SCALE), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+    }
+
+    public String getJurisdiction() { return jurisdiction; }
+    public int getYear() { return year; }
+    public long getStandardDeductionCents() { return standardDeduction; }
+    public int getBracketCount() { return floors.length; }
+    public long getFloorCents(int bracket) { return floors[bracket]; }
+    public long getRateMillionths(int bracket) { return rates[bracket]; }
+
+    @Override
+    public String toString() {
+        return jurisdiction + " " + year + " (" + floors.length + " brackets)";
+    }
+}
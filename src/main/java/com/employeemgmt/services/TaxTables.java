@@ -0,0 +1,262 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.utils.EnvLoader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+    TaxTables
+    ---------
+    All the income tax bracket tables, read once from the versioned bracket
+    file (resource tax/tax_brackets.csv, or the file named by TAX_TABLES_FILE)
+    and compiled into one TaxTable per (jurisdiction, year) up front, so a
+    broken file fails at startup rather than halfway through a payroll run.
+
+    A missing or unreadable file, or one with a bad row, stops getInstance()
+    with an IllegalStateException instead of quietly falling back to flat
+    rates - payroll would otherwise withhold the wrong amounts without anyone
+    noticing. Every error names the line it's on. PAYROLL_TAX_BRACKETS=false
+    is the way to run on flat rates on purpose.
+
+    table("GA", 2026) gives GA's 2026 table, or the newest earlier one if
+    2026 isn't in the file yet (brackets are often published late), or null
+    if there's nothing for GA at all - the caller then uses its flat rate.
+    The lookup is a map get plus a binary search over that jurisdiction's
+    years, nothing is parsed or allocated per employee.
+*/
+public final class TaxTables {
+
+    public static final String FEDERAL = "US";
+
+    private static final String RESOURCE = "/tax/tax_brackets.csv";
+
+    private static TaxTables instance;
+
+    // one jurisdiction's tables, sorted by year
+    private static final class ByYear {
+        final int[] years;
+        final TaxTable[] tables;
+
+        ByYear(int[] years, TaxTable[] tables) {
+            this.years = years;
+            this.tables = tables;
+        }
+
+        TaxTable atOrBefore(int year) {
+            int i = Arrays.binarySearch(years, year);
+            if (i < 0) {
+                i = -i - 2;
+            }
+            return i >= 0 ? tables[i] : null;
+        }
+    }
+
+    private final String version;
+    private final Map<String, ByYear> jurisdictions;
+
+    private TaxTables(String version, Map<String, ByYear> jurisdictions) {
+        this.version = version;
+        this.jurisdictions = jurisdictions;
+    }
+
+    /**
+     * The shared tables
+     * @throws IllegalStateException if the bracket file is missing or broken (tried again on the next call)
+     */
+    public static synchronized TaxTables getInstance() {
+        if (instance == null) {
+            instance = loadDefault();
+        }
+        return instance;
+    }
+
+    /**
+     * Parse a bracket file (same format as tax/tax_brackets.csv)
+     * @throws IllegalArgumentException with the line number if something is wrong
+     */
+    public static TaxTables parse(Reader in) throws IOException {
+        String version = null;
+        // jurisdiction -> year -> {deduction, line} / brackets {floor, rate, line}, in file order
+        Map<String, TreeMap<Integer, long[]>> deductions = new HashMap<>();
+        Map<String, TreeMap<Integer, List<long[]>>> brackets = new HashMap<>();
+
+        BufferedReader reader = new BufferedReader(in);
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] f = line.split(",", -1);
+            for (int i = 0; i < f.length; i++) {
+                f[i] = f[i].trim();
+            }
+            try {
+                if (f[0].equals("version")) {
+                    version = f[1];
+                    continue;
+                }
+                String jurisdiction = f[0].toUpperCase();
+                int year = Integer.parseInt(f[1]);
+                switch (f[2]) {
+                    case "standard_deduction":
+                        expectFields(f, 4);
+                        long[] earlier = deductions.computeIfAbsent(jurisdiction, k -> new TreeMap<>())
+                                .putIfAbsent(year, new long[] { cents(f[3]), lineNo });
+                        if (earlier != null) {
+                            throw new IllegalArgumentException("second standard deduction for " + jurisdiction + " "
+                                    + year + " (first on line " + earlier[1] + ")");
+                        }
+                        break;
+                    case "bracket":
+                        expectFields(f, 5);
+                        brackets.computeIfAbsent(jurisdiction, k -> new TreeMap<>())
+                                .computeIfAbsent(year, k -> new ArrayList<>())
+                                .add(new long[] { cents(f[3]), millionths(f[4]), lineNo });
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown row type '" + f[2] + "'");
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("tax brackets line " + lineNo + ": " + e.getMessage(), e);
+            }
+        }
+
+        Map<String, ByYear> compiled = new HashMap<>();
+        for (Map.Entry<String, TreeMap<Integer, List<long[]>>> j : brackets.entrySet()) {
+            TreeMap<Integer, long[]> deductionByYear = deductions.getOrDefault(j.getKey(), new TreeMap<>());
+            int[] years = new int[j.getValue().size()];
+            TaxTable[] tables = new TaxTable[years.length];
+            int n = 0;
+            for (Map.Entry<Integer, List<long[]>> y : j.getValue().entrySet()) {
+                List<long[]> rows = y.getValue();
+                rows.sort((a, b) -> Long.compare(a[0], b[0]));
+                long[] floors = new long[rows.size()];
+                long[] rates = new long[rows.size()];
+                for (int i = 0; i < rows.size(); i++) {
+                    floors[i] = rows.get(i)[0];
+                    rates[i] = rows.get(i)[1];
+                    if (i > 0 && floors[i] == floors[i - 1]) {
+                        long first = Math.min(rows.get(i)[2], rows.get(i - 1)[2]);
+                        long second = Math.max(rows.get(i)[2], rows.get(i - 1)[2]);
+                        throw new IllegalArgumentException("tax brackets line " + second + ": " + j.getKey() + " "
+                                + y.getKey() + " has a second bracket at the same floor (first on line " + first + ")");
+                    }
+                }
+                long[] deduction = deductionByYear.get(y.getKey());
+                years[n] = y.getKey();
+                try {
+                    tables[n] = new TaxTable(j.getKey(), y.getKey(), deduction == null ? 0 : deduction[0], floors, rates);
+                } catch (IllegalArgumentException e) {
+                    // the table's lowest bracket row is where it goes wrong for "must start at 0"
+                    throw new IllegalArgumentException("tax brackets line " + rows.get(0)[2] + ": " + e.getMessage(), e);
+                }
+                n++;
+            }
+            compiled.put(j.getKey(), new ByYear(years, tables));
+        }
+        for (Map.Entry<String, TreeMap<Integer, long[]>> j : deductions.entrySet()) {
+            if (!compiled.containsKey(j.getKey())) {
+                throw new IllegalArgumentException("tax brackets line " + j.getValue().firstEntry().getValue()[1]
+                        + ": " + j.getKey() + " has a standard deduction but no brackets");
+            }
+        }
+        return new TaxTables(version == null ? "unversioned" : version, compiled);
+    }
+
+    // no tables at all (everything falls back to flat rates; tests and PAYROLL_TAX_BRACKETS=false)
+    public static TaxTables empty() {
+        return new TaxTables("none", new HashMap<>());
+    }
+
+    /**
+     * Table for a jurisdiction ("US" or a state code) and year, or the newest earlier one
+     * @return the table, or null if the file has nothing for that jurisdiction/year
+     */
+    public TaxTable table(String jurisdiction, int year) {
+        if (jurisdiction == null) {
+            return null;
+        }
+        ByYear byYear = jurisdictions.get(jurisdiction);
+        return byYear == null ? null : byYear.atOrBefore(year);
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public int getJurisdictionCount() {
+        return jurisdictions.size();
+    }
+
+    private static TaxTables loadDefault() {
+        String file = EnvLoader.getEnv("TAX_TABLES_FILE", "").trim();
+        String source = file.isEmpty() ? RESOURCE : file;
+        try {
+            if (!file.isEmpty()) {
+                Path path = Paths.get(file);
+                try (Reader r = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                    return logged(parse(r), path.toString());
+                }
+            }
+            try (InputStream in = TaxTables.class.getResourceAsStream(RESOURCE)) {
+                if (in == null) {
+                    throw new IllegalStateException("Tax brackets " + RESOURCE + " not found on the classpath");
+                }
+                return logged(parse(new InputStreamReader(in, StandardCharsets.UTF_8)), RESOURCE);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("[TAX] Could not load tax brackets from " + source + ": " + e.getMessage());
+            throw new IllegalStateException("Could not load tax brackets from " + source + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static TaxTables logged(TaxTables tables, String source) {
+        System.out.println("[TAX] Loaded tax brackets " + tables.getVersion() + " from " + source
+                + " (" + tables.getJurisdictionCount() + " jurisdictions)");
+        return tables;
+    }
+
+    private static void expectFields(String[] f, int count) {
+        if (f.length != count) {
+            throw new IllegalArgumentException("expected " + count + " fields, got " + f.length);
+        }
+    }
+
+    private static long cents(String amount) {
+        long cents = PayrollCentsKernel.centsOf(new BigDecimal(amount));
+        if (cents == PayrollCentsKernel.NOT_CENTS || cents < 0) {
+            throw new IllegalArgumentException("bad amount '" + amount + "'");
+        }
+        return cents;
+    }
+
+    private static long millionths(String rate) {
+        long millionths;
+        try {
+            millionths = new BigDecimal(rate).movePointRight(6).setScale(0).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("rate '" + rate + "' has more than 6 decimals");
+        }
+        if (millionths < 0 || millionths > TaxTable.RATE_SCALE) {
+            throw new IllegalArgumentException("rate '" + rate + "' is not between 0 and 1");
+        }
+        return millionths;
+    }
+}
@@ -0,0 +1,101 @@
+package com.employeemgmt.services;
+
+import com.employeemgmt.services.ReportSink.Column;
+import com.employeemgmt.services.ReportSink.Header;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/*
+    TextReportSink
+    --------------
+    Writes a report as plain text lines, e.g. to System.out or a file:
+
+        Total net pay by job title for 2025-03
+        ------------------------------------------------
+        Developer -> 41250.00
+
+    By default a row is its column values joined with " | ". Pass a line
+    formatter to control exactly how each row looks. The title is only
+    printed once the first row shows up; an empty report prints just its
+    "nothing found" message, same as the old List<String> output.
+*/
+public class TextReportSink<R> implements ReportSink<R> {
+
+    private final Consumer<String> out;
+    private final Function<R, String> lineFormat;
+    private Header<R> header;
+    private boolean titleWritten;
+
+    public TextReportSink(Appendable out) {
+        this(out, null);
+    }
+
+    public TextReportSink(Appendable out, Function<R, String> lineFormat) {
+        this((Consumer<String>) s -> {
+            try {
+                out.append(s).append(System.lineSeparator());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, lineFormat);
+    }
+
+    private TextReportSink(Consumer<String> out, Function<R, String> lineFormat) {
+        this.out = out;
+        this.lineFormat = lineFormat;
+    }
+
+    // collects the lines into a list (used by the old List<String> report methods)
+    public static <R> TextReportSink<R> toLines(List<String> lines, Function<R, String> lineFormat) {
+        return new TextReportSink<>(lines::add, lineFormat);
+    }
+
+    @Override
+    public void begin(Header<R> header) {
+        this.header = header;
+        this.titleWritten = false;
+    }
+
+    @Override
+    public void row(R row) {
+        if (!titleWritten) {
+            line(header.getTitle());
+            line("------------------------------------------------");
+            titleWritten = true;
+        }
+        if (lineFormat != null) {
+            line(lineFormat.apply(row));
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Column<R> c : header.getColumns()) {
+            if (sb.length() > 0) sb.append(" | ");
+            sb.append(c.valueOf(row));
+        }
+        line(sb.toString());
+    }
+
+    @Override
+    public void end(int rowCount) {
+        if (rowCount == 0) {
+            line(header.getEmptyMessage());
+        }
+    }
+
+    @Override
+    public void denied(String message) {
+        line(message);
+    }
+
+    @Override
+    public void failed(String message) {
+        line("Report incomplete: " + message);
+    }
+
+    private void line(String s) {
+        out.accept(s);
+    }
+}
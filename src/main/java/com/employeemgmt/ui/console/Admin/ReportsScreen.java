@@ -1,16 +1,21 @@
 package com.employeemgmt.ui.console.Admin;
 
+import com.employeemgmt.dao.ReportDAO.NameAndTotal;
+import com.employeemgmt.models.Employee;
 import com.employeemgmt.models.User;
 import com.employeemgmt.services.ReportService;
+import com.employeemgmt.services.TextReportSink;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.Scanner;
 
 /*
    ReportsScreen
    -------------
-   Just a simple placeholder that calls a couple of
-   report service methods (or at least shows how it
-   would be wired).
+   Console version of the reports. Rows are printed
+   straight to the screen as they come back (TextReportSink),
+   nothing is collected into a list first.
 */
 public class ReportsScreen {
 
@@ -26,14 +31,59 @@ public class ReportsScreen {
         System.out.println("\n--- Reports (Console) ---");
         System.out.println("1. Total Pay by Job Title");
         System.out.println("2. Total Pay by Division");
-        System.out.println("3. Back");
+        System.out.println("3. Employees Hired in Date Range");
+        System.out.println("4. Back");
         System.out.print("Pick an option: ");
 
         String choice = scanner.nextLine().trim();
         switch (choice) {
-            case "1" -> System.out.println("Report: Total pay by job title (use ReportService in real build).");
-            case "2" -> System.out.println("Report: Total pay by division (use ReportService in real build).");
+            case "1" -> {
+                int[] ym = askYearMonth();
+                if (ym != null) {
+                    reportService.monthlyPayByJob(ym[0], ym[1], admin, totalsSink());
+                }
+            }
+            case "2" -> {
+                int[] ym = askYearMonth();
+                if (ym != null) {
+                    reportService.monthlyPayByDivision(ym[0], ym[1], admin, totalsSink());
+                }
+            }
+            case "3" -> {
+                try {
+                    System.out.print("From (YYYY-MM-DD): ");
+                    LocalDate from = LocalDate.parse(scanner.nextLine().trim());
+                    System.out.print("To (YYYY-MM-DD): ");
+                    LocalDate to = LocalDate.parse(scanner.nextLine().trim());
+                    reportService.employeesHiredBetween(from, to, admin,
+                            new TextReportSink<Employee>(System.out, ReportService::hireLine));
+                } catch (DateTimeParseException e) {
+                    System.out.println("Dates must look like 2025-01-31.");
+                }
+            }
             default -> System.out.println("Going back.");
         }
     }
+
+    private TextReportSink<NameAndTotal> totalsSink() {
+        return new TextReportSink<>(System.out, r -> r.getName() + " -> " + r.getTotalNet());
+    }
+
+    // {year, month} or null if the input was bad
+    private int[] askYearMonth() {
+        try {
+            System.out.print("Year (e.g. 2025): ");
+            int year = Integer.parseInt(scanner.nextLine().trim());
+            System.out.print("Month (1-12): ");
+            int month = Integer.parseInt(scanner.nextLine().trim());
+            if (month < 1 || month > 12) {
+                System.out.println("Month must be between 1 and 12.");
+                return null;
+            }
+            return new int[] { year, month };
+        } catch (NumberFormatException e) {
+            System.out.println("Please enter numbers only.");
+            return null;
+        }
+    }
 }
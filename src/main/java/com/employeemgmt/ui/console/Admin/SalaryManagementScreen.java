@@ -9,7 +9,8 @@ import java.util.Scanner;
    SalaryManagementScreen
    ----------------------
    Tiny console wrapper around the EmployeeService
-   salary range update feature.
+   salary range update feature. Shows a preview first
+   and only applies it after a "y".
 */
 public class SalaryManagementScreen {
 
@@ -33,7 +34,24 @@ public class SalaryManagementScreen {
             System.out.print("Increase percentage (e.g. 3.5): ");
             double pct = Double.parseDouble(scanner.nextLine().trim());
 
-            var result = employeeService.updateSalaryRange(pct, min, max, admin);
+            var preview = employeeService.previewSalaryRange(pct, min, max, admin);
+            if (!preview.isSuccess()) {
+                System.out.println("Error: " + preview.getMessage());
+                return;
+            }
+            System.out.println();
+            System.out.print(preview.getMessage());
+            if (preview.getPreview().getAffectedCount() == 0) {
+                return;
+            }
+
+            System.out.print("Apply this raise? (y/n): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                System.out.println("Nothing changed.");
+                return;
+            }
+
+            var result = employeeService.commitSalaryRange(preview.getPreview(), admin);
             if (result.isSuccess()) {
                 System.out.println("Done: " + result.getMessage());
             } else {
@@ -35,7 +35,7 @@ public class LoginScreen {
             System.out.print("Password: ");
             String password = scanner.nextLine();
 
-            AuthenticationResult result = authService.login(username, password);
+            AuthenticationResult result = authService.login(username, password, AuthenticationService.localSource("console"));
 
             if (result.isSuccess()) {
                 System.out.println("Login OK. Welcome " + result.getUser().getUsername() + "!");
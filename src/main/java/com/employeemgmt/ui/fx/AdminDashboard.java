@@ -1,6 +1,7 @@
 package com.employeemgmt.ui.fx;
 
 import com.employeemgmt.models.User;
+import com.employeemgmt.services.AuthenticationService;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -77,6 +78,7 @@ public class AdminDashboard {
 
         // send admin back to login
         logoutBtn.setOnAction(e -> {
+            new AuthenticationService().logout(adminUser); // ends the server-side session too
             stage.close();
             new LoginScreen().start(new Stage());
         });
@@ -1,8 +1,10 @@
 package com.employeemgmt.ui.fx;
 
+import com.employeemgmt.dao.PayYtdDAO.YtdTotals;
 import com.employeemgmt.models.Employee;
 import com.employeemgmt.models.PayStatement;
 import com.employeemgmt.models.User;
+import com.employeemgmt.services.AuthenticationService;
 import com.employeemgmt.services.EmployeeService;
 import com.employeemgmt.services.EmployeeService.PayHistoryResult;
 import com.employeemgmt.services.EmployeeService.SearchResult;
@@ -15,12 +17,14 @@ import javafx.scene.control.TextArea;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
+import java.time.LocalDate;
+
 /*
     EmployeeDashboard (FX)
     ----------------------
     For regular employees only.
 
-    - shows their basic profile
+    - shows their basic profile (with what they earned so far this year)
     - shows their pay history (newest first)
 */
 public class EmployeeDashboard {
@@ -67,10 +71,17 @@ public class EmployeeDashboard {
             sb.append("Hire Date: ").append(emp.getHireDate()).append("\n");
             sb.append("Base Salary: ").append(emp.getFormattedSalary()).append("\n");
 
-            profileArea.setText(sb.toString());
-
             // make sure pay history exists for this employee
             employeeService.ensurePayHistory(emp);
+
+            int year = LocalDate.now().getYear();
+            YtdTotals ytd = employeeService.getYearToDate(emp.getEmpid(), year, user);
+            if (ytd != null) {
+                sb.append("Earned in ").append(year).append(": ").append(ytd.getGross())
+                        .append(" gross / ").append(ytd.getNet()).append(" net\n");
+            }
+
+            profileArea.setText(sb.toString());
         });
 
         // load and show pay history, newest first
@@ -105,6 +116,7 @@ public class EmployeeDashboard {
         });
 
         logoutBtn.setOnAction(e -> {
+            new AuthenticationService().logout(user); // ends the server-side session too
             stage.close();
             new LoginScreen().start(new Stage());
         });
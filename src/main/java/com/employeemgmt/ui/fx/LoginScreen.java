@@ -99,7 +99,7 @@ public class LoginScreen {
                 return;
             }
 
-            AuthenticationResult result = authService.login(username, password);
+            AuthenticationResult result = authService.login(username, password, AuthenticationService.localSource("fx"));
 
             if (!result.isSuccess()) {
                 message.setText(result.getMessage());
@@ -4,7 +4,16 @@ import com.employeemgmt.models.Employee;
 import com.employeemgmt.models.User;
 import com.employeemgmt.services.EmployeeService;
 import com.employeemgmt.services.EmployeeService.SearchResult;
-import com.employeemgmt.dao.DatabaseConnection;
+import com.employeemgmt.services.PayCube.Dimension;
+import com.employeemgmt.services.PayCube.Query;
+import com.employeemgmt.services.ReportService;
+import com.employeemgmt.services.ReportService.TrendMatrix;
+import com.employeemgmt.services.ReportExecutor;
+import com.employeemgmt.services.ReportExecutor.ReportJob;
+import com.employeemgmt.dao.ReportDAO.NameAndTotal;
+import com.employeemgmt.dao.ReportDAO.StatsGrouping;
+import com.employeemgmt.ui.fx.components.TextAreaReportSink;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -13,11 +22,15 @@ import javafx.scene.layout.VBox;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
 
-import java.math.BigDecimal;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
 
 /*
     ReportsScreen
@@ -26,15 +39,42 @@ import java.sql.SQLException;
 
     Features now:
     - All Employees report
-    - Salary summary (total + average base salary)
-    - Total pay for a given month by job title
-    - Total pay for a given month by division
+    - Salary statistics (count, total, average, spread, percentiles),
+      company-wide or per division / job title
+    - Total net pay for a given month by job title (ReportService)
+    - Total net pay for a given month by division (ReportService)
     - Employees hired within a given date range
+    - Month-by-month net pay trends (job title / division) for a range of months
+    - Pay totals grouped any way (year, quarter, month, division, job title,
+      state), optionally for one year, answered from the in-memory pay cube
+
+    Reports run on the ReportExecutor (not the FX thread), so the window stays
+    responsive, queries time out instead of hanging, and "Cancel" stops the
+    query that is running.
 */
 public class ReportsScreen {
 
     private final EmployeeService employeeService = new EmployeeService();
-    private final DatabaseConnection db = DatabaseConnection.getInstance();
+    private final ReportService reportService = new ReportService();
+    private final ReportExecutor executor = ReportExecutor.getInstance();
+
+    // report currently running for this window (null when idle)
+    private ReportJob<String> currentJob;
+    // sink the current report streams into, if it streams
+    private TextAreaReportSink<?> currentSink;
+
+    // pay cube groupings offered on the screen, in menu order
+    private static final Map<String, Dimension[]> CUBE_GROUPINGS = new LinkedHashMap<>();
+    static {
+        CUBE_GROUPINGS.put("Year", new Dimension[]{Dimension.YEAR});
+        CUBE_GROUPINGS.put("Year + Quarter", new Dimension[]{Dimension.YEAR, Dimension.QUARTER});
+        CUBE_GROUPINGS.put("Year + Month", new Dimension[]{Dimension.YEAR, Dimension.MONTH});
+        CUBE_GROUPINGS.put("Division", new Dimension[]{Dimension.DIVISION});
+        CUBE_GROUPINGS.put("Job Title", new Dimension[]{Dimension.JOB_TITLE});
+        CUBE_GROUPINGS.put("State", new Dimension[]{Dimension.STATE});
+        CUBE_GROUPINGS.put("Year + Division", new Dimension[]{Dimension.YEAR, Dimension.DIVISION});
+        CUBE_GROUPINGS.put("Division + Job Title", new Dimension[]{Dimension.DIVISION, Dimension.JOB_TITLE});
+    }
 
     public void start(Stage stage, User adminUser) {
         // only admins should be able to open this
@@ -55,6 +95,12 @@ public class ReportsScreen {
         Button allEmployeesBtn = new Button("All Employees");
         Button salarySummaryBtn = new Button("Salary Summary");
         Button backBtn = new Button("Back to Admin");
+        Button cancelBtn = new Button("Cancel Report");
+        cancelBtn.setDisable(true);
+
+        ChoiceBox<String> statsGroupBox = new ChoiceBox<>();
+        statsGroupBox.getItems().addAll("Company-wide", "By Division", "By Job Title");
+        statsGroupBox.setValue("Company-wide");
 
         // month/year inputs for pay-by-job-title and pay-by-division
         TextField monthField = new TextField();
@@ -77,177 +123,84 @@ public class ReportsScreen {
 
         Button hiresRangeBtn = new Button("Hires in Range");
 
-        // keep button sizes similar
-        for (Button b : new Button[]{allEmployeesBtn, salarySummaryBtn, backBtn,
-                                     payByJobTitleBtn, payByDivisionBtn, hiresRangeBtn}) {
-            b.setStyle("-fx-font-size: 12px;");
-        }
+        // month range inputs for the trend reports
+        TextField trendFromField = new TextField();
+        trendFromField.setPromptText("From (YYYY-MM)");
+        trendFromField.setPrefWidth(110);
 
-        // === Existing: All Employees report ===
-        allEmployeesBtn.setOnAction(e -> {
-            SearchResult result = employeeService.getAllEmployees(adminUser);
-            if (!result.isSuccess()) {
-                reportArea.setText("Error: " + result.getMessage());
-                return;
-            }
+        TextField trendToField = new TextField();
+        trendToField.setPromptText("To (YYYY-MM)");
+        trendToField.setPrefWidth(110);
 
-            StringBuilder sb = new StringBuilder();
-            sb.append("All Employees Report\n");
-            sb.append("====================\n\n");
-            for (Employee emp : result.getEmployees()) {
-                sb.append("ID: ").append(emp.getEmpid()).append("  ");
-                sb.append("Name: ").append(emp.getFullName()).append("  ");
-                sb.append("Email: ").append(emp.getEmail()).append("  ");
-                sb.append("Salary: ").append(emp.getFormattedSalary()).append("\n");
-            }
-            reportArea.setText(sb.toString());
-        });
+        Button jobTrendBtn = new Button("Job Title Trend");
+        Button divisionTrendBtn = new Button("Division Trend");
 
-        // === Existing: Salary summary ===
-        salarySummaryBtn.setOnAction(e -> {
-            SearchResult result = employeeService.getAllEmployees(adminUser);
-            if (!result.isSuccess()) {
-                reportArea.setText("Error: " + result.getMessage());
-                return;
-            }
+        // group-by + optional year for the pay cube
+        ChoiceBox<String> cubeGroupBox = new ChoiceBox<>();
+        cubeGroupBox.getItems().addAll(CUBE_GROUPINGS.keySet());
+        cubeGroupBox.setValue("Year");
 
-            BigDecimal total = BigDecimal.ZERO;
-            int count = 0;
+        TextField cubeYearField = new TextField();
+        cubeYearField.setPromptText("Year (optional)");
+        cubeYearField.setPrefWidth(110);
 
-            for (Employee emp : result.getEmployees()) {
-                if (emp.getBaseSalary() != null) {
-                    total = total.add(emp.getBaseSalary());
-                    count++;
-                }
-            }
+        Button payTotalsBtn = new Button("Pay Totals");
 
-            BigDecimal avg = BigDecimal.ZERO;
-            if (count > 0) {
-                avg = total.divide(BigDecimal.valueOf(count), 2, BigDecimal.ROUND_HALF_UP);
-            }
+        // keep button sizes similar
+        for (Button b : new Button[]{allEmployeesBtn, salarySummaryBtn, backBtn, cancelBtn,
+                                     payByJobTitleBtn, payByDivisionBtn, hiresRangeBtn,
+                                     jobTrendBtn, divisionTrendBtn, payTotalsBtn}) {
+            b.setStyle("-fx-font-size: 12px;");
+        }
 
-            StringBuilder sb = new StringBuilder();
-            sb.append("Salary Summary Report\n");
-            sb.append("=====================\n\n");
-            sb.append("Total employees with salary: ").append(count).append("\n");
-            sb.append("Total salary: ").append(total).append("\n");
-            sb.append("Average salary: ").append(avg).append("\n");
+        // === Existing: All Employees report ===
+        // (a plain lookup, so it runs on the light pool and never waits behind heavy reports)
+        allEmployeesBtn.setOnAction(e ->
+                runReport(reportArea, cancelBtn, null, false, () -> allEmployeesText(adminUser)));
 
-            reportArea.setText(sb.toString());
+        // === Salary summary: stats come straight from the database ===
+        salarySummaryBtn.setOnAction(e -> {
+            StatsGrouping grouping = switch (statsGroupBox.getValue()) {
+                case "By Division" -> StatsGrouping.DIVISION;
+                case "By Job Title" -> StatsGrouping.JOB_TITLE;
+                default -> StatsGrouping.NONE;
+            };
+            runReport(reportArea, cancelBtn,
+                    () -> String.join("\n", reportService.salaryStatistics(grouping, adminUser)));
         });
 
         // === New: monthly total pay by job title ===
         payByJobTitleBtn.setOnAction(e -> {
             reportArea.clear();
 
-            int month, year;
-            try {
-                month = Integer.parseInt(monthField.getText().trim());
-                year = Integer.parseInt(yearField.getText().trim());
-            } catch (NumberFormatException ex) {
+            YearMonth ym = parseMonth(monthField, yearField);
+            if (ym == null) {
                 reportArea.setText("Please enter a valid month (1-12) and year (e.g. 2025).");
                 return;
             }
 
-            String sql = """
-                SELECT jt.title AS job_title,
-                       SUM(ps.gross_pay) AS total_pay
-                FROM pay_statements ps
-                JOIN employee_job ej ON ps.empid = ej.empid
-                JOIN job_title jt ON ej.job_id = jt.job_id
-                WHERE MONTH(ps.pay_date) = ? AND YEAR(ps.pay_date) = ?
-                GROUP BY jt.title
-                ORDER BY jt.title
-            """;
-
-            StringBuilder sb = new StringBuilder();
-            sb.append("Total Pay by Job Title for ").append(month).append("/").append(year).append("\n");
-            sb.append("===========================================\n");
-
-            try (Connection conn = db.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
-
-                ps.setInt(1, month);
-                ps.setInt(2, year);
-                ResultSet rs = ps.executeQuery();
-
-                boolean any = false;
-                while (rs.next()) {
-                    any = true;
-                    String jobTitle = rs.getString("job_title");
-                    BigDecimal totalPay = rs.getBigDecimal("total_pay");
-                    sb.append(jobTitle)
-                      .append(" : ")
-                      .append(String.format("$%,.2f", totalPay))
-                      .append("\n");
-                }
-
-                if (!any) {
-                    sb.append("No pay data found for this month.\n");
-                }
-
-            } catch (SQLException ex) {
-                sb.append("DB error: ").append(ex.getMessage()).append("\n");
-            }
-
-            reportArea.setText(sb.toString());
+            TextAreaReportSink<NameAndTotal> sink = new TextAreaReportSink<>(reportArea, ReportsScreen::totalText);
+            runReport(reportArea, cancelBtn, sink, () -> {
+                reportService.monthlyPayByJob(ym.getYear(), ym.getMonthValue(), adminUser, sink);
+                return null;
+            });
         });
 
         // === New: monthly total pay by division ===
         payByDivisionBtn.setOnAction(e -> {
             reportArea.clear();
 
-            int month, year;
-            try {
-                month = Integer.parseInt(monthField.getText().trim());
-                year = Integer.parseInt(yearField.getText().trim());
-            } catch (NumberFormatException ex) {
+            YearMonth ym = parseMonth(monthField, yearField);
+            if (ym == null) {
                 reportArea.setText("Please enter a valid month (1-12) and year (e.g. 2025).");
                 return;
             }
 
-            String sql = """
-                SELECT d.Name AS division_name,
-                       SUM(ps.gross_pay) AS total_pay
-                FROM pay_statements ps
-                JOIN employee_division ed ON ps.empid = ed.empid
-                JOIN division d ON ed.div_ID = d.ID
-                WHERE MONTH(ps.pay_date) = ? AND YEAR(ps.pay_date) = ?
-                GROUP BY d.Name
-                ORDER BY d.Name
-            """;
-
-            StringBuilder sb = new StringBuilder();
-            sb.append("Total Pay by Division for ").append(month).append("/").append(year).append("\n");
-            sb.append("========================================\n");
-
-            try (Connection conn = db.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
-
-                ps.setInt(1, month);
-                ps.setInt(2, year);
-                ResultSet rs = ps.executeQuery();
-
-                boolean any = false;
-                while (rs.next()) {
-                    any = true;
-                    String divName = rs.getString("division_name");
-                    BigDecimal totalPay = rs.getBigDecimal("total_pay");
-                    sb.append(divName)
-                      .append(" : ")
-                      .append(String.format("$%,.2f", totalPay))
-                      .append("\n");
-                }
-
-                if (!any) {
-                    sb.append("No pay data found for this month.\n");
-                }
-
-            } catch (SQLException ex) {
-                sb.append("DB error: ").append(ex.getMessage()).append("\n");
-            }
-
-            reportArea.setText(sb.toString());
+            TextAreaReportSink<NameAndTotal> sink = new TextAreaReportSink<>(reportArea, ReportsScreen::totalText);
+            runReport(reportArea, cancelBtn, sink, () -> {
+                reportService.monthlyPayByDivision(ym.getYear(), ym.getMonthValue(), adminUser, sink);
+                return null;
+            });
         });
 
         // === New: employees hired within a date range ===
@@ -259,60 +212,56 @@ public class ReportsScreen {
                 return;
             }
 
-            java.time.LocalDate from = fromPicker.getValue();
-            java.time.LocalDate to = toPicker.getValue();
-
-            String sql = """
-                SELECT empid, Fname, Lname, HireDate
-                FROM employees
-                WHERE HireDate BETWEEN ? AND ?
-                ORDER BY HireDate
-            """;
-
-            StringBuilder sb = new StringBuilder();
-            sb.append("Employees hired between ")
-              .append(from).append(" and ").append(to).append("\n");
-            sb.append("======================================\n");
-
-            try (Connection conn = db.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
-
-                ps.setDate(1, java.sql.Date.valueOf(from));
-                ps.setDate(2, java.sql.Date.valueOf(to));
-                ResultSet rs = ps.executeQuery();
-
-                boolean any = false;
-                while (rs.next()) {
-                    any = true;
-                    int empid = rs.getInt("empid");
-                    String fname = rs.getString("Fname");
-                    String lname = rs.getString("Lname");
-                    java.sql.Date d = rs.getDate("HireDate");
-
-                    sb.append("ID: ").append(empid)
-                      .append("  Name: ").append(fname).append(" ").append(lname)
-                      .append("  Hire Date: ").append(d)
-                      .append("\n");
-                }
+            LocalDate from = fromPicker.getValue();
+            LocalDate to = toPicker.getValue();
 
-                if (!any) {
-                    sb.append("No employees hired in this range.\n");
-                }
+            // rows show up in the area as they're read, not all at the end
+            TextAreaReportSink<Employee> sink = new TextAreaReportSink<>(reportArea, ReportsScreen::hireText);
+            runReport(reportArea, cancelBtn, sink, () -> {
+                reportService.employeesHiredBetween(from, to, adminUser, sink);
+                return null;
+            });
+        });
+
+        // === Trend reports: one grouped query for the whole month range ===
+        jobTrendBtn.setOnAction(e -> showTrend(reportArea, cancelBtn, trendFromField, trendToField, adminUser, true));
+        divisionTrendBtn.setOnAction(e -> showTrend(reportArea, cancelBtn, trendFromField, trendToField, adminUser, false));
+
+        // === Pay totals from the pay cube: no SQL per grouping ===
+        payTotalsBtn.setOnAction(e -> {
+            reportArea.clear();
 
-            } catch (SQLException ex) {
-                sb.append("DB error: ").append(ex.getMessage()).append("\n");
+            Query query = Query.by(CUBE_GROUPINGS.get(cubeGroupBox.getValue()));
+            String year = cubeYearField.getText().trim();
+            if (!year.isEmpty()) {
+                if (!year.matches("\\d{4}")) {
+                    reportArea.setText("Please enter the year as YYYY, or leave it empty for all years.");
+                    return;
+                }
+                query = query.where(Dimension.YEAR, year);
             }
 
-            reportArea.setText(sb.toString());
+            Query selected = query;
+            runReport(reportArea, cancelBtn,
+                    () -> String.join("\n", reportService.payCubeReport(selected, adminUser)));
+        });
+
+        cancelBtn.setOnAction(e -> {
+            if (currentJob != null) {
+                currentJob.cancel();
+            }
         });
 
         backBtn.setOnAction(e -> {
+            if (currentJob != null) {
+                currentJob.cancel();
+            }
             stage.close();
             new AdminDashboard().start(new Stage(), adminUser);
         });
 
         // layout for the original buttons
-        HBox topButtons = new HBox(10, allEmployeesBtn, salarySummaryBtn, backBtn);
+        HBox topButtons = new HBox(10, allEmployeesBtn, salarySummaryBtn, statsGroupBox, cancelBtn, backBtn);
         topButtons.setAlignment(Pos.CENTER_LEFT);
 
         // layout for month/year row
@@ -334,6 +283,25 @@ public class ReportsScreen {
         );
         hiresRow.setAlignment(Pos.CENTER_LEFT);
 
+        // layout for trend row
+        HBox trendRow = new HBox(
+                8,
+                new Label("From:"), trendFromField,
+                new Label("To:"), trendToField,
+                jobTrendBtn,
+                divisionTrendBtn
+        );
+        trendRow.setAlignment(Pos.CENTER_LEFT);
+
+        // layout for pay totals row
+        HBox cubeRow = new HBox(
+                8,
+                new Label("Group by:"), cubeGroupBox,
+                new Label("Year:"), cubeYearField,
+                payTotalsBtn
+        );
+        cubeRow.setAlignment(Pos.CENTER_LEFT);
+
         VBox root = new VBox(
                 10,
                 title,
@@ -342,15 +310,145 @@ public class ReportsScreen {
                 monthYearRow,
                 new Label("Employees hired within a date range:"),
                 hiresRow,
+                new Label("Net pay trend over a range of months:"),
+                trendRow,
+                new Label("Pay totals, grouped any way:"),
+                cubeRow,
                 reportArea
         );
         root.setAlignment(Pos.TOP_LEFT);
         root.setPadding(new Insets(18));
         root.setStyle("-fx-background-color: #f7fbff;");
 
-        Scene scene = new Scene(root, 780, 600);
+        Scene scene = new Scene(root, 780, 720);
         stage.setTitle("Reports");
         stage.setScene(scene);
         stage.show();
     }
+
+    // month + year fields as a YearMonth, null if either isn't a number or the month isn't 1-12
+    private static YearMonth parseMonth(TextField monthField, TextField yearField) {
+        try {
+            return YearMonth.of(Integer.parseInt(yearField.getText().trim()),
+                    Integer.parseInt(monthField.getText().trim()));
+        } catch (NumberFormatException | DateTimeException ex) {
+            return null;
+        }
+    }
+
+    // parses the month range, runs the trend report and prints it as a text table
+    private void showTrend(TextArea reportArea, Button cancelBtn, TextField fromField, TextField toField,
+                           User adminUser, boolean byJob) {
+        reportArea.clear();
+
+        YearMonth from, to;
+        try {
+            from = YearMonth.parse(fromField.getText().trim());
+            to = YearMonth.parse(toField.getText().trim());
+        } catch (DateTimeParseException ex) {
+            reportArea.setText("Please enter months as YYYY-MM (e.g. 2024-01).");
+            return;
+        }
+
+        if (from.isAfter(to)) {
+            reportArea.setText("The From month must be on or before the To month.");
+            return;
+        }
+
+        String title = "Net pay by " + (byJob ? "job title" : "division")
+                + " from " + from + " to " + to;
+
+        runReport(reportArea, cancelBtn, () -> {
+            TrendMatrix matrix = byJob
+                    ? reportService.monthlyPayTrendByJob(from, to, adminUser)
+                    : reportService.monthlyPayTrendByDivision(from, to, adminUser);
+            return String.join("\n", reportService.formatTrend(title, matrix));
+        });
+        // monospace so the columns line up (runReport puts the normal font back for the next report)
+        reportArea.setStyle("-fx-font-family: 'monospace';");
+    }
+
+    // runs a report on the heavy report pool and shows the result when it's done.
+    // starting a new report cancels the one still running in this window.
+    private void runReport(TextArea reportArea, Button cancelBtn, Callable<String> work) {
+        runReport(reportArea, cancelBtn, null, true, work);
+    }
+
+    // streaming version: the work writes into 'sink' as it goes and returns null,
+    // so whatever was streamed stays in the area when the job finishes
+    private void runReport(TextArea reportArea, Button cancelBtn, TextAreaReportSink<?> sink,
+                           Callable<String> work) {
+        runReport(reportArea, cancelBtn, sink, true, work);
+    }
+
+    // heavy = the bounded report pool, otherwise the light lookup pool
+    private void runReport(TextArea reportArea, Button cancelBtn, TextAreaReportSink<?> sink,
+                           boolean heavy, Callable<String> work) {
+        if (currentJob != null && !currentJob.isDone()) {
+            currentJob.cancel();
+        }
+        if (currentSink != null) {
+            currentSink.detach(); // old report must not write into the area any more
+        }
+        currentSink = sink;
+
+        reportArea.setStyle(""); // only the trend table wants monospace
+        reportArea.setText("Running report...");
+        cancelBtn.setDisable(false);
+
+        ReportJob<String> job = heavy ? executor.submitHeavy(work) : executor.submitLight(work);
+        currentJob = job;
+
+        job.getResult().whenComplete((text, err) -> Platform.runLater(() -> {
+            if (job != currentJob) {
+                return; // a newer report replaced this one
+            }
+            cancelBtn.setDisable(true);
+            if (err != null && sink != null) {
+                sink.detach(); // keep the cancel/failure message on screen
+            }
+
+            if (err == null) {
+                if (text != null) {
+                    reportArea.setText(text);
+                }
+            } else if (err instanceof CancellationException) {
+                reportArea.setText("Report cancelled.");
+            } else {
+                Throwable cause = (err instanceof CompletionException && err.getCause() != null)
+                        ? err.getCause() : err;
+                reportArea.setText("Report failed: " + cause.getMessage());
+            }
+        }));
+    }
+
+    // one line of the pay-by-job / pay-by-division reports
+    private static String totalText(NameAndTotal r) {
+        return r.getName() + " : " + String.format("$%,.2f", r.getTotalNet());
+    }
+
+    // one line of the hires report
+    private static String hireText(Employee e) {
+        return "ID: " + e.getEmpid()
+                + "  Name: " + e.getFullName()
+                + "  Hire Date: " + e.getHireDate();
+    }
+
+    private String allEmployeesText(User adminUser) {
+        SearchResult result = employeeService.getAllEmployees(adminUser);
+        if (!result.isSuccess()) {
+            return "Error: " + result.getMessage();
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("All Employees Report\n");
+        sb.append("====================\n\n");
+        for (Employee emp : result.getEmployees()) {
+            sb.append("ID: ").append(emp.getEmpid()).append("  ");
+            sb.append("Name: ").append(emp.getFullName()).append("  ");
+            sb.append("Email: ").append(emp.getEmail()).append("  ");
+            sb.append("Salary: ").append(emp.getFormattedSalary()).append("\n");
+        }
+        return sb.toString();
+    }
 }
@@ -3,7 +3,12 @@ package com.employeemgmt.ui.fx;
 import com.employeemgmt.models.Employee;
 import com.employeemgmt.models.User;
 import com.employeemgmt.services.EmployeeService;
+import com.employeemgmt.services.EmployeeService.RaisePreviewResult;
+import com.employeemgmt.services.SalaryRaiseSimulator;
 import com.employeemgmt.services.EmployeeService.SearchResult;
+import com.employeemgmt.services.ReportExecutor;
+import com.employeemgmt.services.ReportExecutor.ReportJob;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -13,6 +18,8 @@ import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.CompletionException;
 
 /*
     SalaryToolsScreen
@@ -21,11 +28,20 @@ import java.math.BigDecimal;
 
     Two ideas:
     1) Raise a single employee by X%
-    2) Raise ALL employees in a salary range by X%
+    2) Raise ALL employees in a salary range by X% - previewed first
+       (who, new payroll cost, change per division), then "Apply Preview"
+       writes exactly what was shown, a chunk at a time (SalaryBulkUpdateJob)
+       on the heavy pool
+
+    Raises don't touch pay statements already written; the payroll button
+    recomputes this month's statements for just the employees changed since
+    this month's payroll run, on the ReportExecutor's heavy pool so the
+    window stays responsive.
 */
 public class SalaryToolsScreen {
 
     private final EmployeeService employeeService = new EmployeeService();
+    private SalaryRaiseSimulator.Preview rangePreview;
 
     public void start(Stage stage, User adminUser) {
         if (adminUser == null || !adminUser.isAdmin()) {
@@ -40,6 +56,7 @@ public class SalaryToolsScreen {
         TextArea output = new TextArea();
         output.setEditable(false);
         output.setPrefRowCount(10);
+        output.setStyle("-fx-font-family: monospace;");
 
         // single employee section
         Label singleLabel = new Label("Single Employee Raise");
@@ -75,7 +92,8 @@ public class SalaryToolsScreen {
                 SearchResult updateResult = employeeService.updateEmployee(emp, adminUser);
                 if (updateResult.isSuccess()) {
                     output.setText("Updated salary for " + emp.getFullName() +
-                            " from " + oldSalary + " to " + newSalary);
+                            " from " + oldSalary + " to " + newSalary +
+                            "\nUse 'Recompute Changed' to update this month's pay statement.");
                 } else {
                     output.setText("Update failed: " + updateResult.getMessage());
                 }
@@ -93,20 +111,26 @@ public class SalaryToolsScreen {
         minField.setPromptText("Min salary (e.g. 0)");
         TextField maxField = new TextField();
         maxField.setPromptText("Max salary (e.g. 999999)");
-        Button applyRangeBtn = new Button("Apply to Range");
+        Button previewRangeBtn = new Button("Preview Range");
+        Button applyRangeBtn = new Button("Apply Preview");
+        applyRangeBtn.setDisable(true);
 
-        applyRangeBtn.setOnAction(e -> {
+        previewRangeBtn.setOnAction(e -> {
             output.clear();
+            rangePreview = null;
+            applyRangeBtn.setDisable(true);
             try {
                 double percent = Double.parseDouble(percentRangeField.getText().trim());
                 double min = Double.parseDouble(minField.getText().trim());
                 double max = Double.parseDouble(maxField.getText().trim());
 
-                SearchResult sr = employeeService.updateSalaryRange(percent, min, max, adminUser);
-                if (sr.isSuccess()) {
-                    output.setText("Range update complete: " + sr.getMessage());
+                RaisePreviewResult pr = employeeService.previewSalaryRange(percent, min, max, adminUser);
+                if (pr.isSuccess()) {
+                    rangePreview = pr.getPreview();
+                    applyRangeBtn.setDisable(rangePreview.getAffectedCount() == 0);
+                    output.setText("Preview (nothing written yet):\n" + pr.getMessage());
                 } else {
-                    output.setText("Range update failed: " + sr.getMessage());
+                    output.setText("Preview failed: " + pr.getMessage());
                 }
 
             } catch (NumberFormatException ex) {
@@ -114,6 +138,57 @@ public class SalaryToolsScreen {
             }
         });
 
+        // applied in short chunks, throttled, so it can take a while: heavy pool, not the FX thread
+        applyRangeBtn.setOnAction(e -> {
+            SalaryRaiseSimulator.Preview preview = rangePreview;
+            rangePreview = null;
+            applyRangeBtn.setDisable(true);
+            previewRangeBtn.setDisable(true);
+            output.setText("Applying the raise to " + preview.getAffectedCount() + " employees...");
+
+            ReportJob<SearchResult> job = ReportExecutor.getInstance()
+                    .submitHeavy(() -> employeeService.commitSalaryRange(preview, adminUser));
+            job.getResult().whenComplete((sr, err) -> Platform.runLater(() -> {
+                previewRangeBtn.setDisable(false);
+                if (err != null) {
+                    Throwable cause = (err instanceof CompletionException && err.getCause() != null)
+                            ? err.getCause() : err;
+                    output.setText("Range update failed: " + cause.getMessage());
+                } else if (sr.isSuccess()) {
+                    output.setText("Range update complete: " + sr.getMessage() +
+                            "\nUse 'Recompute Changed' to update this month's pay statements.");
+                } else {
+                    output.setText("Range update failed: " + sr.getMessage());
+                }
+            }));
+        });
+
+        // payroll correction for the employees changed above
+        Label payrollLabel = new Label("This Month's Payroll");
+        Button recomputeBtn = new Button("Recompute Changed");
+
+        // a correction run reads and writes the database for a while: heavy pool, not the FX thread
+        recomputeBtn.setOnAction(e -> {
+            LocalDate payDate = LocalDate.now().withDayOfMonth(1);
+            output.setText("Recomputing payroll for " + payDate + "...");
+            recomputeBtn.setDisable(true);
+
+            ReportJob<SearchResult> job = ReportExecutor.getInstance()
+                    .submitHeavy(() -> employeeService.recomputeChangedPayroll(payDate, adminUser));
+            job.getResult().whenComplete((sr, err) -> Platform.runLater(() -> {
+                recomputeBtn.setDisable(false);
+                if (err != null) {
+                    Throwable cause = (err instanceof CompletionException && err.getCause() != null)
+                            ? err.getCause() : err;
+                    output.setText("Payroll not recomputed: " + cause.getMessage());
+                } else if (sr.isSuccess()) {
+                    output.setText("Payroll recomputed: " + sr.getMessage());
+                } else {
+                    output.setText("Payroll not recomputed: " + sr.getMessage());
+                }
+            }));
+        });
+
         Button backBtn = new Button("Back to Admin");
         backBtn.setOnAction(e -> {
             stage.close();
@@ -134,7 +209,13 @@ public class SalaryToolsScreen {
                 new HBox(8, new Label("Raise %:"), percentRangeField),
                 new HBox(8, new Label("Min:"), minField),
                 new HBox(8, new Label("Max:"), maxField),
-                applyRangeBtn
+                new HBox(8, previewRangeBtn, applyRangeBtn)
+        );
+
+        VBox payrollBox = new VBox(
+                6,
+                payrollLabel,
+                recomputeBtn
         );
 
         VBox root = new VBox(
@@ -142,6 +223,7 @@ public class SalaryToolsScreen {
                 title,
                 singleBox,
                 rangeBox,
+                payrollBox,
                 new Label("Log:"),
                 output,
                 backBtn
@@ -151,7 +233,7 @@ public class SalaryToolsScreen {
         root.setStyle("-fx-background-color: #f7fbff;");
         VBox.setMargin(backBtn, new Insets(8, 0, 0, 0));
 
-        Scene scene = new Scene(root, 640, 520);
+        Scene scene = new Scene(root, 640, 600);
         stage.setTitle("Salary Tools");
         stage.setScene(scene);
         stage.show();
@@ -0,0 +1,96 @@
+package com.employeemgmt.ui.fx.components;
+
+import com.employeemgmt.services.ReportSink;
+import java.util.function.Function;
+import javafx.application.Platform;
+import javafx.scene.control.TextArea;
+
+/*
+    TextAreaReportSink
+    ------------------
+    Shows report rows in a TextArea while the query is still running.
+
+    Rows arrive on the report thread; they're buffered and handed to the
+    FX thread in chunks (one Platform.runLater at a time), so a big report
+    doesn't flood the FX queue with one task per row. The first chunk
+    replaces whatever placeholder text was in the area.
+
+    detach() stops any further updates, e.g. when a newer report takes
+    over the same TextArea.
+*/
+public class TextAreaReportSink<R> implements ReportSink<R> {
+
+    private final TextArea area;
+    private final Function<R, String> lineFormat;
+
+    private final StringBuilder pending = new StringBuilder(); // guarded by this
+    private boolean flushScheduled = false;                    // guarded by this
+    private boolean started = false;                           // FX thread only
+    private volatile boolean detached = false;
+
+    private Header<R> header;
+
+    public TextAreaReportSink(TextArea area, Function<R, String> lineFormat) {
+        this.area = area;
+        this.lineFormat = lineFormat;
+    }
+
+    @Override
+    public void begin(Header<R> header) {
+        this.header = header;
+        append(header.getTitle() + "\n======================================\n");
+    }
+
+    @Override
+    public void row(R row) {
+        append(lineFormat.apply(row) + "\n");
+    }
+
+    @Override
+    public void end(int rowCount) {
+        if (rowCount == 0) {
+            append(header.getEmptyMessage() + "\n");
+        }
+    }
+
+    @Override
+    public void denied(String message) {
+        append(message + "\n");
+    }
+
+    @Override
+    public void failed(String message) {
+        append("Report incomplete: " + message + "\n");
+    }
+
+    public void detach() {
+        detached = true;
+    }
+
+    private synchronized void append(String text) {
+        pending.append(text);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            Platform.runLater(this::flush);
+        }
+    }
+
+    // FX thread
+    private void flush() {
+        String chunk;
+        synchronized (this) {
+            chunk = pending.toString();
+            pending.setLength(0);
+            flushScheduled = false;
+        }
+        if (detached) {
+            return;
+        }
+        if (!started) {
+            area.setText(chunk);
+            started = true;
+        } else {
+            area.appendText(chunk);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.employeemgmt.utils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Bulk Validator
+ * Single-pass, allocation-free versions of the ValidationUtils / SecurityUtils
+ * checks, for bulk imports where running several regexes plus trim() per field
+ * adds up.
+ *
+ * Every check scans the characters once, skips leading/trailing whitespace by
+ * index instead of trim(), and gives exactly the same answer as the regex
+ * version (ValidationBenchmark / BulkValidatorTest compare the two).
+ * Failures are collected as bit flags in a Result the caller reuses, so the
+ * hot path creates no objects; messages are only built when asked for.
+ */
+public final class BulkValidator {
+
+    // one bit per failed check
+    public static final int FIRST_NAME = 1;
+    public static final int LAST_NAME = 1 << 1;
+    public static final int EMAIL = 1 << 2;
+    public static final int SSN = 1 << 3;
+    public static final int DATE_OF_BIRTH = 1 << 4;
+    public static final int HIRE_DATE = 1 << 5;
+    public static final int SALARY = 1 << 6;
+
+    // password problems (same rules as SecurityUtils.validatePasswordStrength)
+    public static final int PW_EMPTY = 1;
+    public static final int PW_TOO_SHORT = 1 << 1;
+    public static final int PW_NO_UPPER = 1 << 2;
+    public static final int PW_NO_LOWER = 1 << 3;
+    public static final int PW_NO_DIGIT = 1 << 4;
+    public static final int PW_NO_SPECIAL = 1 << 5;
+
+    private static final int MAX_NAME_LENGTH = 50;
+    private static final int MIN_PASSWORD_LENGTH = 8;
+    private static final int MIN_AGE = 16;
+    private static final int MAX_AGE = 100;
+    private static final BigDecimal MIN_SALARY = new BigDecimal("30000.00");
+    private static final BigDecimal MAX_SALARY = new BigDecimal("500000.00");
+
+    // lookup table for SecurityUtils' special character class
+    private static final boolean[] SPECIAL = new boolean[128];
+    static {
+        for (char c : "!@#$%^&*()_+-=[]{};':\"\\|,.<>/?".toCharArray()) {
+            SPECIAL[c] = true;
+        }
+    }
+
+    /**
+     * Reusable result: reset by every validate call, read before the next one
+     */
+    public static final class Result {
+        private int errors;
+
+        public boolean isValid() { return errors == 0; }
+        public boolean has(int flag) { return (errors & flag) != 0; }
+        public int getErrors() { return errors; }
+
+        void reset() { errors = 0; }
+        void fail(int flag) { errors |= flag; }
+
+        /**
+         * Same text as ValidationUtils.validateEmployeeData (only call for bad rows)
+         */
+        public String getMessage() {
+            if (errors == 0) {
+                return "All employee data is valid";
+            }
+            StringBuilder sb = new StringBuilder();
+            if (has(FIRST_NAME)) sb.append("Invalid first name; ");
+            if (has(LAST_NAME)) sb.append("Invalid last name; ");
+            if (has(EMAIL)) sb.append("Invalid email format; ");
+            if (has(SSN)) sb.append("Invalid SSN format (use XXX-XX-XXXX); ");
+            if (has(DATE_OF_BIRTH)) sb.append("Invalid date of birth; ");
+            if (has(HIRE_DATE)) sb.append("Invalid hire date; ");
+            if (has(SALARY)) sb.append("Invalid salary range ($30,000 - $500,000); ");
+            return sb.toString().trim();
+        }
+    }
+
+    private LocalDate today;
+
+    public BulkValidator() {
+        this.today = LocalDate.now();
+    }
+
+    /**
+     * Date used for the birth/hire date checks (fixed per import, not read per row)
+     */
+    public void setToday(LocalDate today) {
+        this.today = today;
+    }
+
+    /**
+     * Check every employee field in one go; same rules as ValidationUtils.validateEmployeeData
+     * @return the result passed in, filled with the failed checks
+     */
+    public Result validateEmployee(CharSequence firstName, CharSequence lastName, CharSequence email,
+                                   CharSequence ssn, LocalDate dob, LocalDate hireDate, BigDecimal salary,
+                                   Result into) {
+        into.reset();
+        if (!isValidName(firstName)) into.fail(FIRST_NAME);
+        if (!isValidName(lastName)) into.fail(LAST_NAME);
+        if (!isValidEmail(email)) into.fail(EMAIL);
+        if (!isValidSSN(ssn)) into.fail(SSN);
+        if (!isValidDateOfBirth(dob)) into.fail(DATE_OF_BIRTH);
+        if (!isValidHireDate(hireDate)) into.fail(HIRE_DATE);
+        if (!isValidSalary(salary)) into.fail(SALARY);
+        return into;
+    }
+
+    // ===== single fields =====
+
+    /**
+     * Letters, whitespace, apostrophes and hyphens, 1-50 chars after trimming
+     */
+    public static boolean isValidName(CharSequence s) {
+        if (s == null) return false;
+        int start = trimStart(s);
+        int end = trimEnd(s, start);
+        int len = end - start;
+        if (len == 0 || len > MAX_NAME_LENGTH) return false;
+
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (!isAsciiLetter(c) && !isRegexSpace(c) && c != '\'' && c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * local@domain.tld with the same character sets as ValidationUtils' email regex
+     */
+    public static boolean isValidEmail(CharSequence s) {
+        if (s == null) return false;
+        int start = trimStart(s);
+        int end = trimEnd(s, start);
+        if (start == end) return false;
+
+        int at = -1;
+        int lastDot = -1;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (at < 0) {
+                if (c == '@') {
+                    if (i == start) return false; // empty local part
+                    at = i;
+                } else if (!isAsciiLetter(c) && !isDigit(c) && c != '+' && c != '_' && c != '.' && c != '-') {
+                    return false;
+                }
+            } else {
+                if (c == '.') {
+                    lastDot = i;
+                } else if (!isAsciiLetter(c) && !isDigit(c) && c != '-') {
+                    return false;
+                }
+            }
+        }
+        // domain = something, a dot, then 2+ letters only
+        if (at < 0 || lastDot <= at + 1 || end - lastDot - 1 < 2) return false;
+        for (int i = lastDot + 1; i < end; i++) {
+            if (!isAsciiLetter(s.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * XXX-XX-XXXX
+     */
+    public static boolean isValidSSN(CharSequence s) {
+        if (s == null) return false;
+        int start = trimStart(s);
+        int end = trimEnd(s, start);
+        if (end - start != 11) return false;
+
+        for (int i = 0; i < 11; i++) {
+            char c = s.charAt(start + i);
+            if (i == 3 || i == 6) {
+                if (c != '-') return false;
+            } else if (!isDigit(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * US phone number, same shapes ValidationUtils' phone regex accepts
+     * (optional +1 prefix, optional parentheses, optional - or space separators)
+     */
+    public static boolean isValidPhoneNumber(CharSequence s) {
+        if (s == null) return false;
+        int start = trimStart(s);
+        int end = trimEnd(s, start);
+        if (start == end) return false;
+
+        // the regex tries the longest "+1 " prefix first and backs off to none
+        int p = start;
+        if (p < end && s.charAt(p) == '+') p++;
+        if (p < end && s.charAt(p) == '1') {
+            p++;
+            if (p < end && isSeparator(s.charAt(p))) p++;
+            if (matchesPhoneBody(s, p, end)) return true;
+        }
+        return matchesPhoneBody(s, start, end);
+    }
+
+    // (?ddd)?[-\s]?ddd[-\s]?dddd - every optional char differs from what follows, so no backtracking
+    private static boolean matchesPhoneBody(CharSequence s, int i, int end) {
+        if (i < end && s.charAt(i) == '(') i++;
+        i = digits(s, i, end, 3);
+        if (i < 0) return false;
+        if (i < end && s.charAt(i) == ')') i++;
+        if (i < end && isSeparator(s.charAt(i))) i++;
+        i = digits(s, i, end, 3);
+        if (i < 0) return false;
+        if (i < end && isSeparator(s.charAt(i))) i++;
+        i = digits(s, i, end, 4);
+        return i == end;
+    }
+
+    public static boolean isValidSalary(BigDecimal salary) {
+        return salary != null && salary.compareTo(MIN_SALARY) >= 0 && salary.compareTo(MAX_SALARY) <= 0;
+    }
+
+    public boolean isValidDateOfBirth(LocalDate dob) {
+        if (dob == null || dob.isAfter(today)) return false;
+        // same age arithmetic as ValidationUtils
+        int age = today.getYear() - dob.getYear();
+        if (today.getDayOfYear() < dob.getDayOfYear()) {
+            age--;
+        }
+        return age >= MIN_AGE && age <= MAX_AGE;
+    }
+
+    public boolean isValidHireDate(LocalDate hireDate) {
+        return hireDate != null && !hireDate.isAfter(today);
+    }
+
+    /**
+     * Password rules from SecurityUtils.validatePasswordStrength as bit flags (0 = strong enough).
+     * Like the .*X.* regexes there, a line break anywhere means the character classes don't match.
+     */
+    public static int passwordProblems(CharSequence pw) {
+        if (pw == null || pw.length() == 0) return PW_EMPTY;
+
+        boolean upper = false, lower = false, digit = false, special = false, lineBreak = false;
+        for (int i = 0; i < pw.length(); i++) {
+            char c = pw.charAt(i);
+            if (c >= 'A' && c <= 'Z') upper = true;
+            else if (c >= 'a' && c <= 'z') lower = true;
+            else if (isDigit(c)) digit = true;
+            else if (c < 128 && SPECIAL[c]) special = true;
+            else if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') lineBreak = true;
+        }
+
+        int problems = 0;
+        if (pw.length() < MIN_PASSWORD_LENGTH) problems |= PW_TOO_SHORT;
+        if (!upper || lineBreak) problems |= PW_NO_UPPER;
+        if (!lower || lineBreak) problems |= PW_NO_LOWER;
+        if (!digit || lineBreak) problems |= PW_NO_DIGIT;
+        if (!special || lineBreak) problems |= PW_NO_SPECIAL;
+        return problems;
+    }
+
+    /**
+     * Username rules from SecurityUtils.validateUsername: 3-50 chars of letters, digits, . _ -
+     */
+    public static boolean isValidUsername(CharSequence s) {
+        if (s == null) return false;
+        int start = trimStart(s);
+        int end = trimEnd(s, start);
+        int len = end - start;
+        if (len < 3 || len > 50) return false;
+
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (!isAsciiLetter(c) && !isDigit(c) && c != '.' && c != '_' && c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ===== helpers =====
+
+    // String.trim() semantics: anything <= ' ' at either end
+    private static int trimStart(CharSequence s) {
+        int i = 0;
+        while (i < s.length() && s.charAt(i) <= ' ') i++;
+        return i;
+    }
+
+    private static int trimEnd(CharSequence s, int start) {
+        int end = s.length();
+        while (end > start && s.charAt(end - 1) <= ' ') end--;
+        return end;
+    }
+
+    // index after 'count' digits starting at i, or -1
+    private static int digits(CharSequence s, int i, int end, int count) {
+        if (end - i < count) return -1;
+        for (int k = 0; k < count; k++) {
+            if (!isDigit(s.charAt(i + k))) return -1;
+        }
+        return i + count;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // java.util.regex \s without UNICODE_CHARACTER_CLASS
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '-' || isRegexSpace(c);
+    }
+}
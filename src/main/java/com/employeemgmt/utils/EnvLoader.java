@@ -71,6 +71,34 @@ public class EnvLoader {
         return value != null ? value : defaultValue;
     }
     
+    /**
+     * Get a whole-number setting
+     * @param key The environment variable key
+     * @param defaultValue Used when the key is missing, not a number or below minValue
+     * @param minValue Smallest value accepted
+     * @return The value or default value
+     */
+    public static int getInt(String key, int defaultValue, int minValue) {
+        try {
+            int value = Integer.parseInt(getEnv(key, String.valueOf(defaultValue)).trim());
+            return value >= minValue ? value : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * Same as getInt, for settings that can go beyond an int (milliseconds, seconds)
+     */
+    public static long getLong(String key, long defaultValue, long minValue) {
+        try {
+            long value = Long.parseLong(getEnv(key, String.valueOf(defaultValue)).trim());
+            return value >= minValue ? value : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+    
     /**
      * Check if environment variables are loaded
      * @return true if loaded, false otherwise
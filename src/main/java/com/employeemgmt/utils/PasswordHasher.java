@@ -0,0 +1,250 @@
+package com.employeemgmt.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Password Hasher
+ * Runs password hashing/verification (PBKDF2, slow on purpose) on its own
+ * small CPU pool, so a login storm can only use PASSWORD_HASH_THREADS cores
+ * and everything else keeps its latency.
+ *
+ * The queue is bounded (PASSWORD_HASH_QUEUE); when it's full, or a job waits
+ * longer than PASSWORD_HASH_TIMEOUT_SECONDS, the caller gets a BusyException
+ * instead of piling up more work. Queue/run times are tracked for tuning.
+ */
+public class PasswordHasher {
+
+    private static final long BULK_RETRY_MILLIS = 20;
+
+    private static PasswordHasher instance;
+
+    /**
+     * Thrown when the hashing pool is saturated - the caller should say "try again"
+     */
+    public static class BusyException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public BusyException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Snapshot of the pool numbers
+     */
+    public static class Stats {
+        private final int running;
+        private final int queued;
+        private final long completed;
+        private final long rejected;
+        private final long timedOut;
+        private final double avgWaitMillis;
+        private final double maxWaitMillis;
+        private final double avgRunMillis;
+
+        Stats(int running, int queued, long completed, long rejected, long timedOut,
+              double avgWaitMillis, double maxWaitMillis, double avgRunMillis) {
+            this.running = running;
+            this.queued = queued;
+            this.completed = completed;
+            this.rejected = rejected;
+            this.timedOut = timedOut;
+            this.avgWaitMillis = avgWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+            this.avgRunMillis = avgRunMillis;
+        }
+
+        public int getRunning() { return running; }
+        public int getQueued() { return queued; }
+        public long getCompleted() { return completed; }
+        public long getRejected() { return rejected; }
+        public long getTimedOut() { return timedOut; }
+        public double getAvgWaitMillis() { return avgWaitMillis; }
+        public double getMaxWaitMillis() { return maxWaitMillis; }
+        public double getAvgRunMillis() { return avgRunMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("running=%d queued=%d completed=%d rejected=%d timedOut=%d "
+                            + "avgWait=%.1fms maxWait=%.1fms avgRun=%.1fms",
+                    running, queued, completed, rejected, timedOut, avgWaitMillis, maxWaitMillis, avgRunMillis);
+        }
+    }
+
+    private final ThreadPoolExecutor pool;
+    private final long timeoutMillis;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder totalRunNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private PasswordHasher(int threads, int queueSize, int timeoutSeconds) {
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), r -> {
+                    Thread t = new Thread(r, "password-hash-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+    }
+
+    public static synchronized PasswordHasher getInstance() {
+        if (instance == null) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            instance = new PasswordHasher(
+                    EnvLoader.getInt("PASSWORD_HASH_THREADS", Math.max(1, cores / 2), 1),
+                    EnvLoader.getInt("PASSWORD_HASH_QUEUE", 64, 1),
+                    EnvLoader.getInt("PASSWORD_HASH_TIMEOUT_SECONDS", 10, 1));
+        }
+        return instance;
+    }
+
+    /**
+     * Hash a password at the configured cost (blocks until done)
+     */
+    public String hash(String password) {
+        return await(hashAsync(password));
+    }
+
+    /**
+     * Hash a password at the configured cost without waiting (e.g. rehash after login)
+     */
+    public CompletableFuture<String> hashAsync(String password) {
+        return submit(() -> SecurityUtils.hashPassword(password));
+    }
+
+    /**
+     * Hash many passwords at once (bulk account provisioning) at the configured cost,
+     * on the same bounded pool as logins. At most half the pool's threads work on the
+     * batch at a time, so logins keep a free slot; if the queue is full the batch
+     * waits for room instead of failing. Slow for big batches (cost x count / threads),
+     * but every account gets the same hash strength as one made by hand.
+     */
+    public List<String> hashBulk(List<String> passwords) {
+        int window = Math.max(1, pool.getMaximumPoolSize() / 2);
+        List<CompletableFuture<String>> futures = new ArrayList<>(passwords.size());
+        Deque<CompletableFuture<String>> inFlight = new ArrayDeque<>();
+
+        for (String password : passwords) {
+            if (inFlight.size() >= window) {
+                inFlight.removeFirst().join();
+            }
+            CompletableFuture<String> f = new CompletableFuture<>();
+            while (!enqueue(() -> SecurityUtils.hashPassword(password), f)) {
+                // queue full of logins: let them go first
+                if (!inFlight.isEmpty()) {
+                    inFlight.removeFirst().join();
+                } else {
+                    pause(BULK_RETRY_MILLIS);
+                }
+            }
+            futures.add(f);
+            inFlight.addLast(f);
+        }
+
+        List<String> hashes = new ArrayList<>(futures.size());
+        for (CompletableFuture<String> f : futures) {
+            hashes.add(f.join());
+        }
+        return hashes;
+    }
+
+    /**
+     * Verify a password against a stored hash (blocks until done)
+     */
+    public boolean verify(String password, String storedHash) {
+        return await(submit(() -> SecurityUtils.verifyPassword(password, storedHash)));
+    }
+
+    public Stats getStats() {
+        long done = completed.sum();
+        return new Stats(pool.getActiveCount(), pool.getQueue().size(), done, rejected.sum(), timedOut.sum(),
+                done == 0 ? 0 : totalWaitNanos.sum() / 1e6 / done,
+                maxWaitNanos.get() / 1e6,
+                done == 0 ? 0 : totalRunNanos.sum() / 1e6 / done);
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (!enqueue(work, result)) {
+            rejected.increment();
+            result.completeExceptionally(new BusyException("Too many logins right now, please try again."));
+        }
+        return result;
+    }
+
+    // false if the pool's queue is full
+    private <T> boolean enqueue(Callable<T> work, CompletableFuture<T> result) {
+        long queuedAt = System.nanoTime();
+
+        try {
+            pool.execute(() -> {
+                if (result.isDone()) {
+                    return; // caller already gave up
+                }
+                long start = System.nanoTime();
+                long wait = start - queuedAt;
+                totalWaitNanos.add(wait);
+                maxWaitNanos.accumulateAndGet(wait, Math::max);
+                try {
+                    result.complete(work.call());
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                } finally {
+                    totalRunNanos.add(System.nanoTime() - start);
+                    completed.increment();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusyException("Interrupted while hashing passwords.");
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            future.cancel(false);
+            throw new BusyException("Too many logins right now, please try again.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new BusyException("Interrupted while checking the password.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.employeemgmt.utils;
 
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.security.spec.InvalidKeySpecException;
 import java.util.Base64;
 import java.util.regex.Pattern;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
 
 /**
  * Security Utility Class
@@ -15,6 +19,11 @@ public class SecurityUtils {
     // Security constants
     private static final String HASH_ALGORITHM = "SHA-256";
     private static final int SALT_LENGTH = 16;
+    private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String PBKDF2_PREFIX = "pbkdf2-sha256";
+    private static final int PBKDF2_KEY_BITS = 256;
+    private static final int DEFAULT_HASH_ITERATIONS = 310_000;
+    private static final int MIN_HASH_ITERATIONS = 1_000;
     private static final int MIN_PASSWORD_LENGTH = 8;
     private static final SecureRandom SECURE_RANDOM = new SecureRandom();
     
@@ -25,40 +34,37 @@ public class SecurityUtils {
     private static final Pattern SPECIAL_CHAR_PATTERN = Pattern.compile(".*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>\\/?].*");
     
     /**
-     * Hash a password with salt using SHA-256
+     * Hash a password with PBKDF2 at the configured cost (PASSWORD_HASH_ITERATIONS)
      * @param password The plain text password
-     * @return The hashed password with salt (format: salt:hash)
+     * @return The hashed password (format: pbkdf2-sha256:iterations:salt:hash)
      */
     public static String hashPassword(String password) {
+        return hashPassword(password, hashIterations());
+    }
+    
+    /**
+     * Hash a password with PBKDF2 at a given cost
+     * @param password The plain text password
+     * @param iterations PBKDF2 iteration count (higher = slower = harder to brute force)
+     * @return The hashed password (format: pbkdf2-sha256:iterations:salt:hash)
+     */
+    public static String hashPassword(String password, int iterations) {
         if (password == null || password.isEmpty()) {
             throw new IllegalArgumentException("Password cannot be null or empty");
         }
         
-        try {
-            // Generate salt
-            byte[] salt = generateSalt();
-            
-            // Create hash
-            MessageDigest md = MessageDigest.getInstance(HASH_ALGORITHM);
-            md.update(salt);
-            byte[] hashedPassword = md.digest(password.getBytes());
-            
-            // Encode salt and hash to Base64
-            String saltBase64 = Base64.getEncoder().encodeToString(salt);
-            String hashBase64 = Base64.getEncoder().encodeToString(hashedPassword);
-            
-            // Return format: salt:hash
-            return saltBase64 + ":" + hashBase64;
-            
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Hashing algorithm not available", e);
-        }
+        byte[] salt = generateSalt();
+        byte[] hash = pbkdf2(password, salt, iterations);
+        
+        return PBKDF2_PREFIX + ":" + iterations + ":"
+                + Base64.getEncoder().encodeToString(salt) + ":"
+                + Base64.getEncoder().encodeToString(hash);
     }
     
     /**
      * Verify a password against a stored hash
      * @param password The plain text password to verify
-     * @param storedHash The stored hash (format: salt:hash)
+     * @param storedHash The stored hash (pbkdf2-sha256:iterations:salt:hash, or legacy salt:hash)
      * @return true if password matches, false otherwise
      */
     public static boolean verifyPassword(String password, String storedHash) {
@@ -67,23 +73,28 @@ public class SecurityUtils {
         }
         
         try {
-            // Split stored hash into salt and hash parts
             String[] parts = storedHash.split(":");
-            if (parts.length != 2) {
+            
+            byte[] expected;
+            byte[] actual;
+            if (parts.length == 4 && PBKDF2_PREFIX.equals(parts[0])) {
+                int iterations = Integer.parseInt(parts[1]);
+                byte[] salt = Base64.getDecoder().decode(parts[2]);
+                expected = Base64.getDecoder().decode(parts[3]);
+                actual = pbkdf2(password, salt, iterations);
+            } else if (parts.length == 2) {
+                // legacy: one round of salted SHA-256
+                byte[] salt = Base64.getDecoder().decode(parts[0]);
+                expected = Base64.getDecoder().decode(parts[1]);
+                MessageDigest md = MessageDigest.getInstance(HASH_ALGORITHM);
+                md.update(salt);
+                actual = md.digest(password.getBytes());
+            } else {
                 return false;
             }
             
-            byte[] salt = Base64.getDecoder().decode(parts[0]);
-            String expectedHash = parts[1];
-            
-            // Hash the provided password with the same salt
-            MessageDigest md = MessageDigest.getInstance(HASH_ALGORITHM);
-            md.update(salt);
-            byte[] hashedPassword = md.digest(password.getBytes());
-            String actualHash = Base64.getEncoder().encodeToString(hashedPassword);
-            
-            // Compare hashes
-            return expectedHash.equals(actualHash);
+            // constant-time compare
+            return MessageDigest.isEqual(expected, actual);
             
         } catch (Exception e) {
             // Log error in production, return false for security
@@ -91,6 +102,45 @@ public class SecurityUtils {
         }
     }
     
+    /**
+     * Check if a stored hash should be replaced on the next successful login
+     * @param storedHash The stored hash
+     * @return true for legacy SHA-256 hashes and PBKDF2 hashes below the configured cost
+     */
+    public static boolean needsRehash(String storedHash) {
+        if (storedHash == null) {
+            return false;
+        }
+        String[] parts = storedHash.split(":");
+        if (parts.length != 4 || !PBKDF2_PREFIX.equals(parts[0])) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(parts[1]) < hashIterations();
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+    
+    /**
+     * Configured PBKDF2 cost (PASSWORD_HASH_ITERATIONS, default 310000)
+     * @return iteration count
+     */
+    public static int hashIterations() {
+        return EnvLoader.getInt("PASSWORD_HASH_ITERATIONS", DEFAULT_HASH_ITERATIONS, MIN_HASH_ITERATIONS);
+    }
+    
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, PBKDF2_KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(PBKDF2_ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            throw new RuntimeException("Hashing algorithm not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+    
     /**
      * Generate a cryptographically secure salt
      * @return byte array containing random salt
@@ -111,6 +161,28 @@ public class SecurityUtils {
         return Base64.getEncoder().encodeToString(token);
     }
     
+    /**
+     * Hash a session token for storage (no salt needed, tokens are already random)
+     * @param token The token handed to the client
+     * @return 64-char hex SHA-256 of the token
+     */
+    public static String hashToken(String token) {
+        if (token == null) {
+            throw new IllegalArgumentException("Token cannot be null");
+        }
+        try {
+            MessageDigest md = MessageDigest.getInstance(HASH_ALGORITHM);
+            byte[] digest = md.digest(token.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Hashing algorithm not available", e);
+        }
+    }
+    
     /**
      * Validate password strength
      * @param password The password to validate
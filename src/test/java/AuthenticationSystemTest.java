@@ -138,7 +138,7 @@ public class AuthenticationSystemTest {
         System.out.println("🔑 Testing login with existing user...");
         
         // Try to login with hr_admin (from sample data)
-        AuthenticationResult result = authService.login("hr_admin", "admin123");
+        AuthenticationResult result = authService.login("hr_admin", "admin123", "test");
         
         if (result.isSuccess()) {
             System.out.println("✅ Login successful: " + result.getMessage());
@@ -192,7 +192,7 @@ public class AuthenticationSystemTest {
         
         // Test invalid login
         System.out.println("\n🚫 Testing Invalid Login...");
-        AuthenticationResult invalidResult = authService.login("invalid_user", "wrong_password");
+        AuthenticationResult invalidResult = authService.login("invalid_user", "wrong_password", "test");
         
         if (!invalidResult.isSuccess()) {
             System.out.println("✅ Invalid login correctly rejected: " + invalidResult.getMessage());
@@ -0,0 +1,132 @@
+import com.employeemgmt.utils.BulkValidator;
+import com.employeemgmt.utils.SecurityUtils;
+import com.employeemgmt.utils.ValidationUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Bulk Validator Test - runs without a database
+ * Fuzzes the single-pass validator against the regex versions it replaces;
+ * every field must give exactly the same answer
+ */
+public class BulkValidatorTest {
+
+    private static int passed = 0;
+    private static int failed = 0;
+
+    // characters that matter to the regexes, plus some that don't
+    private static final String ALPHABET = "aZ09+-_.@()' \t\n\r1+!#?/\\\"é ";
+
+    public static void main(String[] args) {
+        System.out.println("🧪 Testing Bulk Validator...\n");
+
+        Random rnd = new Random(42);
+        int names = 0, emails = 0, ssns = 0, phones = 0, passwords = 0, usernames = 0;
+        int rounds = 200_000;
+
+        for (int n = 0; n < rounds; n++) {
+            String s = randomString(rnd);
+            if (BulkValidator.isValidName(s) != ValidationUtils.isValidName(s)) names++;
+            if (BulkValidator.isValidEmail(s) != ValidationUtils.isValidEmail(s)) emails++;
+            if (BulkValidator.isValidSSN(s) != ValidationUtils.isValidSSN(s)) ssns++;
+            if (BulkValidator.isValidPhoneNumber(s) != ValidationUtils.isValidPhoneNumber(s)) phones++;
+            if ((BulkValidator.passwordProblems(s) == 0) != SecurityUtils.validatePasswordStrength(s).isValid()) passwords++;
+            if (BulkValidator.isValidUsername(s) != SecurityUtils.validateUsername(s).isValid()) usernames++;
+        }
+        check("names agree (" + rounds + " random)", names == 0);
+        check("emails agree", emails == 0);
+        check("SSNs agree", ssns == 0);
+        check("phones agree", phones == 0);
+        check("passwords agree", passwords == 0);
+        check("usernames agree", usernames == 0);
+
+        // shaped inputs the random strings rarely hit
+        String[] shaped = {
+            "john.smith@company.com", " a@b.co ", "a@b.c", "a@.com", "@b.com", "a@b..com", "a@b.c0m",
+            "123-45-6789", " 123-45-6789\t", "123456789", "12-345-6789",
+            "+1 (555) 123-4567", "1-555-123-4567", "5551234567", "(555)1234567", "15551234567",
+            "+15551234567", "1 555 123 4567", "+1-555-123-456", "555-1234-567",
+            "Mary-Jane O'Neil", "", "   ", "Strong#Pass1", "weakpass", "Strong#Pass1\n"
+        };
+        int shapedBad = 0;
+        for (String s : shaped) {
+            if (BulkValidator.isValidEmail(s) != ValidationUtils.isValidEmail(s)
+                    || BulkValidator.isValidSSN(s) != ValidationUtils.isValidSSN(s)
+                    || BulkValidator.isValidPhoneNumber(s) != ValidationUtils.isValidPhoneNumber(s)
+                    || BulkValidator.isValidName(s) != ValidationUtils.isValidName(s)
+                    || (BulkValidator.passwordProblems(s) == 0) != SecurityUtils.validatePasswordStrength(s).isValid()) {
+                shapedBad++;
+                System.out.println("   mismatch on: [" + s + "]");
+            }
+        }
+        check("hand-picked cases agree", shapedBad == 0);
+
+        // whole employee row, same message as the regex path
+        BulkValidator validator = new BulkValidator();
+        BulkValidator.Result result = new BulkValidator.Result();
+        LocalDate dob = LocalDate.now().minusYears(30);
+        LocalDate hire = LocalDate.now().minusYears(2);
+
+        validator.validateEmployee("John", "Smith", "john@company.com", "123-45-6789",
+                dob, hire, new BigDecimal("65000.00"), result);
+        check("valid row", result.isValid());
+
+        validator.validateEmployee("J0hn", "Smith", "bad", "123-45-6789",
+                dob, hire.plusYears(5), new BigDecimal("10.00"), result);
+        String expected = ValidationUtils.validateEmployeeData("J0hn", "Smith", "bad", "123-45-6789",
+                dob, hire.plusYears(5), new BigDecimal("10.00")).getMessage();
+        check("same flags and message", result.has(BulkValidator.FIRST_NAME) && result.has(BulkValidator.EMAIL)
+                && !result.has(BulkValidator.SSN) && expected.equals(result.getMessage()));
+
+        validator.validateEmployee("John", "Smith", "john@company.com", "123-45-6789",
+                dob, hire, new BigDecimal("65000.00"), result);
+        check("result reused and reset", result.isValid());
+
+        System.out.println("\n📊 Bulk validator tests passed: " + passed + "/" + (passed + failed));
+        if (failed > 0) {
+            System.out.println("⚠️  Some bulk validator tests failed");
+        }
+    }
+
+    private static String randomString(Random rnd) {
+        // mostly short strings built from the interesting characters, sometimes a real shape
+        switch (rnd.nextInt(7)) {
+            case 0:
+                return String.format("%03d-%02d-%04d", rnd.nextInt(1000), rnd.nextInt(100), rnd.nextInt(10000));
+            case 1:
+                return (rnd.nextBoolean() ? "+1 " : "") + "(" + (100 + rnd.nextInt(900)) + ") "
+                        + (100 + rnd.nextInt(900)) + (rnd.nextBoolean() ? "-" : "") + (1000 + rnd.nextInt(9000));
+            case 2:
+                return piece(rnd, 4) + "@" + piece(rnd, 5) + "." + piece(rnd, 3);
+            default:
+                int len = rnd.nextInt(16);
+                StringBuilder sb = new StringBuilder(len);
+                for (int i = 0; i < len; i++) {
+                    sb.append(ALPHABET.charAt(rnd.nextInt(ALPHABET.length())));
+                }
+                return sb.toString();
+        }
+    }
+
+    private static String piece(Random rnd, int maxLen) {
+        String chars = "ab9.-_+@";
+        int len = rnd.nextInt(maxLen + 1);
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; i++) {
+            sb.append(chars.charAt(rnd.nextInt(chars.length())));
+        }
+        return sb.toString();
+    }
+
+    private static void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("   ✅ " + name);
+        } else {
+            failed++;
+            System.out.println("   ❌ " + name);
+        }
+    }
+}
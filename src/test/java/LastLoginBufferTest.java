@@ -0,0 +1,69 @@
+import com.employeemgmt.dao.LastLoginBuffer;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Last Login Buffer Test - runs without a database
+ * Checks that logins are coalesced per user and survive a failed flush
+ */
+public class LastLoginBufferTest {
+
+    private static int passed = 0;
+    private static int failed = 0;
+
+    public static void main(String[] args) {
+        System.out.println("🕒 Testing Last Login Buffer...\n");
+
+        List<Map<String, LocalDateTime>> batches = new ArrayList<>();
+        boolean[] failNext = { false };
+        LastLoginBuffer buffer = new LastLoginBuffer(batch -> {
+            if (failNext[0]) {
+                failNext[0] = false;
+                throw new SQLException("db down");
+            }
+            batches.add(new HashMap<>(batch));
+        }, 60_000);
+
+        LocalDateTime t1 = LocalDateTime.of(2025, 3, 3, 8, 0);
+        LocalDateTime t2 = t1.plusMinutes(5);
+
+        buffer.record("Alice", t2);
+        buffer.record("alice", t1);
+        buffer.record("bob", t1);
+        check("same user coalesced", buffer.pendingCount() == 2);
+
+        int written = buffer.flush();
+        check("one batch written", written == 2 && batches.size() == 1);
+        check("latest login kept", t2.equals(batches.get(0).get("alice")));
+        check("buffer empty after flush", buffer.pendingCount() == 0);
+        check("empty flush is a no-op", buffer.flush() == 0 && batches.size() == 1);
+
+        // failed flush keeps the entries for the next try
+        buffer.record("carol", t1);
+        failNext[0] = true;
+        check("failed flush writes nothing", buffer.flush() == 0);
+        check("entries kept after failure", buffer.pendingCount() == 1);
+        buffer.shutdown();
+        check("shutdown flushes the rest", batches.size() == 2 && batches.get(1).containsKey("carol"));
+
+        System.out.println("\n📊 Last login buffer tests passed: " + passed + "/" + (passed + failed));
+        if (failed > 0) {
+            System.out.println("⚠️  Some last login buffer tests failed");
+        }
+    }
+
+    private static void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("   ✅ " + name);
+        } else {
+            failed++;
+            System.out.println("   ❌ " + name);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+import com.employeemgmt.utils.PasswordHasher;
+import com.employeemgmt.utils.SecurityUtils;
+
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Password Hasher Test - runs without a database
+ * Checks PBKDF2 hashing, legacy SHA-256 hashes, rehash detection and the hashing pool
+ */
+public class PasswordHasherTest {
+
+    private static int passed = 0;
+    private static int failed = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🔑 Testing Password Hasher...\n");
+
+        String password = "TestPassword123!";
+
+        String cheap = SecurityUtils.hashPassword(password, 1_000);
+        check("pbkdf2 format", cheap.startsWith("pbkdf2-sha256:1000:"));
+        check("pbkdf2 verifies", SecurityUtils.verifyPassword(password, cheap));
+        check("pbkdf2 rejects wrong password", !SecurityUtils.verifyPassword("WrongPassword1!", cheap));
+        check("low cost needs rehash", SecurityUtils.needsRehash(cheap));
+
+        // legacy salt:hash (one round of salted SHA-256) still logs in, and gets upgraded
+        byte[] salt = SecurityUtils.generateSalt();
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        md.update(salt);
+        String legacy = Base64.getEncoder().encodeToString(salt) + ":"
+                + Base64.getEncoder().encodeToString(md.digest(password.getBytes()));
+        check("legacy verifies", SecurityUtils.verifyPassword(password, legacy));
+        check("legacy needs rehash", SecurityUtils.needsRehash(legacy));
+        check("garbage rejected", !SecurityUtils.verifyPassword(password, "not-a-hash"));
+
+        // pool path, at the configured cost
+        PasswordHasher hasher = PasswordHasher.getInstance();
+        String full = hasher.hash(password);
+        check("configured cost is current", !SecurityUtils.needsRehash(full));
+        check("pool verifies", hasher.verify(password, full));
+        check("pool rejects wrong password", !hasher.verify("nope", full));
+        check("rehash async", SecurityUtils.verifyPassword(password, hasher.hashAsync(password).get()));
+
+        // bulk provisioning: same pool, same cost, input order kept
+        List<String> batch = List.of("Bulk1Pass!", "Bulk2Pass!", "Bulk3Pass!", "Bulk4Pass!", "Bulk5Pass!");
+        List<String> hashes = hasher.hashBulk(batch);
+        boolean allGood = hashes.size() == batch.size();
+        for (int i = 0; allGood && i < batch.size(); i++) {
+            allGood = SecurityUtils.verifyPassword(batch.get(i), hashes.get(i)) && !SecurityUtils.needsRehash(hashes.get(i));
+        }
+        check("bulk hashes at full cost, in order", allGood);
+
+        PasswordHasher.Stats stats = hasher.getStats();
+        System.out.println("   (pool: " + stats + ")");
+        check("stats counted (bulk on the pool too)", stats.getCompleted() >= 9 && stats.getRejected() == 0);
+
+        System.out.println("\n📊 Password hasher tests passed: " + passed + "/" + (passed + failed));
+        if (failed > 0) {
+            System.out.println("⚠️  Some password hasher tests failed");
+        }
+    }
+
+    private static void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("   ✅ " + name);
+        } else {
+            failed++;
+            System.out.println("   ❌ " + name);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+import com.employeemgmt.services.PayCube;
+import com.employeemgmt.services.PayCube.Cell;
+import com.employeemgmt.services.PayCube.Dimension;
+import com.employeemgmt.services.PayCube.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Pay Cube Test - runs without a database
+ * Loads a few statements into the cube and checks roll-ups, drill-downs and slices
+ */
+public class PayCubeTest {
+
+    private static int passed = 0;
+    private static int failed = 0;
+
+    public static void main(String[] args) {
+        System.out.println("🧊 Testing Pay Cube...\n");
+
+        PayCube cube = new PayCube();
+        cube.add(LocalDate.of(2025, 1, 31), "Engineering", "Developer", "GA", 500000, 400000);
+        cube.add(LocalDate.of(2025, 1, 31), "Engineering", "Manager", "GA", 700000, 560000);
+        cube.add(LocalDate.of(2025, 2, 28), "Engineering", "Developer", "GA", 500000, 400000);
+        cube.add(LocalDate.of(2025, 4, 30), "Sales", "Rep", "TX", 300000, 250000);
+        cube.add(LocalDate.of(2024, 12, 31), "Sales", "Rep", "TX", 300000, 250000);
+        cube.add(LocalDate.of(2025, 4, 30), null, null, null, 100, 100);
+
+        // grand total
+        List<Cell> all = cube.query(Query.by());
+        check("grand total has one row", all.size() == 1);
+        check("grand total gross", all.get(0).getGrossCents() == 2300100);
+        check("grand total statements", all.get(0).getStatements() == 6);
+
+        // roll-up by year
+        List<Cell> byYear = cube.query(Query.by(Dimension.YEAR));
+        check("two years", byYear.size() == 2);
+        check("years sorted", "2024".equals(byYear.get(0).get(Dimension.YEAR)));
+        check("2025 gross", byYear.get(1).getGrossCents() == 2000100);
+
+        // drill down into quarters of 2025
+        Query q = Query.by(Dimension.YEAR).where(Dimension.YEAR, "2025").drillDown(Dimension.QUARTER);
+        List<Cell> byQuarter = cube.query(q);
+        check("2025 has Q1 and Q2", byQuarter.size() == 2);
+        check("Q1 gross", byQuarter.get(0).getGrossCents() == 1700000
+                && "Q1".equals(byQuarter.get(0).get(Dimension.QUARTER)));
+
+        // drill further into month, then roll the year back up
+        List<Cell> byMonth = cube.query(q.drillDown(Dimension.MONTH).rollUp(Dimension.YEAR));
+        check("three months in 2025", byMonth.size() == 3);
+        check("month label", "01".equals(byMonth.get(0).get(Dimension.MONTH)));
+
+        // dice by division + state
+        List<Cell> byDiv = cube.query(Query.by(Dimension.DIVISION, Dimension.STATE));
+        check("division rows include unknown", byDiv.size() == 3);
+        List<Cell> eng = cube.query(Query.by(Dimension.JOB_TITLE).where(Dimension.DIVISION, "Engineering"));
+        check("engineering jobs", eng.size() == 2);
+
+        // slice on a value that was never loaded
+        check("unknown filter gives nothing",
+                cube.query(Query.by(Dimension.STATE).where(Dimension.DIVISION, "Legal")).isEmpty());
+
+        // all six dimensions at once still fit in the packed key
+        List<Cell> full = cube.query(Query.by(Dimension.values()));
+        check("finest grain", full.size() == 6);
+
+        // incremental add lands in the same base cell
+        int cellsBefore = cube.getCellCount();
+        cube.add(LocalDate.of(2025, 1, 15), "Engineering", "Developer", "GA", 1, 1);
+        check("same cell reused", cube.getCellCount() == cellsBefore);
+
+        // names sort by value, not by the order they were first loaded
+        PayCube names = new PayCube();
+        names.add(LocalDate.of(2025, 1, 31), "Sales", "Rep", "TX", 100, 100);
+        names.add(LocalDate.of(2025, 1, 31), null, "Rep", "TX", 100, 100);
+        names.add(LocalDate.of(2025, 1, 31), "Engineering", "Rep", "TX", 100, 100);
+        names.add(LocalDate.of(2025, 1, 31), "accounting", "Rep", "TX", 100, 100);
+        List<Cell> sorted = names.query(Query.by(Dimension.DIVISION));
+        check("divisions alphabetical, (none) last", sorted.size() == 4
+                && "accounting".equals(sorted.get(0).get(Dimension.DIVISION))
+                && "Engineering".equals(sorted.get(1).get(Dimension.DIVISION))
+                && "Sales".equals(sorted.get(2).get(Dimension.DIVISION))
+                && PayCube.UNKNOWN.equals(sorted.get(3).get(Dimension.DIVISION)));
+
+        System.out.println("\n📊 Pay cube tests passed: " + passed + "/" + (passed + failed));
+        if (failed > 0) {
+            System.out.println("⚠️  Some pay cube tests failed");
+        }
+    }
+
+    private static void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("   ✅ " + name);
+        } else {
+            failed++;
+            System.out.println("   ❌ " + name);
+        }
+    }
+}
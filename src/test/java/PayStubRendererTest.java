@@ -0,0 +1,140 @@
+import com.employeemgmt.dao.PayStatementDAO.StubRow;
+import com.employeemgmt.models.PayStatement;
+import com.employeemgmt.services.PayStubRenderer;
+import com.employeemgmt.services.PayStubRenderer.Result;
+import com.employeemgmt.services.PayStubRenderer.StubSource;
+import com.employeemgmt.services.PayStubTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Pay Stub Renderer Test - runs without a database
+ * Checks template compilation and escaping, the per-employee files and their
+ * year-to-date figures, failure handling, and 100k stubs against the clock.
+ */
+public class PayStubRendererTest {
+
+    private static int passed = 0;
+    private static int failed = 0;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("🧾 Testing Pay Stub Renderer...\n");
+
+        PayStubTemplate text = PayStubTemplate.compileText("{{pay_date}} {{ name }}: {{gross}} - {{deductions}} = {{net}} "
+                + "(ytd {{ytd_gross}}/{{ytd_net}})\n");
+        check("unknown field rejected when compiling", rejects("Hello {{salary}}"));
+        check("unclosed placeholder rejected", rejects("Hello {{name"));
+        check("default templates compile", PayStubTemplate.compileText(PayStubTemplate.DEFAULT_TEXT) != null
+                && PayStubTemplate.compileHtml(PayStubTemplate.DEFAULT_HTML).isHtml());
+        PayStubTemplate html = PayStubTemplate.compileHtml(PayStubTemplate.DEFAULT_HTML);
+        check("HTML values escaped, text left alone", html.escape("<b>O'Neil & Co</b>")
+                .equals("&lt;b&gt;O&#39;Neil &amp; Co&lt;/b&gt;") && text.escape("<b>").equals("<b>"));
+
+        Path dir = Files.createTempDirectory("paystubs");
+        try {
+            // two employees over a year boundary
+            StubSource small = handler -> {
+                int n = 0;
+                n += send(handler, 7, "Ada Lovelace", LocalDate.of(2024, 11, 1), "5000.00", "4400.00") ? 1 : 0;
+                n += send(handler, 7, "Ada Lovelace", LocalDate.of(2024, 12, 1), "5000.00", "4400.00") ? 1 : 0;
+                n += send(handler, 7, "Ada Lovelace", LocalDate.of(2025, 1, 1), "5200.50", "4576.44") ? 1 : 0;
+                n += send(handler, 9, "Bob <Tables>", LocalDate.of(2025, 1, 1), "100", "88") ? 1 : 0;
+                return n;
+            };
+            Result r = new PayStubRenderer(2, 1).render(dir, text, small);
+            String ada = Files.readString(dir.resolve("7.txt"), StandardCharsets.UTF_8);
+            check("one file per employee, every stub written", r.isSuccess() && r.getFiles() == 2 && r.getStubs() == 4
+                    && Files.exists(dir.resolve("9.txt")));
+            check("stubs oldest first with deductions", ada.startsWith(
+                    "2024-11-01 Ada Lovelace: 5000.00 - 600.00 = 4400.00 (ytd 5000.00/4400.00)\n"));
+            check("year to date adds up and restarts in January", ada.contains("(ytd 10000.00/8800.00)")
+                    && ada.contains("2025-01-01 Ada Lovelace: 5200.50 - 624.06 = 4576.44 (ytd 5200.50/4576.44)"));
+
+            Result h = new PayStubRenderer(2, 4).render(dir, html, small);
+            String bob = Files.readString(dir.resolve("9.html"), StandardCharsets.UTF_8);
+            check("HTML file is a page with escaped names", h.isSuccess() && bob.startsWith("<!DOCTYPE html>")
+                    && bob.contains("Bob &lt;Tables&gt;") && bob.trim().endsWith("</html>"));
+
+            check("failed read is reported", !new PayStubRenderer(2, 4).render(dir, text, handler -> -1).isSuccess());
+            Path notADir = Files.createFile(dir.resolve("blocked"));
+            check("unwritable output is reported", !new PayStubRenderer(2, 4).render(notADir, text, small).isSuccess());
+
+            // 100k stubs: 2,000 employees x 50 months
+            int employees = 2_000;
+            int months = 50;
+            StubSource big = handler -> {
+                int n = 0;
+                for (int e = 1; e <= employees; e++) {
+                    for (int m = 0; m < months; m++) {
+                        n++;
+                        if (!send(handler, e, "Employee " + e, LocalDate.of(2021, 1, 1).plusMonths(m),
+                                BigDecimal.valueOf(400_000 + e, 2).toPlainString(),
+                                BigDecimal.valueOf(352_000 + e, 2).toPlainString())) {
+                            return n;
+                        }
+                    }
+                }
+                return n;
+            };
+            PayStubTemplate standard = PayStubTemplate.compileText(PayStubTemplate.DEFAULT_TEXT);
+            new PayStubRenderer(Runtime.getRuntime().availableProcessors(), 64).render(dir.resolve("warmup"), standard, big);
+            Result timed = new PayStubRenderer(Runtime.getRuntime().availableProcessors(), 64)
+                    .render(dir.resolve("bulk"), standard, big);
+            long fileCount;
+            try (Stream<Path> files = Files.list(dir.resolve("bulk"))) {
+                fileCount = files.count();
+            }
+            check("100k stubs into 2,000 files", timed.isSuccess() && timed.getStubs() == employees * months
+                    && timed.getFiles() == employees && fileCount == employees);
+            String last = Files.readString(dir.resolve("bulk").resolve(employees + ".txt"), StandardCharsets.UTF_8);
+            check("bulk file has every month", last.split("PAY STUB", -1).length - 1 == months
+                    && last.contains("Employee 2000 (#2000)"));
+            check("100k stubs in " + timed.getMillis() + "ms (well under a minute)", timed.getMillis() < 20_000);
+            System.out.println("   ⏱  " + timed);
+        } finally {
+            try (Stream<Path> walk = Files.walk(dir)) {
+                walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+
+        System.out.println("\n📊 Pay stub renderer tests passed: " + passed + "/" + (passed + failed));
+        if (failed > 0) {
+            System.out.println("⚠️  Some pay stub renderer tests failed");
+        }
+    }
+
+    private static boolean send(StubRow handler, int empid, String name, LocalDate payDate, String gross, String net) {
+        PayStatement p = new PayStatement();
+        p.setEmpid(empid);
+        p.setPayDate(payDate);
+        p.setGrossPay(new BigDecimal(gross));
+        p.setNetPay(new BigDecimal(net));
+        return handler.accept(p, name, "emp" + empid + "@example.com");
+    }
+
+    private static boolean rejects(String template) {
+        try {
+            PayStubTemplate.compileText(template);
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private static void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("   ✅ " + name);
+        } else {
+            failed++;
+            System.out.println("   ❌ " + name);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+import com.employeemgmt.dao.DatabaseConnection;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Pay YTD Trigger Test - needs pay_statement with migration V006 and/or
+ * pay_statements with migration V011 (whichever this database has)
+ * Writes statements the ways the app does (insert, correction upsert, edit,
+ * delete) and checks pay_ytd after each. Everything runs in one transaction
+ * that is rolled back, so nothing is left behind. Uses the years 2091-2094 so
+ * real totals are never in the way.
+ */
+public class PayYtdTriggerTest {
+
+    // table, its upsert (the correction writer's / the pay history backfill's), first test year
+    private static final String[][] TABLES = {
+        { "pay_statement", """
+            INSERT INTO pay_statement (empid, pay_date, gross, taxes, net) VALUES (?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE gross = VALUES(gross), taxes = VALUES(taxes), net = VALUES(net)
+            """, "2091" },
+        // no taxes column: the V011 triggers count gross - net, which the amounts below match
+        { "pay_statements", """
+            INSERT INTO pay_statements (empid, pay_date, gross_pay, net_pay) VALUES (?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE gross_pay = VALUES(gross_pay), net_pay = VALUES(net_pay)
+            """, "2093" }
+    };
+
+    private static int passed = 0;
+    private static int failed = 0;
+
+    public static void main(String[] args) {
+        System.out.println("🧮 Testing pay_ytd triggers (V006/V011)...\n");
+
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getInstance().getAdminConnection();
+            conn.setAutoCommit(false);
+
+            int empid = firstEmployee(conn);
+            if (empid < 0) {
+                System.out.println("⚠️  No employees to write statements for, skipped");
+                return;
+            }
+
+            for (String[] table : TABLES) {
+                if (hasTable(conn, table[0])) {
+                    System.out.println("   " + table[0] + ":");
+                    walk(conn, empid, table, Integer.parseInt(table[2]));
+                }
+            }
+
+        } catch (Exception e) {
+            failed++;
+            System.err.println("❌ pay_ytd trigger test failed: " + e.getMessage());
+        } finally {
+            if (conn != null) {
+                try { conn.rollback(); } catch (SQLException ignored) {}
+            }
+            DatabaseConnection.closeConnection(conn);
+        }
+
+        System.out.println("\n📊 Pay YTD trigger tests passed: " + passed + "/" + (passed + failed));
+        if (failed > 0) {
+            System.out.println("⚠️  Some pay YTD trigger tests failed");
+        }
+    }
+
+    private static void walk(Connection conn, int empid, String[] table, int year) throws SQLException {
+        insert(conn, table, empid, year + "-03-01", "1000.00", "200.00", "800.00");
+        check("insert adds to the year", ytd(conn, empid, year, "1000.00", "200.00", "800.00", 1));
+
+        insert(conn, table, empid, year + "-04-01", "500.00", "100.00", "400.00");
+        check("second statement adds up", ytd(conn, empid, year, "1500.00", "300.00", "1200.00", 2));
+
+        // a correction run rewrites the statement through the (empid, pay_date) key (V003/V007)
+        insert(conn, table, empid, year + "-03-01", "1100.00", "220.00", "880.00");
+        check("correction upsert replaces the old amounts", ytd(conn, empid, year, "1600.00", "320.00", "1280.00", 2));
+
+        update(conn, "UPDATE " + table[0] + " SET pay_date = ? WHERE empid = ? AND pay_date = ?",
+                (year + 1) + "-01-15", empid, year + "-04-01");
+        check("pay date moved into the next year moves the amounts",
+                ytd(conn, empid, year, "1100.00", "220.00", "880.00", 1)
+                        && ytd(conn, empid, year + 1, "500.00", "100.00", "400.00", 1));
+
+        update(conn, "DELETE FROM " + table[0] + " WHERE empid = ? AND pay_date = ?",
+                null, empid, year + "-03-01");
+        check("delete takes the amounts off", ytd(conn, empid, year, "0.00", "0.00", "0.00", 0));
+    }
+
+    private static boolean hasTable(Connection conn, String table) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table);
+            ResultSet rs = ps.executeQuery();
+            return rs.next() && rs.getInt(1) > 0;
+        }
+    }
+
+    private static int firstEmployee(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT MIN(empid) FROM employees");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            int empid = rs.getInt(1);
+            return rs.wasNull() ? -1 : empid;
+        }
+    }
+
+    // one of the TABLES upserts; taxes is only bound where the table has the column
+    private static void insert(Connection conn, String[] table, int empid, String payDate,
+                               String gross, String taxes, String net) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(table[1])) {
+            int i = 1;
+            ps.setInt(i++, empid);
+            ps.setDate(i++, Date.valueOf(payDate));
+            ps.setBigDecimal(i++, new BigDecimal(gross));
+            if ("pay_statement".equals(table[0])) {
+                ps.setBigDecimal(i++, new BigDecimal(taxes));
+            }
+            ps.setBigDecimal(i, new BigDecimal(net));
+            ps.executeUpdate();
+        }
+    }
+
+    // newDate (if any), then empid and the statement's pay date
+    private static void update(Connection conn, String sql, String newDate, int empid, String payDate)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            if (newDate != null) {
+                ps.setDate(i++, Date.valueOf(newDate));
+            }
+            ps.setInt(i++, empid);
+            ps.setDate(i, Date.valueOf(payDate));
+            ps.executeUpdate();
+        }
+    }
+
+    private static boolean ytd(Connection conn, int empid, int year, String gross, String taxes, String net,
+                               int statements) throws SQLException {
+        String sql = "SELECT gross, taxes, net, statements FROM pay_ytd WHERE empid = ? AND pay_year = ?";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, empid);
+            ps.setInt(2, year);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) {
+                return false;
+            }
+            return rs.getBigDecimal("gross").compareTo(new BigDecimal(gross)) == 0
+                    && rs.getBigDecimal("taxes").compareTo(new BigDecimal(taxes)) == 0
+                    && rs.getBigDecimal("net").compareTo(new BigDecimal(net)) == 0
+                    && rs.getInt("statements") == statements;
+        }
+    }
+
+    private static void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("   ✅ " + name);
+        } else {
+            failed++;
+            System.out.println("   ❌ " + name);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+import com.employeemgmt.models.Payroll;
+import com.employeemgmt.services.PayrollCentsKernel;
+import com.employeemgmt.services.PayrollCentsKernel.Statement;
+import com.employeemgmt.services.PayrollDeductions;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Payroll Cents Kernel Test - runs without a database
+ * Differential test: the long-cents kernel must give exactly (value and scale)
+ * the same statement as the BigDecimal rules, over millions of random inputs.
+ *
+ * java PayrollCentsKernelTest [inputs]   (default 3,000,000)
+ */
+public class PayrollCentsKernelTest {
+
+    private static final int[] PERIODS = {1, 2, 4, 12, 24, 26, 52, 7, 13};
+    private static final LocalDate PAY_DATE = LocalDate.of(2025, 6, 1);
+
+    private static int passed = 0;
+    private static int failed = 0;
+
+    public static void main(String[] args) {
+        System.out.println("🧮 Testing Payroll Cents Kernel...\n");
+        int inputs = args.length > 0 ? Integer.parseInt(args[0]) : 3_000_000;
+
+        // hand-picked cases
+        PayrollDeductions rules = new PayrollDeductions(12,
+                new BigDecimal("0.12"), new BigDecimal("0.05"), new BigDecimal("0.062"),
+                new BigDecimal("0.0145"), new BigDecimal("0.04"), new BigDecimal("150"));
+        PayrollCentsKernel kernel = PayrollCentsKernel.compile(rules);
+        Statement s = new Statement();
+
+        check("kernel compiles for the default rules", kernel != null);
+        check("50,000/yr matches", kernel.compute(5_000_000, s) && same(rules, kernel, new BigDecimal("50000")));
+        // 0.06 / 12 = 0.005 -> HALF_UP to 0.01
+        check("half cent rounds up", kernel.compute(6, s) && s.getGross() == 1 && same(rules, kernel, new BigDecimal("0.06")));
+        check("health capped at gross", kernel.compute(120_000, s) && s.getHealth() == 10_000
+                && same(rules, kernel, new BigDecimal("1200.00")));
+        check("cents conversion", PayrollCentsKernel.centsOf(new BigDecimal("12.5")) == 1250
+                && PayrollCentsKernel.centsOf(new BigDecimal("12.50000")) == 1250
+                && PayrollCentsKernel.centsOf(new BigDecimal("1E+3")) == 100_000
+                && PayrollCentsKernel.centsOf(new BigDecimal("12.505")) == PayrollCentsKernel.NOT_CENTS);
+
+        // random rules and salaries, every field compared with equals()
+        Random rnd = new Random(20250601L);
+        long mismatches = 0;
+        long fallbacks = 0;
+        String firstMismatch = null;
+        long began = System.nanoTime();
+        for (int i = 0; i < inputs; i++) {
+            if (i % 10_000 == 0) {
+                rules = randomRules(rnd);
+                kernel = PayrollCentsKernel.compile(rules);
+            }
+            BigDecimal salary = randomSalary(rnd, rules.getPeriodsPerYear());
+            if (!kernel.compute(PayrollCentsKernel.centsOf(salary), s)) {
+                fallbacks++;
+                continue;
+            }
+            if (!same(rules, kernel, salary)) {
+                mismatches++;
+                if (firstMismatch == null) firstMismatch = salary + " with " + rules;
+            }
+        }
+        long tookMs = (System.nanoTime() - began) / 1_000_000;
+        if (firstMismatch != null) System.out.println("   first mismatch: " + firstMismatch);
+        check(inputs + " random inputs bit-identical (" + tookMs + "ms, " + fallbacks + " fell back)", mismatches == 0);
+
+        // the hot loop shouldn't allocate
+        PayrollCentsKernel hot = PayrollCentsKernel.compile(new PayrollDeductions(26,
+                new BigDecimal("0.22"), new BigDecimal("0.0575"), new BigDecimal("0.062"),
+                new BigDecimal("0.0145"), new BigDecimal("0.05"), new BigDecimal("87.50")));
+        long sink = 0;
+        for (int i = 0; i < 200_000; i++) { hot.compute(3_000_000L + i, s); sink += s.getNet(); } // warm up
+        long before = allocatedBytes();
+        for (int i = 0; i < 1_000_000; i++) {
+            hot.compute(3_000_000L + i * 37L, s);
+            sink += s.getNet();
+        }
+        long allocated = allocatedBytes() - before;
+        check("1M kernel calls allocate ~nothing (" + allocated + " bytes, checksum " + (sink & 0xff) + ")",
+                allocated < 0 || allocated < 64 * 1024);
+
+        System.out.println("\n📊 Payroll cents kernel tests passed: " + passed + "/" + (passed + failed));
+        if (failed > 0) {
+            System.out.println("⚠️  Some payroll cents kernel tests failed");
+        }
+    }
+
+    // kernel result vs the BigDecimal rules, field by field (value and scale)
+    private static boolean same(PayrollDeductions rules, PayrollCentsKernel kernel, BigDecimal salary) {
+        Statement s = new Statement();
+        if (!kernel.compute(PayrollCentsKernel.centsOf(salary), s)) return false;
+        Payroll p = rules.statementFor(1, PAY_DATE, salary);
+        return p.getGrossPay().equals(money(s.getGross()))
+                && p.getFederalTax().equals(money(s.getFederal()))
+                && p.getStateTax().equals(money(s.getState()))
+                && p.getFederalSocialSecurity().equals(money(s.getSocialSecurity()))
+                && p.getFederalMedicare().equals(money(s.getMedicare()))
+                && p.getRetirement401k().equals(money(s.getRetirement401k()))
+                && p.getHealthCare().equals(money(s.getHealth()))
+                && p.getTotalTaxDeductions().equals(money(s.getTaxes()))
+                && p.getTotalDeductions().equals(money(s.getDeductions()))
+                && p.getNetPay().equals(money(s.getNet()))
+                && p.getTotalEarnings().equals(money(s.getGross()));
+    }
+
+    private static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static PayrollDeductions randomRules(Random rnd) {
+        return new PayrollDeductions(PERIODS[rnd.nextInt(PERIODS.length)],
+                randomRate(rnd), randomRate(rnd), randomRate(rnd), randomRate(rnd), randomRate(rnd),
+                BigDecimal.valueOf(rnd.nextInt(100_000), rnd.nextInt(3)));
+    }
+
+    // 0 - 50% with 0 to 6 decimals, sometimes exactly 0
+    private static BigDecimal randomRate(Random rnd) {
+        if (rnd.nextInt(20) == 0) return BigDecimal.ZERO;
+        int scale = 2 + rnd.nextInt(5);
+        long max = 5 * (long) Math.pow(10, scale - 1);
+        return BigDecimal.valueOf(1 + (long) (rnd.nextDouble() * max), scale);
+    }
+
+    // whole-cent salaries up to DECIMAL(12,2); a third sit right on a half-cent gross
+    private static BigDecimal randomSalary(Random rnd, int periods) {
+        long cents;
+        switch (rnd.nextInt(3)) {
+            case 0:
+                cents = 3_000_000L + (long) (rnd.nextDouble() * 47_000_000L);   // 30k - 500k
+                break;
+            case 1:
+                cents = 1 + (long) (rnd.nextDouble() * 99_999_999_999L);       // anything that fits
+                break;
+            default:
+                long gross = 1 + rnd.nextInt(5_000_000);
+                cents = gross * periods + periods / 2 + (periods % 2 == 0 ? 0 : rnd.nextInt(2));
+        }
+        // same amount written with different scales: 50000, 50000.0, 50000.00
+        BigDecimal salary = BigDecimal.valueOf(cents, 2);
+        if (cents % 100 == 0 && rnd.nextBoolean()) salary = salary.setScale(rnd.nextInt(2));
+        return salary;
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return Long.MIN_VALUE; // can't tell on this JVM
+    }
+
+    private static void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("   ✅ " + name);
+        } else {
+            failed++;
+            System.out.println("   ❌ " + name);
+        }
+    }
+}
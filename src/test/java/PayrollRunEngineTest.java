@@ -0,0 +1,245 @@
+import com.employeemgmt.dao.PayrollDAO.EmployeeSalary;
+import com.employeemgmt.models.Payroll;
+import com.employeemgmt.services.PayrollDeductions;
+import com.employeemgmt.services.PayrollRunEngine;
+import com.employeemgmt.services.PayrollRunEngine.RunResult;
+import com.employeemgmt.services.PayrollRunEngine.SalarySource;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Payroll Run Engine Test - runs without a database
+ * Checks the deduction rules, that the parallel compute matches a plain loop,
+ * that the pipelined run applies backpressure and stops cleanly on errors,
+ * that an interrupted run resumes from its checkpoint without paying anyone twice,
+ * and which employees a correction run picks from its watermark and slack
+ */
+public class PayrollRunEngineTest {
+
+    private static int passed = 0;
+    private static int failed = 0;
+
+    public static void main(String[] args) {
+        System.out.println("🧮 Testing Payroll Run Engine...\n");
+
+        // monthly, 12% federal, 5% state, 6.2% SS, 1.45% medicare, 4% 401k, $150 health
+        PayrollDeductions rules = new PayrollDeductions(12,
+                new BigDecimal("0.12"), new BigDecimal("0.05"), new BigDecimal("0.062"),
+                new BigDecimal("0.0145"), new BigDecimal("0.04"), new BigDecimal("150"));
+        LocalDate payDate = LocalDate.of(2025, 3, 1);
+
+        // 60,000 a year -> 5,000.00 a month
+        Payroll p = rules.statementFor(7, payDate, new BigDecimal("60000"));
+        check("period gross", p.getGrossPay().compareTo(new BigDecimal("5000.00")) == 0);
+        check("federal + state + FICA", p.getTotalTaxDeductions().compareTo(new BigDecimal("1232.50")) == 0);
+        check("401k and health", p.getRetirement401k().compareTo(new BigDecimal("200.00")) == 0
+                && p.getHealthCare().compareTo(new BigDecimal("150.00")) == 0);
+        check("net = gross - all deductions", p.getNetPay().compareTo(new BigDecimal("3417.50")) == 0);
+
+        // rounding: 50,000 / 12 = 4166.666.. -> 4166.67, medicare 60.416.. -> 60.42
+        Payroll r = rules.statementFor(8, payDate, new BigDecimal("50000"));
+        check("cents rounded HALF_UP", r.getGrossPay().compareTo(new BigDecimal("4166.67")) == 0
+                && r.getFederalMedicare().compareTo(new BigDecimal("60.42")) == 0);
+
+        check("no salary -> no statement", rules.statementFor(9, payDate, null) == null
+                && rules.statementFor(9, payDate, BigDecimal.ZERO) == null);
+
+        // parallel compute matches a plain loop
+        List<EmployeeSalary> salaries = new ArrayList<>();
+        Random rnd = new Random(42);
+        for (int i = 1; i <= 20_000; i++) {
+            BigDecimal salary = (i % 997 == 0) ? null : BigDecimal.valueOf(30_000_00L + rnd.nextInt(470_000_00), 2);
+            salaries.add(new EmployeeSalary(i, salary));
+        }
+
+        BigDecimal expectedNet = BigDecimal.ZERO;
+        int expectedCount = 0;
+        for (EmployeeSalary s : salaries) {
+            Payroll one = rules.statementFor(s.getEmpid(), payDate, s.getBaseSalary());
+            if (one != null) {
+                expectedNet = expectedNet.add(one.getNetPay());
+                expectedCount++;
+            }
+        }
+
+        PayrollRunEngine engine = new PayrollRunEngine(null, rules, 4);
+        try {
+            RunResult result = engine.compute(salaries, payDate);
+            check("every salaried employee computed", result.getEmployeeCount() == expectedCount
+                    && result.getSkipped() == salaries.size() - expectedCount);
+            check("parallel totals match sequential", result.getTotalNet().compareTo(expectedNet) == 0);
+
+            boolean ordered = true;
+            for (int i = 1; i < result.getStatements().size(); i++) {
+                if (result.getStatements().get(i - 1).getEmpid() >= result.getStatements().get(i).getEmpid()) {
+                    ordered = false;
+                }
+            }
+            check("statements stay in empid order", ordered);
+            check("gross = net + deductions", result.getTotalGross()
+                    .compareTo(result.getTotalNet().add(result.getTotalDeductions())) == 0);
+            System.out.println("   ⏱  " + result);
+        } finally {
+            engine.shutdown();
+        }
+
+        // pipelined run: small chunks and queues so backpressure kicks in
+        int chunk = 100, queue = 2, threads = 3;
+        PayrollRunEngine pipeline = new PayrollRunEngine(null, rules, threads, chunk, queue, true);
+        try {
+            AtomicInteger read = new AtomicInteger();
+            AtomicInteger stored = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+            SalarySource source = handler -> {
+                int n = 0;
+                for (EmployeeSalary s : salaries) {
+                    read.incrementAndGet();
+                    n++;
+                    if (!handler.test(s)) break;
+                }
+                return n;
+            };
+            RunResult piped = pipeline.run(payDate, source, batch -> {
+                sleep(2); // slow database
+                maxInFlight.accumulateAndGet(read.get() - stored.get(), Math::max);
+                stored.addAndGet(batch.size());
+                return batch.size();
+            });
+            check("pipeline succeeds and writes everything", piped.isSuccess()
+                    && piped.getWritten() == expectedCount && piped.getEmployeeCount() == expectedCount);
+            check("pipeline totals match", piped.getTotalNet().compareTo(expectedNet) == 0
+                    && piped.getSkipped() == salaries.size() - expectedCount);
+            // skipped employees are read but never stored, so they count as "in flight" here
+            int bound = chunk * (2 * queue + threads + 2) + (salaries.size() - expectedCount);
+            check("reader held back by slow writer (max in flight " + maxInFlight.get() + " <= " + bound + ")",
+                    maxInFlight.get() <= bound);
+            System.out.println("   ⏱  " + piped);
+
+            RunResult broken = pipeline.run(payDate, source, batch -> {
+                throw new SQLException("disk full");
+            });
+            check("write failure stops the run", !broken.isSuccess()
+                    && broken.getFailure().contains("disk full") && broken.getWritten() == 0);
+            PayrollRunEngine bigDecimalOnly = new PayrollRunEngine(null, rules, threads, chunk, queue, false);
+            RunResult slow = bigDecimalOnly.run(payDate, source, batch -> batch.size());
+            bigDecimalOnly.shutdown();
+            check("fixed-point and BigDecimal runs agree", pipeline.isFixedPoint() && !bigDecimalOnly.isFixedPoint()
+                    && slow.getTotalNet().equals(piped.getTotalNet()) && slow.getTotalTaxes().equals(piped.getTotalTaxes()));
+
+            check("failed read is reported", !pipeline.run(payDate, handler -> -1, batch -> batch.size()).isSuccess());
+
+            // crash halfway, then resume from the checkpoint into an (empid, pay_date)-keyed "table"
+            Set<Integer> table = ConcurrentHashMap.newKeySet();
+            AtomicInteger checkpoint = new AtomicInteger(0);
+            AtomicInteger batches = new AtomicInteger();
+            AtomicInteger behindCommitted = new AtomicInteger();
+            RunResult crashed = pipeline.run(payDate, source, batch -> {
+                if (batches.incrementAndGet() > 60) throw new SQLException("connection lost");
+                int written = 0;
+                for (int i = 0; i < batch.size(); i++) {
+                    if (table.add(batch.getEmpid(i))) written++;
+                }
+                if (batch.getCheckpoint() >= 0) {
+                    // every salaried employee up to the checkpoint must already be in the table
+                    for (EmployeeSalary s : salaries) {
+                        if (s.getEmpid() > batch.getCheckpoint()) break;
+                        if (s.getBaseSalary() != null && !table.contains(s.getEmpid())) behindCommitted.incrementAndGet();
+                    }
+                    checkpoint.accumulateAndGet(batch.getCheckpoint(), Math::max);
+                }
+                return written;
+            });
+            check("interrupted run stops with a checkpoint (" + checkpoint.get() + ")", !crashed.isSuccess()
+                    && checkpoint.get() > 0 && checkpoint.get() < salaries.size() && behindCommitted.get() == 0);
+
+            int resumeAfter = checkpoint.get();
+            AtomicInteger duplicates = new AtomicInteger();
+            SalarySource rest = handler -> {
+                int n = 0;
+                for (EmployeeSalary s : salaries) {
+                    if (s.getEmpid() <= resumeAfter) continue;
+                    n++;
+                    if (!handler.test(s)) break;
+                }
+                return n;
+            };
+            RunResult resumed = pipeline.run(payDate, rest, batch -> {
+                int written = 0;
+                for (int i = 0; i < batch.size(); i++) {
+                    if (table.add(batch.getEmpid(i))) written++; else duplicates.incrementAndGet();
+                }
+                return written;
+            });
+            check("resumed run pays everyone exactly once (" + duplicates.get() + " redone rows skipped)",
+                    resumed.isSuccess() && table.size() == expectedCount
+                    && crashed.getWritten() + resumed.getWritten() == expectedCount);
+
+            // correction run: the watermark is pushed back by the slack, so an edit that was still
+            // uncommitted while the last run read salaries is picked up; older edits are not
+            LocalDateTime watermark = LocalDateTime.of(2025, 3, 1, 9, 0);
+            int slack = pipeline.getChangeSlackSeconds();
+            Map<Integer, LocalDateTime> updatedAt = new HashMap<>();
+            updatedAt.put(1, watermark.plusMinutes(30));               // raised after the run
+            updatedAt.put(2, watermark.minusSeconds(slack / 2));       // inside the slack window
+            updatedAt.put(3, watermark.minusSeconds(slack + 60));      // settled before the run
+            updatedAt.put(4, watermark.minusDays(3));
+            updatedAt.put(5, watermark.plusSeconds(1));
+            List<LocalDateTime> askedFor = new ArrayList<>();
+            PayrollRunEngine.ChangedSource changed = (after, handler) -> {
+                askedFor.add(after);
+                int n = 0;
+                for (EmployeeSalary s : salaries.subList(0, 5)) {
+                    if (!updatedAt.get(s.getEmpid()).isAfter(after)) continue;
+                    n++;
+                    if (!handler.test(s)) break;
+                }
+                return n;
+            };
+            Set<Integer> recomputed = ConcurrentHashMap.newKeySet();
+            RunResult correction = pipeline.runChanged(payDate, watermark, changed, batch -> {
+                for (int i = 0; i < batch.size(); i++) recomputed.add(batch.getEmpid(i));
+                return batch.size();
+            });
+            check("correction reads from watermark minus slack", askedFor.size() == 1
+                    && askedFor.get(0).equals(watermark.minusSeconds(slack)));
+            check("changed and in-slack employees recomputed, settled ones left alone", correction.isSuccess()
+                    && recomputed.equals(Set.of(1, 2, 5)) && correction.getWritten() == 3);
+        } finally {
+            pipeline.shutdown();
+        }
+
+        System.out.println("\n📊 Payroll run engine tests passed: " + passed + "/" + (passed + failed));
+        if (failed > 0) {
+            System.out.println("⚠️  Some payroll run engine tests failed");
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("   ✅ " + name);
+        } else {
+            failed++;
+            System.out.println("   ❌ " + name);
+        }
+    }
+}
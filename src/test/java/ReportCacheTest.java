@@ -0,0 +1,90 @@
+import com.employeemgmt.dao.ReportCache;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Report Cache Test - runs without a database
+ * Uses fake loaders to check hits, month-scoped invalidation and range reports
+ */
+public class ReportCacheTest {
+
+    private static int passed = 0;
+    private static int failed = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🗃️  Testing Report Cache...\n");
+
+        ReportCache cache = ReportCache.getInstance();
+        cache.clear();
+
+        AtomicInteger loads = new AtomicInteger();
+        ReportCache.Loader<String> loader = () -> {
+            loads.incrementAndGet();
+            return List.of("row");
+        };
+
+        // closed month: second call is a hit
+        cache.get("payByJob", 2024, 3, loader);
+        cache.get("payByJob", 2024, 3, loader);
+        check("closed month cached", loads.get() == 1);
+
+        // different params are different entries
+        cache.get("payByJob", 2024, 4, loader);
+        cache.get("payByDivision", 2024, 3, loader);
+        check("keyed by type and month", loads.get() == 3);
+
+        // range report covering March
+        cache.get("trend", YearMonth.of(2024, 1), YearMonth.of(2024, 6), loader);
+        check("range cached", cache.size() == 4);
+
+        // a write in March drops March reports and the range, but not April
+        cache.invalidate(LocalDate.of(2024, 3, 15));
+        check("march + range evicted", cache.size() == 1);
+        cache.get("payByJob", 2024, 4, loader);
+        check("april still cached", loads.get() == 4);
+        cache.get("payByJob", 2024, 3, loader);
+        check("march reloaded", loads.get() == 5);
+
+        // a failing loader is not cached
+        try {
+            cache.get("broken", 2024, 5, () -> { throw new java.sql.SQLException("boom"); });
+            check("failure propagates", false);
+        } catch (java.sql.SQLException expected) {
+            check("failure propagates", true);
+        }
+        check("failure not cached", cache.size() == 2);
+
+        // a write that lands while a load is running wins over the stale result
+        cache.get("racy", 2024, 7, () -> {
+            cache.invalidateMonth(YearMonth.of(2024, 7));
+            return List.of("stale");
+        });
+        check("racing load discarded", cache.size() == 2);
+
+        // listeners hear the month and whether statements were only added
+        List<String> heard = new ArrayList<>();
+        cache.addInvalidationListener((month, write) -> heard.add(month + " " + write));
+        cache.invalidate(LocalDate.of(2024, 8, 1), ReportCache.Write.INSERTED);
+        cache.invalidate(LocalDate.of(2024, 9, 1));
+        check("listeners told inserts from edits", heard.equals(List.of("2024-08 INSERTED", "2024-09 CHANGED")));
+
+        System.out.println("\n📊 Report cache tests passed: " + passed + "/" + (passed + failed));
+        if (failed > 0) {
+            System.out.println("⚠️  Some report cache tests failed");
+        }
+    }
+
+    private static void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("   ✅ " + name);
+        } else {
+            failed++;
+            System.out.println("   ❌ " + name);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+import com.employeemgmt.dao.ReportDAO.NameAndTotal;
+import com.employeemgmt.services.CsvReportSink;
+import com.employeemgmt.services.JsonReportSink;
+import com.employeemgmt.services.ReportSink;
+import com.employeemgmt.services.TextReportSink;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Report Sink Test - runs without a database
+ * Pushes rows through the text / CSV / JSON sinks and checks the output
+ */
+public class ReportSinkTest {
+
+    private static int passed = 0;
+    private static int failed = 0;
+
+    private static final ReportSink.Header<NameAndTotal> HEADER = new ReportSink.Header<>(
+            "Total net pay by division for 2024-03",
+            List.of(new ReportSink.Column<NameAndTotal>("division", NameAndTotal::getName),
+                    new ReportSink.Column<NameAndTotal>("total_net", NameAndTotal::getTotalNet)),
+            "No pay data found for that month.");
+
+    public static void main(String[] args) {
+        System.out.println("🧾 Testing Report Sinks...\n");
+
+        List<NameAndTotal> rows = List.of(
+                new NameAndTotal("Sales, East", new BigDecimal("1200.50")),
+                new NameAndTotal("R\"D", new BigDecimal("99.00")));
+
+        // text sink keeps the old List<String> report format
+        List<String> lines = new ArrayList<>();
+        run(TextReportSink.toLines(lines, r -> r.getName() + " -> " + r.getTotalNet()), rows);
+        check("text title first", lines.get(0).equals("Total net pay by division for 2024-03"));
+        check("text one line per row", lines.size() == 4 && lines.get(2).equals("Sales, East -> 1200.50"));
+
+        // empty report prints only the message, no title
+        lines.clear();
+        run(TextReportSink.toLines(lines, r -> r.getName()), List.of());
+        check("text empty message", lines.equals(List.of("No pay data found for that month.")));
+
+        // default text format joins columns
+        StringBuilder sb = new StringBuilder();
+        run(new TextReportSink<>(sb), rows.subList(0, 1));
+        check("text default columns", sb.toString().contains("Sales, East | 1200.50"));
+
+        // csv quotes everything
+        StringWriter csv = new StringWriter();
+        run(new CsvReportSink<>(csv), rows);
+        check("csv header", csv.toString().startsWith("\"division\",\"total_net\"\n"));
+        check("csv escaping", csv.toString().contains("\"R\"\"D\",\"99.00\""));
+
+        // json is valid-looking and keeps numbers as numbers
+        StringWriter json = new StringWriter();
+        run(new JsonReportSink<>(json), rows);
+        String j = json.toString();
+        check("json rows", j.contains("{\"division\":\"Sales, East\",\"total_net\":1200.50}"));
+        check("json escaping", j.contains("\"R\\\"D\""));
+        check("json count", j.trim().endsWith("],\"count\":2}"));
+
+        StringWriter emptyJson = new StringWriter();
+        run(new JsonReportSink<>(emptyJson), List.of());
+        check("json empty", emptyJson.toString().contains("\"rows\":[\n],\"count\":0}"));
+
+        // a report that broke off says so instead of looking complete
+        lines.clear();
+        ReportSink<NameAndTotal> cut = TextReportSink.toLines(lines, r -> r.getName());
+        cut.begin(HEADER);
+        cut.row(rows.get(0));
+        cut.failed("connection lost");
+        check("text marks a cut-off report", lines.get(lines.size() - 1).equals("Report incomplete: connection lost"));
+
+        StringWriter cutJson = new StringWriter();
+        JsonReportSink<NameAndTotal> js = new JsonReportSink<>(cutJson);
+        js.begin(HEADER);
+        js.row(rows.get(0));
+        js.failed("connection lost");
+        check("json cut-off has error, no count", cutJson.toString().trim().endsWith("],\"error\":\"connection lost\"}")
+                && !cutJson.toString().contains("\"count\""));
+
+        CsvReportSink<NameAndTotal> cs = new CsvReportSink<>(new StringWriter());
+        check("csv denial goes to the caller", throwsIllegalState(() -> cs.denied("Access denied: HR Admin only.")));
+        cs.begin(HEADER);
+        check("csv failure goes to the caller", throwsIllegalState(() -> cs.failed("connection lost")));
+
+        System.out.println("\n📊 Report sink tests passed: " + passed + "/" + (passed + failed));
+        if (failed > 0) {
+            System.out.println("⚠️  Some report sink tests failed");
+        }
+    }
+
+    private static void run(ReportSink<NameAndTotal> sink, List<NameAndTotal> rows) {
+        sink.begin(HEADER);
+        rows.forEach(sink::row);
+        sink.end(rows.size());
+    }
+
+    private static boolean throwsIllegalState(Runnable r) {
+        try {
+            r.run();
+            return false;
+        } catch (IllegalStateException e) {
+            return true;
+        }
+    }
+
+    private static void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("   ✅ " + name);
+        } else {
+            failed++;
+            System.out.println("   ❌ " + name);
+        }
+    }
+}
@@ -0,0 +1,403 @@
+import com.employeemgmt.dao.SalaryUpdateJobDAO;
+import com.employeemgmt.services.SalaryBulkUpdateJob;
+import com.employeemgmt.services.SalaryBulkUpdateJob.Result;
+import com.employeemgmt.services.SalaryRaiseSimulator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Salary Bulk Update Job Test - runs without a database
+ * Runs the job against an in-memory SalaryUpdateJobDAO that does what its SQL
+ * does, and checks chunk sizes, throttling, resuming after a failed run
+ * (and not after a long one), refusing a live job, the column scales the job is looked up with, and
+ * applying a Salary Tools preview chunk by chunk.
+ */
+public class SalaryBulkUpdateJobTest {
+
+    private static final BigDecimal MIN = new BigDecimal("50000.00");
+    private static final BigDecimal MAX = new BigDecimal("60000.00");
+
+    private static int passed = 0;
+    private static int failed = 0;
+
+    public static void main(String[] args) {
+        System.out.println("💰 Testing Salary Bulk Update Job...\n");
+
+        // chunking: 1,050 employees in the band, every third one outside it
+        FakeJobDAO dao = new FakeJobDAO(1_575);
+        Map<Integer, BigDecimal> before = new TreeMap<>(dao.salaries);
+        List<Integer> progress = new ArrayList<>();
+        Result r = new SalaryBulkUpdateJob(dao, 100, 0, 10).run(3, 50000, 60000, p -> progress.add(p.getUpdatedThisRun()));
+        check("whole band raised in one run", r.isSuccess() && r.getUpdated() == 1_050 && r.getResumedAfter() == 0);
+        check("chunks of 100 and a last one of 50", dao.chunkSizes.size() == 11
+                && dao.chunkSizes.subList(0, 10).stream().allMatch(n -> n == 100) && dao.chunkSizes.get(10) == 50);
+        check("progress after every chunk", progress.size() == 11 && progress.get(10) == 1_050);
+        check("everyone in the band raised once, nobody else", raisedOnce(before, dao.salaries, new BigDecimal("1.03")));
+        check("job completed", dao.jobs.get(0).status.equals("COMPLETED"));
+
+        // throttling: 1,000 rows at 2,000 rows/s take about half a second
+        FakeJobDAO slow = new FakeJobDAO(1_500);
+        long t0 = System.nanoTime();
+        Result throttled = new SalaryBulkUpdateJob(slow, 100, 2_000, 10).run(3, 50000, 60000, p -> { });
+        long throttledMillis = (System.nanoTime() - t0) / 1_000_000;
+        FakeJobDAO fast = new FakeJobDAO(1_500);
+        t0 = System.nanoTime();
+        new SalaryBulkUpdateJob(fast, 100, 0, 10).run(3, 50000, 60000, p -> { });
+        long fastMillis = (System.nanoTime() - t0) / 1_000_000;
+        check("throttled to 2,000 rows/s (" + throttledMillis + "ms)", throttled.isSuccess()
+                && throttledMillis >= 450 && throttledMillis < 2_000);
+        check("no limit means no sleeping (" + fastMillis + "ms)", fastMillis < 200);
+
+        // resume: the run dies after 3 chunks, the next run of the same raise carries on
+        FakeJobDAO crashing = new FakeJobDAO(1_575);
+        before = new TreeMap<>(crashing.salaries);
+        crashing.failAtChunk = 4;
+        Result first = new SalaryBulkUpdateJob(crashing, 100, 0, 10).run(3, 50000, 60000, p -> { });
+        FakeJob job = crashing.jobs.get(0);
+        check("failed run leaves a FAILED job with its watermark", !first.isSuccess() && job.status.equals("FAILED")
+                && job.lastEmpid > 0 && job.rowsUpdated == 300);
+        crashing.failAtChunk = -1;
+        int watermark = job.lastEmpid;
+        Result second = new SalaryBulkUpdateJob(crashing, 100, 0, 10).run(3, 50000, 60000, p -> { });
+        check("second run resumes the same job after its watermark", second.isSuccess()
+                && second.getJobId() == job.jobId && second.getResumedAfter() == watermark
+                && crashing.jobs.size() == 1 && crashing.firstChunkAfter.get(5) == watermark);
+        check("resumed job raised everyone once", second.getUpdated() == 1_050
+                && raisedOnce(before, crashing.salaries, new BigDecimal("1.03")));
+
+        // a RUNNING job with a recent chunk is left alone; a stale one is taken over
+        FakeJobDAO live = new FakeJobDAO(30);
+        live.jobs.add(new FakeJob(7, MIN, MAX, new BigDecimal("3.000000"), "RUNNING", 0, 60));
+        Result refused = new SalaryBulkUpdateJob(live, 100, 0, 10).run(3, 50000, 60000, p -> { });
+        check("live job refused, nothing written", !refused.isSuccess() && refused.getMessage().contains("#7")
+                && live.chunkSizes.isEmpty());
+        live.jobs.get(0).idleSeconds = 600;
+        Result takenOver = new SalaryBulkUpdateJob(live, 100, 0, 10).run(3, 50000, 60000, p -> { });
+        check("stale job taken over", takenOver.isSuccess() && takenOver.getJobId() == 7 && live.jobs.size() == 1);
+
+        // an interrupted job from two days ago isn't resumed: the same numbers are a new raise
+        FakeJobDAO old = new FakeJobDAO(1_575);
+        old.jobs.add(new FakeJob(9, MIN, MAX, new BigDecimal("3.000000"), "FAILED", 600, 2 * 86_400));
+        Result fresh = new SalaryBulkUpdateJob(old, 100, 0, 10, 24).run(3, 50000, 60000, p -> { });
+        check("old failed job left alone, new job from the start", fresh.isSuccess() && fresh.getJobId() != 9
+                && fresh.getResumedAfter() == 0 && fresh.getUpdated() == 1_050 && old.jobs.get(0).status.equals("FAILED"));
+        FakeJobDAO dead = new FakeJobDAO(30);
+        dead.jobs.add(new FakeJob(11, MIN, MAX, new BigDecimal("3.000000"), "RUNNING", 5, 2 * 86_400));
+        Result restarted = new SalaryBulkUpdateJob(dead, 100, 0, 10, 24).run(3, 50000, 60000, p -> { });
+        check("long dead running job expired, new job from the start", restarted.isSuccess()
+                && restarted.getJobId() != 11 && restarted.getResumedAfter() == 0
+                && dead.jobs.get(0).status.equals("FAILED"));
+
+        // percent and band as the DECIMAL columns hold them
+        FakeJobDAO scales = new FakeJobDAO(30);
+        new SalaryBulkUpdateJob(scales, 100, 0, 10).run(3.5, 50000, 60000, p -> { });
+        check("looked up as DECIMAL(12,6) / DECIMAL(12,2)", scales.lookedUp.size() == 1
+                && scales.lookedUp.get(0).equals(List.of(MIN, MAX, new BigDecimal("3.500000"))));
+        check("raise that would be rounded is refused", !new SalaryBulkUpdateJob(scales, 100, 0, 10)
+                .run(1.0000001, 50000, 60000, null).isSuccess()
+                && !new SalaryBulkUpdateJob(scales, 100, 0, 10).run(3, 50000.001, 60000, null).isSuccess()
+                && !new SalaryBulkUpdateJob(scales, 100, 0, 10).run(3, 50000, 1e12, null).isSuccess()
+                && scales.lookedUp.size() == 1);
+
+        // two runs starting the same raise: the unique key (V009) turns the second start down
+        FakeJobDAO racing = new FakeJobDAO(30);
+        racing.hideRunning = true;
+        racing.jobs.add(new FakeJob(3, MIN, MAX, new BigDecimal("3.000000"), "RUNNING", 0, 0));
+        Result lost = new SalaryBulkUpdateJob(racing, 100, 0, 10).run(3, 50000, 60000, p -> { });
+        check("second start of a running raise refused", !lost.isSuccess()
+                && lost.getMessage().contains("just started") && racing.chunkSizes.isEmpty());
+
+        // a run whose job was taken over stops and leaves the job to the other run
+        FakeJobDAO stolen = new FakeJobDAO(1_575);
+        stolen.stealAtChunk = 2;
+        Result stopped = new SalaryBulkUpdateJob(stolen, 100, 0, 10).run(3, 50000, 60000, p -> { });
+        check("taken over run stops without failing the job", !stopped.isSuccess()
+                && stopped.getMessage().contains("taken over") && stolen.jobs.get(0).status.equals("RUNNING")
+                && stolen.chunkSizes.size() == 1);
+
+        // a preview is applied in chunks too, exactly as previewed
+        FakeJobDAO previewed = new FakeJobDAO(1_575);
+        before = new TreeMap<>(previewed.salaries);
+        Result applied = new SalaryBulkUpdateJob(previewed, 100, 0, 10).apply(preview(previewed, "3"), p -> { });
+        check("preview applied in chunks of 100", applied.isSuccess() && applied.getUpdated() == 1_050
+                && previewed.chunkSizes.size() == 11 && previewed.chunkSizes.get(10) == 50
+                && previewed.jobs.get(0).status.equals("COMPLETED"));
+        check("preview's salaries written, once each", raisedOnce(before, previewed.salaries, new BigDecimal("1.03")));
+
+        // band moved between preview and apply: nothing written, no job
+        FakeJobDAO moved = new FakeJobDAO(300);
+        SalaryRaiseSimulator.Preview stale = preview(moved, "3");
+        moved.salaries.put(1, moved.salaries.get(1).add(BigDecimal.ONE));
+        Result refusedPreview = new SalaryBulkUpdateJob(moved, 100, 0, 10).apply(stale, p -> { });
+        check("out of date preview writes nothing", !refusedPreview.isSuccess()
+                && refusedPreview.getMessage().contains("preview again") && moved.chunkSizes.isEmpty()
+                && moved.jobs.isEmpty());
+
+        // a salary moves under the 3rd chunk: the first two stay, a new preview carries on after them
+        FakeJobDAO racedPreview = new FakeJobDAO(1_575);
+        before = new TreeMap<>(racedPreview.salaries);
+        racedPreview.changeAtChunk = 3;
+        Result cut = new SalaryBulkUpdateJob(racedPreview, 100, 0, 10).apply(preview(racedPreview, "3"), p -> { });
+        FakeJob cutJob = racedPreview.jobs.get(0);
+        check("changed chunk stops the job after the committed ones", !cut.isSuccess()
+                && cut.getUpdated() == 200 && cutJob.status.equals("FAILED") && cutJob.rowsUpdated == 200);
+        before.put(racedPreview.changedEmpid, racedPreview.salaries.get(racedPreview.changedEmpid));
+        racedPreview.changeAtChunk = -1;
+        int cutAt = cutJob.lastEmpid;
+        Result rest = new SalaryBulkUpdateJob(racedPreview, 100, 0, 10).apply(preview(racedPreview, "3"), p -> { });
+        check("new preview of the same raise resumes after the watermark", rest.isSuccess()
+                && rest.getJobId() == cutJob.jobId && rest.getResumedAfter() == cutAt
+                && rest.getUpdated() == 1_050 && racedPreview.jobs.size() == 1);
+        check("nobody raised twice", raisedOnce(before, racedPreview.salaries, new BigDecimal("1.03")));
+
+        System.out.println("\n📊 Salary bulk update job tests passed: " + passed + "/" + (passed + failed));
+        if (failed > 0) {
+            System.out.println("⚠️  Some salary bulk update job tests failed");
+        }
+    }
+
+    // band members got exactly one raise (rounded to cents), everyone else kept their salary
+    private static boolean raisedOnce(Map<Integer, BigDecimal> before, Map<Integer, BigDecimal> after, BigDecimal factor) {
+        for (Map.Entry<Integer, BigDecimal> e : before.entrySet()) {
+            BigDecimal old = e.getValue();
+            boolean inBand = old.compareTo(MIN) >= 0 && old.compareTo(MAX) <= 0;
+            BigDecimal expected = inBand ? old.multiply(factor).setScale(2, RoundingMode.HALF_UP) : old;
+            if (after.get(e.getKey()).compareTo(expected) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // what Salary Tools would preview for the fake's band right now
+    private static SalaryRaiseSimulator.Preview preview(FakeJobDAO dao, String percent) {
+        SalaryRaiseSimulator.Snapshot band = new SalaryRaiseSimulator.Snapshot(MIN, MAX, BigDecimal.ZERO);
+        for (Map.Entry<Integer, BigDecimal> e : dao.salaries.entrySet()) {
+            if (FakeJobDAO.inBand(e.getValue(), MIN, MAX)) {
+                band.add(e.getKey(), e.getValue(), null);
+            }
+        }
+        return band.preview(new BigDecimal(percent));
+    }
+
+    private static final class FakeJob {
+        final long jobId;
+        final BigDecimal min;
+        final BigDecimal max;
+        final BigDecimal percent;
+        String status;
+        int lastEmpid;
+        int rowsUpdated;
+        long idleSeconds;
+
+        FakeJob(long jobId, BigDecimal min, BigDecimal max, BigDecimal percent, String status, int lastEmpid,
+                long idleSeconds) {
+            this.jobId = jobId;
+            this.min = min;
+            this.max = max;
+            this.percent = percent;
+            this.status = status;
+            this.lastEmpid = lastEmpid;
+            this.idleSeconds = idleSeconds;
+        }
+
+        boolean isRaise(BigDecimal lo, BigDecimal hi, BigDecimal pct) {
+            return min.equals(lo) && max.equals(hi) && percent.equals(pct);
+        }
+    }
+
+    // salary_update_job and employees in memory, doing what SalaryUpdateJobDAO's SQL does
+    private static final class FakeJobDAO extends SalaryUpdateJobDAO {
+        final TreeMap<Integer, BigDecimal> salaries = new TreeMap<>();
+        final List<FakeJob> jobs = new ArrayList<>();
+        final List<Integer> chunkSizes = new ArrayList<>();
+        final Map<Integer, Integer> firstChunkAfter = new TreeMap<>();
+        final List<List<BigDecimal>> lookedUp = new ArrayList<>();
+        int failAtChunk = -1;
+        int stealAtChunk = -1;
+        int changeAtChunk = -1;
+        int changedEmpid;
+        boolean hideRunning;
+        private int chunks;
+
+        // employees 1..n; every third one earns 70,000, the rest are spread over the band
+        FakeJobDAO(int employees) {
+            super(null);
+            for (int empid = 1; empid <= employees; empid++) {
+                salaries.put(empid, empid % 3 == 0 ? new BigDecimal("70000.00")
+                        : BigDecimal.valueOf(5_000_000L + empid * 617L % 1_000_001L, 2));
+            }
+        }
+
+        @Override
+        public long start(BigDecimal min, BigDecimal max, BigDecimal percent) {
+            for (FakeJob job : jobs) {
+                if (job.status.equals("RUNNING") && job.isRaise(min, max, percent)) {
+                    return ALREADY_RUNNING;
+                }
+            }
+            FakeJob job = new FakeJob(jobs.size() + 100, min, max, percent, "RUNNING", 0, 0);
+            jobs.add(job);
+            return job.jobId;
+        }
+
+        @Override
+        public Job findUnfinished(BigDecimal min, BigDecimal max, BigDecimal percent, long resumeSeconds) {
+            lookedUp.add(List.of(min, max, percent));
+            for (int i = jobs.size() - 1; i >= 0; i--) {
+                FakeJob job = jobs.get(i);
+                boolean recent = job.status.equals("RUNNING")
+                        || (job.status.equals("FAILED") && job.idleSeconds < resumeSeconds);
+                if (recent && job.isRaise(min, max, percent)
+                        && !(hideRunning && job.status.equals("RUNNING"))) {
+                    return new Job(job.jobId, job.status, job.lastEmpid, job.rowsUpdated, job.idleSeconds);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean resume(long jobId, long staleSeconds) {
+            FakeJob job = job(jobId);
+            if (job == null || !(job.status.equals("FAILED")
+                    || (job.status.equals("RUNNING") && job.idleSeconds >= staleSeconds))) {
+                return false;
+            }
+            job.status = "RUNNING";
+            job.idleSeconds = 0;
+            return true;
+        }
+
+        @Override
+        public boolean expire(long jobId, long resumeSeconds) {
+            FakeJob job = job(jobId);
+            if (!job.status.equals("RUNNING") || job.idleSeconds < resumeSeconds) {
+                return false;
+            }
+            job.status = "FAILED";
+            return true;
+        }
+
+        @Override
+        public boolean finish(long jobId, boolean completed, String message) {
+            job(jobId).status = completed ? "COMPLETED" : "FAILED";
+            return true;
+        }
+
+        @Override
+        public int countRemaining(BigDecimal min, BigDecimal max, int afterEmpid) {
+            int n = 0;
+            for (Map.Entry<Integer, BigDecimal> e : salaries.tailMap(afterEmpid, false).entrySet()) {
+                n += inBand(e.getValue(), min, max) ? 1 : 0;
+            }
+            return n;
+        }
+
+        @Override
+        public Chunk applyChunk(long jobId, BigDecimal min, BigDecimal max, BigDecimal factor,
+                                int afterEmpid, int chunkSize) {
+            chunks++;
+            firstChunkAfter.putIfAbsent(chunks, afterEmpid);
+            if (chunks == failAtChunk) {
+                return null;
+            }
+            FakeJob job = job(jobId);
+            if (chunks == stealAtChunk) {
+                job.lastEmpid += 1;
+            }
+            if (!job.status.equals("RUNNING") || job.lastEmpid != afterEmpid) {
+                return new Chunk(JOB_TAKEN_OVER, 0);
+            }
+
+            List<Integer> chunk = new ArrayList<>();
+            for (Map.Entry<Integer, BigDecimal> e : salaries.tailMap(afterEmpid, false).entrySet()) {
+                if (inBand(e.getValue(), min, max)) {
+                    chunk.add(e.getKey());
+                    if (chunk.size() == chunkSize) {
+                        break;
+                    }
+                }
+            }
+            if (chunk.isEmpty()) {
+                return new Chunk(BAND_DONE, 0);
+            }
+            for (int empid : chunk) {
+                salaries.put(empid, salaries.get(empid).multiply(factor).setScale(2, RoundingMode.HALF_UP));
+            }
+            chunkSizes.add(chunk.size());
+            int lastEmpid = chunk.get(chunk.size() - 1);
+            job.lastEmpid = lastEmpid;
+            job.rowsUpdated += chunk.size();
+            return new Chunk(lastEmpid, chunk.size());
+        }
+
+        @Override
+        public int checkBand(BigDecimal min, BigDecimal max, int[] empids, BigDecimal[] oldSalaries) {
+            int i = 0;
+            for (Map.Entry<Integer, BigDecimal> e : salaries.entrySet()) {
+                if (inBand(e.getValue(), min, max)) {
+                    if (i >= empids.length || e.getKey() != empids[i] || e.getValue().compareTo(oldSalaries[i]) != 0) {
+                        return BAND_CHANGED;
+                    }
+                    i++;
+                }
+            }
+            return i == empids.length ? 0 : BAND_CHANGED;
+        }
+
+        @Override
+        public Chunk applyChanges(long jobId, int afterEmpid, int[] empids, BigDecimal[] oldSalaries,
+                                  BigDecimal[] newSalaries, int from, int to) {
+            chunks++;
+            FakeJob job = job(jobId);
+            if (!job.status.equals("RUNNING") || job.lastEmpid != afterEmpid) {
+                return new Chunk(JOB_TAKEN_OVER, 0);
+            }
+            if (chunks == changeAtChunk) {
+                // someone else edits one of the chunk's employees first
+                changedEmpid = empids[from];
+                salaries.put(changedEmpid, salaries.get(changedEmpid).add(new BigDecimal("0.01")));
+            }
+            for (int i = from; i < to; i++) {
+                if (salaries.get(empids[i]).compareTo(oldSalaries[i]) != 0) {
+                    return new Chunk(CHUNK_CHANGED, 0);
+                }
+            }
+            for (int i = from; i < to; i++) {
+                salaries.put(empids[i], newSalaries[i]);
+            }
+            chunkSizes.add(to - from);
+            job.lastEmpid = empids[to - 1];
+            job.rowsUpdated += to - from;
+            return new Chunk(empids[to - 1], to - from);
+        }
+
+        private FakeJob job(long jobId) {
+            for (FakeJob job : jobs) {
+                if (job.jobId == jobId) {
+                    return job;
+                }
+            }
+            return null;
+        }
+
+        private static boolean inBand(BigDecimal salary, BigDecimal min, BigDecimal max) {
+            return salary.compareTo(min) >= 0 && salary.compareTo(max) <= 0;
+        }
+    }
+
+    private static void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("   ✅ " + name);
+        } else {
+            failed++;
+            System.out.println("   ❌ " + name);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import com.employeemgmt.services.SalaryRaiseSimulator.DivisionDiff;
+import com.employeemgmt.services.SalaryRaiseSimulator.Preview;
+import com.employeemgmt.services.SalaryRaiseSimulator.Snapshot;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Salary Raise Simulator Test - runs without a database
+ * Fills a snapshot by hand (as EmployeeDAO.streamSalaryBand would) and checks
+ * the preview against a plain BigDecimal calculation, per employee and per division.
+ */
+public class SalaryRaiseSimulatorTest {
+
+    private static final String[] DIVISIONS = {"Engineering", "Sales", "HR", "Finance", null};
+
+    private static int passed = 0;
+    private static int failed = 0;
+
+    public static void main(String[] args) {
+        System.out.println("📈 Testing Salary Raise Simulator...\n");
+
+        Snapshot small = new Snapshot(new BigDecimal("50000"), new BigDecimal("60000"), new BigDecimal("1000000.00"));
+        small.add(1, new BigDecimal("50000.00"), "Sales");
+        small.add(2, new BigDecimal("55555.55"), "Sales");
+        small.add(3, new BigDecimal("60000"), null);
+
+        Preview p = small.preview(new BigDecimal("3.5"));
+        // 55555.55 * 1.035 = 57499.994.. -> 57499.99
+        check("new salaries rounded HALF_UP to cents", p.getNewSalary(0).equals(new BigDecimal("51750.00"))
+                && p.getNewSalary(1).equals(new BigDecimal("57499.99"))
+                && p.getNewSalary(2).equals(new BigDecimal("62100.00")));
+        check("affected set in empid order", p.getAffectedCount() == 3 && p.getEmpid(0) == 1 && p.getEmpid(2) == 3);
+        check("company total moves by the band's increase", p.getIncrease().equals(new BigDecimal("5794.44"))
+                && p.getCompanyTotalAfter().equals(new BigDecimal("1005794.44")));
+        DivisionDiff top = p.getByDivision().get(0);
+        check("per division, largest change first", p.getByDivision().size() == 2
+                && top.getDivision().equals("Sales") && top.getEmployeeCount() == 2
+                && top.getDelta().equals(new BigDecimal("3694.44")));
+        check("snapshot untouched by a preview", small.preview(BigDecimal.ZERO).getIncrease().signum() == 0);
+        check("cuts work", small.preview(new BigDecimal("-10")).getNewSalary(0).equals(new BigDecimal("45000.00")));
+        check("bad percentages rejected", rejects(small, "-100") && rejects(small, "1.0000001"));
+
+        // 100k employees, random percentages vs BigDecimal
+        Random rnd = new Random(47);
+        int n = 100_000;
+        BigDecimal[] salaries = new BigDecimal[n];
+        String[] division = new String[n];
+        Snapshot big = new Snapshot(BigDecimal.ZERO, new BigDecimal("999999999"), new BigDecimal("9999999999.99"));
+        for (int i = 0; i < n; i++) {
+            salaries[i] = BigDecimal.valueOf(2_000_000L + (long) (rnd.nextDouble() * 48_000_000L), 2);
+            division[i] = DIVISIONS[rnd.nextInt(DIVISIONS.length)];
+            big.add(i + 1, salaries[i], division[i]);
+        }
+
+        long mismatches = 0;
+        for (int round = 0; round < 20; round++) {
+            BigDecimal percent = BigDecimal.valueOf(rnd.nextInt(20_000_000) - 5_000_000, 6); // -5% .. +15%
+            Preview q = big.preview(percent);
+            Map<String, BigDecimal> byDivision = new HashMap<>();
+            BigDecimal factor = BigDecimal.ONE.add(percent.movePointLeft(2));
+            for (int i = 0; i < n; i++) {
+                BigDecimal expected = salaries[i].multiply(factor).setScale(2, RoundingMode.HALF_UP);
+                if (!q.getNewSalary(i).equals(expected)) mismatches++;
+                byDivision.merge(division[i] == null ? "(none)" : division[i],
+                        expected.subtract(salaries[i]), BigDecimal::add);
+            }
+            for (DivisionDiff d : q.getByDivision()) {
+                if (d.getDelta().compareTo(byDivision.get(d.getDivision())) != 0) mismatches++;
+            }
+        }
+        check("100k employees x 20 percentages match BigDecimal", mismatches == 0);
+
+        for (int i = 0; i < 20; i++) big.preview(new BigDecimal("2.5")); // warm up
+        long began = System.nanoTime();
+        Preview timed = big.preview(new BigDecimal("4.25"));
+        long ms = (System.nanoTime() - began) / 1_000_000;
+        check("100k-employee preview in " + ms + "ms", ms < 50);
+        System.out.print(timed.summary().replaceAll("(?m)^", "      "));
+
+        System.out.println("\n📊 Salary raise simulator tests passed: " + passed + "/" + (passed + failed));
+        if (failed > 0) {
+            System.out.println("⚠️  Some salary raise simulator tests failed");
+        }
+    }
+
+    private static boolean rejects(Snapshot s, String percent) {
+        try {
+            s.preview(new BigDecimal(percent));
+            return false;
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private static void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("   ✅ " + name);
+        } else {
+            failed++;
+            System.out.println("   ❌ " + name);
+        }
+    }
+}
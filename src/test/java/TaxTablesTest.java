@@ -0,0 +1,160 @@
+import com.employeemgmt.models.Payroll;
+import com.employeemgmt.services.PayrollCentsKernel;
+import com.employeemgmt.services.PayrollCentsKernel.Statement;
+import com.employeemgmt.services.PayrollDeductions;
+import com.employeemgmt.services.TaxTable;
+import com.employeemgmt.services.TaxTables;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Tax Tables Test - runs without a database
+ * Loads the shipped bracket file, checks lookups against a plain BigDecimal
+ * bracket walk, and checks the cents kernel still matches the BigDecimal rules
+ * when income tax comes from the tables.
+ */
+public class TaxTablesTest {
+
+    private static final String[] JURISDICTIONS = {"US", "CA", "GA", "NC", "TX"};
+    private static final int[] PERIODS = {12, 24, 26, 52};
+
+    private static int passed = 0;
+    private static int failed = 0;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("🧾 Testing Tax Tables...\n");
+
+        TaxTables tables = TaxTables.getInstance();
+        check("bracket file loads with a version", tables.getJurisdictionCount() >= 5
+                && !tables.getVersion().equals("none"));
+
+        // 5,000/month in 2025: 60,000 - 15,750 = 44,250 taxable
+        // 1,192.50 + (44,250 - 11,925) * 12% = 5,071.50 a year -> 422.625 -> 422.63 a month
+        TaxTable us2025 = tables.table("US", 2025);
+        check("federal withholding example", us2025.withholdingCents(500_000, 12) == 42_263);
+        check("below the standard deduction pays nothing", us2025.withholdingCents(100_000, 12) == 0);
+        check("no-income-tax state", tables.table("TX", 2025).withholdingCents(900_000, 12) == 0);
+
+        check("newest earlier year is used", tables.table("GA", 2031).getYear() == 2025
+                && tables.table("US", 2024).getYear() == 2024);
+        check("nothing before the first year / unknown state", tables.table("US", 2019) == null
+                && tables.table("ZZ", 2025) == null && tables.table(null, 2025) == null);
+
+        // every table, random incomes and every bracket edge, vs a BigDecimal walk
+        Random rnd = new Random(7);
+        long mismatches = 0;
+        int checked = 0;
+        for (String j : JURISDICTIONS) {
+            for (int year = 2024; year <= 2026; year++) {
+                TaxTable t = tables.table(j, year);
+                for (int b = 0; b < t.getBracketCount(); b++) {
+                    long edge = t.getFloorCents(b);
+                    for (long d = -1; d <= 1; d++) {
+                        if (edge + d > 0 && t.annualTaxCents(edge + d) != referenceTax(t, edge + d)) mismatches++;
+                        checked++;
+                    }
+                }
+                for (int i = 0; i < 200_000; i++) {
+                    long income = (long) (Math.pow(rnd.nextDouble(), 3) * 500_000_000L); // mostly under $1M
+                    if (t.annualTaxCents(income) != referenceTax(t, income)) mismatches++;
+                    checked++;
+                }
+            }
+        }
+        check(checked + " lookups match the BigDecimal bracket walk", mismatches == 0);
+
+        long huge = 9_000_000_000_000_000L;
+        check("huge incomes don't overflow", us2025.annualTaxCents(huge) == referenceTax(us2025, huge));
+
+        // cents kernel + tables == BigDecimal rules + tables
+        mismatches = 0;
+        for (int i = 0; i < 300_000; i++) {
+            PayrollDeductions rules = new PayrollDeductions(PERIODS[i % PERIODS.length],
+                    new BigDecimal("0.12"), new BigDecimal("0.05"), new BigDecimal("0.062"),
+                    new BigDecimal("0.0145"), new BigDecimal("0.04"), new BigDecimal("150"), tables);
+            PayrollCentsKernel kernel = PayrollCentsKernel.compile(rules);
+            LocalDate payDate = LocalDate.of(2024 + rnd.nextInt(3), 1 + rnd.nextInt(12), 1);
+            String state = rnd.nextInt(6) == 0 ? null : JURISDICTIONS[1 + rnd.nextInt(4)];
+            BigDecimal salary = BigDecimal.valueOf(1_000_000L + (long) (rnd.nextDouble() * 99_000_000L), 2);
+
+            Payroll p = rules.statementFor(1, payDate, salary, state);
+            Statement s = new Statement();
+            int year = payDate.getYear();
+            kernel.compute(PayrollCentsKernel.centsOf(salary), rules.federalTable(year), rules.stateTable(state, year), s);
+            if (!p.getFederalTax().equals(money(s.getFederal())) || !p.getStateTax().equals(money(s.getState()))
+                    || !p.getNetPay().equals(money(s.getNet()))) {
+                mismatches++;
+            }
+        }
+        check("kernel and BigDecimal rules agree with brackets", mismatches == 0);
+
+        // lookup cost
+        TaxTable ca = tables.table("CA", 2024);
+        long sink = 0;
+        for (int i = 0; i < 2_000_000; i++) sink += ca.withholdingCents(100_000 + (i & 0xFFFFF), 26); // warm up
+        long began = System.nanoTime();
+        int calls = 10_000_000;
+        for (int i = 0; i < calls; i++) {
+            sink += ca.withholdingCents(100_000 + (i & 0xFFFFF), 26);
+        }
+        double ns = (System.nanoTime() - began) / (double) calls;
+        check(String.format("withholding lookup %.1f ns (checksum %d)", ns, sink & 0xff), ns < 1_000);
+
+        // bad files fail with the line number
+        check("rate with 7 decimals rejected", rejects("version,t\nUS,2025,bracket,0,0.1234567\n", "line 2"));
+        check("brackets must start at 0", rejects("US,2025,bracket,100,0.10\n", "line 1: US 2025: brackets must start at 0"));
+        check("duplicate floor names both lines", rejects("version,t\nUS,2025,bracket,0,0.10\n# note\n"
+                + "US,2025,bracket,1000,0.12\nUS,2025,bracket,1000,0.22\n", "line 5: US 2025 has a second bracket at the same floor (first on line 4)"));
+        check("second standard deduction rejected", rejects("US,2025,standard_deduction,100\nUS,2025,bracket,0,0.1\n"
+                + "US,2025,standard_deduction,200\n", "line 3: second standard deduction for US 2025 (first on line 1)"));
+        check("deduction without brackets names its line", rejects("US,2025,bracket,0,0.1\n\nGA,2025,standard_deduction,50\n",
+                "line 3: GA has a standard deduction"));
+        check("rate above 1 rejected on its line", rejects("US,2025,bracket,0,0.1\nUS,2025,bracket,500,1.5\n", "line 2: rate"));
+
+        System.out.println("\n📊 Tax table tests passed: " + passed + "/" + (passed + failed));
+        if (failed > 0) {
+            System.out.println("⚠️  Some tax table tests failed");
+        }
+    }
+
+    // straightforward bracket-by-bracket sum in BigDecimal
+    private static long referenceTax(TaxTable t, long taxableCents) {
+        BigDecimal tax = BigDecimal.ZERO;
+        for (int b = 0; b < t.getBracketCount(); b++) {
+            long from = t.getFloorCents(b);
+            if (taxableCents <= from) break;
+            long to = b + 1 < t.getBracketCount() ? Math.min(taxableCents, t.getFloorCents(b + 1)) : taxableCents;
+            tax = tax.add(BigDecimal.valueOf(to - from).multiply(BigDecimal.valueOf(t.getRateMillionths(b), 6)));
+        }
+        return tax.setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static boolean rejects(String file, String expected) {
+        try {
+            TaxTables.parse(new StringReader(file));
+            return false;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage().contains(expected);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void check(String name, boolean ok) {
+        if (ok) {
+            passed++;
+            System.out.println("   ✅ " + name);
+        } else {
+            failed++;
+            System.out.println("   ❌ " + name);
+        }
+    }
+}
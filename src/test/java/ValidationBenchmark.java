@@ -0,0 +1,121 @@
+import com.employeemgmt.utils.BulkValidator;
+import com.employeemgmt.utils.SecurityUtils;
+import com.employeemgmt.utils.ValidationUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Validation Benchmark - runs without a database
+ * Times the regex validation path (ValidationUtils + SecurityUtils) against the
+ * single-pass BulkValidator on the same generated import rows.
+ *
+ * Usage: java ValidationBenchmark [rows]   (default 200000)
+ */
+public class ValidationBenchmark {
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        System.out.println("⏱️  Validation benchmark, " + rows + " rows x " + MEASURED_ROUNDS + " rounds\n");
+
+        Row[] data = generate(rows, new Random(7));
+
+        // warm up both paths so the JIT has compiled them
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            regexPath(data);
+            bulkPath(data);
+        }
+
+        long regexNanos = 0, bulkNanos = 0;
+        int regexValid = 0, bulkValid = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long t0 = System.nanoTime();
+            regexValid = regexPath(data);
+            long t1 = System.nanoTime();
+            bulkValid = bulkPath(data);
+            long t2 = System.nanoTime();
+            regexNanos += t1 - t0;
+            bulkNanos += t2 - t1;
+        }
+
+        double regexPerRow = (double) regexNanos / MEASURED_ROUNDS / rows;
+        double bulkPerRow = (double) bulkNanos / MEASURED_ROUNDS / rows;
+
+        System.out.printf("   regex path : %8.1f ns/row  (%d valid)%n", regexPerRow, regexValid);
+        System.out.printf("   single-pass: %8.1f ns/row  (%d valid)%n", bulkPerRow, bulkValid);
+        System.out.printf("   speedup    : %8.1fx%n", regexPerRow / bulkPerRow);
+        System.out.println(regexValid == bulkValid ? "\n✅ Both paths accepted the same rows"
+                                                   : "\n❌ Paths disagree on valid rows");
+    }
+
+    // what a bulk import did before: ValidationUtils for the employee, SecurityUtils for the account
+    private static int regexPath(Row[] data) {
+        int valid = 0;
+        for (Row r : data) {
+            boolean ok = ValidationUtils.validateEmployeeData(r.first, r.last, r.email, r.ssn,
+                    r.dob, r.hire, r.salary).isValid()
+                    && ValidationUtils.isValidPhoneNumber(r.phone)
+                    && SecurityUtils.validateUsername(r.username).isValid()
+                    && SecurityUtils.validatePasswordStrength(r.password).isValid();
+            if (ok) valid++;
+        }
+        return valid;
+    }
+
+    private static int bulkPath(Row[] data) {
+        BulkValidator validator = new BulkValidator();
+        BulkValidator.Result result = new BulkValidator.Result();
+        int valid = 0;
+        for (Row r : data) {
+            boolean ok = validator.validateEmployee(r.first, r.last, r.email, r.ssn,
+                    r.dob, r.hire, r.salary, result).isValid()
+                    && BulkValidator.isValidPhoneNumber(r.phone)
+                    && BulkValidator.isValidUsername(r.username)
+                    && BulkValidator.passwordProblems(r.password) == 0;
+            if (ok) valid++;
+        }
+        return valid;
+    }
+
+    private static class Row {
+        String first, last, email, ssn, phone, username, password;
+        LocalDate dob, hire;
+        BigDecimal salary;
+    }
+
+    // mostly good rows, about 1 in 10 with a broken field
+    private static Row[] generate(int n, Random rnd) {
+        String[] firsts = { "John", "Mary-Jane", "O'Neil", "Sarah", "Li" };
+        String[] lasts = { "Smith", "Doe", "Johnson", "Van Buren", "Wilson" };
+        LocalDate today = LocalDate.now();
+
+        Row[] rows = new Row[n];
+        for (int i = 0; i < n; i++) {
+            Row r = new Row();
+            r.first = firsts[rnd.nextInt(firsts.length)];
+            r.last = lasts[rnd.nextInt(lasts.length)];
+            r.email = r.first.toLowerCase().replace("'", "") + "." + i + "@company.com";
+            r.ssn = String.format("%03d-%02d-%04d", rnd.nextInt(1000), rnd.nextInt(100), rnd.nextInt(10000));
+            r.phone = "(555) " + (100 + rnd.nextInt(900)) + "-" + (1000 + rnd.nextInt(9000));
+            r.username = "user" + i;
+            r.password = "Welcome#" + (1000 + rnd.nextInt(9000)) + "a";
+            r.dob = today.minusYears(20 + rnd.nextInt(40)).minusDays(rnd.nextInt(365));
+            r.hire = today.minusDays(rnd.nextInt(3000));
+            r.salary = BigDecimal.valueOf(40_000 + rnd.nextInt(100_000));
+
+            switch (rnd.nextInt(40)) {
+                case 0: r.email = "not-an-email"; break;
+                case 1: r.ssn = "123456789"; break;
+                case 2: r.password = "weakpass"; break;
+                case 3: r.first = "J0hn"; break;
+                default: break;
+            }
+            rows[i] = r;
+        }
+        return rows;
+    }
+}